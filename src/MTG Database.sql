@@ -8,7 +8,9 @@ CREATE TABLE player (
     last_name VARCHAR(50) NOT NULL,
     city_address VARCHAR(100),
     age INT,
-    UNIQUE (first_name, last_name)
+    row_version BIGINT NOT NULL DEFAULT 0,
+    UNIQUE (first_name, last_name),
+    INDEX idx_player_row_version (row_version)
 );
 
 -- Card Record Management
@@ -22,7 +24,9 @@ CREATE TABLE card (
     card_toughness VARCHAR(10),
     card_text TEXT,
     card_edition VARCHAR(50),
-    card_status ENUM('Legal', 'Banned', 'Game Changer') DEFAULT 'Legal'
+    card_status ENUM('Legal', 'Banned', 'Game Changer') DEFAULT 'Legal',
+    row_version BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_card_row_version (row_version)
 );
 
 -- Deck Details Management
@@ -32,8 +36,18 @@ CREATE TABLE deck (
     player_id INT NOT NULL,
     commander_card_id INT,
     bracket_info VARCHAR(50),
+    computed_bracket TINYINT,
     validity ENUM('Valid', 'Invalid') DEFAULT 'Valid',
     description TEXT,
+    mana_base VARCHAR(100),
+    salt_score DECIMAL(4,2),
+    stats_summary VARBINARY(64),
+    minhash VARBINARY(256),
+    content_hash BIGINT,
+    avg_cmc DECIMAL(4,2),
+    land_count INT,
+    row_version BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_deck_row_version (row_version),
     FOREIGN KEY (player_id) REFERENCES player(player_id)
         ON DELETE CASCADE
         ON UPDATE CASCADE,
@@ -51,7 +65,9 @@ CREATE TABLE deck_cards (
     is_commander BOOLEAN DEFAULT FALSE,
     is_game_changer BOOLEAN DEFAULT FALSE,
     card_status ENUM('In Deck', 'Out of Deck') DEFAULT 'In Deck',
+    row_version BIGINT NOT NULL DEFAULT 0,
     PRIMARY KEY (deck_id, card_id),
+    INDEX idx_deck_cards_row_version (row_version),
     FOREIGN KEY (deck_id) REFERENCES deck(deck_id)
         ON DELETE CASCADE
         ON UPDATE CASCADE,
@@ -78,6 +94,115 @@ CREATE TABLE borrow_request (
         ON UPDATE CASCADE
 );
 
+-- Change Tracking (row versions and delete tombstones for delta sync)
+CREATE TABLE change_sequence (
+    sequence_name VARCHAR(50) PRIMARY KEY,
+    current_value BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO change_sequence (sequence_name, current_value) VALUES ('row_version', 0);
+
+CREATE TABLE change_tombstone (
+    entity_type VARCHAR(20) NOT NULL,
+    entity_key VARCHAR(50) NOT NULL,
+    row_version BIGINT NOT NULL,
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (entity_type, entity_key),
+    INDEX idx_tombstone_version (entity_type, row_version)
+);
+
+-- Append-only deck history: every change to a deck's contents as a varint-packed delta,
+-- with a full snapshot every few versions so materializing one stays bounded
+CREATE TABLE deck_version (
+    deck_id INT NOT NULL,
+    version_no INT NOT NULL,
+    row_version BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    is_snapshot BOOLEAN NOT NULL,
+    commander_card_id INT,
+    payload BLOB NOT NULL,
+    PRIMARY KEY (deck_id, version_no),
+    INDEX idx_deck_version_created (deck_id, created_at),
+    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+CREATE TABLE store_event (
+    event_id INT AUTO_INCREMENT PRIMARY KEY,
+    event_name VARCHAR(100) NOT NULL,
+    event_date DATE NOT NULL
+);
+
+CREATE TABLE event_round (
+    event_id INT NOT NULL,
+    round_no INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (event_id, round_no),
+    FOREIGN KEY (event_id) REFERENCES store_event(event_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+CREATE TABLE event_seat (
+    event_id INT NOT NULL,
+    round_no INT NOT NULL,
+    pod_no INT NOT NULL,
+    player_id INT NOT NULL,
+    deck_id INT,
+    bracket TINYINT NOT NULL,
+    result ENUM('Win', 'Loss', 'Draw'),
+    PRIMARY KEY (event_id, round_no, player_id),
+    INDEX idx_event_seat_pod (event_id, round_no, pod_no),
+    FOREIGN KEY (event_id, round_no) REFERENCES event_round(event_id, round_no)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    FOREIGN KEY (player_id) REFERENCES player(player_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)
+        ON DELETE SET NULL
+        ON UPDATE CASCADE
+);
+
+CREATE TABLE game (
+    game_id VARCHAR(36) PRIMARY KEY,
+    played_at TIMESTAMP NOT NULL,
+    logged_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL
+);
+
+CREATE TABLE game_participant (
+    game_id VARCHAR(36) NOT NULL,
+    player_id INT NOT NULL,
+    deck_id INT,
+    is_winner BOOLEAN NOT NULL DEFAULT FALSE,
+    borrow_code INT,
+    PRIMARY KEY (game_id, player_id),
+    INDEX idx_game_participant_deck (deck_id),
+    FOREIGN KEY (game_id) REFERENCES game(game_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    FOREIGN KEY (player_id) REFERENCES player(player_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE,
+    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)
+        ON DELETE SET NULL
+        ON UPDATE CASCADE,
+    FOREIGN KEY (borrow_code) REFERENCES borrow_request(borrow_code)
+        ON DELETE SET NULL
+        ON UPDATE CASCADE
+);
+
+CREATE TABLE deck_game_stats (
+    deck_id INT PRIMARY KEY,
+    games_played INT NOT NULL DEFAULT 0,
+    games_won INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
 -- Card Usage Frequency Report
 CREATE VIEW card_usage_frequency AS
 SELECT 
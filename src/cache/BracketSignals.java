@@ -0,0 +1,109 @@
+package cache;
+
+import entity.CardSummary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Card lists that push a deck into a higher bracket, each held as a bitset of card ids.
+ *
+ * The data file has one card per line: the signal name, whitespace, then the card name
+ * ("tutor Demonic Tutor", "extra-turn Time Warp", "land-denial Armageddon"). Blank lines
+ * and lines starting with '#' are skipped. Names are matched like SaltWeights does, so
+ * every printing of a listed card is flagged.
+ */
+public final class BracketSignals {
+
+    public enum Signal {
+        TUTOR("tutor"),
+        LAND_DENIAL("land-denial"),
+        EXTRA_TURN("extra-turn");
+
+        private final String fileName;
+
+        Signal(String fileName) {
+            this.fileName = fileName;
+        }
+
+        static Signal fromFileName(String name) {
+            for (Signal signal : values()) {
+                if (signal.fileName.equalsIgnoreCase(name)) {
+                    return signal;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final BracketSignals EMPTY = new BracketSignals(new EnumMap<>(Signal.class));
+
+    private final Map<Signal, BitSet> cards;
+
+    private BracketSignals(Map<Signal, BitSet> cards) {
+        this.cards = cards;
+    }
+
+    /**
+     * Reads a signal file and resolves its names against the catalog.
+     */
+    public static BracketSignals load(Path file, Iterable<CardSummary> catalog) throws IOException {
+        Map<String, Signal> byName = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 2);
+                Signal signal = Signal.fromFileName(parts[0]);
+                if (parts.length < 2 || signal == null) {
+                    throw new IOException("Line " + lineNumber + ": expected \"<tutor|land-denial|extra-turn> <card name>\"");
+                }
+                byName.put(CardNameIndex.normalize(parts[1]), signal);
+            }
+        }
+
+        Map<Signal, BitSet> cards = new EnumMap<>(Signal.class);
+        for (Signal signal : Signal.values()) {
+            cards.put(signal, new BitSet());
+        }
+        for (CardSummary card : catalog) {
+            if (card.getName() == null) {
+                continue;
+            }
+            Signal signal = byName.get(CardNameIndex.normalize(card.getName()));
+            int split = card.getName().indexOf("//");
+            if (signal == null && split > 0) {
+                signal = byName.get(CardNameIndex.normalize(card.getName().substring(0, split)));
+            }
+            if (signal != null) {
+                cards.get(signal).set(card.getId());
+            }
+        }
+        return new BracketSignals(cards);
+    }
+
+    public boolean has(Signal signal, int cardId) {
+        BitSet ids = cards.get(signal);
+        return ids != null && cardId >= 0 && ids.get(cardId);
+    }
+
+    /**
+     * Number of catalog cards flagged with the signal.
+     */
+    public int size(Signal signal) {
+        BitSet ids = cards.get(signal);
+        return ids != null ? ids.cardinality() : 0;
+    }
+}
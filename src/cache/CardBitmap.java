@@ -0,0 +1,373 @@
+package cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable compressed set of card ids, laid out like a Roaring bitmap.
+ *
+ * Ids are split on their high 16 bits into containers. A container with at most
+ * ARRAY_LIMIT ids keeps them as a sorted char array, and a denser one keeps a 65536-bit
+ * word array. A 100-card deck is one array container of 200 bytes. Set operations work
+ * container by container: merges for arrays, word-wise AND/OR for bitmaps, and probes when
+ * the two sides differ.
+ */
+public final class CardBitmap {
+
+    public static final CardBitmap EMPTY = new CardBitmap(new char[0], new Container[0]);
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private CardBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    public static CardBitmap of(Collection<Integer> ids) {
+        int[] sorted = new int[ids.size()];
+        int n = 0;
+        for (int id : ids) {
+            sorted[n++] = id;
+        }
+        return of(sorted);
+    }
+
+    /**
+     * Bitmap of the given non-negative ids, in any order and with repeats allowed.
+     */
+    public static CardBitmap of(int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        List<Character> keys = new ArrayList<>();
+        List<Container> containers = new ArrayList<>();
+        int i = 0;
+        while (i < sorted.length) {
+            if (sorted[i] < 0) {
+                i++;
+                continue;
+            }
+            int key = sorted[i] >>> 16;
+            char[] values = new char[0];
+            int size = 0;
+            while (i < sorted.length && sorted[i] >>> 16 == key) {
+                char low = (char) sorted[i++];
+                if (size == 0 || values[size - 1] != low) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, Math.max(4, size * 2));
+                    }
+                    values[size++] = low;
+                }
+            }
+            keys.add((char) key);
+            containers.add(size <= ARRAY_LIMIT ? new Container(Arrays.copyOf(values, size)) : Container.ofWords(toWords(values, size)));
+        }
+        return build(keys, containers);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (Container container : containers) {
+            total += container.cardinality;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return containers.length == 0;
+    }
+
+    public boolean contains(int id) {
+        int k = id < 0 ? -1 : Arrays.binarySearch(keys, (char) (id >>> 16));
+        return k >= 0 && containers[k].contains((char) id);
+    }
+
+    public int[] toArray() {
+        int[] ids = new int[cardinality()];
+        int n = 0;
+        for (int k = 0; k < keys.length; k++) {
+            int high = keys[k] << 16;
+            Container container = containers[k];
+            if (container.values != null) {
+                for (char low : container.values) {
+                    ids[n++] = high | low;
+                }
+            } else {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = container.words[w];
+                    while (word != 0) {
+                        ids[n++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    public CardBitmap and(CardBitmap other) {
+        List<Character> keys = new ArrayList<>();
+        List<Container> containers = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length && j < other.keys.length) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = this.containers[i].and(other.containers[j]);
+                if (container.cardinality > 0) {
+                    keys.add(this.keys[i]);
+                    containers.add(container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return build(keys, containers);
+    }
+
+    /**
+     * Size of the intersection, without building it.
+     */
+    public int andCardinality(CardBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length && j < other.keys.length) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += this.containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    public CardBitmap or(CardBitmap other) {
+        List<Character> keys = new ArrayList<>();
+        List<Container> containers = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < this.keys.length && this.keys[i] < other.keys[j])) {
+                keys.add(this.keys[i]);
+                containers.add(this.containers[i++]);
+            } else if (i == this.keys.length || this.keys[i] > other.keys[j]) {
+                keys.add(other.keys[j]);
+                containers.add(other.containers[j++]);
+            } else {
+                keys.add(this.keys[i]);
+                containers.add(this.containers[i++].or(other.containers[j++]));
+            }
+        }
+        return build(keys, containers);
+    }
+
+    /**
+     * The ids in this bitmap that are not in the other.
+     */
+    public CardBitmap andNot(CardBitmap other) {
+        List<Character> keys = new ArrayList<>();
+        List<Container> containers = new ArrayList<>();
+        int j = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < this.keys[i]) {
+                j++;
+            }
+            Container container = j < other.keys.length && other.keys[j] == this.keys[i]
+                    ? this.containers[i].andNot(other.containers[j])
+                    : this.containers[i];
+            if (container.cardinality > 0) {
+                keys.add(this.keys[i]);
+                containers.add(container);
+            }
+        }
+        return build(keys, containers);
+    }
+
+    private static CardBitmap build(List<Character> keys, List<Container> containers) {
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+        char[] keyArray = new char[keys.size()];
+        for (int k = 0; k < keyArray.length; k++) {
+            keyArray[k] = keys.get(k);
+        }
+        return new CardBitmap(keyArray, containers.toArray(new Container[0]));
+    }
+
+    private static long[] toWords(char[] values, int size) {
+        long[] words = new long[WORDS];
+        for (int i = 0; i < size; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+        return words;
+    }
+
+    // The low 16 bits of one key's ids: a sorted array (values) or a bitmap (words)
+    private static final class Container {
+        final char[] values;
+        final long[] words;
+        final int cardinality;
+
+        Container(char[] values) {
+            this.values = values;
+            this.words = null;
+            this.cardinality = values.length;
+        }
+
+        private Container(long[] words, int cardinality) {
+            this.values = null;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        // Bitmaps that have become sparse go back to arrays
+        static Container ofWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality > ARRAY_LIMIT) {
+                return new Container(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new Container(values);
+        }
+
+        boolean contains(char low) {
+            return values != null
+                    ? Arrays.binarySearch(values, low) >= 0
+                    : (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        Container and(Container other) {
+            if (values != null && other.values != null) {
+                char[] out = new char[Math.min(cardinality, other.cardinality)];
+                int n = 0;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < other.values.length) {
+                    if (values[i] < other.values[j]) {
+                        i++;
+                    } else if (values[i] > other.values[j]) {
+                        j++;
+                    } else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return new Container(Arrays.copyOf(out, n));
+            }
+            if (values != null || other.values != null) {
+                Container array = values != null ? this : other;
+                Container bitmap = values != null ? other : this;
+                char[] out = new char[array.cardinality];
+                int n = 0;
+                for (char low : array.values) {
+                    if (bitmap.contains(low)) {
+                        out[n++] = low;
+                    }
+                }
+                return new Container(Arrays.copyOf(out, n));
+            }
+            long[] out = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                out[w] = words[w] & other.words[w];
+            }
+            return ofWords(out);
+        }
+
+        int andCardinality(Container other) {
+            if (words != null && other.words != null) {
+                int total = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    total += Long.bitCount(words[w] & other.words[w]);
+                }
+                return total;
+            }
+            return and(other).cardinality;
+        }
+
+        Container or(Container other) {
+            if (values != null && other.values != null && cardinality + other.cardinality <= ARRAY_LIMIT) {
+                char[] out = new char[cardinality + other.cardinality];
+                int n = 0;
+                int i = 0;
+                int j = 0;
+                while (i < values.length || j < other.values.length) {
+                    char next;
+                    if (j == other.values.length || (i < values.length && values[i] < other.values[j])) {
+                        next = values[i++];
+                    } else if (i == values.length || values[i] > other.values[j]) {
+                        next = other.values[j++];
+                    } else {
+                        next = values[i++];
+                        j++;
+                    }
+                    out[n++] = next;
+                }
+                return new Container(Arrays.copyOf(out, n));
+            }
+            long[] out = toWords();
+            if (other.values != null) {
+                for (char low : other.values) {
+                    out[low >>> 6] |= 1L << low;
+                }
+            } else {
+                for (int w = 0; w < WORDS; w++) {
+                    out[w] |= other.words[w];
+                }
+            }
+            return ofWords(out);
+        }
+
+        Container andNot(Container other) {
+            if (values != null) {
+                char[] out = new char[cardinality];
+                int n = 0;
+                for (char low : values) {
+                    if (!other.contains(low)) {
+                        out[n++] = low;
+                    }
+                }
+                return new Container(Arrays.copyOf(out, n));
+            }
+            long[] out = words.clone();
+            if (other.values != null) {
+                for (char low : other.values) {
+                    out[low >>> 6] &= ~(1L << low);
+                }
+            } else {
+                for (int w = 0; w < WORDS; w++) {
+                    out[w] &= ~other.words[w];
+                }
+            }
+            return ofWords(out);
+        }
+
+        private long[] toWords() {
+            return values != null ? CardBitmap.toWords(values, values.length) : words.clone();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cache;
+
+import entity.Record;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Small LRU cache of full card rows (including card_text), filled on demand when a card is
+ * opened in a form. Neighbouring rows can be prefetched in the background so keyboard
+ * navigation through a list finds them already loaded.
+ */
+public class CardDetailCache {
+
+    /**
+     * Loads one card's full details; returns null if the card does not exist.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Record load(int cardId) throws SQLException;
+    }
+
+    private final int capacity;
+    private final Loader loader;
+    private final Map<Integer, Record> entries;
+    private long generation; // bumped on invalidation so in-flight loads don't re-insert stale rows
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "card-detail-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CardDetailCache(int capacity, Loader loader) {
+        this.capacity = capacity;
+        this.loader = loader;
+        this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Record> eldest) {
+                return size() > CardDetailCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached details for a card, loading them if necessary.
+     */
+    public Record get(int cardId) throws SQLException {
+        long loadGeneration;
+        synchronized (entries) {
+            Record cached = entries.get(cardId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        Record loaded = loader.load(cardId);
+        if (loaded != null) {
+            synchronized (entries) {
+                if (loadGeneration == generation) {
+                    entries.put(cardId, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads the given cards in the background if they are not cached yet.
+     */
+    public void prefetch(int... cardIds) {
+        for (int cardId : cardIds) {
+            synchronized (entries) {
+                if (entries.containsKey(cardId)) {
+                    continue;
+                }
+            }
+            prefetchExecutor.execute(() -> {
+                try {
+                    get(cardId);
+                } catch (SQLException e) {
+                    System.err.println("Prefetch of card " + cardId + " failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    public void invalidate(int cardId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(cardId);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+}
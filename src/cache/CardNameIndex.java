@@ -0,0 +1,70 @@
+package cache;
+
+import entity.CardSummary;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Hash index from normalized card name to card id, used to resolve decklist lines in bulk.
+ *
+ * Names are lower-cased, stripped of accents (so an accented name matches its plain-ASCII
+ * spelling), curly apostrophes are straightened and whitespace is collapsed. Split and
+ * double-faced cards are indexed under both their full "A // B" name and their front face.
+ * When several printings share a name, the lowest card id wins.
+ */
+public class CardNameIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> idsByName;
+
+    private CardNameIndex(Map<String, Integer> idsByName) {
+        this.idsByName = idsByName;
+    }
+
+    public static CardNameIndex build(Iterable<CardSummary> cards) {
+        Map<String, Integer> idsByName = new HashMap<>();
+        for (CardSummary card : cards) {
+            String name = card.getName();
+            if (name == null) {
+                continue;
+            }
+            put(idsByName, normalize(name), card.getId());
+            int split = name.indexOf("//");
+            if (split > 0) {
+                put(idsByName, normalize(name.substring(0, split)), card.getId());
+            }
+        }
+        return new CardNameIndex(idsByName);
+    }
+
+    private static void put(Map<String, Integer> idsByName, String key, int cardId) {
+        if (!key.isEmpty()) {
+            idsByName.merge(key, cardId, Math::min);
+        }
+    }
+
+    /**
+     * Returns the card id for a name, or -1 if no card matches.
+     */
+    public int lookup(String name) {
+        Integer cardId = idsByName.get(normalize(name));
+        return cardId != null ? cardId : -1;
+    }
+
+    public int size() {
+        return idsByName.size();
+    }
+
+    static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('\u2019', '\'')
+                .replace("\u00C6", "Ae").replace("\u00E6", "ae");
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase();
+    }
+}
@@ -0,0 +1,133 @@
+package cache;
+
+import entity.CardRecommendation;
+import entity.ManaCost;
+import entity.Record;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Scores catalog cards as additions to a deck, from the cards it already holds.
+ *
+ * Every deck card votes for its top co-occurring cards (see CoOccurrenceIndex) with the
+ * cosine of their deck counts, shared / sqrt(decks(a) * decks(b)), so staples that appear
+ * everywhere do not drown out real pairings. The commander's votes count COMMANDER_WEIGHT
+ * times. Cards already in the deck, banned cards and, when the deck has a commander, cards
+ * outside its color identity are never suggested. Color identities and ban flags are
+ * worked out once per catalog, so a lookup costs about deck size x TOP_NEIGHBOURS steps.
+ */
+public final class CardRecommender {
+
+    public static final double COMMANDER_WEIGHT = 3.0;
+
+    private final byte[] identities;   // color mask by card id
+    private final boolean[] eligible;  // in the catalog and not banned, by card id
+    private final Record[] cards;      // by card id, for the suggestions returned
+
+    private CardRecommender(byte[] identities, boolean[] eligible, Record[] cards) {
+        this.identities = identities;
+        this.eligible = eligible;
+        this.cards = cards;
+    }
+
+    public static CardRecommender build(List<Record> catalog) {
+        int maxId = 0;
+        for (Record card : catalog) {
+            maxId = Math.max(maxId, card.getId());
+        }
+        byte[] identities = new byte[maxId + 1];
+        boolean[] eligible = new boolean[maxId + 1];
+        Record[] cards = new Record[maxId + 1];
+        for (Record card : catalog) {
+            int id = card.getId();
+            cards[id] = card;
+            identities[id] = (byte) ManaCost.colorIdentity(card.getManaCost(), card.getText());
+            eligible[id] = !"Banned".equalsIgnoreCase(card.getStatus());
+        }
+        return new CardRecommender(identities, eligible, cards);
+    }
+
+    /**
+     * The best-scoring cards for a deck, highest first. commanderId is 0 when the deck has
+     * no commander, in which case color identity is not checked.
+     */
+    public List<CardRecommendation> recommend(CoOccurrenceIndex index, Collection<Integer> deckCards, int commanderId, int limit) {
+        List<CardRecommendation> found = new ArrayList<>();
+        if (limit <= 0) {
+            return found;
+        }
+        int allowed = commanderId > 0 && commanderId < identities.length ? identities[commanderId] : -1;
+
+        double[] scores = new double[eligible.length];
+        int[] support = new int[eligible.length];
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        boolean[] inDeck = new boolean[eligible.length];
+        for (int cardId : deckCards) {
+            if (cardId > 0 && cardId < inDeck.length) {
+                inDeck[cardId] = true;
+            }
+        }
+
+        List<Integer> voters = new ArrayList<>(deckCards);
+        if (commanderId > 0 && !deckCards.contains(commanderId)) {
+            voters.add(commanderId);
+        }
+        for (int cardId : voters) {
+            int decks = index.getDeckCount(cardId);
+            if (decks == 0) {
+                continue;
+            }
+            double weight = cardId == commanderId ? COMMANDER_WEIGHT : 1.0;
+            for (CoOccurrenceIndex.Neighbour neighbour : index.topNeighbours(cardId, CoOccurrenceIndex.TOP_NEIGHBOURS)) {
+                int other = neighbour.getCardId();
+                if (other >= eligible.length || !eligible[other] || inDeck[other]
+                        || (allowed >= 0 && (identities[other] & ~allowed) != 0)) {
+                    continue;
+                }
+                if (support[other] == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = other;
+                }
+                support[other]++;
+                scores[other] += weight * neighbour.getDeckCount() / Math.sqrt((double) decks * index.getDeckCount(other));
+            }
+        }
+
+        // Partial selection: only the best `limit` of the touched cards are sorted
+        int[] best = new int[Math.min(limit, touchedCount)];
+        int size = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int card = touched[t];
+            if (size < best.length) {
+                best[size++] = card;
+            } else if (outranks(card, best[size - 1], scores)) {
+                best[size - 1] = card;
+            } else {
+                continue;
+            }
+            for (int i = size - 1; i > 0 && outranks(best[i], best[i - 1], scores); i--) {
+                int swap = best[i];
+                best[i] = best[i - 1];
+                best[i - 1] = swap;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            Record card = cards[best[i]];
+            found.add(new CardRecommendation(card.getId(), card.getName(), card.getType(), card.getManaCost(),
+                    scores[best[i]], support[best[i]]));
+        }
+        return found;
+    }
+
+    // Higher score first, ties by lowest card id
+    private static boolean outranks(int a, int b, double[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+}
@@ -0,0 +1,349 @@
+package cache;
+
+import entity.CardSummary;
+import entity.Record;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped binary copy of the card catalog.
+ *
+ * File layout (little-endian):
+ *   header  - magic, format version, catalog version, record count, record width,
+ *             heap offset, heap length, CRC32 of everything after the header
+ *   records - one fixed-width slot per card: card_id followed by an (offset, length)
+ *             pair for each string column, pointing into the heap (length -1 = NULL)
+ *   heap    - UTF-8 bytes of every string column, back to back
+ *
+ * Records are decoded on access, so opening a snapshot costs one mmap and a checksum pass
+ * instead of a full SELECT on the card table.
+ *
+ * Each catalog version gets its own file (catalog-<version>.snapshot), so a new snapshot never
+ * replaces a file that may still be mapped; Windows refuses to move over or delete those.
+ * Old files are removed by deleteOthers once nothing maps them any more.
+ */
+public class CatalogSnapshot {
+
+    private static final int MAGIC = 0x4D544743; // "MTGC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int STRING_COLUMNS = 9;
+    private static final int RECORD_WIDTH = 4 + STRING_COLUMNS * 8;
+    private static final String FILE_PREFIX = "catalog-";
+    private static final String FILE_SUFFIX = ".snapshot";
+
+    private final MappedByteBuffer buffer;
+    private final long catalogVersion;
+    private final int recordCount;
+    private final int heapOffset;
+
+    private CatalogSnapshot(MappedByteBuffer buffer, long catalogVersion, int recordCount, int heapOffset) {
+        this.buffer = buffer;
+        this.catalogVersion = catalogVersion;
+        this.recordCount = recordCount;
+        this.heapOffset = heapOffset;
+    }
+
+    /**
+     * The snapshot file for a catalog version in the given directory.
+     */
+    public static Path fileFor(Path dir, long catalogVersion) {
+        return dir.resolve(FILE_PREFIX + catalogVersion + FILE_SUFFIX);
+    }
+
+    /**
+     * Maps the newest valid snapshot in the directory, or returns null if there is none.
+     */
+    public static CatalogSnapshot openLatest(Path dir) {
+        List<Long> versions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Long version = versionOf(file);
+                if (version != null) {
+                    versions.add(version);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing catalog snapshots: " + e.getMessage());
+            return null;
+        }
+        versions.sort(Collections.reverseOrder());
+        for (long version : versions) {
+            CatalogSnapshot snapshot = open(fileFor(dir, version));
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the snapshot files in the directory other than the one for keepVersion. A file
+     * that is still mapped somewhere cannot be deleted on Windows; it is left for a later call.
+     */
+    public static void deleteOthers(Path dir, long keepVersion) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Long version = versionOf(file);
+                if (version == null || version == keepVersion) {
+                    continue;
+                }
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Still mapped; the next refresh tries again
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error cleaning up catalog snapshots: " + e.getMessage());
+        }
+    }
+
+    // Catalog version in a snapshot file name, or null if the name is not one of ours
+    private static Long versionOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Maps an existing snapshot file. Returns null if the file is missing, truncated,
+     * written by another format version or fails its checksum.
+     */
+    public static CatalogSnapshot open(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != FORMAT_VERSION
+                    || mapped.getInt(20) != RECORD_WIDTH) {
+                return null;
+            }
+
+            long catalogVersion = mapped.getLong(8);
+            int recordCount = mapped.getInt(16);
+            long heapOffset = mapped.getLong(24);
+            long heapLength = mapped.getLong(32);
+            long checksum = mapped.getLong(40);
+
+            if (heapOffset != HEADER_SIZE + (long) recordCount * RECORD_WIDTH
+                    || heapOffset + heapLength != size) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(mapped.duplicate().position(HEADER_SIZE));
+            if (crc.getValue() != checksum) {
+                System.err.println("Catalog snapshot checksum mismatch, ignoring " + file);
+                return null;
+            }
+
+            return new CatalogSnapshot(mapped, catalogVersion, recordCount, (int) heapOffset);
+        } catch (IOException e) {
+            System.err.println("Error opening catalog snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serializes the given cards into the directory's snapshot file for catalogVersion and
+     * returns its path. The file is written under a temporary name and moved into place so
+     * readers never see a partial snapshot. If a file for the same version is already there
+     * and still mapped, the move fails on Windows and the IOException reaches the caller.
+     */
+    public static Path write(Path dir, long catalogVersion, List<Record> records) throws IOException {
+        byte[][][] encoded = new byte[records.size()][][];
+        long heapLength = 0;
+        for (int i = 0; i < records.size(); i++) {
+            encoded[i] = encodeColumns(records.get(i));
+            for (byte[] column : encoded[i]) {
+                if (column != null) {
+                    heapLength += column.length;
+                }
+            }
+        }
+
+        long heapOffset = HEADER_SIZE + (long) records.size() * RECORD_WIDTH;
+        if (heapOffset + heapLength > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for a single snapshot file");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) (heapOffset + heapLength)).order(ByteOrder.LITTLE_ENDIAN);
+        int heapCursor = 0;
+        for (int i = 0; i < records.size(); i++) {
+            int slot = HEADER_SIZE + i * RECORD_WIDTH;
+            out.putInt(slot, records.get(i).getId());
+            for (int c = 0; c < STRING_COLUMNS; c++) {
+                byte[] column = encoded[i][c];
+                int pairAt = slot + 4 + c * 8;
+                if (column == null) {
+                    out.putInt(pairAt, 0);
+                    out.putInt(pairAt + 4, -1);
+                } else {
+                    out.putInt(pairAt, heapCursor);
+                    out.putInt(pairAt + 4, column.length);
+                    out.put((int) heapOffset + heapCursor, column);
+                    heapCursor += column.length;
+                }
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.duplicate().position(HEADER_SIZE));
+
+        out.putInt(0, MAGIC);
+        out.putInt(4, FORMAT_VERSION);
+        out.putLong(8, catalogVersion);
+        out.putInt(16, records.size());
+        out.putInt(20, RECORD_WIDTH);
+        out.putLong(24, heapOffset);
+        out.putLong(32, heapLength);
+        out.putLong(40, crc.getValue());
+
+        Path file = fileFor(dir, catalogVersion);
+        Path temp = Files.createTempFile(dir, "catalog", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.rewind();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return file;
+    }
+
+    private static byte[][] encodeColumns(Record record) {
+        String[] values = {
+                record.getName(), record.getManaCost(), record.getType(), record.getSubtype(),
+                record.getPower(), record.getToughness(), record.getText(), record.getEdition(),
+                record.getStatus()
+        };
+        byte[][] columns = new byte[STRING_COLUMNS][];
+        for (int c = 0; c < STRING_COLUMNS; c++) {
+            columns[c] = values[c] != null ? values[c].getBytes(StandardCharsets.UTF_8) : null;
+        }
+        return columns;
+    }
+
+    /**
+     * Version of the card table this snapshot was built from.
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Decodes the record stored in the given slot.
+     */
+    public Record get(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Snapshot index " + index + " of " + recordCount);
+        }
+        int slot = HEADER_SIZE + index * RECORD_WIDTH;
+        return new Record(
+                buffer.getInt(slot),
+                readString(slot, 0), readString(slot, 1), readString(slot, 2),
+                readString(slot, 3), readString(slot, 4), readString(slot, 5),
+                readString(slot, 6), readString(slot, 7), readString(slot, 8)
+        );
+    }
+
+    /**
+     * Decodes the record stored in the given slot without touching its card_text bytes.
+     */
+    public CardSummary getSummary(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Snapshot index " + index + " of " + recordCount);
+        }
+        int slot = HEADER_SIZE + index * RECORD_WIDTH;
+        return new CardSummary(
+                buffer.getInt(slot),
+                readString(slot, 0), readString(slot, 1), readString(slot, 2),
+                readString(slot, 3), readString(slot, 4), readString(slot, 5),
+                readString(slot, 7), readString(slot, 8)
+        );
+    }
+
+    /**
+     * Summary view over the snapshot, in the same order as getRecords().
+     */
+    public List<CardSummary> getSummaries() {
+        return new AbstractList<>() {
+            @Override
+            public CardSummary get(int index) {
+                return getSummary(index);
+            }
+
+            @Override
+            public int size() {
+                return recordCount;
+            }
+        };
+    }
+
+    /**
+     * List view over the snapshot, in the order the catalog was written (by card name).
+     * Elements are decoded lazily from the mapped file.
+     */
+    public List<Record> getRecords() {
+        return new AbstractList<>() {
+            @Override
+            public Record get(int index) {
+                return CatalogSnapshot.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return recordCount;
+            }
+        };
+    }
+
+    private String readString(int slot, int column) {
+        int pairAt = slot + 4 + column * 8;
+        int length = buffer.getInt(pairAt + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(heapOffset + buffer.getInt(pairAt), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
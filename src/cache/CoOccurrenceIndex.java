@@ -0,0 +1,567 @@
+package cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * How many decks play each pair of cards, for "played with" suggestions.
+ *
+ * Pair counts are never stored for every pair. The index keeps deck_cards itself in two
+ * compact forms, each deck's sorted card ids and each card's sorted deck ids (postings),
+ * plus a row per card holding its TOP_NEIGHBOURS most shared neighbours with exact counts
+ * and a bound: no neighbour left out of the row shares more decks than that. Memory is
+ * therefore two ints per deck_cards row plus a fixed-size row per card.
+ *
+ * A deck edit adjusts the rows of the cards the deck kept, counting a newcomer's shared
+ * decks by intersecting two posting lists; the rows of the added and removed cards are
+ * marked stale. A query answers from the row when the bound proves the answer exact, and
+ * otherwise recomputes the row from the card's decks first.
+ *
+ * File layout (little-endian):
+ *   header - magic, format version, contents fingerprint, deck count, row count,
+ *            CRC32 of the rest
+ *   decks  - deck id, card count, card ids
+ *   rows   - card id, bound, entry count, then (neighbour id, count) per entry
+ * Stale rows are not written; postings are rebuilt from the decks on load.
+ */
+public final class CoOccurrenceIndex {
+
+    public static final int TOP_NEIGHBOURS = 64;
+
+    private static final int MAGIC = 0x4D54474F; // "MTGO"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * A card and the number of decks it shares with the queried card.
+     */
+    public static final class Neighbour {
+        private final int cardId;
+        private final int deckCount;
+
+        Neighbour(int cardId, int deckCount) {
+            this.cardId = cardId;
+            this.deckCount = deckCount;
+        }
+
+        public int getCardId() { return cardId; }
+        public int getDeckCount() { return deckCount; }
+    }
+
+    // Unordered top neighbours of one card; null in rows[] when stale
+    private static final class Row {
+        final int[] cards = new int[TOP_NEIGHBOURS];
+        final int[] counts = new int[TOP_NEIGHBOURS];
+        int size;
+        int bound;
+    }
+
+    private int[][] decks = new int[0][];     // sorted card ids by deck id
+    private int[][] postings = new int[0][];  // sorted deck ids by card id, postingSizes[c] used
+    private int[] postingSizes = new int[0];
+    private Row[] rows = new Row[0];
+    private int[] scratch = new int[0];       // per-card counters for recompute, kept zeroed
+
+    /**
+     * Adds a deck's cards, as when building the index from deck_cards. Rows are computed
+     * on first use, so a build costs one pass over the rows.
+     */
+    public synchronized void addDeck(int deckId, int[] cardIds) {
+        int[] cards = distinctSorted(cardIds);
+        setDeck(deckId, cards);
+        for (int card : cards) {
+            addPosting(card, deckId);
+            markStale(card);
+        }
+    }
+
+    /**
+     * Applies one deck's change in card set.
+     */
+    public synchronized void deckCardsChanged(int deckId, Collection<Integer> added, Collection<Integer> removed, Collection<Integer> kept) {
+        int[] addedIds = distinctSorted(toArray(added));
+        int[] removedIds = distinctSorted(toArray(removed));
+        int[] keptIds = toArray(kept);
+
+        int[] before = deckId >= 0 && deckId < decks.length && decks[deckId] != null ? decks[deckId] : NO_IDS;
+        int[] after = new int[before.length + addedIds.length];
+        int n = 0;
+        for (int card : before) {
+            if (Arrays.binarySearch(removedIds, card) < 0) {
+                after[n++] = card;
+            }
+        }
+        for (int card : addedIds) {
+            after[n++] = card;
+        }
+        setDeck(deckId, distinctSorted(Arrays.copyOf(after, n)));
+
+        for (int card : addedIds) {
+            addPosting(card, deckId);
+            markStale(card);
+        }
+        for (int card : removedIds) {
+            removePosting(card, deckId);
+            markStale(card);
+        }
+        for (int card : keptIds) {
+            Row row = row(card);
+            if (row == null) {
+                continue;
+            }
+            for (int other : addedIds) {
+                if (other != card) {
+                    pairAdded(row, card, other);
+                }
+            }
+            for (int other : removedIds) {
+                int slot = indexOf(row, other);
+                if (slot >= 0 && --row.counts[slot] == 0) {
+                    removeEntry(row, slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets a card entirely, e.g. after it was deleted from the catalog.
+     */
+    public synchronized void removeCard(int cardId) {
+        if (cardId <= 0 || cardId >= postings.length) {
+            return;
+        }
+        for (int i = 0; i < postingSizes[cardId]; i++) {
+            int deckId = postings[cardId][i];
+            int[] cards = decks[deckId];
+            int at = Arrays.binarySearch(cards, cardId);
+            if (at < 0) {
+                continue;
+            }
+            int[] remaining = new int[cards.length - 1];
+            System.arraycopy(cards, 0, remaining, 0, at);
+            System.arraycopy(cards, at + 1, remaining, at, remaining.length - at);
+            setDeck(deckId, remaining);
+            for (int other : remaining) {
+                Row row = row(other);
+                int slot = row != null ? indexOf(row, cardId) : -1;
+                if (slot >= 0) {
+                    removeEntry(row, slot);
+                }
+            }
+        }
+        postings[cardId] = null;
+        postingSizes[cardId] = 0;
+        markStale(cardId);
+    }
+
+    /**
+     * Number of decks that contain the card.
+     */
+    public synchronized int getDeckCount(int cardId) {
+        return cardId > 0 && cardId < postingSizes.length ? postingSizes[cardId] : 0;
+    }
+
+    /**
+     * The cards most often played alongside the given one, most shared decks first (ties by
+     * lowest card id). At most TOP_NEIGHBOURS are returned.
+     */
+    public synchronized List<Neighbour> topNeighbours(int cardId, int limit) {
+        limit = Math.min(limit, TOP_NEIGHBOURS);
+        if (limit <= 0 || getDeckCount(cardId) == 0) {
+            return List.of();
+        }
+        Row row = row(cardId);
+        long[] ranked = row != null ? rank(row) : null;
+        if (row == null || !isExact(row, ranked, limit)) {
+            row = recompute(cardId);
+            ranked = rank(row);
+        }
+
+        List<Neighbour> top = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int i = 0; i < ranked.length && top.size() < limit; i++) {
+            top.add(new Neighbour(rankedCard(ranked[i]), rankedCount(ranked[i])));
+        }
+        return top;
+    }
+
+    // The first `limit` entries are the true top when nothing left out of the row could outrank them
+    private static boolean isExact(Row row, long[] ranked, int limit) {
+        if (ranked.length < limit) {
+            return row.bound == 0;
+        }
+        return rankedCount(ranked[limit - 1]) >= row.bound;
+    }
+
+    // Entries sorted by count descending, then card id ascending
+    private static long[] rank(Row row) {
+        long[] ranked = new long[row.size];
+        for (int i = 0; i < row.size; i++) {
+            ranked[i] = ((long) (Integer.MAX_VALUE - row.counts[i]) << 32) | row.cards[i];
+        }
+        Arrays.sort(ranked);
+        return ranked;
+    }
+
+    private static int rankedCount(long ranked) {
+        return Integer.MAX_VALUE - (int) (ranked >>> 32);
+    }
+
+    private static int rankedCard(long ranked) {
+        return (int) ranked;
+    }
+
+    // Counts every neighbour over the card's decks and keeps the top of them
+    private Row recompute(int cardId) {
+        int maxCard = 0;
+        for (int i = 0; i < postingSizes[cardId]; i++) {
+            int[] cards = decks[postings[cardId][i]];
+            maxCard = Math.max(maxCard, cards[cards.length - 1]);
+        }
+        if (scratch.length <= maxCard) {
+            scratch = new int[Math.max(maxCard + 1, scratch.length * 2)];
+        }
+
+        int[] touched = new int[64];
+        int distinct = 0;
+        for (int i = 0; i < postingSizes[cardId]; i++) {
+            for (int other : decks[postings[cardId][i]]) {
+                if (other != cardId && scratch[other]++ == 0) {
+                    if (distinct == touched.length) {
+                        touched = Arrays.copyOf(touched, distinct * 2);
+                    }
+                    touched[distinct++] = other;
+                }
+            }
+        }
+
+        long[] ranked = new long[distinct];
+        for (int i = 0; i < distinct; i++) {
+            ranked[i] = ((long) (Integer.MAX_VALUE - scratch[touched[i]]) << 32) | touched[i];
+            scratch[touched[i]] = 0;
+        }
+        Arrays.sort(ranked);
+
+        Row row = new Row();
+        row.size = Math.min(distinct, TOP_NEIGHBOURS);
+        for (int i = 0; i < row.size; i++) {
+            row.cards[i] = rankedCard(ranked[i]);
+            row.counts[i] = rankedCount(ranked[i]);
+        }
+        row.bound = distinct > TOP_NEIGHBOURS ? rankedCount(ranked[TOP_NEIGHBOURS]) : 0;
+        rows[cardId] = row;
+        return row;
+    }
+
+    // A deck holding `card` gained `other`; keeps the row's top entries and bound true
+    private void pairAdded(Row row, int card, int other) {
+        int slot = indexOf(row, other);
+        if (slot >= 0) {
+            row.counts[slot]++;
+            return;
+        }
+        int shared = sharedDecks(card, other);
+        if (row.size < TOP_NEIGHBOURS) {
+            row.cards[row.size] = other;
+            row.counts[row.size] = shared;
+            row.size++;
+            return;
+        }
+        int min = 0;
+        for (int i = 1; i < row.size; i++) {
+            if (row.counts[i] < row.counts[min]) {
+                min = i;
+            }
+        }
+        if (shared > row.counts[min]) {
+            row.bound = Math.max(row.bound, row.counts[min]);
+            row.cards[min] = other;
+            row.counts[min] = shared;
+        } else {
+            row.bound = Math.max(row.bound, shared);
+        }
+    }
+
+    // Size of the intersection of two posting lists, binary searching the longer one when lengths differ a lot
+    private int sharedDecks(int a, int b) {
+        int[] small = postings[a];
+        int smallSize = postingSizes[a];
+        int[] large = postings[b];
+        int largeSize = postingSizes[b];
+        if (smallSize > largeSize) {
+            int[] swap = small;
+            small = large;
+            large = swap;
+            int swapSize = smallSize;
+            smallSize = largeSize;
+            largeSize = swapSize;
+        }
+        int shared = 0;
+        if ((long) smallSize * 16 < largeSize) {
+            int from = 0;
+            for (int i = 0; i < smallSize && from < largeSize; i++) {
+                int at = Arrays.binarySearch(large, from, largeSize, small[i]);
+                if (at >= 0) {
+                    shared++;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < smallSize && j < largeSize) {
+                if (small[i] < large[j]) {
+                    i++;
+                } else if (small[i] > large[j]) {
+                    j++;
+                } else {
+                    shared++;
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return shared;
+    }
+
+    private static int indexOf(Row row, int card) {
+        for (int i = 0; i < row.size; i++) {
+            if (row.cards[i] == card) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Dropping an entry leaves the bound alone: no left-out neighbour gained anything
+    private static void removeEntry(Row row, int slot) {
+        row.size--;
+        row.cards[slot] = row.cards[row.size];
+        row.counts[slot] = row.counts[row.size];
+    }
+
+    private Row row(int card) {
+        return card > 0 && card < rows.length ? rows[card] : null;
+    }
+
+    private void markStale(int card) {
+        if (card < rows.length) {
+            rows[card] = null;
+        }
+    }
+
+    private void setDeck(int deckId, int[] cards) {
+        if (deckId >= decks.length) {
+            decks = Arrays.copyOf(decks, Math.max(deckId + 1, decks.length * 2));
+        }
+        decks[deckId] = cards.length > 0 ? cards : null;
+    }
+
+    private void addPosting(int card, int deckId) {
+        if (card >= postings.length) {
+            int length = Math.max(card + 1, postings.length * 2);
+            postings = Arrays.copyOf(postings, length);
+            postingSizes = Arrays.copyOf(postingSizes, length);
+            rows = Arrays.copyOf(rows, length);
+        }
+        int[] list = postings[card];
+        int size = postingSizes[card];
+        // Builds scan decks in id order, so the common case is an append
+        int at = size == 0 || list[size - 1] < deckId ? size : Arrays.binarySearch(list, 0, size, deckId);
+        if (at >= 0 && at < size) {
+            return;
+        }
+        if (at < 0) {
+            at = -at - 1;
+        }
+        if (list == null) {
+            list = new int[4];
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+        }
+        System.arraycopy(list, at, list, at + 1, size - at);
+        list[at] = deckId;
+        postings[card] = list;
+        postingSizes[card] = size + 1;
+    }
+
+    private void removePosting(int card, int deckId) {
+        if (card >= postings.length || postings[card] == null) {
+            return;
+        }
+        int size = postingSizes[card];
+        int at = Arrays.binarySearch(postings[card], 0, size, deckId);
+        if (at >= 0) {
+            System.arraycopy(postings[card], at + 1, postings[card], at, size - at - 1);
+            postingSizes[card] = size - 1;
+        }
+    }
+
+    private static int[] distinctSorted(int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int id : sorted) {
+            if (id > 0 && (n == 0 || sorted[n - 1] != id)) {
+                sorted[n++] = id;
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    private static int[] toArray(Collection<Integer> ids) {
+        int[] array = new int[ids.size()];
+        int n = 0;
+        for (int id : ids) {
+            if (id > 0) {
+                array[n++] = id;
+            }
+        }
+        return n == array.length ? array : Arrays.copyOf(array, n);
+    }
+
+    /**
+     * Writes the index with the deck_cards fingerprint it reflects. The file is written next
+     * to the target and moved into place, as for the catalog snapshot.
+     */
+    public synchronized void save(Path file, long fingerprint) throws IOException {
+        int deckCount = 0;
+        int rowCount = 0;
+        long length = HEADER_SIZE;
+        for (int[] cards : decks) {
+            if (cards != null) {
+                deckCount++;
+                length += 8 + 4L * cards.length;
+            }
+        }
+        for (Row row : rows) {
+            if (row != null) {
+                rowCount++;
+                length += 12 + 8L * row.size;
+            }
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Co-occurrence index too large for a single file");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        out.position(HEADER_SIZE);
+        for (int deckId = 0; deckId < decks.length; deckId++) {
+            int[] cards = decks[deckId];
+            if (cards != null) {
+                out.putInt(deckId);
+                out.putInt(cards.length);
+                for (int card : cards) {
+                    out.putInt(card);
+                }
+            }
+        }
+        for (int card = 0; card < rows.length; card++) {
+            Row row = rows[card];
+            if (row != null) {
+                out.putInt(card);
+                out.putInt(row.bound);
+                out.putInt(row.size);
+                for (int i = 0; i < row.size; i++) {
+                    out.putInt(row.cards[i]);
+                    out.putInt(row.counts[i]);
+                }
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.duplicate().position(HEADER_SIZE).limit((int) length));
+        out.putInt(0, MAGIC);
+        out.putInt(4, FORMAT_VERSION);
+        out.putLong(8, fingerprint);
+        out.putInt(16, deckCount);
+        out.putInt(20, rowCount);
+        out.putLong(24, crc.getValue());
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, "cooccurrence", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.rewind();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a saved index. Returns null if the file is missing, damaged, written by another
+     * format version, or was saved for different deck contents than the given fingerprint.
+     */
+    public static CoOccurrenceIndex load(Path file, long fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            if (in.getInt(0) != MAGIC || in.getInt(4) != FORMAT_VERSION || in.getLong(8) != fingerprint) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            if (crc.getValue() != in.getLong(24)) {
+                System.err.println("Co-occurrence index checksum mismatch, ignoring " + file);
+                return null;
+            }
+
+            CoOccurrenceIndex index = new CoOccurrenceIndex();
+            int deckCount = in.getInt(16);
+            int rowCount = in.getInt(20);
+            in.position(HEADER_SIZE);
+            for (int d = 0; d < deckCount; d++) {
+                int deckId = in.getInt();
+                int[] cards = new int[in.getInt()];
+                for (int i = 0; i < cards.length; i++) {
+                    cards[i] = in.getInt();
+                }
+                index.addDeck(deckId, cards);
+            }
+            for (int r = 0; r < rowCount; r++) {
+                int card = in.getInt();
+                Row row = new Row();
+                row.bound = in.getInt();
+                row.size = in.getInt();
+                if (card <= 0 || card >= index.rows.length || row.size < 0 || row.size > TOP_NEIGHBOURS) {
+                    return null;
+                }
+                for (int i = 0; i < row.size; i++) {
+                    row.cards[i] = in.getInt();
+                    row.counts[i] = in.getInt();
+                }
+                index.rows[card] = row;
+            }
+            return in.hasRemaining() ? null : index;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading co-occurrence index: " + e.getMessage());
+            return null;
+        }
+    }
+}
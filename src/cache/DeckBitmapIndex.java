@@ -0,0 +1,90 @@
+package cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every deck's card ids as a CardBitmap, so overlap between decks and union or
+ * intersection reports over many decks are bitmap operations instead of deck_cards joins.
+ */
+public final class DeckBitmapIndex {
+
+    private final Map<Integer, CardBitmap> decks = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a deck's cards, as when building the index from deck_cards.
+     */
+    public void addDeck(int deckId, int[] cardIds) {
+        if (cardIds.length > 0) {
+            decks.put(deckId, CardBitmap.of(cardIds));
+        }
+    }
+
+    /**
+     * Applies a committed edit of one deck's card set. A deck left with no cards is dropped.
+     */
+    public void deckCardsChanged(int deckId, Collection<Integer> added, Collection<Integer> removed) {
+        CardBitmap plus = CardBitmap.of(added);
+        CardBitmap minus = CardBitmap.of(removed);
+        decks.compute(deckId, (id, cards) -> {
+            CardBitmap updated = (cards != null ? cards : CardBitmap.EMPTY).or(plus).andNot(minus);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    /**
+     * Drops a card deleted from the catalog from every deck.
+     */
+    public void removeCard(int cardId) {
+        CardBitmap card = CardBitmap.of(new int[]{cardId});
+        for (Integer deckId : decks.keySet()) {
+            decks.computeIfPresent(deckId, (id, cards) -> {
+                if (!cards.contains(cardId)) {
+                    return cards;
+                }
+                CardBitmap updated = cards.andNot(card);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * The deck's card ids; empty for unknown decks and decks with no cards.
+     */
+    public CardBitmap get(int deckId) {
+        return decks.getOrDefault(deckId, CardBitmap.EMPTY);
+    }
+
+    /**
+     * Number of distinct cards the two decks have in common.
+     */
+    public int overlap(int deckId, int otherDeckId) {
+        return get(deckId).andCardinality(get(otherDeckId));
+    }
+
+    /**
+     * Cards that appear in at least one of the decks.
+     */
+    public CardBitmap union(Collection<Integer> deckIds) {
+        CardBitmap result = CardBitmap.EMPTY;
+        for (int deckId : deckIds) {
+            result = result.or(get(deckId));
+        }
+        return result;
+    }
+
+    /**
+     * Cards that appear in every one of the decks; empty when no decks are given.
+     */
+    public CardBitmap intersection(Collection<Integer> deckIds) {
+        CardBitmap result = null;
+        for (int deckId : deckIds) {
+            result = result == null ? get(deckId) : result.and(get(deckId));
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : CardBitmap.EMPTY;
+    }
+}
@@ -0,0 +1,426 @@
+package cache;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Inverted index from card id to the sorted ids of the decks that contain it, for "which
+ * decks run X and Y but not Z" queries.
+ *
+ * Each posting list is cut into blocks of up to 2 x BLOCK_SIZE deck ids. A block keeps its
+ * first id uncompressed in a skip table and the rest as varint-encoded gaps, so a list of
+ * tens of thousands of decks takes one or two bytes per deck. Queries walk the shortest
+ * required list and probe the others with forward-only cursors that gallop over the skip
+ * table and decode only the blocks they land in.
+ *
+ * Lists are immutable: an edit re-encodes the one block it touches into a new list, so
+ * queries never see a half-written list.
+ */
+public final class DeckPostingIndex {
+
+    public static final int BLOCK_SIZE = 64;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private PostingList[] lists = new PostingList[0];
+
+    /**
+     * Collects decks in increasing deck id order, as streamed from deck_cards, and encodes
+     * every list once at the end.
+     */
+    public static final class Builder {
+        private int[][] ids = new int[0][];
+        private int[] sizes = new int[0];
+
+        public void addDeck(int deckId, int[] cardIds) {
+            for (int cardId : cardIds) {
+                if (cardId <= 0) {
+                    continue;
+                }
+                if (cardId >= ids.length) {
+                    int length = Math.max(cardId + 1, ids.length * 2);
+                    ids = Arrays.copyOf(ids, length);
+                    sizes = Arrays.copyOf(sizes, length);
+                }
+                int[] list = ids[cardId];
+                int size = sizes[cardId];
+                if (list == null) {
+                    list = ids[cardId] = new int[4];
+                } else if (size == list.length) {
+                    list = ids[cardId] = Arrays.copyOf(list, size * 2);
+                }
+                if (size == 0 || list[size - 1] < deckId) {
+                    list[size] = deckId;
+                    sizes[cardId]++;
+                }
+            }
+        }
+
+        public DeckPostingIndex build() {
+            DeckPostingIndex index = new DeckPostingIndex();
+            index.lists = new PostingList[ids.length];
+            for (int cardId = 0; cardId < ids.length; cardId++) {
+                if (sizes[cardId] > 0) {
+                    index.lists[cardId] = PostingList.encode(ids[cardId], sizes[cardId]);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Applies a committed edit of one deck's card set.
+     */
+    public synchronized void deckCardsChanged(int deckId, Collection<Integer> added, Collection<Integer> removed) {
+        for (int cardId : added) {
+            if (cardId <= 0) {
+                continue;
+            }
+            if (cardId >= lists.length) {
+                lists = Arrays.copyOf(lists, Math.max(cardId + 1, lists.length * 2));
+            }
+            lists[cardId] = lists[cardId] == null ? PostingList.encode(new int[]{deckId}, 1) : lists[cardId].with(deckId);
+        }
+        for (int cardId : removed) {
+            if (cardId > 0 && cardId < lists.length && lists[cardId] != null) {
+                PostingList list = lists[cardId].without(deckId);
+                lists[cardId] = list.size > 0 ? list : null;
+            }
+        }
+    }
+
+    /**
+     * Drops a card deleted from the catalog; its deck_cards rows went with it.
+     */
+    public synchronized void removeCard(int cardId) {
+        if (cardId > 0 && cardId < lists.length) {
+            lists[cardId] = null;
+        }
+    }
+
+    /**
+     * Number of decks that contain the card.
+     */
+    public synchronized int getDeckCount(int cardId) {
+        PostingList list = list(cardId);
+        return list != null ? list.size : 0;
+    }
+
+    /**
+     * Ids of the decks that contain every card in allOf, at least one card in anyOf (when
+     * it is not empty) and no card in noneOf, in increasing order. At least one of allOf
+     * and anyOf must be non-empty; a query with only exclusions matches nothing.
+     */
+    public int[] query(Collection<Integer> allOf, Collection<Integer> anyOf, Collection<Integer> noneOf) {
+        List<PostingList> required = new ArrayList<>();
+        List<PostingList> optional = new ArrayList<>();
+        List<PostingList> excluded = new ArrayList<>();
+        synchronized (this) {
+            for (int cardId : allOf) {
+                PostingList list = list(cardId);
+                if (list == null) {
+                    return NO_IDS;
+                }
+                required.add(list);
+            }
+            for (int cardId : anyOf) {
+                PostingList list = list(cardId);
+                if (list != null) {
+                    optional.add(list);
+                }
+            }
+            for (int cardId : noneOf) {
+                PostingList list = list(cardId);
+                if (list != null) {
+                    excluded.add(list);
+                }
+            }
+        }
+        // No deck has any of the anyOf cards, or there is nothing to draw candidates from
+        if (!anyOf.isEmpty() && optional.isEmpty() || required.isEmpty() && optional.isEmpty()) {
+            return NO_IDS;
+        }
+
+        // Candidates come from the shortest required list, or the union of the optional ones
+        int[] candidates;
+        if (!required.isEmpty()) {
+            required.sort((a, b) -> Integer.compare(a.size, b.size));
+            candidates = required.remove(0).decode();
+        } else {
+            candidates = union(optional);
+            optional.clear();
+        }
+
+        Cursor[] mustMatch = cursors(required);
+        Cursor[] mayMatch = cursors(optional);
+        Cursor[] mustNotMatch = cursors(excluded);
+        int matched = 0;
+        for (int deckId : candidates) {
+            if (containsAll(mustMatch, deckId)
+                    && (mayMatch.length == 0 || containsAny(mayMatch, deckId))
+                    && !containsAny(mustNotMatch, deckId)) {
+                candidates[matched++] = deckId;
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    private PostingList list(int cardId) {
+        return cardId > 0 && cardId < lists.length ? lists[cardId] : null;
+    }
+
+    private static Cursor[] cursors(List<PostingList> lists) {
+        Cursor[] cursors = new Cursor[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = new Cursor(lists.get(i));
+        }
+        return cursors;
+    }
+
+    // Every cursor is probed so all of them keep moving forward in step with the candidates
+    private static boolean containsAll(Cursor[] cursors, int deckId) {
+        for (Cursor cursor : cursors) {
+            if (!cursor.contains(deckId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAny(Cursor[] cursors, int deckId) {
+        boolean found = false;
+        for (Cursor cursor : cursors) {
+            found |= cursor.contains(deckId);
+        }
+        return found;
+    }
+
+    private static int[] union(List<PostingList> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0).decode();
+        }
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        int[] all = new int[total];
+        int size = 0;
+        for (PostingList list : lists) {
+            int[] ids = list.decode();
+            System.arraycopy(ids, 0, all, size, ids.length);
+            size += ids.length;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || all[distinct - 1] != all[i]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    // Immutable block-compressed list of increasing deck ids
+    private static final class PostingList {
+        final int size;
+        final int[] firsts;   // first deck id of each block
+        final int[] counts;   // ids in each block
+        final int[] offsets;  // start of each block's gaps in data, plus the end
+        final byte[] data;
+
+        PostingList(int size, int[] firsts, int[] counts, int[] offsets, byte[] data) {
+            this.size = size;
+            this.firsts = firsts;
+            this.counts = counts;
+            this.offsets = offsets;
+            this.data = data;
+        }
+
+        static PostingList encode(int[] ids, int size) {
+            int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            int[] firsts = new int[blocks];
+            int[] counts = new int[blocks];
+            int[] offsets = new int[blocks + 1];
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size * 2);
+            for (int b = 0; b < blocks; b++) {
+                int from = b * BLOCK_SIZE;
+                int to = Math.min(size, from + BLOCK_SIZE);
+                firsts[b] = ids[from];
+                counts[b] = to - from;
+                offsets[b] = out.size();
+                writeGaps(out, ids, from, to);
+            }
+            offsets[blocks] = out.size();
+            return new PostingList(size, firsts, counts, offsets, out.toByteArray());
+        }
+
+        int[] decode() {
+            int[] ids = new int[size];
+            int n = 0;
+            for (int b = 0; b < firsts.length; b++) {
+                n += decodeBlock(b, ids, n);
+            }
+            return ids;
+        }
+
+        // Decodes block b into out starting at from; returns its id count
+        int decodeBlock(int b, int[] out, int from) {
+            int id = firsts[b];
+            out[from] = id;
+            int pos = offsets[b];
+            for (int i = 1; i < counts[b]; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte value;
+                do {
+                    value = data[pos++];
+                    gap |= (value & 0x7F) << shift;
+                    shift += 7;
+                } while (value < 0);
+                id += gap;
+                out[from + i] = id;
+            }
+            return counts[b];
+        }
+
+        // Last block whose first id is <= deckId, or -1
+        int blockFor(int deckId) {
+            int b = Arrays.binarySearch(firsts, deckId);
+            return b >= 0 ? b : -b - 2;
+        }
+
+        PostingList with(int deckId) {
+            int b = Math.max(0, blockFor(deckId));
+            int[] ids = new int[counts[b] + 1];
+            int n = decodeBlock(b, ids, 0);
+            int at = Arrays.binarySearch(ids, 0, n, deckId);
+            if (at >= 0) {
+                return this;
+            }
+            at = -at - 1;
+            System.arraycopy(ids, at, ids, at + 1, n - at);
+            ids[at] = deckId;
+            // A block that grew past twice the block size is split in two
+            return n + 1 > 2 * BLOCK_SIZE
+                    ? replaceBlock(b, ids, n + 1, (n + 1) / 2)
+                    : replaceBlock(b, ids, n + 1, n + 1);
+        }
+
+        PostingList without(int deckId) {
+            int b = blockFor(deckId);
+            if (b < 0) {
+                return this;
+            }
+            int[] ids = new int[counts[b]];
+            int n = decodeBlock(b, ids, 0);
+            int at = Arrays.binarySearch(ids, 0, n, deckId);
+            if (at < 0) {
+                return this;
+            }
+            System.arraycopy(ids, at + 1, ids, at, n - at - 1);
+            return replaceBlock(b, ids, n - 1, n - 1);
+        }
+
+        // New list with block b replaced by ids[0..n), cut after `split` ids if split < n; empty blocks are dropped
+        private PostingList replaceBlock(int b, int[] ids, int n, int split) {
+            int newBlocks = n == 0 ? 0 : split < n ? 2 : 1;
+            int blocks = firsts.length - 1 + newBlocks;
+            int[] newFirsts = new int[blocks];
+            int[] newCounts = new int[blocks];
+            int[] newOffsets = new int[blocks + 1];
+
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            int[] encodedOffsets = new int[newBlocks];
+            for (int k = 0; k < newBlocks; k++) {
+                int from = k == 0 ? 0 : split;
+                int to = k == 0 ? Math.min(split, n) : n;
+                newFirsts[b + k] = ids[from];
+                newCounts[b + k] = to - from;
+                encodedOffsets[k] = encoded.size();
+                writeGaps(encoded, ids, from, to);
+            }
+            byte[] middle = encoded.toByteArray();
+
+            int before = offsets[b];
+            int after = offsets[firsts.length] - offsets[b + 1];
+            byte[] newData = new byte[before + middle.length + after];
+            System.arraycopy(data, 0, newData, 0, before);
+            System.arraycopy(middle, 0, newData, before, middle.length);
+            System.arraycopy(data, offsets[b + 1], newData, before + middle.length, after);
+
+            System.arraycopy(firsts, 0, newFirsts, 0, b);
+            System.arraycopy(counts, 0, newCounts, 0, b);
+            System.arraycopy(offsets, 0, newOffsets, 0, b);
+            for (int k = 0; k < newBlocks; k++) {
+                newOffsets[b + k] = before + encodedOffsets[k];
+            }
+            int tail = firsts.length - b - 1;
+            System.arraycopy(firsts, b + 1, newFirsts, b + newBlocks, tail);
+            System.arraycopy(counts, b + 1, newCounts, b + newBlocks, tail);
+            int shift = middle.length - (offsets[b + 1] - offsets[b]);
+            for (int k = 0; k <= tail; k++) {
+                newOffsets[b + newBlocks + k] = offsets[b + 1 + k] + shift;
+            }
+            return new PostingList(size - counts[b] + n, newFirsts, newCounts, newOffsets, newData);
+        }
+
+        private static void writeGaps(ByteArrayOutputStream out, int[] ids, int from, int to) {
+            for (int i = from + 1; i < to; i++) {
+                int gap = ids[i] - ids[i - 1];
+                while ((gap & ~0x7F) != 0) {
+                    out.write((gap & 0x7F) | 0x80);
+                    gap >>>= 7;
+                }
+                out.write(gap);
+            }
+        }
+    }
+
+    // Forward-only membership probe over one list; targets must not decrease
+    private static final class Cursor {
+        private final PostingList list;
+        private final int[] block = new int[2 * BLOCK_SIZE];
+        private int blockIndex = -1;
+        private int blockSize;
+        private int position;
+
+        Cursor(PostingList list) {
+            this.list = list;
+        }
+
+        boolean contains(int deckId) {
+            int blocks = list.firsts.length;
+            if (blockIndex + 1 < blocks && list.firsts[blockIndex + 1] <= deckId) {
+                // Gallop ahead over the skip table, then binary search the last step
+                int low = blockIndex + 1;
+                int step = 1;
+                while (low + step < blocks && list.firsts[low + step] <= deckId) {
+                    low += step;
+                    step <<= 1;
+                }
+                int high = Math.min(blocks - 1, low + step);
+                while (low < high) {
+                    int mid = (low + high + 1) >>> 1;
+                    if (list.firsts[mid] <= deckId) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                blockIndex = low;
+                blockSize = list.decodeBlock(blockIndex, block, 0);
+                position = 0;
+            }
+            if (blockIndex < 0) {
+                return false;
+            }
+            while (position < blockSize && block[position] < deckId) {
+                position++;
+            }
+            return position < blockSize && block[position] == deckId;
+        }
+    }
+}
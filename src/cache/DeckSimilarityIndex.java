@@ -0,0 +1,220 @@
+package cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of decks' card-id sets and an LSH index over them, for "decks like
+ * this one" lookups.
+ *
+ * A signature holds, for each of SIGNATURE_SIZE fixed hash functions, the smallest hash
+ * of any card in the deck; two decks agree on a slot with probability equal to the Jaccard
+ * similarity of their card sets. The index splits signatures into BANDS bands of
+ * ROWS_PER_BAND slots and buckets decks by each band, so a lookup only visits decks that
+ * match the query on at least one whole band: decks at Jaccard 0.5 are found with about
+ * 64% probability, at 0.7 with about 99%. Candidates are ranked by the fraction of
+ * matching slots; callers re-rank them by exact Jaccard.
+ */
+public final class DeckSimilarityIndex {
+
+    public static final int SIGNATURE_SIZE = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = SIGNATURE_SIZE / BANDS;
+
+    // Fixed seed: stored signatures must keep meaning the same thing across runs
+    private static final int[] SEEDS = new SplittableRandom(0x4D696E48L).ints(SIGNATURE_SIZE).toArray();
+
+    /**
+     * A deck found by a lookup, with the fraction of signature slots it shares with the query.
+     */
+    public static final class Candidate {
+        private final int deckId;
+        private final double estimatedSimilarity;
+
+        Candidate(int deckId, double estimatedSimilarity) {
+            this.deckId = deckId;
+            this.estimatedSimilarity = estimatedSimilarity;
+        }
+
+        public int getDeckId() { return deckId; }
+        public double getEstimatedSimilarity() { return estimatedSimilarity; }
+    }
+
+    // Deck ids sharing one band value
+    private static final class Bucket {
+        int[] deckIds = new int[2];
+        int size;
+    }
+
+    private final Map<Integer, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, Bucket>> bands = new ArrayList<>(BANDS);
+
+    public DeckSimilarityIndex() {
+        for (int b = 0; b < BANDS; b++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Signature of a set of card ids. An empty set gets every slot at Integer.MAX_VALUE.
+     */
+    public static int[] signature(Collection<Integer> cardIds) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int cardId : cardIds) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int h = mix(cardId ^ SEEDS[i]) & Integer.MAX_VALUE;
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // MurmurHash3 finalizer
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    public static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_SIZE * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : signature) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Returns null for anything that is not an encoded signature.
+     */
+    public static int[] decode(byte[] bytes) {
+        if (bytes == null || bytes.length != SIGNATURE_SIZE * 4) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int[] signature = new int[SIGNATURE_SIZE];
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            signature[i] = buffer.getInt();
+        }
+        return signature;
+    }
+
+    private static boolean isEmpty(int[] signature) {
+        return signature[0] == Integer.MAX_VALUE && signature[SIGNATURE_SIZE - 1] == Integer.MAX_VALUE;
+    }
+
+    /**
+     * Adds or replaces a deck's signature. Decks with no cards are left out of the index.
+     */
+    public synchronized void put(int deckId, int[] signature) {
+        remove(deckId);
+        if (signature == null || isEmpty(signature)) {
+            return;
+        }
+        signatures.put(deckId, signature);
+        for (int b = 0; b < BANDS; b++) {
+            Bucket bucket = bands.get(b).computeIfAbsent(bandKey(signature, b), key -> new Bucket());
+            if (bucket.size == bucket.deckIds.length) {
+                bucket.deckIds = Arrays.copyOf(bucket.deckIds, bucket.size * 2);
+            }
+            bucket.deckIds[bucket.size++] = deckId;
+        }
+    }
+
+    public synchronized void remove(int deckId) {
+        int[] signature = signatures.remove(deckId);
+        if (signature == null) {
+            return;
+        }
+        for (int b = 0; b < BANDS; b++) {
+            long key = bandKey(signature, b);
+            Bucket bucket = bands.get(b).get(key);
+            if (bucket == null) {
+                continue;
+            }
+            for (int i = 0; i < bucket.size; i++) {
+                if (bucket.deckIds[i] == deckId) {
+                    bucket.deckIds[i] = bucket.deckIds[--bucket.size];
+                    break;
+                }
+            }
+            if (bucket.size == 0) {
+                bands.get(b).remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        signatures.clear();
+        for (Map<Long, Bucket> band : bands) {
+            band.clear();
+        }
+    }
+
+    public synchronized int[] getSignature(int deckId) {
+        return signatures.get(deckId);
+    }
+
+    public synchronized int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Decks sharing at least one band with the signature, most matching slots first. The
+     * excluded deck (e.g. the query deck itself) is skipped.
+     */
+    public synchronized List<Candidate> candidates(int[] signature, int excludeDeckId, int limit) {
+        List<Candidate> found = new ArrayList<>();
+        if (signature == null || isEmpty(signature) || limit <= 0) {
+            return found;
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (int b = 0; b < BANDS; b++) {
+            Bucket bucket = bands.get(b).get(bandKey(signature, b));
+            if (bucket == null) {
+                continue;
+            }
+            for (int i = 0; i < bucket.size; i++) {
+                int deckId = bucket.deckIds[i];
+                if (deckId != excludeDeckId && seen.add(deckId)) {
+                    found.add(new Candidate(deckId, matchingFraction(signature, signatures.get(deckId))));
+                }
+            }
+        }
+        found.sort((a, c) -> Double.compare(c.estimatedSimilarity, a.estimatedSimilarity));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private static double matchingFraction(int[] a, int[] b) {
+        int matching = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                matching++;
+            }
+        }
+        return (double) matching / SIGNATURE_SIZE;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = 0;
+        for (int i = band * ROWS_PER_BAND; i < (band + 1) * ROWS_PER_BAND; i++) {
+            h = h * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return h;
+    }
+}
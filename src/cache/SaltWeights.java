@@ -0,0 +1,121 @@
+package cache;
+
+import entity.CardSummary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-card salt weights, held in a float array indexed by card id.
+ *
+ * The data file has one card per line: the weight, whitespace, then the card name
+ * ("2.67 Rhystic Study"). Blank lines and lines starting with '#' are skipped. Names are
+ * matched the same way as decklist imports (see CardNameIndex), and every printing of a
+ * card gets its weight. Cards not in the file weigh 0.
+ */
+public final class SaltWeights {
+
+    public static final SaltWeights EMPTY = new SaltWeights(new float[0], 0, false);
+
+    private final float[] weights;
+    private final int matchedCards;
+    private final boolean loaded;
+
+    private SaltWeights(float[] weights, int matchedCards, boolean loaded) {
+        this.weights = weights;
+        this.matchedCards = matchedCards;
+        this.loaded = loaded;
+    }
+
+    /**
+     * Reads a weight file and resolves its names against the catalog.
+     */
+    public static SaltWeights load(Path file, Iterable<CardSummary> cards) throws IOException {
+        Map<String, Float> byName = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int split = line.indexOf(' ');
+                int tab = line.indexOf('\t');
+                if (split < 0 || (tab >= 0 && tab < split)) {
+                    split = tab;
+                }
+                if (split < 0) {
+                    throw new IOException("Line " + lineNumber + ": expected \"<weight> <card name>\"");
+                }
+                try {
+                    byName.put(CardNameIndex.normalize(line.substring(split + 1)), Float.parseFloat(line.substring(0, split)));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + lineNumber + ": invalid weight \"" + line.substring(0, split) + "\"");
+                }
+            }
+        }
+
+        int maxId = 0;
+        for (CardSummary card : cards) {
+            maxId = Math.max(maxId, card.getId());
+        }
+        float[] weights = new float[maxId + 1];
+        int matched = 0;
+        for (CardSummary card : cards) {
+            if (card.getName() == null) {
+                continue;
+            }
+            Float weight = byName.get(CardNameIndex.normalize(card.getName()));
+            int split = card.getName().indexOf("//");
+            if (weight == null && split > 0) {
+                weight = byName.get(CardNameIndex.normalize(card.getName().substring(0, split)));
+            }
+            if (weight != null) {
+                weights[card.getId()] = weight;
+                matched++;
+            }
+        }
+        return new SaltWeights(weights, matched, true);
+    }
+
+    public float get(int cardId) {
+        return cardId >= 0 && cardId < weights.length ? weights[cardId] : 0f;
+    }
+
+    /**
+     * False for EMPTY, i.e. when no weight file has been loaded.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Number of catalog cards that received a weight from the file.
+     */
+    public int getMatchedCards() {
+        return matchedCards;
+    }
+
+    /**
+     * Ids of the cards whose weight differs between the two sets of weights.
+     */
+    public List<Integer> changedCards(SaltWeights previous) {
+        List<Integer> changed = new ArrayList<>();
+        int length = Math.max(weights.length, previous.weights.length);
+        for (int cardId = 0; cardId < length; cardId++) {
+            if (get(cardId) != previous.get(cardId)) {
+                changed.add(cardId);
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,90 @@
+package cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of deck validation results keyed by deck content hash.
+ *
+ * A result only counts as a hit while the rules version and ban-list version it was
+ * computed under are still current. Bumping the ban-list version (any card status or card
+ * data change) therefore invalidates every entry at once without touching them; stale
+ * entries are replaced as they are looked up or age out.
+ */
+public class ValidationCache {
+
+    /**
+     * What validateDeck computed for one set of deck contents.
+     */
+    public static final class Result {
+        private final boolean valid;
+        private final String manaBase;
+        private final String message;
+
+        public Result(boolean valid, String manaBase, String message) {
+            this.valid = valid;
+            this.manaBase = manaBase;
+            this.message = message;
+        }
+
+        public boolean isValid() { return valid; }
+        public String getManaBase() { return manaBase; } // null when there was nothing to analyze
+        public String getMessage() { return message; }
+    }
+
+    private static final class Entry {
+        final int rulesVersion;
+        final long banListVersion;
+        final Result result;
+
+        Entry(int rulesVersion, long banListVersion, Result result) {
+            this.rulesVersion = rulesVersion;
+            this.banListVersion = banListVersion;
+            this.result = result;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+    private long banListVersion;
+
+    public ValidationCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > ValidationCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * The cached result for the contents under the given rules version, or null.
+     */
+    public synchronized Result get(long contentHash, int rulesVersion) {
+        Entry entry = entries.get(contentHash);
+        return entry != null && entry.rulesVersion == rulesVersion && entry.banListVersion == banListVersion
+                ? entry.result : null;
+    }
+
+    /**
+     * Caches a result computed under the given ban-list version. Results computed before a
+     * bump that finish after it are dropped.
+     */
+    public synchronized void put(long contentHash, int rulesVersion, long computedUnder, Result result) {
+        if (computedUnder == banListVersion) {
+            entries.put(contentHash, new Entry(rulesVersion, computedUnder, result));
+        }
+    }
+
+    public synchronized long getBanListVersion() {
+        return banListVersion;
+    }
+
+    /**
+     * Invalidates every cached result.
+     */
+    public synchronized void bumpBanListVersion() {
+        banListVersion++;
+    }
+}
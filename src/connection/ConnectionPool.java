@@ -0,0 +1,205 @@
+package connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small bounded pool of MySQL connections.
+ *
+ * borrow() hands out a wrapper whose close() returns the physical connection to the pool
+ * instead of closing the socket, so callers can use try-with-resources per operation.
+ * At most maxConnections sockets are ever open; extra borrowers wait for one to be returned.
+ * Sockets are opened on demand, so a generous maximum costs nothing until it is used.
+ */
+public final class ConnectionPool {
+
+    // Parallel rescoring (4) plus the single-threaded background users (catalog snapshot,
+    // card prefetch, import writer, game-result flush) and the UI thread, with headroom
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+    private static final long BORROW_TIMEOUT_SECONDS = 10;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static ConnectionPool shared;
+
+    private final int maxConnections;
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private int openedCount;
+    private boolean shutDown;
+
+    public ConnectionPool(int maxConnections) {
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * The application-wide pool, created on first use.
+     */
+    public static synchronized ConnectionPool shared() {
+        if (shared == null) {
+            shared = new ConnectionPool(DEFAULT_MAX_CONNECTIONS);
+        }
+        return shared;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+
+    /**
+     * Borrows a connection. Close it to give it back.
+     */
+    public Connection borrow() throws SQLException {
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for a pooled database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled database connection", e);
+        }
+
+        try {
+            Connection physical = takeIdleOrOpen();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new PooledHandler(physical));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takeIdleOrOpen() throws SQLException {
+        while (true) {
+            Connection candidate;
+            synchronized (idle) {
+                if (shutDown) {
+                    throw new SQLException("Connection pool has been shut down");
+                }
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                Connection opened = DatabaseConnection.openConnection();
+                synchronized (idle) {
+                    openedCount++;
+                }
+                return opened;
+            }
+            if (candidate.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return candidate;
+            }
+            closeQuietly(candidate);
+        }
+    }
+
+    // Resets transaction state and parks the connection for the next borrower
+    private void release(Connection physical) {
+        try {
+            boolean reusable = !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            synchronized (idle) {
+                if (reusable && !shutDown) {
+                    idle.addFirst(physical);
+                    physical = null;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection: " + e.getMessage());
+        } finally {
+            if (physical != null) {
+                closeQuietly(physical);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes every idle connection and refuses further borrows. Borrowed connections are
+     * closed as they are returned.
+     */
+    public void shutdown() {
+        synchronized (idle) {
+            shutDown = true;
+            for (Connection connection : idle) {
+                closeQuietly(connection);
+            }
+            idle.clear();
+        }
+    }
+
+    /**
+     * Number of physical connections this pool has opened over its lifetime.
+     */
+    public int getOpenedCount() {
+        synchronized (idle) {
+            return openedCount;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private final class PooledHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+
+        PooledHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
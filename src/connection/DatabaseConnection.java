@@ -28,6 +28,7 @@ public class DatabaseConnection {
     }
 
     public static void closeConnection() {
+        ConnectionPool.shutdownShared();
         try {
             if (sharedConnection != null && !sharedConnection.isClosed()) {
                 sharedConnection.close();
@@ -50,11 +51,7 @@ public class DatabaseConnection {
             System.out.println("✓ MySQL JDBC Driver loaded successfully");
 
             // Test connection
-            sharedConnection = DriverManager.getConnection(
-                    "jdbc:mysql://127.0.0.1:3306/mtg_commander_db?serverTimezone=UTC&useSSL=false",
-                    "root",
-                    "password"
-            );
+            sharedConnection = openConnection();
             System.out.println("✓ Database connection established successfully");
 
         } catch (ClassNotFoundException e) {
@@ -67,5 +64,14 @@ public class DatabaseConnection {
         }
     }
 
-
+    /**
+     * Opens a new physical connection to the database. Used for the shared connection and by ConnectionPool.
+     */
+    static Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(
+                "jdbc:mysql://127.0.0.1:3306/mtg_commander_db?serverTimezone=UTC&useSSL=false&rewriteBatchedStatements=true",
+                USERNAME,
+                PASSWORD
+        );
+    }
 }
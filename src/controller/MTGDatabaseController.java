@@ -5,39 +5,217 @@
 
 package controller;
 
+import cache.BracketSignals;
+import cache.CardDetailCache;
+import cache.CardNameIndex;
+import cache.CatalogSnapshot;
+import cache.CardBitmap;
+import cache.CardRecommender;
+import cache.CoOccurrenceIndex;
+import cache.DeckBitmapIndex;
+import cache.DeckPostingIndex;
+import cache.DeckSimilarityIndex;
+import cache.SaltWeights;
+import connection.ConnectionPool;
 import connection.DatabaseConnection;
 import entity.BorrowRequest;
+import entity.BracketMismatch;
+import entity.BulkStatusResult;
+import entity.CardPairing;
+import entity.CardRecommendation;
+import entity.CardSummary;
+import entity.ChangeSet;
 import entity.Deck;
+import entity.DeckCard;
+import entity.DeckContents;
+import entity.DeckDiff;
+import entity.DeckEdit;
+import entity.DeckSummary;
+import entity.DeckValidationSummary;
+import entity.DeckVersion;
+import entity.DeckWinRate;
+import entity.Decklist;
+import entity.DecklistImportResult;
+import entity.EventEntrant;
+import entity.EventRound;
+import entity.GameResult;
+import entity.ImportProgress;
+import entity.LendingConflict;
 import entity.Player;
+import entity.Pod;
 import entity.Record;
+import entity.SimilarDeck;
+import events.PodMatchmaker;
+import rules.ValidationReport;
+import simulation.GoldfishReport;
+import simulation.GoldfishSimulator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import transactions.BorrowTransactions;
+import transactions.CardImportPipeline;
 import transactions.CardTransactions;
+import transactions.DeckChangeListener;
+import transactions.DeckHistoryTransactions;
+import transactions.DeckRepository;
+import transactions.DecklistParser;
 import transactions.DeckTransactions;
+import transactions.EventTransactions;
+import transactions.GameResultLogger;
+import transactions.GameTransactions;
 import transactions.PlayerTransactions;
 
 public class MTGDatabaseController {
+    private static final Path CATALOG_SNAPSHOT_DIR = Paths.get(".");
+    private static final Path SALT_WEIGHTS_FILE = Paths.get("salt_scores.txt");
+    private static final Path BRACKET_SIGNALS_FILE = Paths.get("bracket_signals.txt");
+    private static final Path CO_OCCURRENCE_FILE = Paths.get("cooccurrence.bin");
+    private static final int CARD_DETAIL_CACHE_SIZE = 256;
+    // LSH candidates fetched per requested similar deck, before exact re-ranking
+    private static final int SIMILARITY_CANDIDATES_PER_RESULT = 4;
+
     private PlayerTransactions playerTransactions;
     private DeckTransactions deckTransactions;
+    private DeckHistoryTransactions deckHistoryTransactions;
     private CardTransactions cardTransactions;
     private BorrowTransactions borrowTransactions;
+    private EventTransactions eventTransactions;
+    private GameTransactions gameTransactions;
+    private GameResultLogger gameResultLogger;
+
+    // Catalog snapshot served to card listings; null while stale or missing
+    private volatile CatalogSnapshot catalogSnapshot;
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CardDetailCache cardDetailCache;
+    // Name lookup for decklist imports; rebuilt lazily after catalog changes
+    private volatile CardNameIndex cardNameIndex;
+    // Color identities and ban flags for card suggestions; rebuilt lazily after catalog changes
+    private volatile CardRecommender cardRecommender;
+    private final DeckRepository deckRepository = new DeckRepository();
+    // "Played with" counts; null until loaded from disk or built from deck_cards
+    private volatile CoOccurrenceIndex coOccurrenceIndex;
+    private final AtomicBoolean coOccurrenceSavePending = new AtomicBoolean();
+    // MinHash/LSH index over deck.minhash; null until loaded
+    private volatile DeckSimilarityIndex deckSimilarityIndex;
+    // Card id to deck ids, for card-combination searches; null until built
+    private volatile DeckPostingIndex deckPostingIndex;
+    // Card bitmap per deck, for overlap and lending conflict checks; null until built
+    private volatile DeckBitmapIndex deckBitmapIndex;
+    // Set when the schema upgrade adds deck.stats_summary, so existing decks get filled in once
+    private boolean deckStatisticsRepairNeeded;
+    // Set when the schema upgrade adds deck.computed_bracket, so existing decks get classified once
+    private boolean bracketClassificationNeeded;
 
     public MTGDatabaseController() {
         this.initializeDatabaseSchema();
         this.cardTransactions = new CardTransactions();
         this.playerTransactions = new PlayerTransactions();
         this.deckTransactions = new DeckTransactions();
+        this.deckHistoryTransactions = new DeckHistoryTransactions();
         this.borrowTransactions = new BorrowTransactions();
+        this.eventTransactions = new EventTransactions();
+        this.gameTransactions = new GameTransactions();
+        this.gameResultLogger = new GameResultLogger(ConnectionPool.shared());
+        this.cardDetailCache = new CardDetailCache(CARD_DETAIL_CACHE_SIZE, this.cardTransactions::loadCardById);
+
+        DeckChangeListener coOccurrenceListener = (deckId, added, removed, kept) -> {
+            CoOccurrenceIndex index = this.coOccurrenceIndex;
+            if (index != null) {
+                index.deckCardsChanged(deckId, added, removed, kept);
+                this.saveCoOccurrenceIndexAsync();
+            }
+        };
+        this.deckTransactions.addDeckChangeListener(coOccurrenceListener);
+
+        DeckChangeListener similarityListener = (deckId, added, removed, kept) -> {
+            DeckSimilarityIndex index = this.deckSimilarityIndex;
+            if (index != null) {
+                Set<Integer> cardIds = new HashSet<>(kept);
+                cardIds.addAll(added);
+                index.put(deckId, DeckSimilarityIndex.signature(cardIds));
+            }
+        };
+        this.deckTransactions.addDeckChangeListener(similarityListener);
+
+        DeckChangeListener postingListener = (deckId, added, removed, kept) -> {
+            DeckPostingIndex index = this.deckPostingIndex;
+            if (index != null) {
+                index.deckCardsChanged(deckId, added, removed);
+            }
+            DeckBitmapIndex bitmaps = this.deckBitmapIndex;
+            if (bitmaps != null) {
+                bitmaps.deckCardsChanged(deckId, added, removed);
+            }
+        };
+        this.deckTransactions.addDeckChangeListener(postingListener);
+
+        if (this.deckStatisticsRepairNeeded) {
+            try {
+                System.out.println("Computed statistics for " + this.repairDeckStatistics() + " decks.");
+            } catch (SQLException e) {
+                System.err.println("Deck statistics repair failed: " + e.getMessage());
+            }
+        }
+
+        // Serve the catalog from the last snapshot right away, then check it against the DB
+        this.catalogSnapshot = CatalogSnapshot.openLatest(CATALOG_SNAPSHOT_DIR);
+        this.refreshCatalogSnapshotAsync();
+
+        // Load the saved co-occurrence counts, or build them if deck contents changed since
+        this.refreshCoOccurrenceIndexAsync(false);
+        this.refreshDeckSimilarityIndexAsync();
+        this.refreshDeckCardIndexesAsync();
+
+        // Score decks in the background once the weight file is read
+        if (Files.exists(SALT_WEIGHTS_FILE)) {
+            this.snapshotExecutor.execute(() -> {
+                try {
+                    System.out.println("Salt scores computed for " + this.reloadSaltWeights() + " decks.");
+                } catch (IOException | SQLException e) {
+                    System.err.println("Could not load salt weights: " + e.getMessage());
+                }
+            });
+        }
+
+        // Classify deck brackets; without a signal file only Game Changers are counted
+        boolean hasBracketSignals = Files.exists(BRACKET_SIGNALS_FILE);
+        if (hasBracketSignals || this.bracketClassificationNeeded) {
+            this.snapshotExecutor.execute(() -> {
+                try {
+                    int classified = hasBracketSignals ? this.reloadBracketSignals() : this.deckTransactions.recomputeBrackets();
+                    System.out.println("Brackets classified for " + classified + " decks.");
+                } catch (IOException | SQLException e) {
+                    System.err.println("Could not classify deck brackets: " + e.getMessage());
+                }
+            });
+        }
     }
 
     public boolean validateUser(String var1, String var2) {
@@ -61,7 +239,7 @@ public class MTGDatabaseController {
     }
 
     private void initializeDatabaseSchema() {
-        String var1 = "CREATE TABLE IF NOT EXISTS player (    player_id INT AUTO_INCREMENT PRIMARY KEY,    first_name VARCHAR(50) NOT NULL,    last_name VARCHAR(50) NOT NULL,    city_address VARCHAR(100),    age INT,    UNIQUE (first_name, last_name));CREATE TABLE IF NOT EXISTS card (    card_id INT AUTO_INCREMENT PRIMARY KEY,    card_name VARCHAR(100) NOT NULL,    card_mana_cost VARCHAR(50),    card_type VARCHAR(50),    card_subtype VARCHAR(50),    card_power VARCHAR(10),    card_toughness VARCHAR(10),    card_text TEXT,    card_edition VARCHAR(50),    card_status ENUM('Legal', 'Banned', 'Game Changer') DEFAULT 'Legal');CREATE TABLE IF NOT EXISTS deck (    deck_id INT AUTO_INCREMENT PRIMARY KEY,    deck_name VARCHAR(100) NOT NULL,    player_id INT NOT NULL,    commander_card_id INT,    bracket_info VARCHAR(50),    mana_base VARCHAR(100),    salt_score DECIMAL(4,2),    validity ENUM('Valid', 'Invalid') DEFAULT 'Valid',    description TEXT,    FOREIGN KEY (player_id) REFERENCES player(player_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (commander_card_id) REFERENCES card(card_id)        ON DELETE SET NULL        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS borrow_request (    borrow_code INT AUTO_INCREMENT PRIMARY KEY,    player_id INT NOT NULL,    deck_id INT NOT NULL,    borrow_type ENUM('Wait', 'Immediate') DEFAULT 'Immediate',    request_date DATE NOT NULL,    due_date DATE,    return_date DATE,    status ENUM('Pending', 'Approved', 'Returned', 'Overdue', 'Cancelled') DEFAULT 'Pending',    FOREIGN KEY (player_id) REFERENCES player(player_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE CASCADE        ON UPDATE CASCADE);";
+        String var1 = "CREATE TABLE IF NOT EXISTS player (    player_id INT AUTO_INCREMENT PRIMARY KEY,    first_name VARCHAR(50) NOT NULL,    last_name VARCHAR(50) NOT NULL,    city_address VARCHAR(100),    age INT,    UNIQUE (first_name, last_name));CREATE TABLE IF NOT EXISTS card (    card_id INT AUTO_INCREMENT PRIMARY KEY,    card_name VARCHAR(100) NOT NULL,    card_mana_cost VARCHAR(50),    card_type VARCHAR(50),    card_subtype VARCHAR(50),    card_power VARCHAR(10),    card_toughness VARCHAR(10),    card_text TEXT,    card_edition VARCHAR(50),    card_status ENUM('Legal', 'Banned', 'Game Changer') DEFAULT 'Legal');CREATE TABLE IF NOT EXISTS deck (    deck_id INT AUTO_INCREMENT PRIMARY KEY,    deck_name VARCHAR(100) NOT NULL,    player_id INT NOT NULL,    commander_card_id INT,    bracket_info VARCHAR(50),    mana_base VARCHAR(100),    salt_score DECIMAL(4,2),    validity ENUM('Valid', 'Invalid') DEFAULT 'Valid',    description TEXT,    FOREIGN KEY (player_id) REFERENCES player(player_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (commander_card_id) REFERENCES card(card_id)        ON DELETE SET NULL        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS borrow_request (    borrow_code INT AUTO_INCREMENT PRIMARY KEY,    player_id INT NOT NULL,    deck_id INT NOT NULL,    borrow_type ENUM('Wait', 'Immediate') DEFAULT 'Immediate',    request_date DATE NOT NULL,    due_date DATE,    return_date DATE,    status ENUM('Pending', 'Approved', 'Returned', 'Overdue', 'Cancelled') DEFAULT 'Pending',    FOREIGN KEY (player_id) REFERENCES player(player_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE CASCADE        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS deck_cards (    deck_id INT,    card_id INT,    card_name VARCHAR(100),    quantity INT DEFAULT 1,    is_commander BOOLEAN DEFAULT FALSE,    is_game_changer BOOLEAN DEFAULT FALSE,    card_status ENUM('In Deck', 'Out of Deck') DEFAULT 'In Deck',    PRIMARY KEY (deck_id, card_id),    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (card_id) REFERENCES card(card_id)        ON DELETE CASCADE        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS change_sequence (    sequence_name VARCHAR(50) PRIMARY KEY,    current_value BIGINT NOT NULL DEFAULT 0);INSERT IGNORE INTO change_sequence (sequence_name, current_value) VALUES ('row_version', 0);CREATE TABLE IF NOT EXISTS change_tombstone (    entity_type VARCHAR(20) NOT NULL,    entity_key VARCHAR(50) NOT NULL,    row_version BIGINT NOT NULL,    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,    PRIMARY KEY (entity_type, entity_key),    INDEX idx_tombstone_version (entity_type, row_version));CREATE TABLE IF NOT EXISTS deck_version (    deck_id INT NOT NULL,    version_no INT NOT NULL,    row_version BIGINT NOT NULL,    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,    is_snapshot BOOLEAN NOT NULL,    commander_card_id INT,    payload BLOB NOT NULL,    PRIMARY KEY (deck_id, version_no),    INDEX idx_deck_version_created (deck_id, created_at),    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE CASCADE        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS store_event (    event_id INT AUTO_INCREMENT PRIMARY KEY,    event_name VARCHAR(100) NOT NULL,    event_date DATE NOT NULL);CREATE TABLE IF NOT EXISTS event_round (    event_id INT NOT NULL,    round_no INT NOT NULL,    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,    PRIMARY KEY (event_id, round_no),    FOREIGN KEY (event_id) REFERENCES store_event(event_id)        ON DELETE CASCADE        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS event_seat (    event_id INT NOT NULL,    round_no INT NOT NULL,    pod_no INT NOT NULL,    player_id INT NOT NULL,    deck_id INT,    bracket TINYINT NOT NULL,    result ENUM('Win', 'Loss', 'Draw'),    PRIMARY KEY (event_id, round_no, player_id),    INDEX idx_event_seat_pod (event_id, round_no, pod_no),    FOREIGN KEY (event_id, round_no) REFERENCES event_round(event_id, round_no)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (player_id) REFERENCES player(player_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE SET NULL        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS game (    game_id VARCHAR(36) PRIMARY KEY,    played_at TIMESTAMP NOT NULL,    logged_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,    row_version BIGINT NOT NULL);CREATE TABLE IF NOT EXISTS game_participant (    game_id VARCHAR(36) NOT NULL,    player_id INT NOT NULL,    deck_id INT,    is_winner BOOLEAN NOT NULL DEFAULT FALSE,    borrow_code INT,    PRIMARY KEY (game_id, player_id),    INDEX idx_game_participant_deck (deck_id),    FOREIGN KEY (game_id) REFERENCES game(game_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (player_id) REFERENCES player(player_id)        ON DELETE CASCADE        ON UPDATE CASCADE,    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE SET NULL        ON UPDATE CASCADE,    FOREIGN KEY (borrow_code) REFERENCES borrow_request(borrow_code)        ON DELETE SET NULL        ON UPDATE CASCADE);CREATE TABLE IF NOT EXISTS deck_game_stats (    deck_id INT PRIMARY KEY,    games_played INT NOT NULL DEFAULT 0,    games_won INT NOT NULL DEFAULT 0,    FOREIGN KEY (deck_id) REFERENCES deck(deck_id)        ON DELETE CASCADE        ON UPDATE CASCADE);";
         Connection var2 = DatabaseConnection.getConnection();
 
         try (Statement var3 = var2.createStatement()) {
@@ -75,6 +253,26 @@ public class MTGDatabaseController {
                 }
 
                 var3.executeBatch();
+
+                // Columns added after the original schema; CREATE TABLE IF NOT EXISTS won't add them to old databases
+                String[] versionedTables = {"card", "player", "deck", "deck_cards"};
+                for (String table : versionedTables) {
+                    this.ensureColumn(var2, table, "row_version",
+                            "row_version BIGINT NOT NULL DEFAULT 0, ADD INDEX idx_" + table + "_row_version (row_version)");
+                }
+                this.ensureColumn(var2, "deck", "mana_base", "mana_base VARCHAR(100)");
+                this.ensureColumn(var2, "deck", "salt_score", "salt_score DECIMAL(4,2)");
+                this.ensureColumn(var2, "deck", "avg_cmc", "avg_cmc DECIMAL(4,2)");
+                this.ensureColumn(var2, "deck", "land_count", "land_count INT");
+                this.ensureColumn(var2, "deck", "minhash", "minhash VARBINARY(256)");
+                this.ensureColumn(var2, "deck", "content_hash", "content_hash BIGINT");
+                if (this.ensureColumn(var2, "deck", "computed_bracket", "computed_bracket TINYINT AFTER bracket_info")) {
+                    this.bracketClassificationNeeded = true;
+                }
+                if (this.ensureColumn(var2, "deck", "stats_summary", "stats_summary VARBINARY(64)")) {
+                    this.deckStatisticsRepairNeeded = true;
+                }
+
                 System.out.println("All primary tables initialized successfully (MySQL).");
             }
         } catch (SQLException var11) {
@@ -83,20 +281,470 @@ public class MTGDatabaseController {
 
     }
 
+    /**
+     * Adds a column to an existing table if it is not there yet.
+     * The definition is appended to "ALTER TABLE t ADD COLUMN", so it may carry extra ADD clauses.
+     * Returns true if the column was added.
+     */
+    private boolean ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return false;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + definition);
+            System.out.println("Added column " + table + "." + column);
+        }
+        return true;
+    }
+
     public List<Record> getAllCards() throws SQLException {
+        CatalogSnapshot snapshot = this.catalogSnapshot;
+        if (snapshot != null) {
+            return snapshot.getRecords();
+        }
         return this.cardTransactions.getAllCards();
     }
 
+    /**
+     * Card listing without card_text; use getCardDetails for the full row of a selected card.
+     */
+    public List<CardSummary> getCardSummaries() throws SQLException {
+        CatalogSnapshot snapshot = this.catalogSnapshot;
+        if (snapshot != null) {
+            return snapshot.getSummaries();
+        }
+        return this.cardTransactions.getCardSummaries();
+    }
+
+    public Record getCardDetails(int cardId) throws SQLException {
+        return this.cardDetailCache.get(cardId);
+    }
+
+    public void prefetchCardDetails(int... cardIds) {
+        this.cardDetailCache.prefetch(cardIds);
+    }
+
     public void addCard(String var1, String var2, String var3, String var4, String var5, String var6, String var7, String var8, String var9) throws SQLException {
         this.cardTransactions.addCard(var1, var2, var3, var4, var5, var6, var7, var8, var9);
+        this.invalidateCatalogSnapshot();
     }
 
     public void updateCard(int var1, String var2, String var3, String var4, String var5, String var6, String var7, String var8, String var9, String var10) throws SQLException {
         this.cardTransactions.updateCard(var1, var2, var3, var4, var5, var6, var7, var8, var9, var10);
+        // The status may have made the card a Game Changer or taken that away
+        this.deckTransactions.recomputeBrackets(this.deckTransactions.findDecksContainingCards(List.of(var1)));
+        this.cardDetailCache.invalidate(var1);
+        this.deckRepository.clear();
+        this.invalidateCatalogSnapshot();
     }
 
     public void deleteCard(int var1) throws SQLException {
         this.cardTransactions.deleteCard(var1);
+        this.cardDetailCache.invalidate(var1);
+        this.deckRepository.clear();
+        this.invalidateCatalogSnapshot();
+        CoOccurrenceIndex index = this.coOccurrenceIndex;
+        if (index != null) {
+            index.removeCard(var1);
+            this.saveCoOccurrenceIndexAsync();
+        }
+        DeckPostingIndex postings = this.deckPostingIndex;
+        if (postings != null) {
+            postings.removeCard(var1);
+        }
+        DeckBitmapIndex bitmaps = this.deckBitmapIndex;
+        if (bitmaps != null) {
+            bitmaps.removeCard(var1);
+        }
+        // Decks that held the card were re-signed in the same transaction
+        this.refreshDeckSimilarityIndexAsync();
+    }
+
+    /**
+     * Imports a CSV (or, for .tsv/.tab files, tab-separated) card export. Rows that fail
+     * validation are written to "&lt;file&gt;.rejects.txt" next to the input.
+     */
+    public ImportProgress importCards(Path file, Consumer<ImportProgress> progress) throws IOException, SQLException {
+        String fileName = file.getFileName().toString().toLowerCase();
+        char delimiter = fileName.endsWith(".tsv") || fileName.endsWith(".tab") ? '\t' : ',';
+        Path rejectFile = file.resolveSibling(file.getFileName() + ".rejects.txt");
+
+        try {
+            return new CardImportPipeline(file, rejectFile, delimiter).run(progress);
+        } finally {
+            this.invalidateCatalogSnapshot();
+        }
+    }
+
+    /**
+     * Applies one status (e.g. a ban list update) to many cards by id or name, then revalidates
+     * only the decks that contain one of the changed cards.
+     */
+    public BulkStatusResult applyCardStatusBulk(List<String> namesOrIds, String status) throws SQLException {
+        List<String> unresolved = new ArrayList<>();
+        List<Integer> cardIds = this.cardTransactions.resolveCardIds(namesOrIds, unresolved);
+        List<Integer> changedIds = this.cardTransactions.updateCardStatuses(cardIds, status);
+        if (!changedIds.isEmpty()) {
+            this.cardDetailCache.clear();
+            this.deckRepository.clear();
+            this.invalidateCatalogSnapshot();
+        }
+
+        List<Integer> affectedDecks = this.deckTransactions.findDecksContainingCards(changedIds);
+        Map<Integer, Boolean> flipped = this.deckTransactions.revalidateDecks(affectedDecks).getFlipped();
+        this.deckTransactions.recomputeBrackets(affectedDecks);
+
+        List<Integer> nowInvalid = new ArrayList<>();
+        List<Integer> nowValid = new ArrayList<>();
+        for (Map.Entry<Integer, Boolean> flip : flipped.entrySet()) {
+            (flip.getValue() ? nowValid : nowInvalid).add(flip.getKey());
+        }
+        return new BulkStatusResult(unresolved, changedIds, affectedDecks.size(), nowInvalid, nowValid);
+    }
+
+    /**
+     * Drops the current catalog snapshot so reads go to the database until a fresh one is built.
+     */
+    private void invalidateCatalogSnapshot() {
+        this.catalogGeneration.incrementAndGet();
+        this.catalogSnapshot = null;
+        this.cardNameIndex = null;
+        this.cardRecommender = null;
+        // Card status and text feed validation, so cached results no longer hold
+        this.deckTransactions.invalidateValidationResults();
+        this.refreshCatalogSnapshotAsync();
+    }
+
+    /**
+     * Rebuilds the snapshot file in the background if the card table has changed since it was written.
+     * A rebuild that races with a card edit is discarded instead of published.
+     */
+    private void refreshCatalogSnapshotAsync() {
+        this.snapshotExecutor.execute(() -> {
+            long generation = this.catalogGeneration.get();
+            try {
+                long dbVersion = this.cardTransactions.getCatalogVersion();
+                CatalogSnapshot current = CatalogSnapshot.open(CatalogSnapshot.fileFor(CATALOG_SNAPSHOT_DIR, dbVersion));
+                if (current == null) {
+                    current = CatalogSnapshot.open(CatalogSnapshot.write(CATALOG_SNAPSHOT_DIR, dbVersion, this.cardTransactions.getAllCards()));
+                }
+                if (current != null && generation == this.catalogGeneration.get()) {
+                    this.catalogSnapshot = current;
+                    CatalogSnapshot.deleteOthers(CATALOG_SNAPSHOT_DIR, dbVersion);
+                    // Built here so the first suggestion lookup does not pay for it
+                    this.getCardRecommender();
+                }
+            } catch (IOException e) {
+                // The snapshot on hand is out of date; serve the catalog from the database instead
+                if (generation == this.catalogGeneration.get()) {
+                    this.catalogSnapshot = null;
+                }
+                System.err.println("Catalog snapshot write failed: " + e.getMessage());
+            } catch (SQLException e) {
+                System.err.println("Catalog snapshot refresh failed: " + e.getMessage());
+            } catch (RuntimeException e) {
+                // No usable connection (e.g. DB offline); keep serving whatever we have
+                System.err.println("Catalog snapshot refresh skipped: " + e);
+            }
+        });
+    }
+
+    /**
+     * Publishes the co-occurrence index saved for the current deck contents, or builds a new
+     * one from deck_cards (always, if rebuild is set). Edits committed while this runs are not
+     * seen by the listener, so the build repeats if the contents changed in the meantime.
+     */
+    private void refreshCoOccurrenceIndexAsync(boolean rebuild) {
+        this.snapshotExecutor.execute(() -> {
+            try {
+                boolean build = rebuild;
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    long fingerprint = this.deckTransactions.getDeckContentsFingerprint();
+                    CoOccurrenceIndex index = build ? null : CoOccurrenceIndex.load(CO_OCCURRENCE_FILE, fingerprint);
+                    if (index == null) {
+                        CoOccurrenceIndex built = new CoOccurrenceIndex();
+                        int decks = this.deckTransactions.scanDeckContents(built::addDeck);
+                        System.out.println("Co-occurrence index built from " + decks + " decks.");
+                        index = built;
+                        build = true;
+                    }
+                    this.coOccurrenceIndex = index;
+                    if (this.deckTransactions.getDeckContentsFingerprint() == fingerprint) {
+                        if (build) {
+                            index.save(CO_OCCURRENCE_FILE, fingerprint);
+                        }
+                        return;
+                    }
+                    build = true;
+                }
+                System.err.println("Deck contents kept changing; co-occurrence index may be slightly off until the next rebuild.");
+            } catch (SQLException | IOException e) {
+                System.err.println("Co-occurrence index refresh failed: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Co-occurrence index refresh skipped: " + e);
+            }
+        });
+    }
+
+    /**
+     * Writes the co-occurrence index in the background; edits that arrive before the write
+     * starts share it.
+     */
+    private void saveCoOccurrenceIndexAsync() {
+        if (!this.coOccurrenceSavePending.compareAndSet(false, true)) {
+            return;
+        }
+        this.snapshotExecutor.execute(() -> {
+            this.coOccurrenceSavePending.set(false);
+            CoOccurrenceIndex index = this.coOccurrenceIndex;
+            try {
+                if (index != null) {
+                    index.save(CO_OCCURRENCE_FILE, this.deckTransactions.getDeckContentsFingerprint());
+                }
+            } catch (SQLException | IOException e) {
+                System.err.println("Co-occurrence index save failed: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Co-occurrence index save skipped: " + e);
+            }
+        });
+    }
+
+    /**
+     * The cards most often played in the same decks as the given card. Empty while the
+     * co-occurrence index is still loading.
+     */
+    public List<CardPairing> getCardsPlayedWith(int cardId, int limit) throws SQLException {
+        List<CardPairing> pairings = new ArrayList<>();
+        CoOccurrenceIndex index = this.coOccurrenceIndex;
+        if (index == null) {
+            return pairings;
+        }
+        int decksWithCard = index.getDeckCount(cardId);
+        for (CoOccurrenceIndex.Neighbour neighbour : index.topNeighbours(cardId, limit)) {
+            Record record = this.cardDetailCache.get(neighbour.getCardId());
+            String name = record != null ? record.getName() : "Card #" + neighbour.getCardId();
+            pairings.add(new CardPairing(neighbour.getCardId(), name, neighbour.getDeckCount(), decksWithCard));
+        }
+        return pairings;
+    }
+
+    /**
+     * Cards to suggest for a deck, best first, scored on how often they are played with its
+     * current cards and commander. Empty while the co-occurrence index is still loading.
+     */
+    public List<CardRecommendation> getCardRecommendations(int deckId, int limit) throws SQLException {
+        CoOccurrenceIndex index = this.coOccurrenceIndex;
+        DeckContents contents = this.deckTransactions.getCurrentContents(deckId);
+        if (index == null || contents == null) {
+            return new ArrayList<>();
+        }
+        return this.getCardRecommender().recommend(index, contents.getQuantities().keySet(),
+                contents.getCommanderCardId(), limit);
+    }
+
+    private CardRecommender getCardRecommender() throws SQLException {
+        CardRecommender recommender = this.cardRecommender;
+        if (recommender == null) {
+            long generation = this.catalogGeneration.get();
+            recommender = CardRecommender.build(getAllCards());
+            if (this.catalogGeneration.get() == generation) {
+                this.cardRecommender = recommender;
+            }
+        }
+        return recommender;
+    }
+
+    /**
+     * Loads every deck signature into a new similarity index and publishes it, repeating
+     * the load if deck contents changed while it ran.
+     */
+    private void refreshDeckSimilarityIndexAsync() {
+        this.snapshotExecutor.execute(() -> {
+            try {
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    long fingerprint = this.deckTransactions.getDeckContentsFingerprint();
+                    DeckSimilarityIndex index = new DeckSimilarityIndex();
+                    this.deckTransactions.loadDeckSignatures(index::put);
+                    this.deckSimilarityIndex = index;
+                    if (this.deckTransactions.getDeckContentsFingerprint() == fingerprint) {
+                        return;
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Deck similarity index refresh failed: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Deck similarity index refresh skipped: " + e);
+            }
+        });
+    }
+
+    /**
+     * Builds the card-to-decks index and the deck bitmaps from one pass over deck_cards and
+     * publishes them, repeating the build if deck contents changed while it ran.
+     */
+    private void refreshDeckCardIndexesAsync() {
+        this.snapshotExecutor.execute(() -> {
+            try {
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    long fingerprint = this.deckTransactions.getDeckContentsFingerprint();
+                    DeckPostingIndex.Builder builder = new DeckPostingIndex.Builder();
+                    DeckBitmapIndex bitmaps = new DeckBitmapIndex();
+                    this.deckTransactions.scanDeckContents((deckId, cardIds) -> {
+                        builder.addDeck(deckId, cardIds);
+                        bitmaps.addDeck(deckId, cardIds);
+                    });
+                    this.deckPostingIndex = builder.build();
+                    this.deckBitmapIndex = bitmaps;
+                    if (this.deckTransactions.getDeckContentsFingerprint() == fingerprint) {
+                        return;
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Deck card index refresh failed: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Deck card index refresh skipped: " + e);
+            }
+        });
+    }
+
+    /**
+     * Ids of the decks that run every card in allOf, at least one card in anyOf (if given)
+     * and none of noneOf, in increasing order. Queries deck_cards while the index is still
+     * being built.
+     */
+    public List<Integer> findDecksWithCards(Collection<Integer> allOf, Collection<Integer> anyOf, Collection<Integer> noneOf) throws SQLException {
+        DeckPostingIndex index = this.deckPostingIndex;
+        if (index == null) {
+            return this.deckTransactions.findDecksWithCards(allOf, anyOf, noneOf);
+        }
+        List<Integer> deckIds = new ArrayList<>();
+        for (int deckId : index.query(allOf, anyOf, noneOf)) {
+            deckIds.add(deckId);
+        }
+        return deckIds;
+    }
+
+    private CardBitmap getDeckBitmap(int deckId) throws SQLException {
+        DeckBitmapIndex index = this.deckBitmapIndex;
+        return index != null ? index.get(deckId) : CardBitmap.of(this.deckTransactions.getDeckCardIds(deckId));
+    }
+
+    /**
+     * The deck bitmap index, or while it is still loading a temporary one holding just the
+     * given decks, read from deck_cards.
+     */
+    private DeckBitmapIndex getDeckBitmaps(Collection<Integer> deckIds) throws SQLException {
+        DeckBitmapIndex index = this.deckBitmapIndex;
+        if (index != null) {
+            return index;
+        }
+        DeckBitmapIndex loaded = new DeckBitmapIndex();
+        for (int deckId : deckIds) {
+            loaded.addDeck(deckId, CardBitmap.of(this.deckTransactions.getDeckCardIds(deckId)).toArray());
+        }
+        return loaded;
+    }
+
+    /**
+     * Number of distinct cards two decks have in common.
+     */
+    public int getDeckOverlap(int deckId, int otherDeckId) throws SQLException {
+        return this.getDeckBitmaps(List.of(deckId, otherDeckId)).overlap(deckId, otherDeckId);
+    }
+
+    /**
+     * Ids of the cards played in every one of the given decks.
+     */
+    public List<Integer> getCardsInAllDecks(Collection<Integer> deckIds) throws SQLException {
+        return toList(this.getDeckBitmaps(deckIds).intersection(deckIds));
+    }
+
+    /**
+     * Ids of the cards played in at least one of the given decks.
+     */
+    public List<Integer> getCardsInAnyDeck(Collection<Integer> deckIds) throws SQLException {
+        return toList(this.getDeckBitmaps(deckIds).union(deckIds));
+    }
+
+    private static List<Integer> toList(CardBitmap cards) {
+        List<Integer> ids = new ArrayList<>(cards.cardinality());
+        for (int cardId : cards.toArray()) {
+            ids.add(cardId);
+        }
+        return ids;
+    }
+
+    /**
+     * Decks already lent out that share non-basic cards with the given deck, i.e. the loans
+     * that lending it too would take physical copies from.
+     */
+    public List<LendingConflict> getLendingConflicts(int deckId) throws SQLException {
+        List<LendingConflict> conflicts = new ArrayList<>();
+        CardBitmap lending = this.getDeckBitmap(deckId);
+        if (lending.isEmpty()) {
+            return conflicts;
+        }
+        for (BorrowRequest loan : this.borrowTransactions.getActiveLoans()) {
+            if (loan.getDeckId() == deckId) {
+                continue;
+            }
+            CardBitmap shared = lending.and(this.getDeckBitmap(loan.getDeckId()));
+            List<String> names = new ArrayList<>();
+            for (int cardId : shared.toArray()) {
+                Record card = this.cardDetailCache.get(cardId);
+                // Basic lands are never short
+                if (card == null || card.getType() == null || !card.getType().contains("Basic")) {
+                    names.add(card != null ? card.getName() : "Card #" + cardId);
+                }
+            }
+            if (!names.isEmpty()) {
+                conflicts.add(new LendingConflict(loan.getBorrowCode(), loan.getDeckId(), names));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * The decks whose card sets are most like the given deck's. Empty while the similarity
+     * index is still loading.
+     */
+    public List<SimilarDeck> findSimilarDecks(int deckId, int limit) throws SQLException {
+        return this.findSimilarDecks(this.deckTransactions.getDeckCardIds(deckId), deckId, limit);
+    }
+
+    /**
+     * The decks whose card sets are most like the given list of card ids.
+     */
+    public List<SimilarDeck> findSimilarDecks(Collection<Integer> cardIds, int limit) throws SQLException {
+        return this.findSimilarDecks(new HashSet<>(cardIds), 0, limit);
+    }
+
+    private List<SimilarDeck> findSimilarDecks(Set<Integer> cardIds, int excludeDeckId, int limit) throws SQLException {
+        DeckSimilarityIndex index = this.deckSimilarityIndex;
+        if (index == null || cardIds.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<Integer> candidateIds = new ArrayList<>();
+        for (DeckSimilarityIndex.Candidate candidate : index.candidates(DeckSimilarityIndex.signature(cardIds),
+                excludeDeckId, limit * SIMILARITY_CANDIDATES_PER_RESULT)) {
+            candidateIds.add(candidate.getDeckId());
+        }
+        return this.deckTransactions.rankBySimilarity(cardIds, candidateIds, limit);
+    }
+
+    /**
+     * Decks similar to the given one that can be borrowed right now, for when it is taken.
+     */
+    public List<SimilarDeck> suggestAvailableAlternatives(int deckId, int limit) throws SQLException {
+        List<SimilarDeck> available = new ArrayList<>();
+        for (SimilarDeck similar : this.findSimilarDecks(deckId, limit * 3)) {
+            if (available.size() < limit && this.borrowTransactions.isDeckAvailable(similar.getDeckId())) {
+                available.add(similar);
+            }
+        }
+        return available;
     }
 
     public List<Player> getAllPlayers() throws SQLException {
@@ -112,23 +760,251 @@ public class MTGDatabaseController {
     }
 
     public boolean deletePlayer(int var1) throws SQLException {
-        return this.playerTransactions.deletePlayer(var1);
+        boolean deleted = this.playerTransactions.deletePlayer(var1);
+        this.deckRepository.clear();
+        if (deleted) {
+            // The player's decks went with it through the cascade, without deck change events
+            this.refreshCoOccurrenceIndexAsync(true);
+            this.refreshDeckSimilarityIndexAsync();
+            this.refreshDeckCardIndexesAsync();
+        }
+        return deleted;
     }
 
     public List<Deck> getAllDecks() throws SQLException {
         return this.deckTransactions.getAllDecks();
     }
 
+    public List<Deck> getAllDecks(boolean hydrateCommanders) throws SQLException {
+        return this.deckTransactions.getAllDecks(hydrateCommanders);
+    }
+
     public int createDeck(String var1, int var2, String var3, String var4) throws SQLException {
         return this.deckTransactions.createDeck(var1, var2, var3, var4);
     }
 
     public boolean addCardToDeck(int deckId, int cardId, int quantity, boolean isCommander) throws SQLException {
-        return this.deckTransactions.addCardToDeck(deckId, cardId, quantity, isCommander);
+        boolean added = this.deckTransactions.addCardToDeck(deckId, cardId, quantity, isCommander);
+        this.deckRepository.evict(deckId);
+        return added;
+    }
+
+    /**
+     * Applies a batch of deck edits (adds, quantity changes, removals, commander) in one transaction.
+     */
+    public DeckSummary applyDeckChanges(int deckId, List<DeckEdit> edits) throws SQLException {
+        DeckSummary summary = this.deckTransactions.applyDeckChanges(deckId, edits);
+        this.deckRepository.evict(deckId);
+        return summary;
+    }
+
+    /**
+     * Imports plain-text decklists for one player. Every file is parsed first; the decks and
+     * all their cards are then created in one batched transaction and validated together.
+     */
+    public DecklistImportResult importDecklists(List<Path> files, int playerId, String bracketInfo) throws IOException, SQLException {
+        CardNameIndex index = getCardNameIndex();
+        List<Decklist> decklists = new ArrayList<>(files.size());
+        List<String> unresolved = new ArrayList<>();
+        int cardsImported = 0;
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            String deckName = dot > 0 ? fileName.substring(0, dot) : fileName;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Decklist decklist = DecklistParser.parse(deckName, fileName, reader, index);
+                decklists.add(decklist);
+                unresolved.addAll(decklist.getUnresolvedLines());
+                cardsImported += decklist.getTotalCards();
+            }
+        }
+
+        List<Integer> deckIds = this.deckTransactions.createDecks(decklists, playerId, bracketInfo);
+        this.deckTransactions.revalidateDecks(deckIds);
+        return new DecklistImportResult(deckIds, cardsImported, unresolved);
+    }
+
+    /**
+     * Imports every .txt and .dec decklist in a folder as one batch.
+     */
+    public DecklistImportResult importDecklistFolder(Path folder, int playerId, String bracketInfo) throws IOException, SQLException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(folder)) {
+            entries.filter(Files::isRegularFile)
+                    .filter(path -> {
+                        String name = path.getFileName().toString().toLowerCase();
+                        return name.endsWith(".txt") || name.endsWith(".dec");
+                    })
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return importDecklists(files, playerId, bracketInfo);
+    }
+
+    /**
+     * Writes a deck to a plain-text decklist file. Returns the number of cards written.
+     */
+    public int exportDecklist(int deckId, Path file) throws IOException, SQLException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return this.deckTransactions.exportDecklist(deckId, writer);
+        }
+    }
+
+    private CardNameIndex getCardNameIndex() throws SQLException {
+        CardNameIndex index = this.cardNameIndex;
+        if (index == null) {
+            long generation = this.catalogGeneration.get();
+            index = CardNameIndex.build(getCardSummaries());
+            if (this.catalogGeneration.get() == generation) {
+                this.cardNameIndex = index;
+            }
+        }
+        return index;
+    }
+
+    public List<DeckVersion> getDeckVersions(int deckId) throws SQLException {
+        return this.deckHistoryTransactions.listVersions(deckId);
+    }
+
+    public DeckContents getDeckVersion(int deckId, int versionNo) throws SQLException {
+        return this.deckHistoryTransactions.materialize(deckId, versionNo);
+    }
+
+    /**
+     * Returns the deck as it was at the given time, e.g. when a borrow request was approved.
+     */
+    public DeckContents getDeckVersionAt(int deckId, Timestamp when) throws SQLException {
+        return this.deckHistoryTransactions.materializeAt(deckId, when);
+    }
+
+    public DeckDiff diffDeckVersions(int deckId, int fromVersion, int toVersion) throws SQLException {
+        return this.deckHistoryTransactions.diff(deckId, fromVersion, toVersion);
+    }
+
+    public int createEvent(String eventName, LocalDate eventDate) throws SQLException {
+        return this.eventTransactions.createEvent(eventName, eventDate);
+    }
+
+    /**
+     * Seats the given players in pods for the event's next round and saves the round.
+     * Pods are matched on the bracket of the deck each player brings (a borrowed deck if
+     * they have one out) while avoiding opponents they met in earlier rounds.
+     */
+    public EventRound pairNextEventRound(int eventId, Collection<Integer> playerIds) throws SQLException {
+        List<Integer> unseated = new ArrayList<>();
+        List<EventEntrant> entrants = this.eventTransactions.loadEntrants(playerIds, unseated);
+        Set<Long> pastPairs = this.eventTransactions.getPastPairings(eventId);
+        List<Pod> pods = new PodMatchmaker(pastPairs, 31L * eventId + pastPairs.size()).makePods(entrants);
+        int roundNo = this.eventTransactions.saveRound(eventId, pods);
+        return new EventRound(eventId, roundNo, pods, unseated);
+    }
+
+    /**
+     * Records who won a pod; a null winner records a draw.
+     */
+    public boolean recordPodResult(int eventId, int roundNo, int podNo, Integer winnerPlayerId) throws SQLException {
+        return this.eventTransactions.recordPodResult(eventId, roundNo, podNo, winnerPlayerId);
+    }
+
+    /**
+     * Queues a finished game for the next group commit. The future completes with true when
+     * the game is stored and false when its id had already been logged, so terminals can
+     * safely resend results.
+     */
+    public CompletableFuture<Boolean> logGameResult(GameResult result) {
+        return this.gameResultLogger.log(result);
+    }
+
+    /**
+     * Writes all queued game results now, e.g. before shutting down.
+     */
+    public void flushGameResults() throws SQLException {
+        this.gameResultLogger.flush();
+    }
+
+    public DeckWinRate getDeckWinRate(int deckId) throws SQLException {
+        return this.gameTransactions.getDeckWinRate(deckId);
+    }
+
+    public List<DeckWinRate> getDeckWinRates(int minGames) throws SQLException {
+        return this.gameTransactions.getDeckWinRates(minGames);
     }
 
     public String validateDeck(int var1) throws SQLException {
-        return this.deckTransactions.validateDeck(var1);
+        String result = this.deckTransactions.validateDeck(var1);
+        this.deckRepository.evict(var1);
+        return result;
+    }
+
+    public DeckValidationSummary validateAllDecks() throws SQLException {
+        DeckValidationSummary summary = this.deckTransactions.validateAllDecks();
+        this.deckRepository.clear();
+        return summary;
+    }
+
+    /**
+     * Re-reads salt_scores.txt and rescores the decks whose cards' weights changed.
+     * Returns the number of decks rescored.
+     */
+    public int reloadSaltWeights() throws IOException, SQLException {
+        SaltWeights weights = SaltWeights.load(SALT_WEIGHTS_FILE, getCardSummaries());
+        int rescored = this.deckTransactions.reloadSaltWeights(weights);
+        this.deckRepository.clear();
+        return rescored;
+    }
+
+    /**
+     * Re-reads bracket_signals.txt and reclassifies every deck. Returns the number of decks classified.
+     */
+    public int reloadBracketSignals() throws IOException, SQLException {
+        BracketSignals signals = BracketSignals.load(BRACKET_SIGNALS_FILE, getCardSummaries());
+        return this.deckTransactions.reloadBracketSignals(signals);
+    }
+
+    /**
+     * Decks whose declared bracket differs from the one their contents suggest.
+     */
+    public List<BracketMismatch> getBracketMismatches() throws SQLException {
+        return this.deckTransactions.findBracketMismatches();
+    }
+
+    /**
+     * Rebuilds the stored statistics (curve, types, pips, average CMC, lands) of every deck.
+     */
+    public int repairDeckStatistics() throws SQLException {
+        int repaired = this.deckTransactions.repairDeckStatistics();
+        this.deckRepository.clear();
+        return repaired;
+    }
+
+    /**
+     * Returns the deck with its full card contents, shared across callers for this session.
+     */
+    public Deck getDeck(int deckId) throws SQLException {
+        return this.deckRepository.findById(deckId);
+    }
+
+    /**
+     * Runs the full Commander rule set over a deck's loaded contents.
+     */
+    public ValidationReport checkDeckRules(int deckId) throws SQLException {
+        Deck deck = this.deckRepository.findById(deckId);
+        if (deck == null) {
+            throw new SQLException("Deck " + deckId + " not found");
+        }
+        return deck.validate();
+    }
+
+    /**
+     * Runs a goldfish simulation of the deck's opening hands and first turns.
+     */
+    public GoldfishReport simulateDeck(int deckId, long trials, int turns) throws SQLException {
+        Deck deck = this.deckRepository.findById(deckId);
+        if (deck == null) {
+            throw new SQLException("Deck " + deckId + " not found");
+        }
+        return new GoldfishSimulator(deck).run(trials, turns, System.nanoTime());
     }
 
     public List<BorrowRequest> getAllBorrowRequests() throws SQLException {
@@ -148,13 +1024,9 @@ public class MTGDatabaseController {
     }
 
     public boolean removeCardFromDeck(int deckId, int cardId) throws SQLException {
-        Connection connection = DatabaseConnection.getConnection();
-        String sql = "DELETE FROM deck_cards WHERE deck_id = ? AND card_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckId);
-            stmt.setInt(2, cardId);
-            return stmt.executeUpdate() > 0;
-        }
+        boolean removed = this.deckTransactions.removeCardFromDeck(deckId, cardId);
+        this.deckRepository.evict(deckId);
+        return removed;
     }
 
     // Add this method to your MTGDatabaseController class
@@ -261,26 +1133,26 @@ public class MTGDatabaseController {
         return cards;
     }
 
-    // Add this method to your MTGDatabaseController class
     public boolean deleteDeck(int deckId) throws SQLException {
-        Connection connection = DatabaseConnection.getConnection();
+        boolean deleted = this.deckTransactions.deleteDeck(deckId);
+        this.deckRepository.evict(deckId);
+        return deleted;
+    }
 
-        // First check if there are any active borrow requests for this deck
-        String checkBorrowSql = "SELECT COUNT(*) as active_requests FROM borrow_request WHERE deck_id = ? AND status IN ('Pending', 'Approved')";
-        try (PreparedStatement checkStmt = connection.prepareStatement(checkBorrowSql)) {
-            checkStmt.setInt(1, deckId);
-            ResultSet rs = checkStmt.executeQuery();
-            if (rs.next() && rs.getInt("active_requests") > 0) {
-                return false; // Cannot delete deck with active borrow requests
-            }
-        }
+    public ChangeSet<Record> getCardChangesSince(long sinceVersion) throws SQLException {
+        return this.cardTransactions.getCardChangesSince(sinceVersion);
+    }
 
-        // Delete the deck (cascade delete will handle deck_cards due to foreign key constraints)
-        String deleteSql = "DELETE FROM deck WHERE deck_id = ?";
-        try (PreparedStatement deleteStmt = connection.prepareStatement(deleteSql)) {
-            deleteStmt.setInt(1, deckId);
-            return deleteStmt.executeUpdate() > 0;
-        }
+    public ChangeSet<Player> getPlayerChangesSince(long sinceVersion) {
+        return this.playerTransactions.getPlayerChangesSince(sinceVersion);
+    }
+
+    public ChangeSet<Deck> getDeckChangesSince(long sinceVersion) throws SQLException {
+        return this.deckTransactions.getDeckChangesSince(sinceVersion);
+    }
+
+    public ChangeSet<DeckCard> getDeckCardChangesSince(long sinceVersion) throws SQLException {
+        return this.deckTransactions.getDeckCardChangesSince(sinceVersion);
     }
 
     // Add this method to your MTGDatabaseController class
@@ -0,0 +1,30 @@
+package entity;
+
+/**
+ * A deck whose declared bracket disagrees with the bracket derived from its contents.
+ */
+public class BracketMismatch {
+    private final int deckId;
+    private final String deckName;
+    private final int declaredBracket;
+    private final int computedBracket;
+
+    public BracketMismatch(int deckId, String deckName, int declaredBracket, int computedBracket) {
+        this.deckId = deckId;
+        this.deckName = deckName;
+        this.declaredBracket = declaredBracket;
+        this.computedBracket = computedBracket;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public String getDeckName() { return deckName; }
+    public int getDeclaredBracket() { return declaredBracket; }
+    public int getComputedBracket() { return computedBracket; }
+
+    @Override
+    public String toString() {
+        return "Deck " + deckId + " (" + deckName + "): declared Bracket " + declaredBracket
+                + ", contents suggest Bracket " + computedBracket;
+    }
+}
@@ -0,0 +1,32 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk card_status update (e.g. applying a new ban list):
+ * which inputs could not be matched to a card, how many cards changed, and
+ * which of the affected decks flipped validity as a result.
+ */
+public class BulkStatusResult {
+    private final List<String> unresolved;
+    private final List<Integer> updatedCardIds;
+    private final int decksChecked;
+    private final List<Integer> nowInvalidDeckIds;
+    private final List<Integer> nowValidDeckIds;
+
+    public BulkStatusResult(List<String> unresolved, List<Integer> updatedCardIds, int decksChecked,
+                            List<Integer> nowInvalidDeckIds, List<Integer> nowValidDeckIds) {
+        this.unresolved = unresolved;
+        this.updatedCardIds = updatedCardIds;
+        this.decksChecked = decksChecked;
+        this.nowInvalidDeckIds = nowInvalidDeckIds;
+        this.nowValidDeckIds = nowValidDeckIds;
+    }
+
+    // --- Getters ---
+    public List<String> getUnresolved() { return unresolved; }
+    public List<Integer> getUpdatedCardIds() { return updatedCardIds; }
+    public int getDecksChecked() { return decksChecked; }
+    public List<Integer> getNowInvalidDeckIds() { return nowInvalidDeckIds; }
+    public List<Integer> getNowValidDeckIds() { return nowValidDeckIds; }
+}
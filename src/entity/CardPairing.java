@@ -0,0 +1,37 @@
+package entity;
+
+/**
+ * A card that is often played alongside another: how many decks hold both, out of the
+ * decks that hold the card it was looked up for.
+ */
+public class CardPairing {
+    private final int cardId;
+    private final String cardName;
+    private final int sharedDecks;
+    private final int decksWithCard;
+
+    public CardPairing(int cardId, String cardName, int sharedDecks, int decksWithCard) {
+        this.cardId = cardId;
+        this.cardName = cardName;
+        this.sharedDecks = sharedDecks;
+        this.decksWithCard = decksWithCard;
+    }
+
+    // --- Getters ---
+    public int getCardId() { return cardId; }
+    public String getCardName() { return cardName; }
+    public int getSharedDecks() { return sharedDecks; }
+    public int getDecksWithCard() { return decksWithCard; }
+
+    /**
+     * Percentage of the looked-up card's decks that also play this card.
+     */
+    public int getSharePercent() {
+        return decksWithCard > 0 ? (int) Math.round(100.0 * sharedDecks / decksWithCard) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return cardName + " (" + sharedDecks + " decks, " + getSharePercent() + "%)";
+    }
+}
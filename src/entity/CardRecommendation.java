@@ -0,0 +1,36 @@
+package entity;
+
+/**
+ * A card suggested for a deck: its score and how many of the deck's cards it is commonly
+ * played with.
+ */
+public class CardRecommendation {
+    private final int cardId;
+    private final String cardName;
+    private final String cardType;
+    private final String manaCost;
+    private final double score;
+    private final int supportingCards;
+
+    public CardRecommendation(int cardId, String cardName, String cardType, String manaCost, double score, int supportingCards) {
+        this.cardId = cardId;
+        this.cardName = cardName;
+        this.cardType = cardType;
+        this.manaCost = manaCost;
+        this.score = score;
+        this.supportingCards = supportingCards;
+    }
+
+    // --- Getters ---
+    public int getCardId() { return cardId; }
+    public String getCardName() { return cardName; }
+    public String getCardType() { return cardType; }
+    public String getManaCost() { return manaCost; }
+    public double getScore() { return score; }
+    public int getSupportingCards() { return supportingCards; }
+
+    @Override
+    public String toString() {
+        return cardName + " (score " + String.format("%.2f", score) + ", with " + supportingCards + " deck cards)";
+    }
+}
@@ -0,0 +1,41 @@
+package entity;
+
+/**
+ * Slim projection of a 'card' row for list views: every column except card_text.
+ * Full details are fetched on demand as a Record.
+ */
+public class CardSummary {
+    private final int id;
+    private final String name;
+    private final String manaCost;
+    private final String type;
+    private final String subtype;
+    private final String power;
+    private final String toughness;
+    private final String edition;
+    private final String status;
+
+    public CardSummary(int id, String name, String manaCost, String type, String subtype,
+                       String power, String toughness, String edition, String status) {
+        this.id = id;
+        this.name = name;
+        this.manaCost = manaCost;
+        this.type = type;
+        this.subtype = subtype;
+        this.power = power;
+        this.toughness = toughness;
+        this.edition = edition;
+        this.status = status;
+    }
+
+    // --- Getters ---
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getManaCost() { return manaCost; }
+    public String getType() { return type; }
+    public String getSubtype() { return subtype; }
+    public String getPower() { return power; }
+    public String getToughness() { return toughness; }
+    public String getEdition() { return edition; }
+    public String getStatus() { return status; }
+}
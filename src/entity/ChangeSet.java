@@ -0,0 +1,31 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * Result of a "changes since version N" query: the rows inserted or updated after N,
+ * the keys of rows deleted after N, and the version to pass in on the next call.
+ */
+public class ChangeSet<T> {
+    private final long sinceVersion;
+    private final long currentVersion;
+    private final List<T> changed;
+    private final List<String> deletedKeys;
+
+    public ChangeSet(long sinceVersion, long currentVersion, List<T> changed, List<String> deletedKeys) {
+        this.sinceVersion = sinceVersion;
+        this.currentVersion = currentVersion;
+        this.changed = changed;
+        this.deletedKeys = deletedKeys;
+    }
+
+    // --- Getters ---
+    public long getSinceVersion() { return sinceVersion; }
+    public long getCurrentVersion() { return currentVersion; }
+    public List<T> getChanged() { return changed; }
+    public List<String> getDeletedKeys() { return deletedKeys; }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedKeys.isEmpty();
+    }
+}
@@ -1,68 +1,73 @@
 package entity;
-import java.sql.*;
+import rules.DeckRuleEngine;
+import rules.ValidationReport;
+
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class Deck {
+    private static final DeckRuleEngine COMMANDER_RULES = DeckRuleEngine.commanderDefaults();
+
     private ArrayList<Card> deckCards;
+    private final Map<Integer, Integer> quantities = new HashMap<>();
+    private final Set<Integer> gameChangerIds = new HashSet<>();
     private int deckID;
     private String deckName;
     private int ownerID;
     private Card commanderCard;
+    private int commanderCardId;
     private int bracketNum;
     private boolean deckValidity;
     private String description;
-
-    private Connection connection = null;
+    private DeckStatistics statistics;
+    private String manaBase;
+    private Double saltScore;
 
     // Constructor
     public Deck() {
         this.deckCards = new ArrayList<>();
-        // Note: This constructor doesn't initialize database connection
-        // The connection will be handled by DeckTransactions
+        // Persistence is handled by DeckRepository / DeckTransactions
     }
 
     public Deck(int deckID, String deckName, int ownerID, int bracketNum,
-                String description) throws SQLException, ClassNotFoundException {
+                String description) {
         this.deckID = deckID;
         this.deckName = deckName;
         this.ownerID = ownerID;
         this.bracketNum = bracketNum;
         this.description = description;
         this.deckCards = new ArrayList<>();
-
-        // Initialize database connection
-        Class.forName("com.mysql.cj.jdbc.Driver");
-        connection = DriverManager.getConnection(
-                "jdbc:mysql://127.0.0.1:3306/mtg_commander_db",
-                "root",
-                "password");
     }
 
-    // Load deck cards from database using CardFactory
-    public void loadDeckCards() throws SQLException {
-        ResultSet rs = null;
-        Card card = CardFactory.createCardFromResultSet(rs);
-        deckCards.clear();
-        String sql = "SELECT c.*, dc.is_commander, dc.is_game_changer, dc.quantity " +
-                "FROM deck_cards dc " +
-                "JOIN card c ON dc.card_id = c.card_id " +
-                "WHERE dc.deck_id = ?";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                card = CardFactory.createCardFromResultSet(rs);
+    /**
+     * Adds copies of a card to the loaded contents (merging with copies already present).
+     */
+    public void addCard(Card card, int quantity, boolean isGameChanger) {
+        if (!quantities.containsKey(card.getCardId())) {
+            deckCards.add(card);
+        }
+        quantities.merge(card.getCardId(), quantity, Integer::sum);
+        if (isGameChanger) {
+            gameChangerIds.add(card.getCardId());
+        }
+    }
 
-                // Set commander if this card is the commander
-                if (rs.getBoolean("is_commander")) {
-                    this.commanderCard = card;
-                }
+    /**
+     * Removes a card from the loaded contents.
+     */
+    public boolean removeCard(int cardId) {
+        quantities.remove(cardId);
+        gameChangerIds.remove(cardId);
+        return deckCards.removeIf(card -> card.getCardId() == cardId);
+    }
 
-                deckCards.add(card);
-            }
-        }
+    public void clearCards() {
+        deckCards.clear();
+        quantities.clear();
+        gameChangerIds.clear();
     }
 
     // Getters
@@ -70,6 +75,25 @@ public class Deck {
         return new ArrayList<>(deckCards); // Return copy to prevent external modification
     }
 
+    /**
+     * Copies of the card in this deck (0 if it is not in the deck).
+     */
+    public int getCardQuantity(int cardId) {
+        return quantities.getOrDefault(cardId, 0);
+    }
+
+    public boolean isGameChanger(int cardId) {
+        return gameChangerIds.contains(cardId);
+    }
+
+    public int getTotalCardCount() {
+        int total = 0;
+        for (int quantity : quantities.values()) {
+            total += quantity;
+        }
+        return total;
+    }
+
     public int getDeckId() {
         return deckID;
     }
@@ -83,7 +107,7 @@ public class Deck {
     }
 
     public int getCommanderCardId() {
-        return commanderCard != null ? commanderCard.getCardId() : 0;
+        return commanderCard != null ? commanderCard.getCardId() : commanderCardId;
     }
 
     public Card getCommanderCard() {
@@ -103,245 +127,58 @@ public class Deck {
         return description;
     }
 
-    // Setters
-    public void setBracketNum(int bracketNum) {
-        this.bracketNum = bracketNum;
-    }
-
-    public void setCommanderCard(Card selectedCard) throws SQLException {
-        // Check if the card is a creature and legendary
-        if (selectedCard instanceof Creature &&
-                selectedCard.getCardType().contains("Legendary")) {
-
-            this.commanderCard = selectedCard;
-
-            // Update database to set this card as commander
-            String updateSql = "UPDATE deck_cards SET is_commander = CASE WHEN card_id = ? THEN TRUE ELSE FALSE END WHERE deck_id = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(updateSql)) {
-                stmt.setInt(1, selectedCard.getCardId());
-                stmt.setInt(2, deckID);
-                stmt.executeUpdate();
-            }
-
-            System.out.println(selectedCard.getCardName() + " is now set as Commander!");
-        } else {
-            System.out.println("Error: Commander must be a Legendary Creature!");
-        }
+    /**
+     * Statistics stored with the deck, or null if they were not loaded or not computed yet.
+     */
+    public DeckStatistics getStatistics() {
+        return statistics;
     }
 
-    // Add card to deck
-    public boolean addCardToDeck(Card card, int quantity, boolean isGameChanger) throws SQLException {
-        String sql = "INSERT INTO deck_cards (deck_id, card_id, card_name, quantity, is_commander, is_game_changer, card_status) " +
-                "VALUES (?, ?, ?, ?, ?, ?, 'In Deck') " +
-                "ON DUPLICATE KEY UPDATE quantity = quantity + ?";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            stmt.setInt(2, card.getCardId());
-            stmt.setString(3, card.getCardName());
-            stmt.setInt(4, quantity);
-            stmt.setBoolean(5, false); // Not commander by default
-            stmt.setBoolean(6, isGameChanger);
-            stmt.setInt(7, quantity);
-
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                // Add the card to our local list (avoiding duplicates)
-                boolean cardExists = false;
-                for (Card existingCard : deckCards) {
-                    if (existingCard.getCardId() == card.getCardId()) {
-                        cardExists = true;
-                        break;
-                    }
-                }
-                if (!cardExists) {
-                    deckCards.add(card);
-                }
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Mana-base summary written during validation, or null if the deck was never validated.
+     */
+    public String getManaBase() {
+        return manaBase;
     }
 
-    // Remove card from deck
-    public boolean removeCardFromDeck(int cardId) throws SQLException {
-        String sql = "DELETE FROM deck_cards WHERE deck_id = ? AND card_id = ?";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            stmt.setInt(2, cardId);
-
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                // Remove from local list
-                deckCards.removeIf(card -> card.getCardId() == cardId);
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Stored salt score, or null if no salt weights have been applied to the deck yet.
+     */
+    public Double getSaltScore() {
+        return saltScore;
     }
 
-    // Check deck validity with detailed error reporting
-    public boolean checkDeckValidity() {
-        ArrayList<String> errors = new ArrayList<>();
-        deckValidity = true; // Start assuming valid
-
-        // Check 1: Total card count (must be exactly 100 for Commander)
-        int totalCardCount = getTotalCardCount();
-        if (totalCardCount != 100) {
-            errors.add("Deck must contain exactly 100 cards. Current count: " + totalCardCount);
-            deckValidity = false;
-        }
-
-        // Check 2: Exactly one commander
-        if (commanderCard == null) {
-            errors.add("Deck must have exactly one Commander");
-            deckValidity = false;
-        } else if (!(commanderCard instanceof Creature) || !commanderCard.getCardType().contains("Legendary")) {
-            errors.add("Commander must be a Legendary Creature: " + commanderCard.getCardName());
-            deckValidity = false;
-        }
-
-        // Check 3: Banned cards
-        ArrayList<Card> bannedCards = getBannedCards();
-        if (!bannedCards.isEmpty()) {
-            for (Card bannedCard : bannedCards) {
-                errors.add("Deck contains banned card: " + bannedCard.getCardName());
-            }
-            deckValidity = false;
-        }
-
-        // Check 4: Game Changer limits based on bracket
-        int gcCount = getGameChangerCount();
-        switch (bracketNum) {
-            case 1:
-            case 2:
-                if (gcCount > 0) {
-                    errors.add("Bracket " + bracketNum + " allows 0 Game Changers. Current: " + gcCount);
-                    deckValidity = false;
-                }
-                break;
-            case 3:
-                if (gcCount > 3) {
-                    errors.add("Bracket 3 allows maximum 3 Game Changers. Current: " + gcCount);
-                    deckValidity = false;
-                }
-                break;
-            case 4:
-            case 5:
-                // No limit for brackets 4-5
-                break;
-            default:
-                errors.add("Invalid bracket number: " + bracketNum);
-                deckValidity = false;
-        }
-
-        // Check 5: Singleton rule (except basic lands)
-        ArrayList<String> duplicateCards = getDuplicateCards();
-        if (!duplicateCards.isEmpty()) {
-            for (String duplicate : duplicateCards) {
-                errors.add("Multiple copies of non-land card: " + duplicate);
-            }
-            deckValidity = false;
-        }
-
-        // Print all errors
-        if (!errors.isEmpty()) {
-            System.out.println("\n=== DECK VALIDATION ERRORS ===");
-            for (String error : errors) {
-                System.out.println("❌ " + error);
-            }
-        } else {
-            System.out.println("✅ Deck is VALID!");
-        }
-
-        return deckValidity;
+    // Setters
+    public void setBracketNum(int bracketNum) {
+        this.bracketNum = bracketNum;
     }
 
-    // Helper methods for validation
-    private int getTotalCardCount() {
-        String sql = "SELECT SUM(quantity) as total FROM deck_cards WHERE deck_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("total");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error counting cards: " + e.getMessage());
-        }
-        return 0;
+    // Legality is reported by the rule engine rather than enforced here
+    public void setCommanderCard(Card commanderCard) {
+        this.commanderCard = commanderCard;
+        this.commanderCardId = commanderCard != null ? commanderCard.getCardId() : 0;
     }
 
-    private ArrayList<Card> getBannedCards() {
-        ArrayList<Card> banned = new ArrayList<>();
-        for (Card card : deckCards) {
-            if ("Banned".equalsIgnoreCase(card.getCardStatus())) {
-                banned.add(card);
-            }
+    // Sets only the id, for listings that do not load the commander card itself
+    public void setCommanderCardId(int commanderCardId) {
+        this.commanderCardId = commanderCardId;
+        if (commanderCard != null && commanderCard.getCardId() != commanderCardId) {
+            this.commanderCard = null;
         }
-        return banned;
     }
 
-    private int getGameChangerCount() {
-        int count = 0;
-        String sql = "SELECT COUNT(*) FROM deck_cards WHERE deck_id = ? AND is_game_changer = TRUE";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                count = rs.getInt(1);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error counting game changers: " + e.getMessage());
-        }
-        return count;
+    // Check deck validity against the Commander rules, using only the loaded deck contents
+    public boolean checkDeckValidity() {
+        return validate().isValid();
     }
 
-    private ArrayList<String> getDuplicateCards() {
-        ArrayList<String> duplicates = new ArrayList<>();
-        String sql = "SELECT card_name, SUM(quantity) as total " +
-                "FROM deck_cards " +
-                "WHERE deck_id = ? AND is_commander = FALSE " +
-                "AND card_name NOT IN ('Plains', 'Island', 'Swamp', 'Mountain', 'Forest') " +
-                "GROUP BY card_name " +
-                "HAVING total > 1";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                duplicates.add(rs.getString("card_name") + " (" + rs.getInt("total") + " copies)");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking duplicates: " + e.getMessage());
-        }
-        return duplicates;
-    }
-
-    // Save deck to database
-    // Save deck to database
-    public boolean saveDeck() throws SQLException {
-        String sql = "INSERT INTO deck (deck_id, deck_name, player_id, commander_card_id, bracket_info, description) " +
-                "VALUES (?, ?, ?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE " +
-                "deck_name = VALUES(deck_name), player_id = VALUES(player_id), " +
-                "commander_card_id = VALUES(commander_card_id), bracket_info = VALUES(bracket_info), " +
-                "description = VALUES(description)";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, deckID);
-            stmt.setString(2, deckName);
-            stmt.setInt(3, ownerID);
-            stmt.setInt(4, getCommanderCardId()); // Use the ID from the card object
-            stmt.setString(5, "Bracket " + bracketNum);
-            stmt.setString(6, description);
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        }
+    /**
+     * Runs the Commander rule engine over the loaded cards and returns every violation found.
+     */
+    public ValidationReport validate() {
+        ValidationReport report = COMMANDER_RULES.evaluate(this);
+        deckValidity = report.isValid();
+        return report;
     }
 
     // Display deck info with card types
@@ -354,37 +191,21 @@ public class Deck {
         System.out.println("Bracket: " + bracketNum);
         System.out.println("Total Cards: " + getTotalCardCount());
         System.out.println("Validity: " + (deckValidity ? "Valid" : "Invalid"));
-
-        // Display card breakdown by type
-        System.out.println("\n--- Card Breakdown ---");
-        int creatures = 0, artifacts = 0, instants = 0, sorceries = 0, lands = 0, others = 0;
-
-        for (Card card : deckCards) {
-            if (card instanceof Creature) creatures++;
-            else if (card instanceof Artifact) artifacts++;
-            else if (card instanceof Instant) instants++;
-            else if (card instanceof Sorcery) sorceries++;
-            else if (card instanceof Land) lands++;
-            else others++;
+        if (manaBase != null) {
+            System.out.println("Mana Base: " + manaBase);
         }
 
-        System.out.println("Creatures: " + creatures);
-        System.out.println("Artifacts: " + artifacts);
-        System.out.println("Instants: " + instants);
-        System.out.println("Sorceries: " + sorceries);
-        System.out.println("Lands: " + lands);
-        if (others > 0) System.out.println("Others: " + others);
-    }
-
-    // Close database connection
-    public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
-        }
+        // Stored summary when available, otherwise computed from the loaded cards
+        DeckStatistics stats = statistics != null ? statistics : DeckStatistics.of(this);
+        System.out.println("\n--- Card Breakdown ---");
+        System.out.println("Creatures: " + stats.getTypeCount(DeckStatistics.CardType.CREATURE));
+        System.out.println("Artifacts: " + stats.getTypeCount(DeckStatistics.CardType.ARTIFACT));
+        System.out.println("Enchantments: " + stats.getTypeCount(DeckStatistics.CardType.ENCHANTMENT));
+        System.out.println("Instants: " + stats.getTypeCount(DeckStatistics.CardType.INSTANT));
+        System.out.println("Sorceries: " + stats.getTypeCount(DeckStatistics.CardType.SORCERY));
+        System.out.println("Planeswalkers: " + stats.getTypeCount(DeckStatistics.CardType.PLANESWALKER));
+        System.out.println("Lands: " + stats.getLandCount());
+        System.out.println(stats);
     }
 
     // Add these setter methods to your Deck class
@@ -401,30 +222,6 @@ public class Deck {
         this.ownerID = playerId;
     }
 
-    public void setCommanderCardId(int commanderCardId) {
-        if (commanderCardId > 0) {
-            try {
-                // Load the card from database
-                String sql = "SELECT * FROM card WHERE card_id = ?";
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    stmt.setInt(1, commanderCardId);
-                    ResultSet rs = stmt.executeQuery();
-                    if (rs.next()) {
-                        this.commanderCard = CardFactory.createCardFromResultSet(rs);
-                    } else {
-                        this.commanderCard = null;
-                        System.err.println("Card with ID " + commanderCardId + " not found");
-                    }
-                }
-            } catch (SQLException e) {
-                System.err.println("Error loading commander card: " + e.getMessage());
-                this.commanderCard = null;
-            }
-        } else {
-            this.commanderCard = null;
-        }
-    }
-
     public void setBracketInfo(String bracketInfo) {
         if (bracketInfo != null && !bracketInfo.trim().isEmpty()) {
             // Handle different bracket info formats
@@ -459,4 +256,16 @@ public class Deck {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public void setStatistics(DeckStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public void setManaBase(String manaBase) {
+        this.manaBase = manaBase;
+    }
+
+    public void setSaltScore(Double saltScore) {
+        this.saltScore = saltScore;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package entity;
+
+/**
+ * Data Model: one row of the 'deck_cards' table.
+ */
+public class DeckCard {
+    private final int deckId;
+    private final int cardId;
+    private final int quantity;
+    private final boolean commander;
+
+    public DeckCard(int deckId, int cardId, int quantity, boolean commander) {
+        this.deckId = deckId;
+        this.cardId = cardId;
+        this.quantity = quantity;
+        this.commander = commander;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public int getCardId() { return cardId; }
+    public int getQuantity() { return quantity; }
+    public boolean isCommander() { return commander; }
+}
@@ -0,0 +1,34 @@
+package entity;
+
+import java.util.Map;
+
+/**
+ * A deck's cards (card id to quantity) and commander as of one history version.
+ */
+public class DeckContents {
+    private final int deckId;
+    private final int versionNo;
+    private final int commanderCardId;
+    private final Map<Integer, Integer> quantities;
+
+    public DeckContents(int deckId, int versionNo, int commanderCardId, Map<Integer, Integer> quantities) {
+        this.deckId = deckId;
+        this.versionNo = versionNo;
+        this.commanderCardId = commanderCardId;
+        this.quantities = quantities;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public int getVersionNo() { return versionNo; }
+    public int getCommanderCardId() { return commanderCardId; } // 0 when the deck had none
+    public Map<Integer, Integer> getQuantities() { return quantities; }
+
+    public int getTotalCards() {
+        int total = 0;
+        for (int quantity : quantities.values()) {
+            total += quantity;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,42 @@
+package entity;
+
+import java.util.Map;
+
+/**
+ * Differences between two versions of a deck: quantity change per card id (positive = added,
+ * negative = removed; unchanged cards are omitted) and the commander on each side.
+ */
+public class DeckDiff {
+    private final int deckId;
+    private final int fromVersion;
+    private final int toVersion;
+    private final Map<Integer, Integer> quantityChanges;
+    private final int fromCommanderCardId;
+    private final int toCommanderCardId;
+
+    public DeckDiff(int deckId, int fromVersion, int toVersion, Map<Integer, Integer> quantityChanges,
+                    int fromCommanderCardId, int toCommanderCardId) {
+        this.deckId = deckId;
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.quantityChanges = quantityChanges;
+        this.fromCommanderCardId = fromCommanderCardId;
+        this.toCommanderCardId = toCommanderCardId;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public int getFromVersion() { return fromVersion; }
+    public int getToVersion() { return toVersion; }
+    public Map<Integer, Integer> getQuantityChanges() { return quantityChanges; }
+    public int getFromCommanderCardId() { return fromCommanderCardId; }
+    public int getToCommanderCardId() { return toCommanderCardId; }
+
+    public boolean isCommanderChanged() {
+        return fromCommanderCardId != toCommanderCardId;
+    }
+
+    public boolean isEmpty() {
+        return quantityChanges.isEmpty() && !isCommanderChanged();
+    }
+}
@@ -0,0 +1,50 @@
+package entity;
+
+/**
+ * One change to a deck's contents, applied together with others by applyDeckChanges.
+ */
+public class DeckEdit {
+
+    public enum Kind {
+        ADD,            // add copies on top of the current quantity
+        SET_QUANTITY,   // replace the quantity (0 removes the card)
+        REMOVE,         // take the card out of the deck
+        SET_COMMANDER   // make this card the commander, adding it if needed
+    }
+
+    private final Kind kind;
+    private final int cardId;
+    private final int quantity;
+
+    private DeckEdit(Kind kind, int cardId, int quantity) {
+        this.kind = kind;
+        this.cardId = cardId;
+        this.quantity = quantity;
+    }
+
+    public static DeckEdit add(int cardId, int quantity) {
+        return new DeckEdit(Kind.ADD, cardId, quantity);
+    }
+
+    public static DeckEdit setQuantity(int cardId, int quantity) {
+        return new DeckEdit(Kind.SET_QUANTITY, cardId, quantity);
+    }
+
+    public static DeckEdit remove(int cardId) {
+        return new DeckEdit(Kind.REMOVE, cardId, 0);
+    }
+
+    public static DeckEdit setCommander(int cardId) {
+        return new DeckEdit(Kind.SET_COMMANDER, cardId, 0);
+    }
+
+    // --- Getters ---
+    public Kind getKind() { return kind; }
+    public int getCardId() { return cardId; }
+    public int getQuantity() { return quantity; }
+
+    @Override
+    public String toString() {
+        return kind + " card " + cardId + (kind == Kind.ADD || kind == Kind.SET_QUANTITY ? " x" + quantity : "");
+    }
+}
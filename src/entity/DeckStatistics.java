@@ -0,0 +1,172 @@
+package entity;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Summary statistics for a deck's contents: mana curve, card type counts, colored pip totals,
+ * land count and average mana value of the nonland cards.
+ *
+ * Counts are additive, so the summary can be kept up to date by applying each card's quantity
+ * change instead of rescanning the deck. The encoded form is a few dozen bytes and is stored
+ * on the deck row (stats_summary).
+ */
+public class DeckStatistics {
+
+    public static final int CURVE_BUCKETS = 8; // mana value 0..6, then 7+
+
+    public enum CardType { CREATURE, ARTIFACT, ENCHANTMENT, INSTANT, SORCERY, PLANESWALKER, LAND, BATTLE }
+
+    private static final int FORMAT_VERSION = 1;
+    private static final CardType[] TYPES = CardType.values();
+
+    private final int[] curve = new int[CURVE_BUCKETS];
+    private final int[] typeCounts = new int[TYPES.length];
+    private final int[] pips = new int[ManaCost.COLOR_COUNT];
+    private int totalCards;
+    private int landCount;
+    private int nonLandCards;
+    private int nonLandManaValue;
+
+    /**
+     * Computes statistics for the cards loaded in a deck.
+     */
+    public static DeckStatistics of(Deck deck) {
+        DeckStatistics stats = new DeckStatistics();
+        for (Card card : deck.getDeckCards()) {
+            stats.apply(card, deck.getCardQuantity(card.getCardId()));
+        }
+        return stats;
+    }
+
+    public void apply(Card card, int quantityChange) {
+        apply(card.getManaCost(), card.getCardType(), quantityChange);
+    }
+
+    /**
+     * Adds (positive change) or removes (negative change) copies of a card with the given
+     * mana cost and type line.
+     */
+    public void apply(String manaCost, String cardType, int quantityChange) {
+        if (quantityChange == 0) {
+            return;
+        }
+        String type = cardType != null ? cardType.toLowerCase() : "";
+        boolean land = type.contains("land");
+
+        totalCards += quantityChange;
+        for (int t = 0; t < TYPES.length; t++) {
+            if (type.contains(TYPES[t].name().toLowerCase())) {
+                typeCounts[t] += quantityChange;
+            }
+        }
+
+        if (land) {
+            landCount += quantityChange;
+            return;
+        }
+        ManaCost cost = ManaCost.parse(manaCost);
+        nonLandCards += quantityChange;
+        nonLandManaValue += cost.getManaValue() * quantityChange;
+        curve[Math.min(cost.getManaValue(), CURVE_BUCKETS - 1)] += quantityChange;
+        for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+            pips[c] += cost.getPips(c) * quantityChange;
+        }
+    }
+
+    // --- Getters ---
+    public int getCurve(int bucket) { return curve[bucket]; }
+    public int getTypeCount(CardType type) { return typeCounts[type.ordinal()]; }
+    public int getPips(int colorIndex) { return pips[colorIndex]; }
+    public int getTotalCards() { return totalCards; }
+    public int getLandCount() { return landCount; }
+
+    /**
+     * Average mana value of the nonland cards (0 if there are none).
+     */
+    public double getAverageManaValue() {
+        return nonLandCards > 0 ? (double) nonLandManaValue / nonLandCards : 0.0;
+    }
+
+    /**
+     * Serializes the summary as a format byte followed by zigzag varints.
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(48);
+        out.write(FORMAT_VERSION);
+        for (int value : curve) {
+            writeVarint(out, value);
+        }
+        for (int value : typeCounts) {
+            writeVarint(out, value);
+        }
+        for (int value : pips) {
+            writeVarint(out, value);
+        }
+        writeVarint(out, totalCards);
+        writeVarint(out, landCount);
+        writeVarint(out, nonLandCards);
+        writeVarint(out, nonLandManaValue);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads an encoded summary; returns null for null, truncated or unknown-format input.
+     */
+    public static DeckStatistics decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+            return null;
+        }
+        try {
+            DeckStatistics stats = new DeckStatistics();
+            int[] position = {1};
+            for (int i = 0; i < stats.curve.length; i++) {
+                stats.curve[i] = readVarint(bytes, position);
+            }
+            for (int i = 0; i < stats.typeCounts.length; i++) {
+                stats.typeCounts[i] = readVarint(bytes, position);
+            }
+            for (int i = 0; i < stats.pips.length; i++) {
+                stats.pips[i] = readVarint(bytes, position);
+            }
+            stats.totalCards = readVarint(bytes, position);
+            stats.landCount = readVarint(bytes, position);
+            stats.nonLandCards = readVarint(bytes, position);
+            stats.nonLandManaValue = readVarint(bytes, position);
+            return stats;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            out.write((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        out.write(zigzag);
+    }
+
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+            shift += 7;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Curve:");
+        for (int i = 0; i < CURVE_BUCKETS; i++) {
+            sb.append(' ').append(i == CURVE_BUCKETS - 1 ? i + "+" : String.valueOf(i)).append('=').append(curve[i]);
+        }
+        sb.append(String.format(" | %d lands | avg MV %.2f", landCount, getAverageManaValue()));
+        return sb.toString();
+    }
+}
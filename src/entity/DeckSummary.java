@@ -0,0 +1,37 @@
+package entity;
+
+/**
+ * A deck's contents after a batch of edits: size, commander, and how many
+ * deck_cards rows the batch wrote or removed.
+ */
+public class DeckSummary {
+    private final int deckId;
+    private final int distinctCards;
+    private final int totalCards;
+    private final int commanderCardId;
+    private final int rowsWritten;
+    private final int rowsRemoved;
+
+    public DeckSummary(int deckId, int distinctCards, int totalCards, int commanderCardId, int rowsWritten, int rowsRemoved) {
+        this.deckId = deckId;
+        this.distinctCards = distinctCards;
+        this.totalCards = totalCards;
+        this.commanderCardId = commanderCardId;
+        this.rowsWritten = rowsWritten;
+        this.rowsRemoved = rowsRemoved;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public int getDistinctCards() { return distinctCards; }
+    public int getTotalCards() { return totalCards; }
+    public int getCommanderCardId() { return commanderCardId; } // 0 when the deck has none
+    public int getRowsWritten() { return rowsWritten; }
+    public int getRowsRemoved() { return rowsRemoved; }
+
+    @Override
+    public String toString() {
+        return "Deck " + deckId + ": " + totalCards + " cards (" + distinctCards + " distinct), commander "
+                + (commanderCardId > 0 ? String.valueOf(commanderCardId) : "none");
+    }
+}
@@ -0,0 +1,27 @@
+package entity;
+
+import java.util.Map;
+
+/**
+ * Outcome of validating a batch of decks: how many were checked, how many ended up
+ * valid or invalid, and which ones changed validity (deck id to new validity, true = Valid).
+ */
+public class DeckValidationSummary {
+    private final int decksChecked;
+    private final int validCount;
+    private final int invalidCount;
+    private final Map<Integer, Boolean> flipped;
+
+    public DeckValidationSummary(int decksChecked, int validCount, int invalidCount, Map<Integer, Boolean> flipped) {
+        this.decksChecked = decksChecked;
+        this.validCount = validCount;
+        this.invalidCount = invalidCount;
+        this.flipped = flipped;
+    }
+
+    // --- Getters ---
+    public int getDecksChecked() { return decksChecked; }
+    public int getValidCount() { return validCount; }
+    public int getInvalidCount() { return invalidCount; }
+    public Map<Integer, Boolean> getFlipped() { return flipped; }
+}
@@ -0,0 +1,32 @@
+package entity;
+
+import java.sql.Timestamp;
+
+/**
+ * One entry in a deck's version history (metadata only; see DeckContents for the cards).
+ */
+public class DeckVersion {
+    private final int deckId;
+    private final int versionNo;
+    private final Timestamp createdAt;
+    private final boolean snapshot;
+    private final int commanderCardId;
+    private final int payloadBytes;
+
+    public DeckVersion(int deckId, int versionNo, Timestamp createdAt, boolean snapshot, int commanderCardId, int payloadBytes) {
+        this.deckId = deckId;
+        this.versionNo = versionNo;
+        this.createdAt = createdAt;
+        this.snapshot = snapshot;
+        this.commanderCardId = commanderCardId;
+        this.payloadBytes = payloadBytes;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public int getVersionNo() { return versionNo; }
+    public Timestamp getCreatedAt() { return createdAt; }
+    public boolean isSnapshot() { return snapshot; }
+    public int getCommanderCardId() { return commanderCardId; } // 0 when the deck had none
+    public int getPayloadBytes() { return payloadBytes; }
+}
@@ -0,0 +1,31 @@
+package entity;
+
+/**
+ * Logged games and wins for one deck.
+ */
+public class DeckWinRate {
+    private final int deckId;
+    private final String deckName;
+    private final int gamesPlayed;
+    private final int gamesWon;
+
+    public DeckWinRate(int deckId, String deckName, int gamesPlayed, int gamesWon) {
+        this.deckId = deckId;
+        this.deckName = deckName;
+        this.gamesPlayed = gamesPlayed;
+        this.gamesWon = gamesWon;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public String getDeckName() { return deckName; }
+    public int getGamesPlayed() { return gamesPlayed; }
+    public int getGamesWon() { return gamesWon; }
+    public double getWinRate() { return gamesPlayed > 0 ? (double) gamesWon / gamesPlayed : 0.0; } // 0.0 - 1.0
+
+    @Override
+    public String toString() {
+        return "Deck " + deckId + " (" + deckName + "): " + gamesWon + "/" + gamesPlayed + " wins ("
+                + Math.round(getWinRate() * 100) + "%)";
+    }
+}
@@ -0,0 +1,47 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed decklist: resolved card quantities, the commander (if the list names one)
+ * and the lines that could not be matched to a card.
+ */
+public class Decklist {
+    private final String name;
+    private final Map<Integer, Integer> quantities = new LinkedHashMap<>();
+    private final List<String> unresolvedLines = new ArrayList<>();
+    private int commanderCardId;
+
+    public Decklist(String name) {
+        this.name = name;
+    }
+
+    public void addCard(int cardId, int quantity) {
+        quantities.merge(cardId, quantity, Integer::sum);
+    }
+
+    public void setCommanderCardId(int commanderCardId) {
+        this.commanderCardId = commanderCardId;
+    }
+
+    public void addUnresolved(String line) {
+        unresolvedLines.add(line);
+    }
+
+    // --- Getters ---
+    public String getName() { return name; }
+    public Map<Integer, Integer> getQuantities() { return quantities; }
+    public List<String> getUnresolvedLines() { return unresolvedLines; }
+    public int getCommanderCardId() { return commanderCardId; } // 0 when the list names none
+
+    public int getTotalCards() {
+        int total = 0;
+        for (int quantity : quantities.values()) {
+            total += quantity;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,24 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * Outcome of importing one or more decklist files: the decks created, how many cards
+ * went in, and every line that could not be resolved ("file:line: text").
+ */
+public class DecklistImportResult {
+    private final List<Integer> createdDeckIds;
+    private final int cardsImported;
+    private final List<String> unresolvedLines;
+
+    public DecklistImportResult(List<Integer> createdDeckIds, int cardsImported, List<String> unresolvedLines) {
+        this.createdDeckIds = createdDeckIds;
+        this.cardsImported = cardsImported;
+        this.unresolvedLines = unresolvedLines;
+    }
+
+    // --- Getters ---
+    public List<Integer> getCreatedDeckIds() { return createdDeckIds; }
+    public int getCardsImported() { return cardsImported; }
+    public List<String> getUnresolvedLines() { return unresolvedLines; }
+}
@@ -0,0 +1,36 @@
+package entity;
+
+/**
+ * A player registered for an event round, with the deck they will play and its bracket.
+ * The deck is one they have borrowed when they have an active loan, otherwise their own.
+ */
+public class EventEntrant {
+    private final int playerId;
+    private final String playerName;
+    private final int deckId;
+    private final String deckName;
+    private final int bracket;
+    private final boolean borrowed;
+
+    public EventEntrant(int playerId, String playerName, int deckId, String deckName, int bracket, boolean borrowed) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.deckId = deckId;
+        this.deckName = deckName;
+        this.bracket = bracket;
+        this.borrowed = borrowed;
+    }
+
+    // --- Getters ---
+    public int getPlayerId() { return playerId; }
+    public String getPlayerName() { return playerName; }
+    public int getDeckId() { return deckId; }
+    public String getDeckName() { return deckName; }
+    public int getBracket() { return bracket; }
+    public boolean isBorrowed() { return borrowed; }
+
+    @Override
+    public String toString() {
+        return playerName + " - " + deckName + " (Bracket " + bracket + (borrowed ? ", borrowed" : "") + ")";
+    }
+}
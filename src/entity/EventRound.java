@@ -0,0 +1,27 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * The pods of one saved event round, plus the requested players who could not be seated
+ * because they have no deck to play.
+ */
+public class EventRound {
+    private final int eventId;
+    private final int roundNo;
+    private final List<Pod> pods;
+    private final List<Integer> unseatedPlayerIds;
+
+    public EventRound(int eventId, int roundNo, List<Pod> pods, List<Integer> unseatedPlayerIds) {
+        this.eventId = eventId;
+        this.roundNo = roundNo;
+        this.pods = pods;
+        this.unseatedPlayerIds = unseatedPlayerIds;
+    }
+
+    // --- Getters ---
+    public int getEventId() { return eventId; }
+    public int getRoundNo() { return roundNo; }
+    public List<Pod> getPods() { return pods; }
+    public List<Integer> getUnseatedPlayerIds() { return unseatedPlayerIds; }
+}
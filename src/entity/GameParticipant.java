@@ -0,0 +1,21 @@
+package entity;
+
+/**
+ * One player's seat in a logged game.
+ */
+public class GameParticipant {
+    private final int playerId;
+    private final int deckId;
+    private final boolean winner;
+
+    public GameParticipant(int playerId, int deckId, boolean winner) {
+        this.playerId = playerId;
+        this.deckId = deckId;
+        this.winner = winner;
+    }
+
+    // --- Getters ---
+    public int getPlayerId() { return playerId; }
+    public int getDeckId() { return deckId; }
+    public boolean isWinner() { return winner; }
+}
@@ -0,0 +1,26 @@
+package entity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A finished game as reported by a terminal. The game id is generated by the client
+ * (a UUID string, at most 36 characters), so a result sent twice is only stored once.
+ * A game with no winner is a draw.
+ */
+public class GameResult {
+    private final String gameId;
+    private final LocalDateTime playedAt;
+    private final List<GameParticipant> participants;
+
+    public GameResult(String gameId, LocalDateTime playedAt, List<GameParticipant> participants) {
+        this.gameId = gameId;
+        this.playedAt = playedAt;
+        this.participants = participants;
+    }
+
+    // --- Getters ---
+    public String getGameId() { return gameId; }
+    public LocalDateTime getPlayedAt() { return playedAt; }
+    public List<GameParticipant> getParticipants() { return participants; }
+}
@@ -0,0 +1,37 @@
+package entity;
+
+/**
+ * Point-in-time counters reported by a running (or finished) card import.
+ */
+public class ImportProgress {
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedMillis;
+    private final boolean finished;
+
+    public ImportProgress(long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis, boolean finished) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+    }
+
+    // --- Getters ---
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsRejected() { return rowsRejected; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isFinished() { return finished; }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? rowsImported * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d read, %,d imported, %,d rejected (%,.0f rows/sec)",
+                rowsRead, rowsImported, rowsRejected, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,33 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * A deck that is already lent out and shares cards with a deck about to be lent, so both
+ * cannot be handed out from the same physical copies.
+ */
+public class LendingConflict {
+    private final int borrowCode;
+    private final int lentDeckId;
+    private final List<String> sharedCards;
+
+    public LendingConflict(int borrowCode, int lentDeckId, List<String> sharedCards) {
+        this.borrowCode = borrowCode;
+        this.lentDeckId = lentDeckId;
+        this.sharedCards = sharedCards;
+    }
+
+    // --- Getters ---
+    public int getBorrowCode() { return borrowCode; }
+    public int getLentDeckId() { return lentDeckId; }
+    public List<String> getSharedCards() { return sharedCards; }
+
+    // Lists at most the first 10 card names
+    @Override
+    public String toString() {
+        int shown = Math.min(10, sharedCards.size());
+        return "Deck " + lentDeckId + " (borrow #" + borrowCode + "): " + sharedCards.size()
+                + " shared card" + (sharedCards.size() == 1 ? "" : "s") + " - " + String.join(", ", sharedCards.subList(0, shown))
+                + (shown < sharedCards.size() ? ", ..." : "");
+    }
+}
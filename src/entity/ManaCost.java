@@ -0,0 +1,163 @@
+package entity;
+
+/**
+ * Parsed form of a mana cost string such as "{2}{W}{U/B}".
+ *
+ * Colors are kept as a bit mask (W, U, B, R, G) so color identity checks are a single
+ * AND against the commander's mask.
+ */
+public final class ManaCost {
+
+    public static final int WHITE = 1;
+    public static final int BLUE = 1 << 1;
+    public static final int BLACK = 1 << 2;
+    public static final int RED = 1 << 3;
+    public static final int GREEN = 1 << 4;
+
+    private static final String COLOR_LETTERS = "WUBRG";
+    private static final String[] BASIC_LAND_TYPES = {"Plains", "Island", "Swamp", "Mountain", "Forest"};
+
+    public static final int COLOR_COUNT = 5;
+
+    private final int manaValue;
+    private final int colors;
+    private final int[] pips; // colored symbols per color, in WUBRG order
+
+    private ManaCost(int manaValue, int colors, int[] pips) {
+        this.manaValue = manaValue;
+        this.colors = colors;
+        this.pips = pips;
+    }
+
+    /**
+     * Parses a mana cost. Null or empty costs (lands) parse to zero with no colors;
+     * text outside braces is skipped, so rules text can be scanned for symbols too.
+     */
+    public static ManaCost parse(String cost) {
+        if (cost == null || cost.isEmpty()) {
+            return new ManaCost(0, 0, new int[COLOR_COUNT]);
+        }
+
+        int manaValue = 0;
+        int colors = 0;
+        int[] pips = new int[COLOR_COUNT];
+        int i = 0;
+        while (i < cost.length()) {
+            int open = cost.indexOf('{', i);
+            if (open < 0) {
+                break;
+            }
+            int close = cost.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            String symbol = cost.substring(open + 1, close).toUpperCase();
+            manaValue += symbolValue(symbol);
+            int symbolColors = symbolColors(symbol);
+            colors |= symbolColors;
+            for (int c = 0; c < COLOR_COUNT; c++) {
+                if ((symbolColors & (1 << c)) != 0) {
+                    pips[c]++;
+                }
+            }
+            i = close + 1;
+        }
+        return new ManaCost(manaValue, colors, pips);
+    }
+
+    /**
+     * Color identity of a card: every colored mana symbol in its cost and rules text.
+     */
+    public static int colorIdentity(Card card) {
+        return colorIdentity(card.getManaCost(), card.getCardText());
+    }
+
+    public static int colorIdentity(String manaCost, String cardText) {
+        return parse(manaCost).colors | parse(cardText).colors;
+    }
+
+    /**
+     * Colors of mana a land can produce (or fetch): basic land types in its subtype or text,
+     * mana symbols in its text, and every color for "any color" lands. 0 means colorless only.
+     */
+    public static int landColors(Card card) {
+        return landColors(card.getCardSubtype(), card.getCardText());
+    }
+
+    public static int landColors(String subtype, String cardText) {
+        String text = cardText != null ? cardText : "";
+        if (text.toLowerCase().contains("any color")) {
+            return WHITE | BLUE | BLACK | RED | GREEN;
+        }
+        String types = (subtype != null ? subtype : "") + " " + text;
+        int colors = parse(text).colors;
+        for (int i = 0; i < BASIC_LAND_TYPES.length; i++) {
+            if (types.contains(BASIC_LAND_TYPES[i])) {
+                colors |= 1 << i;
+            }
+        }
+        return colors;
+    }
+
+    // "3" -> 3, "X" -> 0, "2/W" -> 2, anything else (W, U/B, G/P, C, S) -> 1
+    private static int symbolValue(String symbol) {
+        if (symbol.equals("X") || symbol.equals("Y") || symbol.equals("Z")) {
+            return 0;
+        }
+        // Leading digits up to the first '/', parsed by hand: most symbols are colors, and a
+        // NumberFormatException per pip dominated deck validation
+        int value = 0;
+        int digits = 0;
+        while (digits < symbol.length() && symbol.charAt(digits) >= '0' && symbol.charAt(digits) <= '9') {
+            value = value * 10 + (symbol.charAt(digits) - '0');
+            digits++;
+        }
+        if (digits == 0 || (digits < symbol.length() && symbol.charAt(digits) != '/')) {
+            return 1;
+        }
+        return value;
+    }
+
+    private static int symbolColors(String symbol) {
+        int colors = 0;
+        for (String part : symbol.split("/")) {
+            if (part.length() == 1) {
+                int index = COLOR_LETTERS.indexOf(part.charAt(0));
+                if (index >= 0) {
+                    colors |= 1 << index;
+                }
+            }
+        }
+        return colors;
+    }
+
+    /**
+     * Formats a color mask as letters in WUBRG order, or "C" for colorless.
+     */
+    public static String colorsToString(int colors) {
+        if (colors == 0) {
+            return "C";
+        }
+        StringBuilder sb = new StringBuilder(5);
+        for (int i = 0; i < COLOR_LETTERS.length(); i++) {
+            if ((colors & (1 << i)) != 0) {
+                sb.append(COLOR_LETTERS.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    // --- Getters ---
+    public int getManaValue() { return manaValue; }
+    public int getColors() { return colors; }
+
+    /**
+     * Number of symbols of the given color (index in WUBRG order); hybrid symbols count for each color.
+     */
+    public int getPips(int colorIndex) { return pips[colorIndex]; }
+
+    @Override
+    public String toString() {
+        return manaValue + " (" + colorsToString(colors) + ")";
+    }
+}
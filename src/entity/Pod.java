@@ -0,0 +1,42 @@
+package entity;
+
+import java.util.List;
+
+/**
+ * One table of an event round.
+ */
+public class Pod {
+    private final int podNo;
+    private final List<EventEntrant> seats;
+    private final int repeatPairs;
+
+    public Pod(int podNo, List<EventEntrant> seats, int repeatPairs) {
+        this.podNo = podNo;
+        this.seats = seats;
+        this.repeatPairs = repeatPairs;
+    }
+
+    // --- Getters ---
+    public int getPodNo() { return podNo; }
+    public List<EventEntrant> getSeats() { return seats; }
+    public int getRepeatPairs() { return repeatPairs; } // opponent pairs that already met this event
+
+    public int getBracketSpread() {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (EventEntrant seat : seats) {
+            min = Math.min(min, seat.getBracket());
+            max = Math.max(max, seat.getBracket());
+        }
+        return seats.isEmpty() ? 0 : max - min;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Pod " + podNo + ":");
+        for (EventEntrant seat : seats) {
+            sb.append("\n  ").append(seat);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package entity;
+
+/**
+ * A deck found by a similarity search, with the exact Jaccard similarity of its card set
+ * to the query's.
+ */
+public class SimilarDeck {
+    private final int deckId;
+    private final String deckName;
+    private final double similarity;
+    private final int sharedCards;
+
+    public SimilarDeck(int deckId, String deckName, double similarity, int sharedCards) {
+        this.deckId = deckId;
+        this.deckName = deckName;
+        this.similarity = similarity;
+        this.sharedCards = sharedCards;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public String getDeckName() { return deckName; }
+    public double getSimilarity() { return similarity; } // 0.0 - 1.0
+    public int getSharedCards() { return sharedCards; }
+
+    @Override
+    public String toString() {
+        return "Deck " + deckId + " (" + deckName + "): " + Math.round(similarity * 100) + "% similar, "
+                + sharedCards + " cards in common";
+    }
+}
@@ -0,0 +1,226 @@
+package events;
+
+import entity.EventEntrant;
+import entity.Pod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Splits an event's entrants into Commander pods of four (three where the count does not
+ * divide evenly) so that pods share a bracket and nobody meets an opponent twice.
+ *
+ * A pod costs SPREAD_WEIGHT x (bracket spread)^2 plus REPEAT_WEIGHT per pair of players who
+ * already met. Entrants are seeded greedily in bracket order, each pod filled from a short
+ * window of the next unseated players, then pods with a cost are improved by swapping
+ * players with other pods while that lowers the total. Both phases are close to linear in
+ * the number of entrants; a thousand players take tens of milliseconds.
+ */
+public final class PodMatchmaker {
+
+    public static final int POD_SIZE = 4;
+    static final int SPREAD_WEIGHT = 10;
+    static final int REPEAT_WEIGHT = 1000;
+
+    private static final int SEED_WINDOW = 24;   // unseated players considered per greedy pick
+    private static final int SWAP_TRIES = 48;    // swap candidates tried per seat of a costly pod
+    private static final int MAX_PASSES = 16;
+
+    private final Set<Long> pastPairs;
+    private final Random random;
+
+    /**
+     * pastPairs holds pairKey(a, b) for every two players who already shared a pod.
+     * The same seed and input give the same pods.
+     */
+    public PodMatchmaker(Set<Long> pastPairs, long seed) {
+        this.pastPairs = pastPairs;
+        this.random = new Random(seed);
+    }
+
+    public static long pairKey(int playerA, int playerB) {
+        int low = Math.min(playerA, playerB);
+        int high = Math.max(playerA, playerB);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Pod sizes for n players: as many fours as possible, the rest threes. Fewer than six
+     * players sit at one table.
+     */
+    static int[] podSizes(int n) {
+        if (n == 0) {
+            return new int[0];
+        }
+        if (n < 6) {
+            return new int[]{n};
+        }
+        int pods = (n + POD_SIZE - 1) / POD_SIZE;
+        int[] sizes = new int[pods];
+        int threes = pods * POD_SIZE - n;
+        for (int p = 0; p < pods; p++) {
+            sizes[p] = p < pods - threes ? POD_SIZE : POD_SIZE - 1;
+        }
+        return sizes;
+    }
+
+    public List<Pod> makePods(List<EventEntrant> entrants) {
+        int n = entrants.size();
+        int[] players = new int[n];
+        int[] brackets = new int[n];
+        for (int i = 0; i < n; i++) {
+            players[i] = entrants.get(i).getPlayerId();
+            brackets[i] = entrants.get(i).getBracket();
+        }
+
+        // Bracket order, shuffled within each bracket so seeding does not follow player ids
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        order.sort(Comparator.comparingInt(i -> brackets[i]));
+        int[] sorted = new int[n];
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            sorted[r] = order.get(r);
+            rank[sorted[r]] = r;
+        }
+
+        int[] sizes = podSizes(n);
+        int[][] pods = seed(sizes, order, players, brackets);
+        int[] podOf = new int[n];
+        int[] slotOf = new int[n];
+        for (int p = 0; p < pods.length; p++) {
+            for (int s = 0; s < pods[p].length; s++) {
+                podOf[pods[p][s]] = p;
+                slotOf[pods[p][s]] = s;
+            }
+        }
+        improve(pods, podOf, slotOf, sorted, rank, players, brackets);
+
+        List<Pod> result = new ArrayList<>(pods.length);
+        for (int p = 0; p < pods.length; p++) {
+            int[] members = pods[p].clone();
+            Arrays.sort(members);
+            List<EventEntrant> seats = new ArrayList<>(members.length);
+            for (int member : members) {
+                seats.add(entrants.get(member));
+            }
+            result.add(new Pod(p + 1, seats, repeats(pods[p], -1, -1, players)));
+        }
+        return result;
+    }
+
+    // Fills pods in turn: the first unseated player anchors a pod, the rest are the cheapest
+    // of the next SEED_WINDOW unseated players
+    private int[][] seed(int[] sizes, List<Integer> order, int[] players, int[] brackets) {
+        List<Integer> unseated = new ArrayList<>(order);
+        int[][] pods = new int[sizes.length][];
+        for (int p = 0; p < sizes.length; p++) {
+            int[] pod = new int[sizes[p]];
+            pod[0] = unseated.remove(0);
+            int min = brackets[pod[0]];
+            int max = min;
+            for (int s = 1; s < pod.length; s++) {
+                int best = 0;
+                long bestCost = Long.MAX_VALUE;
+                for (int w = 0; w < Math.min(SEED_WINDOW, unseated.size()); w++) {
+                    int candidate = unseated.get(w);
+                    int spread = Math.max(max, brackets[candidate]) - Math.min(min, brackets[candidate]);
+                    long cost = (long) SPREAD_WEIGHT * spread * spread;
+                    for (int m = 0; m < s; m++) {
+                        if (pastPairs.contains(pairKey(players[pod[m]], players[candidate]))) {
+                            cost += REPEAT_WEIGHT;
+                        }
+                    }
+                    if (cost < bestCost) {
+                        best = w;
+                        bestCost = cost;
+                    }
+                }
+                pod[s] = unseated.remove(best);
+                min = Math.min(min, brackets[pod[s]]);
+                max = Math.max(max, brackets[pod[s]]);
+            }
+            pods[p] = pod;
+        }
+        return pods;
+    }
+
+    // Swaps seats between pods while that lowers the summed cost. Most candidates are near
+    // the seat's player in bracket order; every fourth is drawn from the whole field.
+    private void improve(int[][] pods, int[] podOf, int[] slotOf, int[] sorted, int[] rank, int[] players, int[] brackets) {
+        int n = sorted.length;
+        if (pods.length < 2) {
+            return;
+        }
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int p = 0; p < pods.length; p++) {
+                for (int s = 0; s < pods[p].length; s++) {
+                    if (cost(pods[p], -1, -1, players, brackets) == 0) {
+                        break;
+                    }
+                    int member = pods[p][s];
+                    for (int t = 0; t < SWAP_TRIES; t++) {
+                        int other = t % 4 == 3
+                                ? random.nextInt(n)
+                                : sorted[Math.max(0, Math.min(n - 1, rank[member] + random.nextInt(2 * SEED_WINDOW + 1) - SEED_WINDOW))];
+                        int q = podOf[other];
+                        if (q == p) {
+                            continue;
+                        }
+                        int os = slotOf[other];
+                        long before = cost(pods[p], -1, -1, players, brackets) + cost(pods[q], -1, -1, players, brackets);
+                        long after = cost(pods[p], s, other, players, brackets) + cost(pods[q], os, member, players, brackets);
+                        if (after < before) {
+                            pods[p][s] = other;
+                            pods[q][os] = member;
+                            podOf[other] = p;
+                            slotOf[other] = s;
+                            podOf[member] = q;
+                            slotOf[member] = os;
+                            improved = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    // Cost of a pod, optionally with the member in slot `replaced` swapped for `replacement`
+    private long cost(int[] pod, int replaced, int replacement, int[] players, int[] brackets) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int s = 0; s < pod.length; s++) {
+            int bracket = brackets[s == replaced ? replacement : pod[s]];
+            min = Math.min(min, bracket);
+            max = Math.max(max, bracket);
+        }
+        long spread = max - min;
+        return SPREAD_WEIGHT * spread * spread + (long) REPEAT_WEIGHT * repeats(pod, replaced, replacement, players);
+    }
+
+    private int repeats(int[] pod, int replaced, int replacement, int[] players) {
+        int count = 0;
+        for (int a = 0; a < pod.length; a++) {
+            int playerA = players[a == replaced ? replacement : pod[a]];
+            for (int b = a + 1; b < pod.length; b++) {
+                if (pastPairs.contains(pairKey(playerA, players[b == replaced ? replacement : pod[b]]))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -1,7 +1,9 @@
 package gui;
 import controller.*;
 import entity.BorrowRequest;
+import entity.LendingConflict;
 import entity.Player;
+import entity.SimilarDeck;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -560,6 +562,26 @@ public class BorrowReqGUI extends JFrame {
                 return;
             }
 
+            boolean wasAvailable = controller.isDeckAvailable(deckId);
+
+            // An available deck is approved at once; warn if it shares cards with decks already out
+            if (wasAvailable) {
+                List<LendingConflict> conflicts = controller.getLendingConflicts(deckId);
+                if (!conflicts.isEmpty()) {
+                    StringBuilder message = new StringBuilder("Deck " + deckId + " shares cards with decks already lent out:\n");
+                    for (LendingConflict conflict : conflicts) {
+                        message.append("\n").append(conflict);
+                    }
+                    message.append("\n\nApprove this borrow anyway?");
+                    int confirm = JOptionPane.showConfirmDialog(this, message.toString(),
+                            "Lending Conflict", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+                    if (confirm != JOptionPane.YES_OPTION) {
+                        statusLabel.setText("Borrow request cancelled - lending conflict.");
+                        return;
+                    }
+                }
+            }
+
             boolean success = controller.requestBorrow(playerId, deckId);
 
             if (success) {
@@ -568,6 +590,9 @@ public class BorrowReqGUI extends JFrame {
                         "Deck ID: " + deckId + "\n" +
                         "Status: Pending\n\n" +
                         "Note: Borrow type is automatically determined based on deck availability.");
+                if (!wasAvailable) {
+                    appendAlternatives(deckId);
+                }
                 statusLabel.setText("Borrow request created successfully.");
                 clearForm();
                 refreshTable();
@@ -641,6 +666,7 @@ public class BorrowReqGUI extends JFrame {
                         "Status: UNAVAILABLE ✗\n" +
                         "This deck is currently borrowed.\n" +
                         "Borrow type will be: 'Pending Borrow' (waiting list)");
+                appendAlternatives(deckId);
                 statusLabel.setText("Deck " + deckId + " is unavailable.");
             }
         } catch (NumberFormatException ex) {
@@ -651,4 +677,19 @@ public class BorrowReqGUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Error checking availability: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Lists decks similar to a taken one that can be borrowed right now.
+     */
+    private void appendAlternatives(int deckId) throws SQLException {
+        List<SimilarDeck> alternatives = controller.suggestAvailableAlternatives(deckId, 5);
+        if (alternatives.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder("\n\nSimilar decks available now:");
+        for (SimilarDeck alternative : alternatives) {
+            text.append("\n  ").append(alternative);
+        }
+        statusArea.append(text.toString());
+    }
+}
@@ -336,7 +336,7 @@ public class CardGUI extends JFrame {
 
 
         // --- Button Panel ---
-        JPanel buttonPanel = new JPanel(new GridLayout(4, 1, 10, 10));
+        JPanel buttonPanel = new JPanel(new GridLayout(6, 1, 10, 10));
         buttonPanel.setOpaque(false);
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
 
@@ -353,10 +353,20 @@ public class CardGUI extends JFrame {
         });
         styleButton(clearButton, new Color(90, 90, 90)); // Grey for Clear
 
+        JButton bulkStatusButton = new JButton("Bulk Status Update");
+        bulkStatusButton.addActionListener(this::handleBulkStatus);
+        styleButton(bulkStatusButton, new Color(120, 60, 160)); // Purple for ban list work
+
         buttonPanel.add(addButton);
         buttonPanel.add(updateButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(clearButton);
+        JButton importButton = new JButton("Import CSV/TSV");
+        importButton.addActionListener(this::handleImport);
+        styleButton(importButton, new Color(0, 130, 90)); // Green for import
+
+        buttonPanel.add(bulkStatusButton);
+        buttonPanel.add(importButton);
 
         // --- Final Assembly of Form Panel ---
         GridBagConstraints gbcForm = new GridBagConstraints();
@@ -431,12 +441,15 @@ public class CardGUI extends JFrame {
             try {
                 int id = (int) tableModel.getValueAt(selectedRow, 0);
 
-                List<entity.Record> currentRecords = controller.getAllCards();
+                entity.Record recordToEdit = controller.getCardDetails(id);
 
-                entity.Record recordToEdit = currentRecords.stream()
-                        .filter(r -> r.getId() == id)
-                        .findFirst()
-                        .orElse(null);
+                // Warm the cache for the rows the user is most likely to move to next
+                if (selectedRow > 0) {
+                    controller.prefetchCardDetails((int) tableModel.getValueAt(selectedRow - 1, 0));
+                }
+                if (selectedRow + 1 < tableModel.getRowCount()) {
+                    controller.prefetchCardDetails((int) tableModel.getValueAt(selectedRow + 1, 0));
+                }
 
                 if (recordToEdit != null) {
                     editingRecordId = recordToEdit.getId();
@@ -486,9 +499,9 @@ public class CardGUI extends JFrame {
         tableModel.setRowCount(0);
 
         try {
-            List<entity.Record> records = controller.getAllCards();
+            List<entity.CardSummary> records = controller.getCardSummaries();
 
-            for (entity.Record record : records) {
+            for (entity.CardSummary record : records) {
                 Object[] rowData = {
                         record.getId(),
                         record.getName(),
@@ -600,4 +613,91 @@ public class CardGUI extends JFrame {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies one status to a pasted list of card names/ids (e.g. a new ban list)
+     * and reports which decks flipped validity because of it.
+     */
+    private void handleBulkStatus(ActionEvent e) {
+        JTextArea namesArea = new JTextArea(12, 30);
+        JComboBox<String> bulkStatusBox = new JComboBox<>(CARD_STATUSES);
+        bulkStatusBox.setSelectedItem("Banned");
+
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(new JLabel("Card names or IDs, one per line:"), BorderLayout.NORTH);
+        panel.add(new JScrollPane(namesArea), BorderLayout.CENTER);
+        JPanel statusRow = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusRow.add(new JLabel("New status:"));
+        statusRow.add(bulkStatusBox);
+        panel.add(statusRow, BorderLayout.SOUTH);
+
+        int option = JOptionPane.showConfirmDialog(this, panel, "Bulk Status Update",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (option != JOptionPane.OK_OPTION || namesArea.getText().trim().isEmpty()) {
+            return;
+        }
+
+        try {
+            entity.BulkStatusResult result = controller.applyCardStatusBulk(
+                    List.of(namesArea.getText().split("\\R")), (String) bulkStatusBox.getSelectedItem());
+
+            StringBuilder message = new StringBuilder();
+            message.append("Cards updated: ").append(result.getUpdatedCardIds().size()).append("\n");
+            message.append("Decks revalidated: ").append(result.getDecksChecked()).append("\n");
+            message.append("Now INVALID: ").append(result.getNowInvalidDeckIds()).append("\n");
+            message.append("Now VALID: ").append(result.getNowValidDeckIds());
+            if (!result.getUnresolved().isEmpty()) {
+                message.append("\n\nNot found: ").append(String.join(", ", result.getUnresolved()));
+            }
+            JOptionPane.showMessageDialog(this, message.toString(), "Bulk Status Update", JOptionPane.INFORMATION_MESSAGE);
+
+            statusLabel.setText("Bulk update applied to " + result.getUpdatedCardIds().size() + " cards.");
+            clearForm();
+            refreshTable();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "SQL Error applying bulk update: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Imports a CSV/TSV card export. The import runs off the EDT and reports progress in the status bar.
+     */
+    private void handleImport(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Cards (CSV or TSV)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = chooser.getSelectedFile();
+        JButton source = (JButton) e.getSource();
+        source.setEnabled(false);
+        statusLabel.setText("Importing " + file.getName() + "...");
+
+        Thread importThread = new Thread(() -> {
+            try {
+                entity.ImportProgress result = controller.importCards(file.toPath(),
+                        progress -> SwingUtilities.invokeLater(() ->
+                                statusLabel.setText("Importing " + file.getName() + ": " + progress)));
+
+                SwingUtilities.invokeLater(() -> {
+                    String message = "Import finished: " + result;
+                    if (result.getRowsRejected() > 0) {
+                        message += "\nRejected rows were written to " + file.getName() + ".rejects.txt";
+                    }
+                    JOptionPane.showMessageDialog(this, message, "Import Cards", JOptionPane.INFORMATION_MESSAGE);
+                    refreshTable();
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(this, "Import failed: " + ex.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
+                    refreshTable();
+                });
+            } finally {
+                SwingUtilities.invokeLater(() -> source.setEnabled(true));
+            }
+        }, "card-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+}
@@ -8,6 +8,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.net.URL;
+import java.sql.SQLException;
 
 /**
  * The central navigation hub (Dashboard) displayed after a successful login.
@@ -182,6 +183,12 @@ public class DashboardGUI extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
+            // Write out game results still waiting for their batch
+            try {
+                controller.flushGameResults();
+            } catch (SQLException e) {
+                System.err.println("Could not write queued game results: " + e.getMessage());
+            }
             // Close the shared database connection
             DatabaseConnection.closeConnection();
             // Exit the application
@@ -1,7 +1,16 @@
 package gui;
 import controller.*;
+import entity.BracketMismatch;
+import entity.CardPairing;
+import entity.CardRecommendation;
 import entity.Deck;
+import entity.DeckEdit;
+import entity.DeckStatistics;
+import entity.DeckSummary;
+import entity.DeckValidationSummary;
+import entity.DecklistImportResult;
 import entity.Player;
+import simulation.GoldfishReport;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -10,7 +19,9 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.File;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.sql.SQLException;
 import java.util.Map;
@@ -52,11 +63,17 @@ public class DeckGUI extends JFrame {
     // Buttons
     private JButton createDeckButton;
     private JButton validateDeckButton;
+    private JButton validateAllButton;
     private JButton addCardButton;
     private JButton viewCardsButton;
     private JButton refreshButton;
     private JButton deleteDeckButton;
     private JButton clearButton;
+    private JButton importDecklistButton;
+    private JButton exportDecklistButton;
+    private JButton simulateButton;
+    private JButton reloadSaltButton;
+    private JButton bracketMismatchButton;
     private JLabel statusLabel;
 
     private MTGDatabaseController controller;
@@ -213,14 +230,29 @@ public class DeckGUI extends JFrame {
      * Creates and configures the JTable component for decks.
      */
     private void initializeTable() {
-        String[] columnNames = {"Deck ID", "Deck Name", "Player ID", "Commander ID", "Bracket Info", "Validity", "Description"};
+        String[] columnNames = {"Deck ID", "Deck Name", "Player ID", "Commander ID", "Bracket Info", "Validity", "Description",
+                "Cards", "Avg CMC", "Lands", "Salt"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
             }
+
+            // Numeric classes so the row sorter orders these columns by value
+            @Override
+            public Class<?> getColumnClass(int column) {
+                switch (column) {
+                    case 0: case 2: case 3: case 7: case 9:
+                        return Integer.class;
+                    case 8: case 10:
+                        return Double.class;
+                    default:
+                        return String.class;
+                }
+            }
         };
         deckTable = new JTable(tableModel);
+        deckTable.setAutoCreateRowSorter(true);
 
         // --- Table Styling ---
         deckTable.setBackground(BG_DARK.brighter());
@@ -247,10 +279,14 @@ public class DeckGUI extends JFrame {
         deckTable.getColumnModel().getColumn(4).setPreferredWidth(100);
         deckTable.getColumnModel().getColumn(5).setPreferredWidth(70);
         deckTable.getColumnModel().getColumn(6).setPreferredWidth(150);
+        deckTable.getColumnModel().getColumn(7).setPreferredWidth(50);
+        deckTable.getColumnModel().getColumn(8).setPreferredWidth(60);
+        deckTable.getColumnModel().getColumn(9).setPreferredWidth(50);
+        deckTable.getColumnModel().getColumn(10).setPreferredWidth(50);
 
         deckTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting() && deckTable.getSelectedRow() != -1) {
-                loadDeckRecordIntoForm(deckTable.getSelectedRow());
+                loadDeckRecordIntoForm(deckTable.convertRowIndexToModel(deckTable.getSelectedRow()));
             }
         });
     }
@@ -351,25 +387,37 @@ public class DeckGUI extends JFrame {
         y += 2; gbc.weighty = 0; gbc.gridwidth = 1;
 
         // --- Button Panel ---
-        JPanel buttonPanel = new JPanel(new GridLayout(7, 1, 10, 10));
+        JPanel buttonPanel = new JPanel(new GridLayout(12, 1, 10, 10));
         buttonPanel.setOpaque(false);
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
 
         // Style buttons
         styleButton(createDeckButton, new Color(0, 150, 0)); // Green for create
         styleButton(validateDeckButton, new Color(255, 140, 0)); // Orange for validate
+        styleButton(validateAllButton, new Color(205, 110, 0)); // Darker orange for validate all
         styleButton(addCardButton, new Color(70, 130, 180)); // Steel blue for add card
         styleButton(viewCardsButton, new Color(100, 100, 200)); // Purple for view cards
         styleButton(deleteDeckButton, new Color(200, 0, 0)); // RED for delete
         styleButton(refreshButton, new Color(100, 100, 100)); // Gray for refresh
         styleButton(clearButton, new Color(90, 90, 90)); // Dark gray for clear
+        styleButton(importDecklistButton, new Color(70, 130, 180)); // Steel blue for import
+        styleButton(exportDecklistButton, new Color(70, 130, 180)); // Steel blue for export
+        styleButton(simulateButton, new Color(100, 100, 200)); // Purple for simulation
+        styleButton(reloadSaltButton, new Color(100, 100, 100)); // Gray for reload
+        styleButton(bracketMismatchButton, new Color(100, 100, 100)); // Gray for report
 
         buttonPanel.add(createDeckButton);
         buttonPanel.add(validateDeckButton);
+        buttonPanel.add(validateAllButton);
         buttonPanel.add(addCardButton);
         buttonPanel.add(viewCardsButton);
         buttonPanel.add(deleteDeckButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(importDecklistButton);
+        buttonPanel.add(exportDecklistButton);
+        buttonPanel.add(simulateButton);
+        buttonPanel.add(reloadSaltButton);
+        buttonPanel.add(bracketMismatchButton);
         buttonPanel.add(clearButton);
 
         // --- Final Assembly of Deck Panel ---
@@ -444,20 +492,32 @@ public class DeckGUI extends JFrame {
         // Buttons
         createDeckButton = new JButton("Create New Deck");
         validateDeckButton = new JButton("Validate Deck");
+        validateAllButton = new JButton("Validate All Decks");
         addCardButton = new JButton("Add Card to Deck");
         viewCardsButton = new JButton("View Deck Cards");
         refreshButton = new JButton("Refresh Table");
         clearButton = new JButton("Clear Form");
         deleteDeckButton = new JButton("Delete Deck");
+        importDecklistButton = new JButton("Import Decklists");
+        exportDecklistButton = new JButton("Export Decklist");
+        simulateButton = new JButton("Simulate Opening Hands");
+        reloadSaltButton = new JButton("Reload Salt Scores");
+        bracketMismatchButton = new JButton("Bracket Mismatches");
 
         // Action Listeners
         createDeckButton.addActionListener(this::handleCreateDeck);
         validateDeckButton.addActionListener(this::handleValidateDeck);
+        validateAllButton.addActionListener(this::handleValidateAllDecks);
         addCardButton.addActionListener(this::handleAddCardToDeck);
         viewCardsButton.addActionListener(this::handleViewDeckCards);
         refreshButton.addActionListener(e -> {loadPlayers(); refreshTable();});
         clearButton.addActionListener(e -> clearForm());
         deleteDeckButton.addActionListener(this::handleDeleteDeck);
+        importDecklistButton.addActionListener(this::handleImportDecklists);
+        exportDecklistButton.addActionListener(this::handleExportDecklist);
+        simulateButton.addActionListener(this::handleSimulateDeck);
+        reloadSaltButton.addActionListener(this::handleReloadSaltScores);
+        bracketMismatchButton.addActionListener(this::handleBracketMismatches);
     }
 
     /**
@@ -554,9 +614,11 @@ public class DeckGUI extends JFrame {
         tableModel.setRowCount(0);
 
         try {
-            List<Deck> decks = controller.getAllDecks();
+            List<Deck> decks = controller.getAllDecks(false); // table only shows the commander id
 
             for (Deck deck : decks) {
+                // Statistics are stored with the deck, so no contents are loaded here
+                DeckStatistics stats = deck.getStatistics();
                 Object[] rowData = {
                         deck.getDeckId(),
                         deck.getDeckName(),
@@ -564,7 +626,11 @@ public class DeckGUI extends JFrame {
                         deck.getCommanderCardId(),                 // This should be column 3
                         deck.getBracketInfo(),                     // Use the getter method instead of getBracketNum()
                         deck.getValidity() ? "Valid" : "Invalid",  // This should be column 5 (was column 7 before)
-                        deck.getDescription()                      // This should be column 6 (was column 8 before)
+                        deck.getDescription(),                     // This should be column 6 (was column 8 before)
+                        stats != null ? stats.getTotalCards() : null,
+                        stats != null ? Math.round(stats.getAverageManaValue() * 100) / 100.0 : null,
+                        stats != null ? stats.getLandCount() : null,
+                        deck.getSaltScore()
                 };
                 tableModel.addRow(rowData);
             }
@@ -696,6 +762,232 @@ public class DeckGUI extends JFrame {
         }
     }
 
+    private void handleValidateAllDecks(ActionEvent e) {
+        try {
+            DeckValidationSummary summary = controller.validateAllDecks();
+
+            StringBuilder changes = new StringBuilder();
+            for (Map.Entry<Integer, Boolean> entry : summary.getFlipped().entrySet()) {
+                changes.append("\n  Deck ").append(entry.getKey())
+                        .append(" -> ").append(entry.getValue() ? "Valid" : "Invalid");
+            }
+
+            statusArea.setText("All Decks Validated:\n" +
+                    "Decks Checked: " + summary.getDecksChecked() + "\n" +
+                    "Valid: " + summary.getValidCount() + "\n" +
+                    "Invalid: " + summary.getInvalidCount() + "\n" +
+                    "Changed: " + summary.getFlipped().size() + changes);
+            statusLabel.setText("Validation of all decks completed.");
+            refreshTable();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Database error validating decks: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Imports decklist text files (or whole folders of them) for the selected player.
+     * The import runs off the EDT; unresolved lines are listed in the status area.
+     */
+    private void handleImportDecklists(ActionEvent e) {
+        String selectedPlayer = (String) playerComboBox.getSelectedItem();
+        if (selectedPlayer == null || !playerNameToIdMap.containsKey(selectedPlayer)) {
+            JOptionPane.showMessageDialog(this, "Please select the player who will own the imported decks.",
+                    "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int playerId = playerNameToIdMap.get(selectedPlayer);
+        String bracketText = bracketInfoField.getText().trim();
+        String bracketInfo = bracketText.isEmpty() || bracketText.startsWith("Bracket ") ? bracketText : "Bracket " + bracketText;
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Decklists (files or folders)");
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        chooser.setMultiSelectionEnabled(true);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File[] selected = chooser.getSelectedFiles();
+
+        JButton source = (JButton) e.getSource();
+        source.setEnabled(false);
+        statusLabel.setText("Importing decklists...");
+
+        Thread importThread = new Thread(() -> {
+            try {
+                List<Integer> deckIds = new ArrayList<>();
+                List<String> unresolved = new ArrayList<>();
+                int cards = 0;
+                List<Path> files = new ArrayList<>();
+                for (File file : selected) {
+                    if (file.isDirectory()) {
+                        DecklistImportResult folderResult = controller.importDecklistFolder(file.toPath(), playerId,
+                                bracketInfo.isEmpty() ? null : bracketInfo);
+                        deckIds.addAll(folderResult.getCreatedDeckIds());
+                        unresolved.addAll(folderResult.getUnresolvedLines());
+                        cards += folderResult.getCardsImported();
+                    } else {
+                        files.add(file.toPath());
+                    }
+                }
+                if (!files.isEmpty()) {
+                    DecklistImportResult fileResult = controller.importDecklists(files, playerId,
+                            bracketInfo.isEmpty() ? null : bracketInfo);
+                    deckIds.addAll(fileResult.getCreatedDeckIds());
+                    unresolved.addAll(fileResult.getUnresolvedLines());
+                    cards += fileResult.getCardsImported();
+                }
+
+                int importedCards = cards;
+                SwingUtilities.invokeLater(() -> {
+                    StringBuilder status = new StringBuilder();
+                    status.append("Imported ").append(deckIds.size()).append(" deck(s), ")
+                            .append(importedCards).append(" cards.\n");
+                    status.append("Unresolved lines: ").append(unresolved.size());
+                    for (String line : unresolved) {
+                        status.append("\n  ").append(line);
+                    }
+                    statusArea.setText(status.toString());
+                    statusLabel.setText("Decklist import completed.");
+                    refreshTable();
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "Decklist import failed: " + ex.getMessage(),
+                                "Import Error", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> source.setEnabled(true));
+            }
+        }, "decklist-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    private void handleExportDecklist(ActionEvent e) {
+        try {
+            String deckIdText = deckIdField.getText().trim();
+            if (deckIdText.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please select a deck first.", "No Deck Selected", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            int deckId = Integer.parseInt(deckIdText);
+
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Export Decklist");
+            String deckName = deckNameField.getText().trim();
+            chooser.setSelectedFile(new File((deckName.isEmpty() ? "deck-" + deckId : deckName) + ".txt"));
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+
+            File file = chooser.getSelectedFile();
+            int cards = controller.exportDecklist(deckId, file.toPath());
+            statusArea.setText("Exported " + cards + " cards from deck " + deckId + " to\n" + file.getAbsolutePath());
+            statusLabel.setText("Decklist export completed.");
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid deck ID.", "Input Error", JOptionPane.WARNING_MESSAGE);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Decklist export failed: " + ex.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Runs a million-trial goldfish simulation of the selected deck off the EDT and shows
+     * the land and commander-castability table in the status area.
+     */
+    private void handleSimulateDeck(ActionEvent e) {
+        String deckIdText = deckIdField.getText().trim();
+        if (deckIdText.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select a deck first.", "No Deck Selected", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int deckId;
+        try {
+            deckId = Integer.parseInt(deckIdText);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid deck ID.", "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JButton source = (JButton) e.getSource();
+        source.setEnabled(false);
+        statusLabel.setText("Simulating deck " + deckId + "...");
+
+        Thread simulationThread = new Thread(() -> {
+            try {
+                GoldfishReport report = controller.simulateDeck(deckId, 1_000_000, 10);
+                SwingUtilities.invokeLater(() -> {
+                    statusArea.setText(report.toString());
+                    statusLabel.setText("Simulation completed.");
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "Simulation failed: " + ex.getMessage(),
+                                "Simulation Error", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> source.setEnabled(true));
+            }
+        }, "deck-simulation");
+        simulationThread.setDaemon(true);
+        simulationThread.start();
+    }
+
+    /**
+     * Reloads the salt weight file off the EDT and refreshes the deck list with the new scores.
+     */
+    private void handleReloadSaltScores(ActionEvent e) {
+        JButton source = (JButton) e.getSource();
+        source.setEnabled(false);
+        statusLabel.setText("Reloading salt scores...");
+
+        Thread reloadThread = new Thread(() -> {
+            try {
+                int rescored = controller.reloadSaltWeights();
+                SwingUtilities.invokeLater(() -> {
+                    statusArea.setText("Salt weights reloaded. Decks rescored: " + rescored);
+                    statusLabel.setText("Salt scores updated.");
+                    refreshTable();
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "Salt score reload failed: " + ex.getMessage(),
+                                "Salt Scores", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> source.setEnabled(true));
+            }
+        }, "salt-reload");
+        reloadThread.setDaemon(true);
+        reloadThread.start();
+    }
+
+    private void handleBracketMismatches(ActionEvent e) {
+        JButton source = (JButton) e.getSource();
+        source.setEnabled(false);
+        statusLabel.setText("Checking declared brackets...");
+
+        Thread checkThread = new Thread(() -> {
+            try {
+                List<BracketMismatch> mismatches = controller.getBracketMismatches();
+                StringBuilder report = new StringBuilder();
+                report.append("Decks whose declared bracket differs from their contents: ").append(mismatches.size()).append("\n");
+                for (BracketMismatch mismatch : mismatches) {
+                    report.append(mismatch).append("\n");
+                }
+                SwingUtilities.invokeLater(() -> {
+                    statusArea.setText(report.toString());
+                    statusLabel.setText("Bracket check complete.");
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "Bracket check failed: " + ex.getMessage(),
+                                "Bracket Mismatches", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> source.setEnabled(true));
+            }
+        }, "bracket-check");
+        checkThread.setDaemon(true);
+        checkThread.start();
+    }
+
     private void handleAddCardToDeck(ActionEvent e) {
         try {
             String deckIdText = deckIdField.getText().trim();
@@ -872,12 +1164,48 @@ public class DeckGUI extends JFrame {
             JButton cancelButton = new JButton("Cancel");
             styleButton(cancelButton, new Color(100, 100, 100));
 
+            JButton addSelectedButton = new JButton("Add Selected Cards");
+            styleButton(addSelectedButton, new Color(0, 120, 60));
+
             actionPanel.add(addButton);
+            actionPanel.add(addSelectedButton);
             actionPanel.add(cancelButton);
 
+            // Suggested cards for this deck, best first
+            String[] suggestedColumns = {"ID", "Card Name", "Type", "Mana Cost", "Score"};
+            DefaultTableModel suggestedModel = new DefaultTableModel(suggestedColumns, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+
+            JTable suggestedTable = new JTable(suggestedModel);
+            suggestedTable.setBackground(BG_DARK.brighter());
+            suggestedTable.setForeground(FG_LIGHT);
+            suggestedTable.setSelectionBackground(ACCENT_BLUE.darker());
+            suggestedTable.setSelectionForeground(Color.WHITE);
+            suggestedTable.setRowHeight(25);
+            suggestedTable.setFont(new Font("Arial", Font.PLAIN, 11));
+            suggestedTable.getColumnModel().getColumn(0).setPreferredWidth(50);  // ID
+            suggestedTable.getColumnModel().getColumn(1).setPreferredWidth(200); // Name
+            suggestedTable.getColumnModel().getColumn(2).setPreferredWidth(120); // Type
+            suggestedTable.getColumnModel().getColumn(3).setPreferredWidth(80);  // Mana Cost
+            suggestedTable.getColumnModel().getColumn(4).setPreferredWidth(80);  // Score
+
+            JTableHeader suggestedHeader = suggestedTable.getTableHeader();
+            suggestedHeader.setBackground(new Color(60, 60, 60));
+            suggestedHeader.setForeground(FG_LIGHT);
+            suggestedHeader.setFont(BOLD_FONT.deriveFont(11f));
+            suggestedHeader.setReorderingAllowed(false);
+
+            JTabbedPane cardTabs = new JTabbedPane();
+            cardTabs.addTab("All Cards", cardListContainer);
+            cardTabs.addTab("Suggested", new JScrollPane(suggestedTable));
+
             // Main layout with split pane
             JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT);
-            splitPane.setLeftComponent(cardListContainer);
+            splitPane.setLeftComponent(cardTabs);
             splitPane.setRightComponent(inputPanel);
             splitPane.setDividerLocation(500);
             splitPane.setResizeWeight(0.5);
@@ -890,6 +1218,28 @@ public class DeckGUI extends JFrame {
 
             // Load cards when dialog opens
             loadCardsIntoTable(cardListModel, "");
+            loadSuggestionsIntoTable(suggestedModel, deckId);
+
+            // Suggested card selection listener
+            suggestedTable.getSelectionModel().addListSelectionListener(evt -> {
+                int selectedRow = suggestedTable.getSelectedRow();
+                if (evt.getValueIsAdjusting() || selectedRow == -1
+                        || !(suggestedModel.getValueAt(selectedRow, 0) instanceof Integer)) {
+                    return;
+                }
+                cardIdField.setText(String.valueOf(suggestedModel.getValueAt(selectedRow, 0)));
+                isCommanderCheckbox.setSelected(false);
+
+                StringBuilder cardInfo = new StringBuilder();
+                cardInfo.append("Name: ").append(suggestedModel.getValueAt(selectedRow, 1)).append("\n");
+                cardInfo.append("Type: ").append(suggestedModel.getValueAt(selectedRow, 2)).append("\n");
+                String manaCost = (String) suggestedModel.getValueAt(selectedRow, 3);
+                if (!manaCost.isEmpty()) {
+                    cardInfo.append("Mana Cost: ").append(manaCost).append("\n");
+                }
+                cardInfo.append("Suggestion Score: ").append(suggestedModel.getValueAt(selectedRow, 4));
+                cardInfoArea.setText(cardInfo.toString());
+            });
 
             // Card selection listener
             cardListTable.getSelectionModel().addListSelectionListener(evt -> {
@@ -926,6 +1276,18 @@ public class DeckGUI extends JFrame {
                         }
                     }
 
+                    try {
+                        List<CardPairing> playedWith = controller.getCardsPlayedWith(cardId, 5);
+                        if (!playedWith.isEmpty()) {
+                            cardInfo.append("\n\nPlayed with:");
+                            for (CardPairing pairing : playedWith) {
+                                cardInfo.append("\n  ").append(pairing);
+                            }
+                        }
+                    } catch (SQLException ex) {
+                        System.err.println("Could not load played-with cards: " + ex.getMessage());
+                    }
+
                     cardInfoArea.setText(cardInfo.toString());
                 }
             });
@@ -942,7 +1304,7 @@ public class DeckGUI extends JFrame {
                 loadCardsIntoTable(cardListModel, "");
             });
 
-            // Add card button
+            // Add card button: only the card typed in the ID field
             addButton.addActionListener(evt -> {
                 try {
                     int cardId = Integer.parseInt(cardIdField.getText().trim());
@@ -953,43 +1315,55 @@ public class DeckGUI extends JFrame {
                         JOptionPane.showMessageDialog(addCardDialog, "Card ID and Quantity must be positive numbers.", "Input Error", JOptionPane.WARNING_MESSAGE);
                         return;
                     }
+                    if (!confirmQuantity(addCardDialog, quantity, isCommander)) {
+                        return;
+                    }
 
-                    if (quantity > 4 && !isCommander) {
-                        int confirm = JOptionPane.showConfirmDialog(addCardDialog,
-                                "Normal cards are typically limited to 4 copies. Are you sure you want to add " + quantity + " copies?",
-                                "Quantity Warning",
-                                JOptionPane.YES_NO_OPTION);
-                        if (confirm != JOptionPane.YES_OPTION) {
-                            return;
+                    List<DeckEdit> edits = new ArrayList<>();
+                    edits.add(DeckEdit.add(cardId, quantity));
+                    if (isCommander) {
+                        edits.add(DeckEdit.setCommander(cardId));
+                    }
+                    applyAddedCards(addCardDialog, deckId, edits, List.of(cardId), quantity, isCommander);
+
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(addCardDialog, "Card ID and Quantity must be valid numbers.", "Input Error", JOptionPane.WARNING_MESSAGE);
+                }
+            });
+
+            // Add selected button: every row selected in the visible table, in one batch
+            addSelectedButton.addActionListener(evt -> {
+                try {
+                    int quantity = Integer.parseInt(quantityField.getText().trim());
+                    if (quantity <= 0) {
+                        JOptionPane.showMessageDialog(addCardDialog, "Quantity must be a positive number.", "Input Error", JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+
+                    List<Integer> cardIds = new ArrayList<>();
+                    JTable sourceTable = cardTabs.getSelectedIndex() == 1 ? suggestedTable : cardListTable;
+                    for (int selectedRow : sourceTable.getSelectedRows()) {
+                        Object value = sourceTable.getModel().getValueAt(selectedRow, 0);
+                        if (value instanceof Integer && !cardIds.contains(value)) {
+                            cardIds.add((Integer) value);
                         }
                     }
+                    if (cardIds.isEmpty()) {
+                        JOptionPane.showMessageDialog(addCardDialog, "Select one or more cards in the list first.", "Input Error", JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+                    if (!confirmQuantity(addCardDialog, quantity, false)) {
+                        return;
+                    }
 
-                    boolean success = controller.addCardToDeck(deckId, cardId, quantity, isCommander);
-
-                    if (success) {
-                        JOptionPane.showMessageDialog(addCardDialog,
-                                "Card successfully added to deck!\n" +
-                                        "Card ID: " + cardId + "\n" +
-                                        "Quantity: " + quantity + "\n" +
-                                        "Is Commander: " + (isCommander ? "Yes" : "No"),
-                                "Success",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        addCardDialog.dispose();
-                        refreshTable();
-                    } else {
-                        JOptionPane.showMessageDialog(addCardDialog,
-                                "Failed to add card to deck.\n" +
-                                        "Possible reasons:\n" +
-                                        "- Card doesn't exist\n" +
-                                        "- Database error",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE);
+                    List<DeckEdit> edits = new ArrayList<>();
+                    for (int id : cardIds) {
+                        edits.add(DeckEdit.add(id, quantity));
                     }
+                    applyAddedCards(addCardDialog, deckId, edits, cardIds, quantity, false);
 
                 } catch (NumberFormatException ex) {
-                    JOptionPane.showMessageDialog(addCardDialog, "Card ID and Quantity must be valid numbers.", "Input Error", JOptionPane.WARNING_MESSAGE);
-                } catch (SQLException ex) {
-                    JOptionPane.showMessageDialog(addCardDialog, "Database error: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.showMessageDialog(addCardDialog, "Quantity must be a valid number.", "Input Error", JOptionPane.WARNING_MESSAGE);
                 }
             });
 
@@ -1002,6 +1376,37 @@ public class DeckGUI extends JFrame {
         }
     }
 
+    // Asks before adding more than 4 copies of a non-commander card
+    private boolean confirmQuantity(JDialog dialog, int quantity, boolean isCommander) {
+        if (quantity <= 4 || isCommander) {
+            return true;
+        }
+        int confirm = JOptionPane.showConfirmDialog(dialog,
+                "Normal cards are typically limited to 4 copies. Are you sure you want to add " + quantity + " copies?",
+                "Quantity Warning",
+                JOptionPane.YES_NO_OPTION);
+        return confirm == JOptionPane.YES_OPTION;
+    }
+
+    // Applies the add-card edits in one batch, reports the result and closes the dialog
+    private void applyAddedCards(JDialog dialog, int deckId, List<DeckEdit> edits, List<Integer> cardIds, int quantity, boolean isCommander) {
+        try {
+            DeckSummary summary = controller.applyDeckChanges(deckId, edits);
+            JOptionPane.showMessageDialog(dialog,
+                    (cardIds.size() == 1 ? "Card" : cardIds.size() + " cards") + " successfully added to deck!\n" +
+                            "Card ID" + (cardIds.size() == 1 ? ": " : "s: ") + cardIds + "\n" +
+                            "Quantity: " + quantity + "\n" +
+                            "Is Commander: " + (isCommander ? "Yes" : "No") + "\n" +
+                            "Deck now has " + summary.getTotalCards() + " cards.",
+                    "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+            dialog.dispose();
+            refreshTable();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(dialog, "Database error: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     // Helper method to load cards directly from database
     private void loadCardsIntoTable(DefaultTableModel cardListModel, String searchTerm) {
         cardListModel.setRowCount(0); // Clear existing data
@@ -1065,6 +1470,30 @@ public class DeckGUI extends JFrame {
         }
     }
 
+    // Helper method to load the recommended cards for a deck
+    private void loadSuggestionsIntoTable(DefaultTableModel suggestedModel, int deckId) {
+        suggestedModel.setRowCount(0);
+
+        try {
+            List<CardRecommendation> suggestions = controller.getCardRecommendations(deckId, 50);
+            for (CardRecommendation suggestion : suggestions) {
+                suggestedModel.addRow(new Object[]{
+                        suggestion.getCardId(),
+                        suggestion.getCardName(),
+                        suggestion.getCardType() != null ? suggestion.getCardType() : "",
+                        suggestion.getManaCost() != null ? suggestion.getManaCost() : "",
+                        String.format("%.2f", suggestion.getScore())
+                });
+            }
+            if (suggestions.isEmpty()) {
+                suggestedModel.addRow(new Object[]{"-", "No suggestions yet", "-", "-", "-"});
+            }
+        } catch (SQLException ex) {
+            System.err.println("SQL Error loading suggestions: " + ex.getMessage());
+            suggestedModel.addRow(new Object[]{"-", "Database Error", ex.getMessage(), "-", "-"});
+        }
+    }
+
     // Helper method to load all cards into the table
     private void loadAllCardsIntoTable(DefaultTableModel cardListModel) {
         cardListModel.setRowCount(0); // Clear existing data
@@ -0,0 +1,39 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * No card on the ban list (card_status = 'Banned').
+ */
+public class BannedCardRule implements DeckRule {
+
+    @Override
+    public String getName() {
+        return "Banned Cards";
+    }
+
+    @Override
+    public Check begin(Deck deck) {
+        return new Check() {
+            private final List<String> banned = new ArrayList<>();
+
+            @Override
+            public void accept(Card card, int quantity) {
+                if ("Banned".equalsIgnoreCase(card.getCardStatus())) {
+                    banned.add(card.getCardName());
+                }
+            }
+
+            @Override
+            public void finish(List<RuleViolation> violations) {
+                for (String name : banned) {
+                    violations.add(new RuleViolation(getName(), name, "Deck contains banned card: " + name));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package rules;
+
+/**
+ * Derives a Commander bracket (1-5) from what a deck contains.
+ *
+ * Game Changers set the floor as in GameChangerRule: none allowed below bracket 3, up to
+ * three in bracket 3, any number from bracket 4. Mass land denial is only allowed from
+ * bracket 4. More than MAX_LOW_BRACKET_TUTORS tutors or more than one extra-turn card moves
+ * an otherwise casual deck to bracket 3. Brackets 1 and 5 depend on intent and the
+ * metagame rather than the list, so the classifier only ever returns 2, 3 or 4.
+ */
+public final class BracketClassifier {
+
+    public static final int MAX_BRACKET_3_GAME_CHANGERS = 3;
+    public static final int MAX_LOW_BRACKET_TUTORS = 2;
+    public static final int MAX_LOW_BRACKET_EXTRA_TURNS = 1;
+
+    private BracketClassifier() {
+    }
+
+    public static int classify(int gameChangers, int tutors, int landDenial, int extraTurns) {
+        if (landDenial > 0 || gameChangers > MAX_BRACKET_3_GAME_CHANGERS) {
+            return 4;
+        }
+        if (gameChangers > 0 || tutors > MAX_LOW_BRACKET_TUTORS || extraTurns > MAX_LOW_BRACKET_EXTRA_TURNS) {
+            return 3;
+        }
+        return 2;
+    }
+}
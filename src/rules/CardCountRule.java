@@ -0,0 +1,42 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.List;
+
+/**
+ * The deck (commander included) must contain exactly the required number of cards.
+ */
+public class CardCountRule implements DeckRule {
+    private final int requiredCards;
+
+    public CardCountRule(int requiredCards) {
+        this.requiredCards = requiredCards;
+    }
+
+    @Override
+    public String getName() {
+        return "Card Count";
+    }
+
+    @Override
+    public Check begin(Deck deck) {
+        return new Check() {
+            private int total;
+
+            @Override
+            public void accept(Card card, int quantity) {
+                total += quantity;
+            }
+
+            @Override
+            public void finish(List<RuleViolation> violations) {
+                if (total != requiredCards) {
+                    violations.add(new RuleViolation(getName(), null,
+                            "Deck must contain exactly " + requiredCards + " cards. Current count: " + total));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+import entity.ManaCost;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every card's color identity must fall within the commander's. Skipped when the deck has
+ * no commander, since CommanderRule already reports that.
+ */
+public class ColorIdentityRule implements DeckRule {
+
+    @Override
+    public String getName() {
+        return "Color Identity";
+    }
+
+    @Override
+    public Check begin(Deck deck) {
+        Card commander = deck.getCommanderCard();
+        int allowed = commander != null ? ManaCost.colorIdentity(commander) : 0;
+        return new Check() {
+            private final List<RuleViolation> found = new ArrayList<>();
+
+            @Override
+            public void accept(Card card, int quantity) {
+                if (commander == null) {
+                    return;
+                }
+                int identity = ManaCost.colorIdentity(card);
+                if ((identity & ~allowed) != 0) {
+                    found.add(new RuleViolation(getName(), card.getCardName(),
+                            card.getCardName() + " (" + ManaCost.colorsToString(identity)
+                                    + ") is outside the commander's color identity ("
+                                    + ManaCost.colorsToString(allowed) + ")"));
+                }
+            }
+
+            @Override
+            public void finish(List<RuleViolation> violations) {
+                violations.addAll(found);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.List;
+
+/**
+ * The deck needs a commander, and it must be a Legendary Creature (or a card whose text
+ * says it can be your commander).
+ */
+public class CommanderRule implements DeckRule {
+
+    @Override
+    public String getName() {
+        return "Commander";
+    }
+
+    @Override
+    public Check begin(Deck deck) {
+        Card commander = deck.getCommanderCard();
+        return new Check() {
+            @Override
+            public void accept(Card card, int quantity) {
+                // Only the commander itself matters
+            }
+
+            @Override
+            public void finish(List<RuleViolation> violations) {
+                if (commander == null) {
+                    violations.add(new RuleViolation(getName(), null, "Deck must have exactly one Commander"));
+                } else if (!isLegalCommander(commander)) {
+                    violations.add(new RuleViolation(getName(), commander.getCardName(),
+                            "Commander must be a Legendary Creature: " + commander.getCardName()));
+                }
+            }
+        };
+    }
+
+    static boolean isLegalCommander(Card card) {
+        String type = card.getCardType() != null ? card.getCardType() : "";
+        if (type.contains("Legendary") && type.contains("Creature")) {
+            return true;
+        }
+        String text = card.getCardText();
+        return text != null && text.toLowerCase().contains("can be your commander");
+    }
+}
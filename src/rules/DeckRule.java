@@ -0,0 +1,27 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.List;
+
+/**
+ * One deck construction rule. The engine calls begin() once per evaluation, feeds every
+ * card of the deck to the returned Check, then asks it for violations, so all registered
+ * rules share a single pass over the deck contents.
+ */
+public interface DeckRule {
+
+    String getName();
+
+    Check begin(Deck deck);
+
+    /**
+     * Per-evaluation state for a rule.
+     */
+    interface Check {
+        void accept(Card card, int quantity);
+
+        void finish(List<RuleViolation> violations);
+    }
+}
@@ -0,0 +1,62 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evaluates a set of registered DeckRules against a loaded Deck entirely in memory.
+ */
+public class DeckRuleEngine {
+
+    private final List<DeckRule> rules = new ArrayList<>();
+
+    /**
+     * Engine with the standard Commander rules: 100 cards, singleton, banned list,
+     * Game Changer bracket limits, commander legality and color identity.
+     */
+    public static DeckRuleEngine commanderDefaults() {
+        return new DeckRuleEngine()
+                .register(new CardCountRule(100))
+                .register(new SingletonRule())
+                .register(new BannedCardRule())
+                .register(new GameChangerRule())
+                .register(new CommanderRule())
+                .register(new ColorIdentityRule());
+    }
+
+    public DeckRuleEngine register(DeckRule rule) {
+        rules.add(rule);
+        return this;
+    }
+
+    public List<DeckRule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Runs every rule over the deck's cards in one pass and collects their violations.
+     */
+    public ValidationReport evaluate(Deck deck) {
+        DeckRule.Check[] checks = new DeckRule.Check[rules.size()];
+        for (int i = 0; i < checks.length; i++) {
+            checks[i] = rules.get(i).begin(deck);
+        }
+
+        for (Card card : deck.getDeckCards()) {
+            int quantity = deck.getCardQuantity(card.getCardId());
+            for (DeckRule.Check check : checks) {
+                check.accept(card, quantity);
+            }
+        }
+
+        List<RuleViolation> violations = new ArrayList<>();
+        for (DeckRule.Check check : checks) {
+            check.finish(violations);
+        }
+        return new ValidationReport(violations);
+    }
+}
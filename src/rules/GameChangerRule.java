@@ -0,0 +1,64 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.List;
+
+/**
+ * Caps the number of Game Changers by bracket: none in brackets 1-2, three in bracket 3,
+ * unlimited in brackets 4-5. A card counts if its status is 'Game Changer' or it was
+ * flagged as one when added to the deck.
+ */
+public class GameChangerRule implements DeckRule {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final int INVALID_BRACKET = -1;
+
+    @Override
+    public String getName() {
+        return "Game Changers";
+    }
+
+    @Override
+    public Check begin(Deck deck) {
+        int bracket = deck.getBracketNum();
+        return new Check() {
+            private int gameChangers;
+
+            @Override
+            public void accept(Card card, int quantity) {
+                if ("Game Changer".equalsIgnoreCase(card.getCardStatus()) || deck.isGameChanger(card.getCardId())) {
+                    gameChangers++;
+                }
+            }
+
+            @Override
+            public void finish(List<RuleViolation> violations) {
+                int limit = limitFor(bracket);
+                if (limit == INVALID_BRACKET) {
+                    violations.add(new RuleViolation(getName(), null, "Invalid bracket number: " + bracket));
+                } else if (limit != UNLIMITED && gameChangers > limit) {
+                    violations.add(new RuleViolation(getName(), null,
+                            "Bracket " + bracket + " allows " + (limit == 0 ? "0" : "maximum " + limit)
+                                    + " Game Changers. Current: " + gameChangers));
+                }
+            }
+        };
+    }
+
+    private static int limitFor(int bracket) {
+        switch (bracket) {
+            case 1:
+            case 2:
+                return 0;
+            case 3:
+                return 3;
+            case 4:
+            case 5:
+                return UNLIMITED;
+            default:
+                return INVALID_BRACKET;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package rules;
+
+/**
+ * A single failed check: which rule, which card (null for deck-wide problems) and why.
+ */
+public class RuleViolation {
+    private final String ruleName;
+    private final String cardName;
+    private final String message;
+
+    public RuleViolation(String ruleName, String cardName, String message) {
+        this.ruleName = ruleName;
+        this.cardName = cardName;
+        this.message = message;
+    }
+
+    // --- Getters ---
+    public String getRuleName() { return ruleName; }
+    public String getCardName() { return cardName; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "[" + ruleName + "] " + message;
+    }
+}
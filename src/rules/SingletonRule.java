@@ -0,0 +1,64 @@
+package rules;
+
+import entity.Card;
+import entity.Deck;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * No two copies of the same card by name, except basic lands.
+ */
+public class SingletonRule implements DeckRule {
+
+    private static final Set<String> BASIC_LAND_NAMES = Set.of(
+            "plains", "island", "swamp", "mountain", "forest", "wastes");
+
+    @Override
+    public String getName() {
+        return "Singleton";
+    }
+
+    @Override
+    public Check begin(Deck deck) {
+        return new Check() {
+            private final Map<String, Integer> copiesByName = new LinkedHashMap<>();
+
+            @Override
+            public void accept(Card card, int quantity) {
+                if (isBasicLand(card)) {
+                    return;
+                }
+                copiesByName.merge(card.getCardName(), quantity, Integer::sum);
+            }
+
+            @Override
+            public void finish(List<RuleViolation> violations) {
+                for (Map.Entry<String, Integer> entry : copiesByName.entrySet()) {
+                    if (entry.getValue() > 1) {
+                        violations.add(new RuleViolation(getName(), entry.getKey(),
+                                "Multiple copies of non-land card: " + entry.getKey() + " (" + entry.getValue() + " copies)"));
+                    }
+                }
+            }
+        };
+    }
+
+    static boolean isBasicLand(Card card) {
+        String type = card.getCardType();
+        if (type != null && type.contains("Basic") && type.contains("Land")) {
+            return true;
+        }
+        String name = card.getCardName();
+        if (name == null) {
+            return false;
+        }
+        String lower = name.toLowerCase();
+        if (lower.startsWith("snow-covered ")) {
+            lower = lower.substring("snow-covered ".length());
+        }
+        return BASIC_LAND_NAMES.contains(lower);
+    }
+}
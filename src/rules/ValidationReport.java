@@ -0,0 +1,35 @@
+package rules;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of running a DeckRuleEngine over one deck.
+ */
+public class ValidationReport {
+    private final List<RuleViolation> violations;
+
+    public ValidationReport(List<RuleViolation> violations) {
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    public List<RuleViolation> getViolations() {
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        if (violations.isEmpty()) {
+            return "Deck is VALID";
+        }
+        StringBuilder sb = new StringBuilder("Deck is INVALID:");
+        for (RuleViolation violation : violations) {
+            sb.append("\n- ").append(violation.getMessage());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package simulation;
+
+/**
+ * Results of a GoldfishSimulator run. Turn-indexed values are 1-based (turn 1 .. getTurns()).
+ */
+public class GoldfishReport {
+    private final int deckId;
+    private final long trials;
+    private final int turns;
+    private final long[] openingLands;      // index = lands in the opening hand (0..7)
+    private final long[] landDropsMade;     // index = turn; trials with a land on every turn so far
+    private final long[] commanderCastable; // index = turn; trials able to cast the commander by then
+    private final long[] landsInPlay;       // index = turn; summed over trials
+    private final boolean hasCommander;
+    private final long elapsedMillis;
+
+    public GoldfishReport(int deckId, long trials, int turns, long[] openingLands, long[] landDropsMade,
+                          long[] commanderCastable, long[] landsInPlay, boolean hasCommander, long elapsedMillis) {
+        this.deckId = deckId;
+        this.trials = trials;
+        this.turns = turns;
+        this.openingLands = openingLands;
+        this.landDropsMade = landDropsMade;
+        this.commanderCastable = commanderCastable;
+        this.landsInPlay = landsInPlay;
+        this.hasCommander = hasCommander;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // --- Getters ---
+    public int getDeckId() { return deckId; }
+    public long getTrials() { return trials; }
+    public int getTurns() { return turns; }
+    public boolean hasCommander() { return hasCommander; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * Probability that the 7-card opening hand holds exactly this many lands.
+     */
+    public double getOpeningLandProbability(int lands) {
+        return (double) openingLands[lands] / trials;
+    }
+
+    /**
+     * Probability of having played a land on every turn up to and including this one.
+     */
+    public double getLandDropProbability(int turn) {
+        return (double) landDropsMade[turn] / trials;
+    }
+
+    /**
+     * Probability that the lands in play can cast the commander by this turn (0 without a commander).
+     */
+    public double getCommanderCastableProbability(int turn) {
+        return (double) commanderCastable[turn] / trials;
+    }
+
+    public double getAverageLandsInPlay(int turn) {
+        return (double) landsInPlay[turn] / trials;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Goldfish simulation for deck %d: %,d trials in %d ms%n", deckId, trials, elapsedMillis));
+        sb.append("Lands in opening hand:\n");
+        for (int lands = 0; lands < openingLands.length; lands++) {
+            sb.append(String.format("  %d: %5.1f%%%n", lands, 100 * getOpeningLandProbability(lands)));
+        }
+        sb.append("Turn  On curve  Avg lands").append(hasCommander ? "  Commander" : "").append('\n');
+        for (int turn = 1; turn <= turns; turn++) {
+            sb.append(String.format("%4d  %7.1f%%  %9.2f", turn, 100 * getLandDropProbability(turn), getAverageLandsInPlay(turn)));
+            if (hasCommander) {
+                sb.append(String.format("  %8.1f%%", 100 * getCommanderCastableProbability(turn)));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,266 @@
+package simulation;
+
+import entity.Card;
+import entity.Deck;
+import entity.ManaCost;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo "goldfish" simulation of a deck's opening hands and first turns: draw seven,
+ * then each turn draw a card and play a land if one is in hand. No mulligans, and every
+ * turn has a draw (multiplayer games do not skip the first draw).
+ *
+ * The library is encoded once as an int per card copy (LAND flag plus the colors the land
+ * can produce), so a trial is a partial Fisher-Yates shuffle of the cards it will actually
+ * draw and a few array updates. Trials are split across the common fork-join pool; each
+ * leaf task gets its own SplittableRandom and working arrays and allocates nothing per trial.
+ *
+ * The commander counts as castable once the lands in play cover its mana value and, for
+ * every combination of its colors, enough lands produce one of those colors to pay the
+ * colored symbols (hybrid symbols are counted against each of their colors).
+ */
+public class GoldfishSimulator {
+
+    public static final int HAND_SIZE = 7;
+    public static final int MAX_TURNS = 20;
+
+    static final int LAND = 1 << 5;
+    private static final int COLOR_BITS = LAND - 1;
+
+    // Trials per leaf task; large enough that forking costs nothing next to the work
+    private static final long LEAF_TRIALS = 16_384;
+
+    private final int deckId;
+    private final int[] library;
+    private final boolean hasCommander;
+    private final int commanderManaValue;
+    private final int[] colorSubsets; // non-empty subsets of the commander's colors
+    private final int[] subsetNeeds;  // colored symbols that must come from each subset
+
+    /**
+     * Encodes the deck's loaded cards. One copy of the commander is left out of the library.
+     */
+    public GoldfishSimulator(Deck deck) {
+        this.deckId = deck.getDeckId();
+        int commanderId = deck.getCommanderCardId();
+
+        int size = 0;
+        for (Card card : deck.getDeckCards()) {
+            size += deck.getCardQuantity(card.getCardId());
+        }
+        int commanderCopies = commanderId > 0 && deck.getCardQuantity(commanderId) > 0 ? 1 : 0;
+        this.library = new int[size - commanderCopies];
+
+        int index = 0;
+        for (Card card : deck.getDeckCards()) {
+            int copies = deck.getCardQuantity(card.getCardId());
+            if (card.getCardId() == commanderId) {
+                copies -= commanderCopies;
+            }
+            int encoded = encode(card);
+            for (int i = 0; i < copies; i++) {
+                library[index++] = encoded;
+            }
+        }
+
+        Card commander = deck.getCommanderCard();
+        this.hasCommander = commander != null;
+        if (commander != null) {
+            ManaCost cost = ManaCost.parse(commander.getManaCost());
+            int colors = cost.getColors();
+            int subsets = Integer.bitCount(colors) == 0 ? 0 : (1 << Integer.bitCount(colors)) - 1;
+            this.commanderManaValue = cost.getManaValue();
+            this.colorSubsets = new int[subsets];
+            this.subsetNeeds = new int[subsets];
+            int n = 0;
+            for (int subset = colors; subset != 0; subset = (subset - 1) & colors) {
+                colorSubsets[n] = subset;
+                for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+                    if ((subset & (1 << c)) != 0) {
+                        subsetNeeds[n] += cost.getPips(c);
+                    }
+                }
+                n++;
+            }
+        } else {
+            this.commanderManaValue = 0;
+            this.colorSubsets = new int[0];
+            this.subsetNeeds = new int[0];
+        }
+    }
+
+    static int encode(Card card) {
+        String type = card.getCardType() != null ? card.getCardType().toLowerCase() : "";
+        return type.contains("land") ? LAND | ManaCost.landColors(card) : 0;
+    }
+
+    public int getLibrarySize() {
+        return library.length;
+    }
+
+    /**
+     * Runs the given number of trials over the first turns of the game. The work is split
+     * the same way every time, so the same seed gives the same results.
+     */
+    public GoldfishReport run(long trials, int turns, long seed) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("Trials must be positive");
+        }
+        if (turns < 1 || turns > MAX_TURNS) {
+            throw new IllegalArgumentException("Turns must be between 1 and " + MAX_TURNS);
+        }
+        if (library.length < HAND_SIZE + turns) {
+            throw new IllegalArgumentException("Deck has " + library.length + " cards in its library; "
+                    + (HAND_SIZE + turns) + " are needed to simulate " + turns + " turns");
+        }
+
+        long start = System.nanoTime();
+        long[] counts = ForkJoinPool.commonPool().invoke(new TrialTask(trials, turns, new SplittableRandom(seed)));
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        long[] opening = new long[HAND_SIZE + 1];
+        long[] drops = new long[turns + 1];
+        long[] castable = new long[turns + 1];
+        long[] inPlay = new long[turns + 1];
+        System.arraycopy(counts, 0, opening, 0, opening.length);
+        System.arraycopy(counts, dropsOffset(), drops, 0, drops.length);
+        System.arraycopy(counts, castableOffset(turns), castable, 0, castable.length);
+        System.arraycopy(counts, inPlayOffset(turns), inPlay, 0, inPlay.length);
+        return new GoldfishReport(deckId, trials, turns, opening, drops, castable, inPlay, hasCommander, elapsed);
+    }
+
+    // Layout of the counters array: opening land histogram, then three per-turn series
+    private static int dropsOffset() { return HAND_SIZE + 1; }
+    private static int castableOffset(int turns) { return dropsOffset() + turns + 1; }
+    private static int inPlayOffset(int turns) { return castableOffset(turns) + turns + 1; }
+    private static int countersLength(int turns) { return inPlayOffset(turns) + turns + 1; }
+
+    // Runs one leaf's trials with arrays allocated once for the whole batch
+    private long[] simulate(long trials, int turns, SplittableRandom random) {
+        int[] cards = library.clone();
+        int size = cards.length;
+        int drawn = HAND_SIZE + turns;
+        int[] handLands = new int[drawn];
+        int[] cover = new int[colorSubsets.length];
+        long[] counts = new long[countersLength(turns)];
+        int drops = dropsOffset();
+        int castableAt = castableOffset(turns);
+        int inPlayAt = inPlayOffset(turns);
+
+        for (long trial = 0; trial < trials; trial++) {
+            // Only the cards that will be drawn need to be shuffled into place
+            for (int i = 0; i < drawn; i++) {
+                int j = i + random.nextInt(size - i);
+                int swap = cards[i];
+                cards[i] = cards[j];
+                cards[j] = swap;
+            }
+
+            int handLandCount = 0;
+            for (int i = 0; i < HAND_SIZE; i++) {
+                if ((cards[i] & LAND) != 0) {
+                    handLands[handLandCount++] = cards[i];
+                }
+            }
+            counts[handLandCount]++;
+
+            for (int s = 0; s < cover.length; s++) {
+                cover[s] = 0;
+            }
+            int landsInPlay = 0;
+            boolean castable = false;
+            for (int turn = 1; turn <= turns; turn++) {
+                int draw = cards[HAND_SIZE + turn - 1];
+                if ((draw & LAND) != 0) {
+                    handLands[handLandCount++] = draw;
+                }
+                if (handLandCount > 0) {
+                    int pick = chooseLand(handLands, handLandCount, cover);
+                    int colors = handLands[pick] & COLOR_BITS;
+                    handLands[pick] = handLands[--handLandCount];
+                    landsInPlay++;
+                    for (int s = 0; s < cover.length; s++) {
+                        if ((colors & colorSubsets[s]) != 0) {
+                            cover[s]++;
+                        }
+                    }
+                }
+
+                if (landsInPlay == turn) {
+                    counts[drops + turn]++;
+                }
+                counts[inPlayAt + turn] += landsInPlay;
+                if (hasCommander && !castable && landsInPlay >= commanderManaValue) {
+                    castable = meetsColorNeeds(cover);
+                }
+                if (castable) {
+                    counts[castableAt + turn]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    // Picks the land in hand that helps the most color requirements that are still short
+    private int chooseLand(int[] handLands, int count, int[] cover) {
+        int best = 0;
+        int bestScore = -1;
+        for (int i = 0; i < count; i++) {
+            int colors = handLands[i] & COLOR_BITS;
+            int score = 0;
+            for (int s = 0; s < cover.length; s++) {
+                if (cover[s] < subsetNeeds[s] && (colors & colorSubsets[s]) != 0) {
+                    score++;
+                }
+            }
+            if (score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private boolean meetsColorNeeds(int[] cover) {
+        for (int s = 0; s < cover.length; s++) {
+            if (cover[s] < subsetNeeds[s]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Splits the trial count in half until it is small enough to run directly
+    private final class TrialTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long trials;
+        private final int turns;
+        private final SplittableRandom random;
+
+        TrialTask(long trials, int turns, SplittableRandom random) {
+            this.trials = trials;
+            this.turns = turns;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (trials <= LEAF_TRIALS) {
+                return simulate(trials, turns, random);
+            }
+            long half = trials / 2;
+            TrialTask left = new TrialTask(half, turns, random.split());
+            left.fork();
+            long[] counts = new TrialTask(trials - half, turns, random).compute();
+            long[] leftCounts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += leftCounts[i];
+            }
+            return counts;
+        }
+    }
+}
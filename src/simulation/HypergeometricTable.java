@@ -0,0 +1,94 @@
+package simulation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hypergeometric tail probabilities: the chance of seeing at least k of the `successes`
+ * cards (e.g. sources of a color) among `draws` cards from a deck of `population`.
+ *
+ * Each (population, successes, draws) combination is computed once as a whole tail table
+ * and cached, so repeated mana-base analyses are plain array lookups.
+ */
+public final class HypergeometricTable {
+
+    public static final int MAX_POPULATION = 1023;
+
+    private static final double[] LOG_FACTORIAL = new double[MAX_POPULATION + 1];
+    private static final ConcurrentMap<Long, double[]> TAILS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 1; i <= MAX_POPULATION; i++) {
+            LOG_FACTORIAL[i] = LOG_FACTORIAL[i - 1] + Math.log(i);
+        }
+    }
+
+    private HypergeometricTable() {
+    }
+
+    /**
+     * P(X >= k) where X counts successes among the cards drawn.
+     */
+    public static double atLeast(int population, int successes, int draws, int k) {
+        if (k <= 0) {
+            return 1.0;
+        }
+        double[] tail = tail(population, successes, draws);
+        return k < tail.length ? tail[k] : 0.0;
+    }
+
+    /**
+     * Smallest number of successes in the deck that gives at least k of them among the
+     * cards drawn with the given confidence, or -1 if no number of successes does.
+     */
+    public static int minimumSuccesses(int population, int draws, int k, double confidence) {
+        if (k <= 0) {
+            return 0;
+        }
+        if (k > draws || atLeast(population, population, draws, k) < confidence) {
+            return -1;
+        }
+        // The tail grows with the number of successes, so binary search for the first that qualifies
+        int low = k;
+        int high = population;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (atLeast(population, mid, draws, k) >= confidence) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // tail[k] = P(X >= k) for k = 0 .. draws
+    private static double[] tail(int population, int successes, int draws) {
+        if (population < 0 || population > MAX_POPULATION || successes < 0 || successes > population
+                || draws < 0 || draws > population) {
+            throw new IllegalArgumentException("Invalid hypergeometric parameters: population " + population
+                    + ", successes " + successes + ", draws " + draws);
+        }
+        long key = ((long) population << 40) | ((long) successes << 20) | draws;
+        return TAILS.computeIfAbsent(key, ignored -> buildTail(population, successes, draws));
+    }
+
+    private static double[] buildTail(int population, int successes, int draws) {
+        double[] tail = new double[draws + 1];
+        int lowest = Math.max(0, draws - (population - successes));
+        int highest = Math.min(draws, successes);
+        double logTotal = logChoose(population, draws);
+        double cumulative = 0.0;
+        for (int k = highest; k >= 0; k--) {
+            if (k >= lowest) {
+                cumulative += Math.exp(logChoose(successes, k) + logChoose(population - successes, draws - k) - logTotal);
+            }
+            tail[k] = Math.min(1.0, cumulative);
+        }
+        return tail;
+    }
+
+    private static double logChoose(int n, int k) {
+        return LOG_FACTORIAL[n] - LOG_FACTORIAL[k] - LOG_FACTORIAL[n - k];
+    }
+}
@@ -0,0 +1,54 @@
+package simulation;
+
+import entity.Deck;
+import entity.ManaCost;
+
+/**
+ * Works out how many sources of each color a deck needs so that, with the given confidence,
+ * every spell has its colored symbols available by the turn matching its mana value
+ * (seven-card hand plus one draw per turn, as in GoldfishSimulator).
+ *
+ * Probabilities come from HypergeometricTable, so analyzing a deck is a handful of cached
+ * table lookups and can be run over every deck in one pass.
+ */
+public class ManaBaseCalculator {
+
+    public static final double DEFAULT_CONFIDENCE = 0.90;
+
+    private final double confidence;
+
+    public ManaBaseCalculator() {
+        this(DEFAULT_CONFIDENCE);
+    }
+
+    public ManaBaseCalculator(double confidence) {
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1");
+        }
+        this.confidence = confidence;
+    }
+
+    public ManaBaseReport analyze(Deck deck) {
+        return analyze(ManaProfile.of(deck));
+    }
+
+    public ManaBaseReport analyze(ManaProfile profile) {
+        int population = Math.min(profile.getLibrarySize(), HypergeometricTable.MAX_POPULATION);
+        int[] sources = new int[ManaCost.COLOR_COUNT];
+        int[] required = new int[ManaCost.COLOR_COUNT];
+
+        for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+            sources[c] = profile.getSources(c);
+            for (int turn = 1; turn <= ManaProfile.MAX_TURN && required[c] >= 0; turn++) {
+                int pips = profile.getPips(c, turn);
+                if (pips == 0) {
+                    continue;
+                }
+                int draws = Math.min(population, GoldfishSimulator.HAND_SIZE + turn);
+                int needed = HypergeometricTable.minimumSuccesses(population, draws, pips, confidence);
+                required[c] = needed < 0 ? -1 : Math.max(required[c], needed);
+            }
+        }
+        return new ManaBaseReport(profile.getLibrarySize(), profile.getLandCount(), sources, required, confidence);
+    }
+}
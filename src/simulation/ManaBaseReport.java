@@ -0,0 +1,76 @@
+package simulation;
+
+import entity.ManaCost;
+
+/**
+ * Colored sources a deck has versus the sources its spells call for.
+ */
+public class ManaBaseReport {
+
+    private static final String COLOR_LETTERS = "WUBRG";
+
+    private final int librarySize;
+    private final int landCount;
+    private final int[] sources;
+    private final int[] required; // -1 when no number of sources is enough
+    private final double confidence;
+
+    public ManaBaseReport(int librarySize, int landCount, int[] sources, int[] required, double confidence) {
+        this.librarySize = librarySize;
+        this.landCount = landCount;
+        this.sources = sources;
+        this.required = required;
+        this.confidence = confidence;
+    }
+
+    // --- Getters ---
+    public int getLibrarySize() { return librarySize; }
+    public int getLandCount() { return landCount; }
+    public int getSources(int colorIndex) { return sources[colorIndex]; }
+    public int getRequiredSources(int colorIndex) { return required[colorIndex]; }
+    public double getConfidence() { return confidence; }
+
+    public boolean isSufficient(int colorIndex) {
+        return required[colorIndex] >= 0 && sources[colorIndex] >= required[colorIndex];
+    }
+
+    /**
+     * True when every color the spells need has enough sources.
+     */
+    public boolean isSufficient() {
+        for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+            if (required[c] != 0 && !isSufficient(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Short form stored in deck.mana_base, e.g. "W 14/19! G 21/17 | 36 lands": sources
+     * present / sources needed for each color the deck uses, "!" marking a shortfall.
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+            if (required[c] == 0 && sources[c] == 0) {
+                continue;
+            }
+            sb.append(COLOR_LETTERS.charAt(c)).append(' ').append(sources[c]).append('/')
+                    .append(required[c] >= 0 ? String.valueOf(required[c]) : "-");
+            if (required[c] != 0 && !isSufficient(c)) {
+                sb.append('!');
+            }
+            sb.append(' ');
+        }
+        if (sb.length() == 0) {
+            sb.append("Colorless ");
+        }
+        return sb.append("| ").append(landCount).append(" lands").toString();
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -0,0 +1,87 @@
+package simulation;
+
+import entity.Card;
+import entity.Deck;
+import entity.ManaCost;
+
+/**
+ * What a ManaBaseCalculator needs to know about a deck: library size, colored sources
+ * among its lands, and for each color the most symbols of that color any spell asks for
+ * on the turn it would first be cast (its mana value).
+ */
+public class ManaProfile {
+
+    // Spells above this mana value are judged as if cast on this turn
+    public static final int MAX_TURN = 10;
+
+    private int librarySize;
+    private int landCount;
+    private final int[] sources = new int[ManaCost.COLOR_COUNT];
+    private final int[][] pipsByTurn = new int[ManaCost.COLOR_COUNT][MAX_TURN + 1];
+
+    /**
+     * Builds the profile from a deck's loaded cards.
+     */
+    public static ManaProfile of(Deck deck) {
+        ManaProfile profile = new ManaProfile();
+        int commanderId = deck.getCommanderCardId();
+        for (Card card : deck.getDeckCards()) {
+            int quantity = deck.getCardQuantity(card.getCardId());
+            boolean commander = card.getCardId() == commanderId;
+            profile.addCard(card.getManaCost(), card.getCardType(), card.getCardSubtype(), card.getCardText(),
+                    commander ? quantity - 1 : quantity, false);
+            if (commander) {
+                profile.addCard(card.getManaCost(), card.getCardType(), card.getCardSubtype(), card.getCardText(), 1, true);
+            }
+        }
+        if (commanderId > 0 && deck.getCardQuantity(commanderId) == 0 && deck.getCommanderCard() != null) {
+            Card commander = deck.getCommanderCard();
+            profile.addCard(commander.getManaCost(), commander.getCardType(), commander.getCardSubtype(),
+                    commander.getCardText(), 1, true);
+        }
+        return profile;
+    }
+
+    /**
+     * Adds copies of a card. The commander starts in the command zone, so it adds its color
+     * requirements without counting towards the library.
+     */
+    public void addCard(String manaCost, String cardType, String cardSubtype, String cardText, int quantity, boolean commander) {
+        if (quantity <= 0) {
+            return;
+        }
+        if (!commander) {
+            librarySize += quantity;
+        }
+
+        String type = cardType != null ? cardType.toLowerCase() : "";
+        if (type.contains("land")) {
+            if (!commander) {
+                landCount += quantity;
+                int colors = ManaCost.landColors(cardSubtype, cardText);
+                for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+                    if ((colors & (1 << c)) != 0) {
+                        sources[c] += quantity;
+                    }
+                }
+            }
+            return;
+        }
+
+        ManaCost cost = ManaCost.parse(manaCost);
+        int turn = Math.max(1, Math.min(MAX_TURN, cost.getManaValue()));
+        for (int c = 0; c < ManaCost.COLOR_COUNT; c++) {
+            pipsByTurn[c][turn] = Math.max(pipsByTurn[c][turn], cost.getPips(c));
+        }
+    }
+
+    // --- Getters ---
+    public int getLibrarySize() { return librarySize; }
+    public int getLandCount() { return landCount; }
+    public int getSources(int colorIndex) { return sources[colorIndex]; }
+
+    /**
+     * Most symbols of the color required by a spell first castable on the given turn.
+     */
+    public int getPips(int colorIndex, int turn) { return pipsByTurn[colorIndex][turn]; }
+}
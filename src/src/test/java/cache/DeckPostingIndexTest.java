@@ -0,0 +1,110 @@
+package cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Posting-list queries must return the same decks as checking every deck's card set, across
+ * lists long enough to span several blocks and after incremental edits.
+ */
+class DeckPostingIndexTest {
+
+    private static final int DECKS = 700;
+    private static final int CARDS = 40;
+
+    @Test
+    void queriesMatchAScanOfEveryDeck() {
+        Map<Integer, Set<Integer>> decks = randomDecks(new Random(42));
+        DeckPostingIndex index = build(decks);
+
+        assertQueries(index, decks, new Random(7));
+    }
+
+    @Test
+    void queriesMatchAfterEdits() {
+        Random random = new Random(11);
+        Map<Integer, Set<Integer>> decks = randomDecks(random);
+        DeckPostingIndex index = build(decks);
+        for (int i = 0; i < 200; i++) {
+            int deckId = 1 + random.nextInt(DECKS);
+            int added = 1 + random.nextInt(CARDS);
+            int removed = 1 + random.nextInt(CARDS);
+            if (added == removed) {
+                continue;
+            }
+            Set<Integer> cards = decks.computeIfAbsent(deckId, id -> new TreeSet<>());
+            List<Integer> addedIds = cards.add(added) ? List.of(added) : List.of();
+            List<Integer> removedIds = cards.remove(removed) ? List.of(removed) : List.of();
+            index.deckCardsChanged(deckId, addedIds, removedIds);
+        }
+        index.removeCard(3);
+        decks.values().forEach(cards -> cards.remove(3));
+
+        assertQueries(index, decks, new Random(13));
+    }
+
+    private static void assertQueries(DeckPostingIndex index, Map<Integer, Set<Integer>> decks, Random random) {
+        for (int q = 0; q < 300; q++) {
+            List<Integer> allOf = randomCards(random, random.nextInt(3));
+            List<Integer> anyOf = randomCards(random, random.nextInt(4));
+            List<Integer> noneOf = randomCards(random, random.nextInt(3));
+            if (allOf.isEmpty() && anyOf.isEmpty()) {
+                continue;
+            }
+            assertArrayEquals(scan(decks, allOf, anyOf, noneOf), index.query(allOf, anyOf, noneOf),
+                    "allOf " + allOf + " anyOf " + anyOf + " noneOf " + noneOf);
+        }
+    }
+
+    private static int[] scan(Map<Integer, Set<Integer>> decks, Collection<Integer> allOf,
+                              Collection<Integer> anyOf, Collection<Integer> noneOf) {
+        return decks.entrySet().stream()
+                .filter(deck -> deck.getValue().containsAll(allOf))
+                .filter(deck -> anyOf.isEmpty() || anyOf.stream().anyMatch(deck.getValue()::contains))
+                .filter(deck -> noneOf.stream().noneMatch(deck.getValue()::contains))
+                .mapToInt(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+    }
+
+    private static DeckPostingIndex build(Map<Integer, Set<Integer>> decks) {
+        DeckPostingIndex.Builder builder = new DeckPostingIndex.Builder();
+        for (int deckId = 1; deckId <= DECKS; deckId++) {
+            builder.addDeck(deckId, decks.get(deckId).stream().mapToInt(Integer::intValue).toArray());
+        }
+        return builder.build();
+    }
+
+    // Card 1 is in almost every deck, so its list spans many blocks; higher ids get rarer
+    private static Map<Integer, Set<Integer>> randomDecks(Random random) {
+        Map<Integer, Set<Integer>> decks = new HashMap<>();
+        for (int deckId = 1; deckId <= DECKS; deckId++) {
+            Set<Integer> cards = new TreeSet<>();
+            for (int cardId = 1; cardId <= CARDS; cardId++) {
+                if (random.nextInt(cardId + 1) == 0 || cardId == 1 && random.nextInt(10) > 0) {
+                    cards.add(cardId);
+                }
+            }
+            decks.put(deckId, cards);
+        }
+        return decks;
+    }
+
+    private static List<Integer> randomCards(Random random, int count) {
+        List<Integer> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(1 + random.nextInt(CARDS + 2)); // sometimes a card no deck has
+        }
+        return cards;
+    }
+}
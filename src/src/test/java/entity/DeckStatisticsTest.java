@@ -0,0 +1,76 @@
+package entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Statistics kept up to date by quantity changes must match statistics computed from the
+ * deck's final contents, and must survive the stats_summary encoding.
+ */
+class DeckStatisticsTest {
+
+    private static final Card COMMANDER = new Creature(1, "Commander", "{2}{G}{U}", "Legendary Creature", "Elf", 3, 3, "", "TST", "Legal");
+    private static final Card BEAR = new Creature(2, "Bear", "{1}{G}", "Creature", "Bear", 2, 2, "", "TST", "Legal");
+    private static final Card BOLT = new Instant(3, "Bolt", "{R}", "Instant", "", "", "TST", "Legal");
+    private static final Card GIANT = new Creature(4, "Giant", "{7}{G}{G}", "Creature", "Giant", 9, 9, "", "TST", "Legal");
+    private static final Card FOREST = new Land(5, "Forest", "Basic Land", "Forest", "", "TST", "Legal");
+
+    @Test
+    void incrementalChangesMatchRecompute() {
+        DeckStatistics incremental = new DeckStatistics();
+        incremental.apply(COMMANDER, 1);
+        incremental.apply(BEAR, 4);
+        incremental.apply(BOLT, 2);
+        incremental.apply(FOREST, 30);
+        // Later edits: drop the bolts, trim the bears and lands, add a giant
+        incremental.apply(BOLT, -2);
+        incremental.apply(BEAR, -3);
+        incremental.apply(FOREST, -5);
+        incremental.apply(GIANT, 1);
+
+        Deck deck = new Deck();
+        deck.addCard(COMMANDER, 1, false);
+        deck.addCard(BEAR, 1, false);
+        deck.addCard(FOREST, 25, false);
+        deck.addCard(GIANT, 1, false);
+        DeckStatistics recomputed = DeckStatistics.of(deck);
+
+        assertArrayEquals(recomputed.encode(), incremental.encode());
+        assertEquals(28, incremental.getTotalCards());
+        assertEquals(25, incremental.getLandCount());
+        assertEquals(1, incremental.getCurve(DeckStatistics.CURVE_BUCKETS - 1));
+        assertEquals(0, incremental.getTypeCount(DeckStatistics.CardType.INSTANT));
+    }
+
+    @Test
+    void encodingRoundTrips() {
+        DeckStatistics stats = new DeckStatistics();
+        stats.apply(COMMANDER, 1);
+        stats.apply(BOLT, 200);
+        stats.apply(GIANT, -1); // negative counts stay representable mid-edit
+        DeckStatistics decoded = DeckStatistics.decode(stats.encode());
+
+        assertNotNull(decoded);
+        assertArrayEquals(stats.encode(), decoded.encode());
+        assertEquals(stats.getAverageManaValue(), decoded.getAverageManaValue(), 1e-9);
+    }
+
+    @Test
+    void decodeRejectsUnreadableInput() {
+        byte[] encoded = new DeckStatistics().encode();
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        byte[] unknownFormat = encoded.clone();
+        unknownFormat[0] = 99;
+
+        assertNull(DeckStatistics.decode(null));
+        assertNull(DeckStatistics.decode(new byte[0]));
+        assertNull(DeckStatistics.decode(truncated));
+        assertNull(DeckStatistics.decode(unknownFormat));
+    }
+}
@@ -0,0 +1,37 @@
+package events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every player gets a seat, pods are fours and threes, and there are as many fours as the
+ * player count allows.
+ */
+class PodMatchmakerTest {
+
+    @Test
+    void podSizesSeatEveryone() {
+        for (int players = 6; players <= 200; players++) {
+            int[] sizes = PodMatchmaker.podSizes(players);
+
+            assertEquals(players, Arrays.stream(sizes).sum(), players + " players");
+            assertTrue(Arrays.stream(sizes).allMatch(size -> size == 3 || size == 4), players + " players");
+            assertTrue(Arrays.stream(sizes).filter(size -> size == 3).count() < 4, players + " players");
+        }
+    }
+
+    @Test
+    void smallEventsShareOneTable() {
+        assertArrayEquals(new int[0], PodMatchmaker.podSizes(0));
+        assertArrayEquals(new int[]{1}, PodMatchmaker.podSizes(1));
+        assertArrayEquals(new int[]{5}, PodMatchmaker.podSizes(5));
+        assertArrayEquals(new int[]{3, 3}, PodMatchmaker.podSizes(6));
+        assertArrayEquals(new int[]{4, 3}, PodMatchmaker.podSizes(7));
+        assertArrayEquals(new int[]{4, 4, 3, 3, 3}, PodMatchmaker.podSizes(17));
+    }
+}
@@ -0,0 +1,79 @@
+package rules;
+
+import entity.Creature;
+import entity.Deck;
+import entity.Land;
+import entity.Sorcery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a 100-card Commander deck by the in-memory rule engine, for a legal deck and
+ * for one that breaks several rules at once. Run main() on the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckRuleEngineBenchmark {
+
+    private Deck legalDeck;
+    private Deck brokenDeck;
+
+    @Setup(Level.Trial)
+    public void buildDecks() {
+        legalDeck = commanderDeck(false);
+        brokenDeck = commanderDeck(true);
+    }
+
+    // Commander, 63 singleton spells and 36 basics; the broken deck adds a banned card,
+    // an off-color spell and a second copy of a spell
+    private static Deck commanderDeck(boolean broken) {
+        Deck deck = new Deck();
+        Creature commander = new Creature(1, "Test Commander", "{2}{G}{U}", "Legendary Creature", "Elf Wizard",
+                3, 3, "", "TST", "Legal");
+        deck.setCommanderCard(commander);
+        deck.addCard(commander, 1, false);
+        for (int i = 0; i < 63; i++) {
+            deck.addCard(new Sorcery(100 + i, "Spell " + i, i % 2 == 0 ? "{1}{G}" : "{2}{U}", "Sorcery", "",
+                    "", "TST", "Legal"), 1, false);
+        }
+        deck.addCard(new Land(10, "Forest", "Basic Land", "Forest", "", "TST", "Legal"), 18, false);
+        deck.addCard(new Land(11, "Island", "Basic Land", "Island", "", "TST", "Legal"), 18, false);
+        if (broken) {
+            deck.addCard(new Sorcery(200, "Banned Spell", "{B}", "Sorcery", "", "", "TST", "Banned"), 1, false);
+            deck.addCard(new Sorcery(100, "Spell 0", "{1}{G}", "Sorcery", "", "", "TST", "Legal"), 1, false);
+        }
+        return deck;
+    }
+
+    @Benchmark
+    public ValidationReport validateLegalDeck() {
+        return legalDeck.validate();
+    }
+
+    @Benchmark
+    public ValidationReport validateBrokenDeck() {
+        return brokenDeck.validate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeckRuleEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tail probabilities must match exact binomial-coefficient arithmetic, and the minimum
+ * source counts must be the smallest that reach the confidence.
+ */
+class HypergeometricTableTest {
+
+    @Test
+    void tailsMatchExactValues() {
+        int[][] cases = {
+                {99, 36, 7, 2},   // two lands in a Commander opening hand
+                {99, 36, 7, 3},
+                {60, 24, 7, 1},
+                {60, 4, 10, 1},   // a 4-of by turn 3 on the draw
+                {100, 20, 15, 4},
+                {40, 17, 40, 17}  // drawing the whole deck
+        };
+        for (int[] c : cases) {
+            assertEquals(exactAtLeast(c[0], c[1], c[2], c[3]), HypergeometricTable.atLeast(c[0], c[1], c[2], c[3]), 1e-12,
+                    "population " + c[0] + ", successes " + c[1] + ", draws " + c[2] + ", k " + c[3]);
+        }
+    }
+
+    @Test
+    void edgeCases() {
+        assertEquals(1.0, HypergeometricTable.atLeast(99, 0, 7, 0));
+        assertEquals(0.0, HypergeometricTable.atLeast(99, 3, 7, 4));
+        assertEquals(0.0, HypergeometricTable.atLeast(99, 10, 7, 8));
+        assertEquals(1.0, HypergeometricTable.atLeast(99, 99, 7, 7), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> HypergeometricTable.atLeast(10, 11, 5, 1));
+    }
+
+    @Test
+    void minimumSuccessesIsTheSmallestThatQualifies() {
+        int needed = HypergeometricTable.minimumSuccesses(99, 10, 2, 0.9);
+
+        assertTrue(HypergeometricTable.atLeast(99, needed, 10, 2) >= 0.9);
+        assertTrue(HypergeometricTable.atLeast(99, needed - 1, 10, 2) < 0.9);
+        assertEquals(0, HypergeometricTable.minimumSuccesses(99, 10, 0, 0.9));
+        assertEquals(-1, HypergeometricTable.minimumSuccesses(99, 3, 4, 0.9));
+    }
+
+    private static double exactAtLeast(int population, int successes, int draws, int k) {
+        BigInteger favourable = BigInteger.ZERO;
+        for (int i = k; i <= Math.min(draws, successes); i++) {
+            favourable = favourable.add(choose(successes, i).multiply(choose(population - successes, draws - i)));
+        }
+        return favourable.doubleValue() / choose(population, draws).doubleValue();
+    }
+
+    private static BigInteger choose(int n, int r) {
+        if (r < 0 || r > n) {
+            return BigInteger.ZERO;
+        }
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < r; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+}
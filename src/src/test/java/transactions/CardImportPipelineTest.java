@@ -0,0 +1,208 @@
+package transactions;
+
+import entity.ImportProgress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Malformed rows must land in the reject file with their line number while the good rows
+ * are written, and a failed batch must roll back to the last commit and fail the import.
+ * The card table is a Connection proxy that keeps committed and uncommitted rows apart.
+ */
+class CardImportPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void malformedRowsAreRejectedAndTheRestImported() throws Exception {
+        Path input = write("cards.csv",
+                "name,mana_cost,type,text,status",
+                "Llanowar Elves,{G},Creature,,Legal",
+                ",{R},Instant,,Legal",
+                "Sol Ring,{1},Artifact,,Restricted",
+                "Counterspell,{U}{U},Instant,\"Counter target spell.",
+                "It's gone.\",Legal",
+                "Cyclonic Rift,{1}{U},Instant,,game changer");
+        Path rejects = dir.resolve("cards.rejects");
+        FakeCardTable table = new FakeCardTable(0);
+        List<ImportProgress> progress = new ArrayList<>();
+
+        ImportProgress result = new CardImportPipeline(input, rejects, ',').run(table.connection(), progress::add);
+
+        assertEquals(5, result.getRowsRead());
+        assertEquals(3, result.getRowsImported());
+        assertEquals(2, result.getRowsRejected());
+        assertTrue(result.isFinished());
+        assertEquals(List.of("Llanowar Elves", "Counterspell", "Cyclonic Rift"), table.committedNames());
+        assertEquals("Counter target spell.\nIt's gone.", table.committed.get(1)[6]);
+        assertEquals("Game Changer", table.committed.get(2)[8]);
+        assertEquals(List.of(
+                "# line 3: name is required",
+                ",{R},Instant,,Legal",
+                "# line 4: unknown status 'Restricted'",
+                "Sol Ring,{1},Artifact,,Restricted"), Files.readAllLines(rejects, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void commitsEveryThousandRows() throws Exception {
+        FakeCardTable table = new FakeCardTable(0);
+        List<ImportProgress> progress = new ArrayList<>();
+
+        ImportProgress result = new CardImportPipeline(cards(2500), dir.resolve("rejects"), ',').run(table.connection(), progress::add);
+
+        assertEquals(2500, result.getRowsImported());
+        assertEquals(2500, table.committed.size());
+        assertEquals(3, table.commits);
+        // One report per full batch, then the final one
+        assertEquals(List.of(1000L, 2000L, 2500L), progress.stream().map(ImportProgress::getRowsImported).toList());
+    }
+
+    @Test
+    void failedBatchRollsBackAndFailsTheImport() throws Exception {
+        FakeCardTable table = new FakeCardTable(2);
+        List<ImportProgress> progress = new ArrayList<>();
+        CardImportPipeline pipeline = new CardImportPipeline(cards(2500), dir.resolve("rejects"), ',');
+
+        assertThrows(SQLException.class, () -> pipeline.run(table.connection(), progress::add));
+
+        assertEquals(1000, table.committed.size());
+        assertEquals(0, table.uncommitted.size());
+        assertEquals(1, table.rollbacks);
+        ImportProgress last = progress.get(progress.size() - 1);
+        assertTrue(last.isFinished());
+        assertEquals(1000, last.getRowsImported());
+    }
+
+    private Path cards(int count) throws Exception {
+        List<String> lines = new ArrayList<>(count + 1);
+        lines.add("card_name,set");
+        for (int i = 0; i < count; i++) {
+            lines.add("Card " + i + ",TST");
+        }
+        return write("bulk.csv", lines.toArray(new String[0]));
+    }
+
+    private Path write(String name, String... lines) throws Exception {
+        Path file = dir.resolve(name);
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    // Card rows pass from the insert batch to uncommitted on executeBatch and to committed on commit
+    private static final class FakeCardTable {
+        private final int failingBatch;
+        final List<String[]> committed = new ArrayList<>();
+        final List<String[]> uncommitted = new ArrayList<>();
+        int batches;
+        int commits;
+        int rollbacks;
+        long version;
+
+        // failingBatch: the 1-based executeBatch call that throws, 0 for none
+        FakeCardTable(int failingBatch) {
+            this.failingBatch = failingBatch;
+        }
+
+        List<String> committedNames() {
+            List<String> names = new ArrayList<>();
+            for (String[] row : committed) {
+                names.add(row[0]);
+            }
+            return names;
+        }
+
+        Connection connection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "prepareStatement":
+                                return ((String) args[0]).startsWith("INSERT INTO card ") ? insert() : sequence();
+                            case "createStatement":
+                                return sequence();
+                            case "commit":
+                                commits++;
+                                committed.addAll(uncommitted);
+                                uncommitted.clear();
+                                return null;
+                            case "rollback":
+                                rollbacks++;
+                                uncommitted.clear();
+                                return null;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private PreparedStatement insert() {
+            List<String[]> batch = new ArrayList<>();
+            String[][] row = {new String[9]};
+            return (PreparedStatement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setString":
+                                row[0][(Integer) args[0] - 1] = (String) args[1];
+                                return null;
+                            case "addBatch":
+                                batch.add(row[0]);
+                                row[0] = new String[9];
+                                return null;
+                            case "executeBatch":
+                                if (++batches == failingBatch) {
+                                    batch.clear();
+                                    throw new SQLException("Simulated write failure");
+                                }
+                                uncommitted.addAll(batch);
+                                int[] counts = new int[batch.size()];
+                                batch.clear();
+                                return counts;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        // Answers ChangeTracking.nextVersion's update and LAST_INSERT_ID() query
+        private PreparedStatement sequence() {
+            return (PreparedStatement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "executeUpdate":
+                                return 1;
+                            case "executeQuery":
+                                long next = ++version;
+                                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                                        new Class<?>[]{ResultSet.class}, (rs, rsMethod, rsArgs) -> {
+                                            switch (rsMethod.getName()) {
+                                                case "next":
+                                                    return true;
+                                                case "getLong":
+                                                    return next;
+                                                default:
+                                                    return null;
+                                            }
+                                        });
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+}
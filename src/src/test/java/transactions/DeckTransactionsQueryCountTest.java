@@ -0,0 +1,156 @@
+package transactions;
+
+import entity.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The deck listing must cost one statement however many decks there are, with or without
+ * the commander cards. The database is replaced by a Connection proxy, the same technique
+ * ConnectionPool uses, that counts statements and answers every query with fixed rows.
+ */
+class DeckTransactionsQueryCountTest {
+
+    private static final int DECKS = 25;
+
+    @Test
+    void listingWithCommandersIsOneStatement() throws Exception {
+        CountingConnection counting = new CountingConnection(deckRows(true));
+        List<Deck> decks = new DeckTransactions().getAllDecks(counting.connection(), true);
+
+        assertEquals(DECKS, decks.size());
+        assertNotNull(decks.get(0).getCommanderCard());
+        assertEquals(1, counting.statements);
+        assertEquals(1, counting.executions);
+    }
+
+    @Test
+    void listingWithoutCommandersIsOneStatement() throws Exception {
+        CountingConnection counting = new CountingConnection(deckRows(false));
+        List<Deck> decks = new DeckTransactions().getAllDecks(counting.connection(), false);
+
+        assertEquals(DECKS, decks.size());
+        assertNull(decks.get(0).getCommanderCard());
+        assertEquals(1000, decks.get(0).getCommanderCardId());
+        assertEquals(1, counting.statements);
+        assertEquals(1, counting.executions);
+    }
+
+    private static List<Map<String, Object>> deckRows(boolean withCommanders) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= DECKS; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("deck_id", i);
+            row.put("deck_name", "Deck " + i);
+            row.put("player_id", 1);
+            row.put("commander_card_id", 1000 + i - 1);
+            row.put("validity", "Valid");
+            if (withCommanders) {
+                row.put("card_id", 1000 + i - 1);
+                row.put("card_name", "Commander " + i);
+                row.put("card_mana_cost", "{G}");
+                row.put("card_type", "Legendary Creature");
+                row.put("card_power", "2");
+                row.put("card_toughness", "2");
+                row.put("card_status", "Legal");
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Counts statements created and executed; every query returns the same rows
+    private static final class CountingConnection {
+        private final List<Map<String, Object>> rows;
+        int statements;
+        int executions;
+
+        CountingConnection(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        Connection connection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "createStatement":
+                            case "prepareStatement":
+                            case "prepareCall":
+                                statements++;
+                                return statement();
+                            default:
+                                return defaultValue(method.getReturnType());
+                        }
+                    });
+        }
+
+        private PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            executions++;
+                            if (method.getReturnType() == ResultSet.class) {
+                                return resultSet();
+                            }
+                        }
+                        return defaultValue(method.getReturnType());
+                    });
+        }
+
+        private ResultSet resultSet() {
+            int[] cursor = {-1};
+            Object[] last = {null};
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("next")) {
+                            return ++cursor[0] < rows.size();
+                        }
+                        if (name.equals("wasNull")) {
+                            return last[0] == null;
+                        }
+                        if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof String) {
+                            Object value = rows.get(cursor[0]).get(args[0]);
+                            last[0] = value;
+                            if (value == null) {
+                                return defaultValue(method.getReturnType());
+                            }
+                            if (method.getReturnType() == int.class) {
+                                return ((Number) value).intValue();
+                            }
+                            return method.getReturnType() == String.class ? value.toString() : value;
+                        }
+                        return defaultValue(method.getReturnType());
+                    });
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            if (type == double.class) {
+                return 0.0;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package transactions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Snapshot and delta payloads must replay to exactly the quantities they were made from.
+ */
+class DeckVersionCodecTest {
+
+    @Test
+    void snapshotDecodesToItself() {
+        TreeMap<Integer, Integer> snapshot = new TreeMap<>(Map.of(1, 1, 7, 4, 130, 1, 70000, 2, Integer.MAX_VALUE, 300));
+        Map<Integer, Integer> decoded = new HashMap<>();
+        DeckVersionCodec.applyTo(DeckVersionCodec.encode(snapshot), decoded);
+
+        assertEquals(snapshot, decoded);
+    }
+
+    @Test
+    void deltaTurnsOneVersionIntoTheNext() {
+        Map<Integer, Integer> before = new TreeMap<>(Map.of(5, 1, 12, 4, 900, 1, 40000, 2));
+        Map<Integer, Integer> after = new TreeMap<>(Map.of(5, 1, 12, 2, 40000, 3, 41000, 1));
+        TreeMap<Integer, Integer> delta = new TreeMap<>();
+        for (int cardId : before.keySet()) {
+            delta.merge(cardId, -before.get(cardId), Integer::sum);
+        }
+        for (int cardId : after.keySet()) {
+            delta.merge(cardId, after.get(cardId), Integer::sum);
+        }
+        delta.values().removeIf(change -> change == 0);
+
+        Map<Integer, Integer> replayed = new HashMap<>();
+        DeckVersionCodec.applyTo(DeckVersionCodec.encode(new TreeMap<>(before)), replayed);
+        DeckVersionCodec.applyTo(DeckVersionCodec.encode(delta), replayed);
+
+        assertEquals(after, replayed);
+        assertFalse(replayed.containsKey(900), "cards reaching zero are dropped");
+    }
+
+    @Test
+    void emptyPayloadChangesNothing() {
+        byte[] empty = DeckVersionCodec.encode(new TreeMap<>());
+        Map<Integer, Integer> quantities = new HashMap<>(Map.of(3, 1));
+        DeckVersionCodec.applyTo(empty, quantities);
+
+        assertEquals(1, empty.length);
+        assertEquals(Map.of(3, 1), quantities);
+    }
+}
@@ -71,6 +71,35 @@ public class BorrowTransactions {
         return false;
     }
 
+    /**
+     * Borrow requests whose deck is currently out with a player (approved immediate borrows
+     * and overdue ones).
+     */
+    public List<BorrowRequest> getActiveLoans() {
+        List<BorrowRequest> loans = new ArrayList<>();
+        Connection conn = dbConnection.getConnection();
+        String sql = "SELECT borrow_code, player_id, deck_id, borrow_type, request_date, status FROM borrow_request " +
+                "WHERE borrow_type = 'Immediate' AND status IN ('Approved', 'Overdue')";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                java.sql.Date reqDate = rs.getDate("request_date");
+                loans.add(new BorrowRequest(
+                        rs.getInt("borrow_code"),
+                        rs.getInt("player_id"),
+                        rs.getInt("deck_id"),
+                        rs.getString("borrow_type"),
+                        reqDate != null ? reqDate.toLocalDate() : null,
+                        rs.getString("status"),
+                        null
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching active loans: " + e.getMessage());
+        }
+        return loans;
+    }
+
     /**
      * Processes a Borrow Request.
      * Automatically sets borrow_type:
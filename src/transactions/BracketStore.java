@@ -0,0 +1,151 @@
+package transactions;
+
+import cache.BracketSignals;
+import rules.BracketClassifier;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps deck.computed_bracket in step with deck_cards, card_status and the current
+ * BracketSignals. Runs inside the caller's transaction.
+ *
+ * A card counts as a Game Changer if its status says so or it was flagged as one when
+ * added, as in GameChangerRule. Decks with no cards are left unclassified (NULL).
+ */
+final class BracketStore {
+
+    private static volatile BracketSignals signals = BracketSignals.EMPTY;
+
+    private BracketStore() {
+    }
+
+    static BracketSignals getSignals() {
+        return signals;
+    }
+
+    static void setSignals(BracketSignals newSignals) {
+        signals = newSignals;
+    }
+
+    /**
+     * Reclassifies the given decks from deck_cards. Returns the number written.
+     */
+    static int recompute(Connection conn, List<Integer> deckIds, long version) throws SQLException {
+        int written = 0;
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            Map<Integer, Integer> brackets = classify(conn, chunk, signals);
+            write(conn, brackets, version);
+            written += brackets.size();
+        }
+        return written;
+    }
+
+    /**
+     * Reads the given decks (at most one chunk) and classifies them. Decks with no cards map to null.
+     */
+    static Map<Integer, Integer> classify(Connection conn, List<Integer> deckIds, BracketSignals current) throws SQLException {
+        Map<Integer, int[]> counts = new LinkedHashMap<>(); // game changers, tutors, land denial, extra turns
+        String sql = "SELECT dc.deck_id, dc.card_id, dc.is_game_changer, c.card_status FROM deck_cards dc " +
+                "JOIN card c ON c.card_id = dc.card_id WHERE dc.deck_id IN (" + SqlLists.placeholders(deckIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            SqlLists.bindInts(pstmt, 1, deckIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int[] deck = counts.computeIfAbsent(rs.getInt(1), id -> new int[4]);
+                    int cardId = rs.getInt(2);
+                    if (rs.getBoolean(3) || "Game Changer".equalsIgnoreCase(rs.getString(4))) {
+                        deck[0]++;
+                    }
+                    if (current.has(BracketSignals.Signal.TUTOR, cardId)) {
+                        deck[1]++;
+                    }
+                    if (current.has(BracketSignals.Signal.LAND_DENIAL, cardId)) {
+                        deck[2]++;
+                    }
+                    if (current.has(BracketSignals.Signal.EXTRA_TURN, cardId)) {
+                        deck[3]++;
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Integer> brackets = new LinkedHashMap<>();
+        for (int deckId : deckIds) {
+            int[] deck = counts.get(deckId);
+            brackets.put(deckId, deck != null ? BracketClassifier.classify(deck[0], deck[1], deck[2], deck[3]) : null);
+        }
+        return brackets;
+    }
+
+    /**
+     * Reclassifies one deck whose cards the caller already holds, so only the card_status of
+     * those cards is looked up. flaggedGameChangers are the rows with is_game_changer set.
+     */
+    static void updateDeck(Connection conn, int deckId, Collection<Integer> cardIds, Set<Integer> flaggedGameChangers, long version) throws SQLException {
+        Integer bracket = null;
+        if (!cardIds.isEmpty()) {
+            Set<Integer> gameChangers = new HashSet<>(flaggedGameChangers);
+            gameChangers.retainAll(cardIds);
+            for (List<Integer> chunk : SqlLists.chunks(new ArrayList<>(cardIds))) {
+                String sql = "SELECT card_id FROM card WHERE card_status = 'Game Changer' AND card_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    SqlLists.bindInts(pstmt, 1, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            gameChangers.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+            BracketSignals current = signals;
+            int tutors = 0;
+            int landDenial = 0;
+            int extraTurns = 0;
+            for (int cardId : cardIds) {
+                if (current.has(BracketSignals.Signal.TUTOR, cardId)) {
+                    tutors++;
+                }
+                if (current.has(BracketSignals.Signal.LAND_DENIAL, cardId)) {
+                    landDenial++;
+                }
+                if (current.has(BracketSignals.Signal.EXTRA_TURN, cardId)) {
+                    extraTurns++;
+                }
+            }
+            bracket = BracketClassifier.classify(gameChangers.size(), tutors, landDenial, extraTurns);
+        }
+        Map<Integer, Integer> brackets = new LinkedHashMap<>();
+        brackets.put(deckId, bracket);
+        write(conn, brackets, version);
+    }
+
+    static void write(Connection conn, Map<Integer, Integer> brackets, long version) throws SQLException {
+        if (brackets.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET computed_bracket = ?, row_version = ? WHERE deck_id = ?")) {
+            for (Map.Entry<Integer, Integer> entry : brackets.entrySet()) {
+                if (entry.getValue() != null) {
+                    pstmt.setInt(1, entry.getValue());
+                } else {
+                    pstmt.setNull(1, Types.TINYINT);
+                }
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
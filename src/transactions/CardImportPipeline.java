@@ -0,0 +1,498 @@
+package transactions;
+
+import connection.ConnectionPool;
+import entity.ImportProgress;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streams a CSV or TSV card export into the card table.
+ *
+ * Three stages, each bounded so a large file never sits in memory:
+ *   reader  - one thread splits the file into logical records (quoted fields may span lines)
+ *             and hands them out in chunks; at most MAX_CHUNKS_IN_FLIGHT chunks are outstanding
+ *   parser  - chunks are parsed and validated in parallel on a fork-join pool; malformed rows
+ *             go to the reject file, good rows to a bounded write queue
+ *   writer  - the calling thread drains the write queue into batched INSERTs, committing
+ *             every BATCH_SIZE rows and reporting progress after each commit
+ *
+ * The first record must be a header. Columns are matched by name (e.g. "name", "card_name",
+ * "mana_cost", "type", "subtype", "power", "toughness", "text", "edition"/"set", "status");
+ * only a name column is required. A pipeline instance imports one file.
+ */
+public class CardImportPipeline {
+
+    private static final int CHUNK_ROWS = 512;
+    private static final int MAX_CHUNKS_IN_FLIGHT = 8;
+    private static final int WRITE_QUEUE_CHUNKS = 8;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] FIELDS = {"name", "mana_cost", "type", "subtype", "power", "toughness", "text", "edition", "status"};
+    private static final int[] MAX_LENGTHS = {100, 50, 50, 50, 10, 10, 65535, 50, 0};
+    private static final Map<String, Integer> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        String[][] aliases = {
+                {"name", "card_name", "cardname"},
+                {"mana_cost", "card_mana_cost", "manacost", "cost"},
+                {"type", "card_type", "type_line", "cardtype"},
+                {"subtype", "card_subtype", "subtypes"},
+                {"power", "card_power"},
+                {"toughness", "card_toughness"},
+                {"text", "card_text", "oracle_text", "rules_text"},
+                {"edition", "card_edition", "set", "set_name"},
+                {"status", "card_status", "legality"}
+        };
+        for (int field = 0; field < aliases.length; field++) {
+            for (String alias : aliases[field]) {
+                HEADER_ALIASES.put(alias, field);
+            }
+        }
+    }
+
+    private static final List<CardRow> END_OF_INPUT = new ArrayList<>();
+
+    private final Path input;
+    private final Path rejectFile;
+    private final char delimiter;
+    private final ForkJoinPool parsePool;
+
+    private final Semaphore chunksInFlight = new Semaphore(MAX_CHUNKS_IN_FLIGHT);
+    private final BlockingQueue<List<CardRow>> writeQueue = new ArrayBlockingQueue<>(WRITE_QUEUE_CHUNKS);
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private volatile boolean cancelled;
+    private volatile Exception readerFailure;
+
+    private int[] columnOfField;
+    private BufferedWriter rejectWriter;
+    private long physicalLine;
+    private boolean endOfInputSeen;
+
+    /**
+     * @param input      The CSV/TSV file to import.
+     * @param rejectFile Where malformed rows are written, each preceded by a "# line N: reason" comment.
+     * @param delimiter  ',' for CSV or '\t' for TSV.
+     */
+    public CardImportPipeline(Path input, Path rejectFile, char delimiter) {
+        this.input = input;
+        this.rejectFile = rejectFile;
+        this.delimiter = delimiter;
+        this.parsePool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Runs the import to completion on the calling thread.
+     * @param progress Called after every committed batch and once more when the import finishes.
+     * @return The final counters.
+     */
+    public ImportProgress run(Consumer<ImportProgress> progress) throws IOException, SQLException {
+        // The writer keeps its own pooled connection, so the long-running import transaction
+        // never shares a session with the GUI's statements
+        try (Connection conn = ConnectionPool.shared().borrow()) {
+            return run(conn, progress);
+        }
+    }
+
+    /**
+     * Runs the import, writing on the given connection.
+     */
+    ImportProgress run(Connection conn, Consumer<ImportProgress> progress) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+        try {
+            RawRow header = nextRecord(reader);
+            if (header == null) {
+                throw new IOException("File is empty: " + input);
+            }
+            columnOfField = mapHeader(splitFields(header.text));
+            rejectWriter = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+
+        Thread readerThread = new Thread(() -> readAll(reader), "card-import-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        SQLException writeFailure = null;
+        try {
+            writeFailure = writeAll(conn, started, progress);
+        } finally {
+            cancelled = cancelled || writeFailure != null;
+            parsePool.shutdown();
+            try {
+                // If the writer bailed out early, keep draining so the reader can post its end marker
+                while (!endOfInputSeen && readerThread.isAlive()) {
+                    endOfInputSeen = writeQueue.poll(100, TimeUnit.MILLISECONDS) == END_OF_INPUT;
+                }
+                readerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejectWriter.close();
+        }
+
+        ImportProgress result = snapshot(started, true);
+        progress.accept(result);
+
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+        if (readerFailure instanceof IOException) {
+            throw (IOException) readerFailure;
+        }
+        return result;
+    }
+
+    // --- Reader stage ---
+
+    private void readAll(BufferedReader reader) {
+        try (reader) {
+            List<RawRow> chunk = new ArrayList<>(CHUNK_ROWS);
+            RawRow row;
+            while (!cancelled && (row = nextRecord(reader)) != null) {
+                rowsRead.incrementAndGet();
+                chunk.add(row);
+                if (chunk.size() == CHUNK_ROWS) {
+                    dispatch(chunk);
+                    chunk = new ArrayList<>(CHUNK_ROWS);
+                }
+            }
+            if (!chunk.isEmpty() && !cancelled) {
+                dispatch(chunk);
+            }
+        } catch (IOException | InterruptedException e) {
+            readerFailure = e;
+            cancelled = true;
+        } finally {
+            // Once every permit is back, no parse task can still be adding to the write queue
+            chunksInFlight.acquireUninterruptibly(MAX_CHUNKS_IN_FLIGHT);
+            offerUntilCancelled(END_OF_INPUT, true);
+        }
+    }
+
+    private void dispatch(List<RawRow> chunk) throws InterruptedException {
+        chunksInFlight.acquire();
+        parsePool.execute(() -> {
+            try {
+                List<CardRow> parsed = parseChunk(chunk);
+                if (!parsed.isEmpty()) {
+                    offerUntilCancelled(parsed, false);
+                }
+            } finally {
+                chunksInFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Reads one logical record, joining physical lines while a quoted field is still open.
+     */
+    private RawRow nextRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        physicalLine++;
+        long startLine = physicalLine;
+
+        int quotes = countQuotes(line);
+        if (quotes % 2 == 0) {
+            return new RawRow(startLine, line);
+        }
+
+        StringBuilder record = new StringBuilder(line);
+        while (quotes % 2 != 0) {
+            String next = reader.readLine();
+            if (next == null) {
+                break; // unterminated quote; the parser will reject it
+            }
+            physicalLine++;
+            record.append('\n').append(next);
+            quotes += countQuotes(next);
+        }
+        return new RawRow(startLine, record.toString());
+    }
+
+    private static int countQuotes(CharSequence text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    // --- Parse / validate stage ---
+
+    private List<CardRow> parseChunk(List<RawRow> chunk) {
+        List<CardRow> parsed = new ArrayList<>(chunk.size());
+        for (RawRow raw : chunk) {
+            if (raw.text.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.add(toCardRow(splitFields(raw.text)));
+            } catch (IllegalArgumentException e) {
+                reject(raw, e.getMessage());
+            }
+        }
+        return parsed;
+    }
+
+    private CardRow toCardRow(List<String> fields) {
+        String[] values = new String[FIELDS.length];
+        for (int field = 0; field < FIELDS.length; field++) {
+            int column = columnOfField[field];
+            if (column < 0 || column >= fields.size()) {
+                continue;
+            }
+            String value = fields.get(column).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (MAX_LENGTHS[field] > 0 && value.length() > MAX_LENGTHS[field]) {
+                throw new IllegalArgumentException(FIELDS[field] + " longer than " + MAX_LENGTHS[field] + " characters");
+            }
+            values[field] = value;
+        }
+
+        if (values[0] == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        values[8] = normalizeStatus(values[8]);
+        return new CardRow(values);
+    }
+
+    private static String normalizeStatus(String status) {
+        if (status == null) {
+            return "Legal";
+        }
+        switch (status.toLowerCase(Locale.ROOT)) {
+            case "legal":
+                return "Legal";
+            case "banned":
+                return "Banned";
+            case "game changer":
+            case "game_changer":
+            case "gamechanger":
+                return "Game Changer";
+            default:
+                throw new IllegalArgumentException("unknown status '" + status + "'");
+        }
+    }
+
+    /**
+     * Splits one record into fields, honouring double-quoted fields and "" escapes.
+     */
+    private List<String> splitFields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int[] mapHeader(List<String> header) throws IOException {
+        int[] columnOfField = new int[FIELDS.length];
+        Arrays.fill(columnOfField, -1);
+        for (int column = 0; column < header.size(); column++) {
+            String name = header.get(column).trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+            Integer field = HEADER_ALIASES.get(name);
+            if (field != null && columnOfField[field] < 0) {
+                columnOfField[field] = column;
+            }
+        }
+        if (columnOfField[0] < 0) {
+            throw new IOException("Header has no card name column: " + header);
+        }
+        return columnOfField;
+    }
+
+    private void reject(RawRow raw, String reason) {
+        rowsRejected.incrementAndGet();
+        synchronized (rejectWriter) {
+            try {
+                rejectWriter.write("# line " + raw.lineNumber + ": " + reason);
+                rejectWriter.newLine();
+                rejectWriter.write(raw.text);
+                rejectWriter.newLine();
+            } catch (IOException e) {
+                System.err.println("Could not write reject file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Blocks until the chunk fits in the write queue, giving up if the import was cancelled
+     * (unless this is the end marker, which the writer always needs to see).
+     */
+    private void offerUntilCancelled(List<CardRow> rows, boolean always) {
+        try {
+            while (!writeQueue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled && !always) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Writer stage ---
+
+    private SQLException writeAll(Connection conn, long started, Consumer<ImportProgress> progress) {
+        String sql = "INSERT INTO card (card_name, card_mana_cost, card_type, card_subtype, " +
+                "card_power, card_toughness, card_text, card_edition, card_status, row_version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        SQLException failure = null;
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            failure = e;
+            cancelled = true;
+        }
+
+        try (PreparedStatement pstmt = failure == null ? conn.prepareStatement(sql) : null) {
+            int pending = 0;
+            long version = 0;
+
+            while (true) {
+                List<CardRow> rows = writeQueue.take();
+                if (rows == END_OF_INPUT) {
+                    endOfInputSeen = true;
+                    break;
+                }
+                if (failure != null) {
+                    continue; // keep draining so parse tasks never block on a full queue
+                }
+
+                try {
+                    for (CardRow row : rows) {
+                        if (pending == 0) {
+                            version = ChangeTracking.nextVersion(conn);
+                        }
+                        for (int field = 0; field < FIELDS.length; field++) {
+                            pstmt.setString(field + 1, row.values[field]);
+                        }
+                        pstmt.setLong(10, version);
+                        pstmt.addBatch();
+
+                        if (++pending == BATCH_SIZE) {
+                            flush(conn, pstmt, pending);
+                            pending = 0;
+                            progress.accept(snapshot(started, false));
+                        }
+                    }
+                } catch (SQLException e) {
+                    failure = e;
+                    cancelled = true;
+                    pending = 0;
+                    conn.rollback();
+                }
+            }
+
+            if (failure == null && pending > 0) {
+                flush(conn, pstmt, pending);
+            }
+        } catch (SQLException e) {
+            failure = failure != null ? failure : e;
+            cancelled = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            failure = new SQLException("Import interrupted");
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error resetting auto-commit: " + e.getMessage());
+            }
+        }
+        return failure;
+    }
+
+    private void flush(Connection conn, PreparedStatement pstmt, int pending) throws SQLException {
+        pstmt.executeBatch();
+        conn.commit();
+        rowsImported.addAndGet(pending);
+    }
+
+    private ImportProgress snapshot(long started, boolean finished) {
+        return new ImportProgress(rowsRead.get(), rowsImported.get(), rowsRejected.get(),
+                System.currentTimeMillis() - started, finished);
+    }
+
+    // --- Stage payloads ---
+
+    private static final class RawRow {
+        final long lineNumber;
+        final String text;
+
+        RawRow(long lineNumber, String text) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+        }
+    }
+
+    private static final class CardRow {
+        final String[] values;
+
+        CardRow(String[] values) {
+            this.values = values;
+        }
+    }
+}
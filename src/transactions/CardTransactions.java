@@ -4,7 +4,14 @@ import entity.*;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Handles all database transactions (CRUD) for the Card entity using JDBC and MySQL.
@@ -19,16 +26,10 @@ public class CardTransactions {
                 "card_power, card_toughness, card_text, card_edition, card_status FROM card ORDER BY card_name;";
         List<entity.Record> cards = new ArrayList<>();
 
-        Connection conn = DatabaseConnection.getConnection(); // Get the shared connection
-
-        // FIX: Removed conn from try block to prevent premature closing
-        try (Statement stmt = conn.createStatement();
+        // Pooled rather than shared: the catalog snapshot refresh runs this off the EDT
+        try (Connection conn = ConnectionPool.shared().borrow();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (conn == null) {
-                throw new SQLException("Failed to establish database connection.");
-            }
-
             while (rs.next()) {
                 int id = rs.getInt("card_id");
                 String name = rs.getString("card_name");
@@ -47,6 +48,66 @@ public class CardTransactions {
         return cards;
     }
 
+    /**
+     * Retrieves the list-view projection of every card, leaving out card_text.
+     */
+    public List<CardSummary> getCardSummaries() throws SQLException {
+        String sql = "SELECT card_id, card_name, card_mana_cost, card_type, card_subtype, " +
+                "card_power, card_toughness, card_edition, card_status FROM card ORDER BY card_name";
+        List<CardSummary> cards = new ArrayList<>();
+
+        try (Connection conn = ConnectionPool.shared().borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                cards.add(new CardSummary(rs.getInt("card_id"), rs.getString("card_name"),
+                        rs.getString("card_mana_cost"), rs.getString("card_type"), rs.getString("card_subtype"),
+                        rs.getString("card_power"), rs.getString("card_toughness"),
+                        rs.getString("card_edition"), rs.getString("card_status")));
+            }
+        }
+        return cards;
+    }
+
+    /**
+     * Retrieves one card with all of its columns, or null if it does not exist.
+     */
+    public entity.Record getCardById(int id) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
+        return getCardById(conn, id);
+    }
+
+    /**
+     * Same as getCardById, but on a pooled connection of its own, for callers on background
+     * threads (CardDetailCache prefetches) that must not share the GUI's connection.
+     */
+    public entity.Record loadCardById(int id) throws SQLException {
+        try (Connection conn = ConnectionPool.shared().borrow()) {
+            return getCardById(conn, id);
+        }
+    }
+
+    private static entity.Record getCardById(Connection conn, int id) throws SQLException {
+        String sql = "SELECT card_id, card_name, card_mana_cost, card_type, card_subtype, " +
+                "card_power, card_toughness, card_text, card_edition, card_status FROM card WHERE card_id = ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new entity.Record(rs.getInt("card_id"), rs.getString("card_name"),
+                            rs.getString("card_mana_cost"), rs.getString("card_type"), rs.getString("card_subtype"),
+                            rs.getString("card_power"), rs.getString("card_toughness"), rs.getString("card_text"),
+                            rs.getString("card_edition"), rs.getString("card_status"));
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Adds a new card record to the database.
      */
@@ -54,18 +115,16 @@ public class CardTransactions {
                         String power, String toughness, String text, String edition, String status) throws SQLException {
 
         String sql = "INSERT INTO card (card_name, card_mana_cost, card_type, card_subtype, " +
-                "card_power, card_toughness, card_text, card_edition, card_status) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "card_power, card_toughness, card_text, card_edition, card_status, row_version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         Connection conn = DatabaseConnection.getConnection(); // Get the shared connection
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
 
-        // FIX: Removed conn from try block to prevent premature closing
+        conn.setAutoCommit(false);
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            if (conn == null) {
-                throw new SQLException("Failed to establish database connection.");
-            }
-
             pstmt.setString(1, name);
             pstmt.setString(2, manaCost);
             pstmt.setString(3, type);
@@ -75,8 +134,15 @@ public class CardTransactions {
             pstmt.setString(7, text);
             pstmt.setString(8, edition);
             pstmt.setString(9, status); // ENUM field
+            pstmt.setLong(10, ChangeTracking.nextVersion(conn));
 
             pstmt.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
     }
 
@@ -87,18 +153,18 @@ public class CardTransactions {
                            String power, String toughness, String text, String edition, String status) throws SQLException {
 
         String sql = "UPDATE card SET card_name = ?, card_mana_cost = ?, card_type = ?, card_subtype = ?, " +
-                "card_power = ?, card_toughness = ?, card_text = ?, card_edition = ?, card_status = ? " +
+                "card_power = ?, card_toughness = ?, card_text = ?, card_edition = ?, card_status = ?, row_version = ? " +
                 "WHERE card_id = ?";
 
         Connection conn = DatabaseConnection.getConnection(); // Get the shared connection
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
 
-        // FIX: Removed conn from try block to prevent premature closing
+        conn.setAutoCommit(false);
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            if (conn == null) {
-                throw new SQLException("Failed to establish database connection.");
-            }
-
+            String[] oldProfile = lockStatisticsProfile(conn, id);
+            long version = ChangeTracking.nextVersion(conn);
             pstmt.setString(1, name);
             pstmt.setString(2, manaCost);
             pstmt.setString(3, type);
@@ -108,29 +174,268 @@ public class CardTransactions {
             pstmt.setString(7, text);
             pstmt.setString(8, edition);
             pstmt.setString(9, status); // ENUM field
-            pstmt.setInt(10, id);
+            pstmt.setLong(10, version);
+            pstmt.setInt(11, id);
 
             pstmt.executeUpdate();
+            // Deck statistics depend on the mana cost and type line only
+            if (oldProfile != null && !(Objects.equals(oldProfile[0], manaCost) && Objects.equals(oldProfile[1], type))) {
+                DeckStatisticsStore.cardChanged(conn, id, oldProfile[0], oldProfile[1], manaCost, type, false, version);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
     }
 
     /**
      * Deletes a card record from the database.
+     * The cascaded deck_cards rows get their own tombstones and decks that lose their
+     * commander are re-stamped, so delta consumers see every row the delete touched.
      */
     public void deleteCard(int id) throws SQLException {
-        String sql = "DELETE FROM card WHERE card_id = ?";
-
         Connection conn = DatabaseConnection.getConnection(); // Get the shared connection
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
+
+        conn.setAutoCommit(false);
+        try {
+            long version = ChangeTracking.nextVersion(conn);
+
+            // Decks whose contents or commander change with the card, for their version history
+            List<Integer> affectedDecks = new ArrayList<>();
+            String affectedSql = "SELECT deck_id FROM deck_cards WHERE card_id = ? UNION SELECT deck_id FROM deck WHERE commander_card_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(affectedSql)) {
+                pstmt.setInt(1, id);
+                pstmt.setInt(2, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        affectedDecks.add(rs.getInt(1));
+                    }
+                }
+            }
+
+            String[] oldProfile = lockStatisticsProfile(conn, id);
+            if (oldProfile != null) {
+                DeckStatisticsStore.cardChanged(conn, id, oldProfile[0], oldProfile[1], null, null, true, version);
+            }
+
+            String cascadeSql = "INSERT INTO change_tombstone (entity_type, entity_key, row_version) " +
+                    "SELECT ?, CONCAT(deck_id, ':', card_id), ? FROM deck_cards WHERE card_id = ? " +
+                    "ON DUPLICATE KEY UPDATE row_version = VALUES(row_version), deleted_at = CURRENT_TIMESTAMP";
+            try (PreparedStatement pstmt = conn.prepareStatement(cascadeSql)) {
+                pstmt.setString(1, ChangeTracking.DECK_CARD);
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, id);
+                pstmt.executeUpdate();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET row_version = ? WHERE commander_card_id = ?")) {
+                pstmt.setLong(1, version);
+                pstmt.setInt(2, id);
+                pstmt.executeUpdate();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM card WHERE card_id = ?")) {
+                pstmt.setInt(1, id);
+                if (pstmt.executeUpdate() > 0) {
+                    ChangeTracking.tombstone(conn, ChangeTracking.CARD, String.valueOf(id), version);
+                }
+            }
+
+            for (int deckId : affectedDecks) {
+                DeckHistoryTransactions.recordCurrent(conn, deckId, version);
+            }
+            SaltScoreStore.recompute(conn, affectedDecks, version);
+            DeckSignatureStore.recompute(conn, affectedDecks, version);
+            DeckContentHashStore.recompute(conn, affectedDecks, version);
+            BracketStore.recompute(conn, affectedDecks, version);
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Locks the card row and returns {mana cost, type line}, or null if the card does not exist
+    private static String[] lockStatisticsProfile(Connection conn, int cardId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT card_mana_cost, card_type FROM card WHERE card_id = ? FOR UPDATE")) {
+            pstmt.setInt(1, cardId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new String[] {rs.getString(1), rs.getString(2)} : null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the cards added or updated after the given row version, plus the ids of cards deleted since.
+     */
+    public ChangeSet<entity.Record> getCardChangesSince(long sinceVersion) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
+
+        long currentVersion = ChangeTracking.currentVersion(conn);
+        List<entity.Record> changed = new ArrayList<>();
+        String sql = "SELECT card_id, card_name, card_mana_cost, card_type, card_subtype, card_power, card_toughness, " +
+                "card_text, card_edition, card_status FROM card WHERE row_version > ? AND row_version <= ? ORDER BY row_version";
 
-        // FIX: Removed conn from try block to prevent premature closing
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, sinceVersion);
+            pstmt.setLong(2, currentVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    changed.add(new entity.Record(rs.getInt("card_id"), rs.getString("card_name"),
+                            rs.getString("card_mana_cost"), rs.getString("card_type"), rs.getString("card_subtype"),
+                            rs.getString("card_power"), rs.getString("card_toughness"), rs.getString("card_text"),
+                            rs.getString("card_edition"), rs.getString("card_status")));
+                }
+            }
+        }
+
+        List<String> deleted = ChangeTracking.deletedSince(conn, ChangeTracking.CARD, sinceVersion, currentVersion);
+        return new ChangeSet<>(sinceVersion, currentVersion, changed, deleted);
+    }
+
+    /**
+     * Returns the row version of the most recent card insert, update or delete.
+     * Used to decide whether a cached catalog snapshot is still current.
+     */
+    public long getCatalogVersion() throws SQLException {
+        String sql = "SELECT GREATEST(" +
+                "(SELECT COALESCE(MAX(row_version), 0) FROM card), " +
+                "(SELECT COALESCE(MAX(row_version), 0) FROM change_tombstone WHERE entity_type = 'card'))";
+        try (Connection conn = ConnectionPool.shared().borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * Resolves a list of card ids and/or card names to card ids in as few queries as possible.
+     * Names match every printing of the card, case-insensitively. Entries that match nothing
+     * are appended to the unresolved list.
+     */
+    public List<Integer> resolveCardIds(List<String> namesOrIds, List<String> unresolved) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
 
-            if (conn == null) {
-                throw new SQLException("Failed to establish database connection.");
+        List<Integer> requestedIds = new ArrayList<>();
+        List<String> requestedNames = new ArrayList<>();
+        for (String entry : namesOrIds) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
             }
+            if (trimmed.chars().allMatch(Character::isDigit) && trimmed.length() < 10) {
+                requestedIds.add(Integer.parseInt(trimmed));
+            } else {
+                requestedNames.add(trimmed);
+            }
+        }
 
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+        Set<Integer> foundIds = new HashSet<>();
+        Map<String, List<Integer>> idsByName = new HashMap<>();
+
+        for (List<Integer> chunk : SqlLists.chunks(requestedIds)) {
+            String sql = "SELECT card_id FROM card WHERE card_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                SqlLists.bindInts(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        foundIds.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+
+        for (List<String> chunk : SqlLists.chunks(requestedNames)) {
+            String sql = "SELECT card_id, card_name FROM card WHERE card_name IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        idsByName.computeIfAbsent(rs.getString("card_name").toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                                .add(rs.getInt("card_id"));
+                    }
+                }
+            }
+        }
+
+        Set<Integer> resolved = new LinkedHashSet<>();
+        for (int id : requestedIds) {
+            if (foundIds.contains(id)) {
+                resolved.add(id);
+            } else {
+                unresolved.add(String.valueOf(id));
+            }
+        }
+        for (String name : requestedNames) {
+            List<Integer> ids = idsByName.get(name.toLowerCase(Locale.ROOT));
+            if (ids != null) {
+                resolved.addAll(ids);
+            } else {
+                unresolved.add(name);
+            }
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * Sets card_status on many cards in one batched transaction.
+     * @return The ids whose status actually changed.
+     */
+    public List<Integer> updateCardStatuses(List<Integer> cardIds, String status) throws SQLException {
+        List<Integer> changed = new ArrayList<>();
+        if (cardIds.isEmpty()) {
+            return changed;
+        }
+
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("Failed to establish database connection.");
+        }
+
+        String sql = "UPDATE card SET card_status = ?, row_version = ? WHERE card_id = ? AND card_status <> ?";
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            long version = ChangeTracking.nextVersion(conn);
+            for (int cardId : cardIds) {
+                pstmt.setString(1, status);
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, cardId);
+                pstmt.setString(4, status);
+                pstmt.addBatch();
+            }
+
+            int[] counts = pstmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO means the driver rewrote the batch; treat the row as changed
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    changed.add(cardIds.get(i));
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
+        return changed;
     }
 }
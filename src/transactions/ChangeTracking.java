@@ -0,0 +1,147 @@
+package transactions;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared helpers for the row_version / change_tombstone bookkeeping.
+ *
+ * Every write to card, player, deck or deck_cards stamps the touched rows with a version
+ * taken from the 'row_version' sequence, and every delete leaves a tombstone carrying the
+ * version it happened at. Versions must be taken inside the writing transaction: the
+ * sequence row stays locked until commit, so versions become visible in increasing order
+ * and a "changes since N" reader can never skip over a late commit.
+ */
+final class ChangeTracking {
+
+    static final String ROW_VERSION_SEQUENCE = "row_version";
+
+    static final String CARD = "card";
+    static final String PLAYER = "player";
+    static final String DECK = "deck";
+    static final String DECK_CARD = "deck_card";
+
+    private ChangeTracking() {
+    }
+
+    /**
+     * Allocates the next row version. Must be called with auto-commit off.
+     */
+    static long nextVersion(Connection conn) throws SQLException {
+        String sql = "UPDATE change_sequence SET current_value = LAST_INSERT_ID(current_value + 1) WHERE sequence_name = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ROW_VERSION_SEQUENCE);
+            if (pstmt.executeUpdate() == 0) {
+                throw new SQLException("Sequence '" + ROW_VERSION_SEQUENCE + "' is missing from change_sequence");
+            }
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Returns the highest row version handed out so far.
+     */
+    static long currentVersion(Connection conn) throws SQLException {
+        String sql = "SELECT current_value FROM change_sequence WHERE sequence_name = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ROW_VERSION_SEQUENCE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * Records that the given row was deleted at the given version.
+     */
+    static void tombstone(Connection conn, String entityType, String entityKey, long version) throws SQLException {
+        String sql = "INSERT INTO change_tombstone (entity_type, entity_key, row_version) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE row_version = VALUES(row_version), deleted_at = CURRENT_TIMESTAMP";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, entityType);
+            pstmt.setString(2, entityKey);
+            pstmt.setLong(3, version);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Records several deletions of the same entity type at one version, as a single batch.
+     */
+    static void tombstones(Connection conn, String entityType, List<String> entityKeys, long version) throws SQLException {
+        if (entityKeys.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO change_tombstone (entity_type, entity_key, row_version) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE row_version = VALUES(row_version), deleted_at = CURRENT_TIMESTAMP";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (String entityKey : entityKeys) {
+                pstmt.setString(1, entityType);
+                pstmt.setString(2, entityKey);
+                pstmt.setLong(3, version);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Drops the tombstones of rows that exist again, e.g. a card put back into a deck.
+     * Call it in the transaction that re-inserts the rows, so a "changes since N" reader
+     * never sees the same key as both changed and deleted.
+     */
+    static void clearTombstones(Connection conn, String entityType, List<String> entityKeys) throws SQLException {
+        if (entityKeys.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM change_tombstone WHERE entity_type = ? AND entity_key = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (String entityKey : entityKeys) {
+                pstmt.setString(1, entityType);
+                pstmt.setString(2, entityKey);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Key used for deck_cards tombstones, which have a composite primary key.
+     */
+    static String deckCardKey(int deckId, int cardId) {
+        return deckId + ":" + cardId;
+    }
+
+    /**
+     * Returns the keys of all rows of the given type deleted after sinceVersion, up to untilVersion.
+     * A deck_cards key whose row was written again after its deletion is not reported, in case
+     * a tombstone outlived the re-insert (rows written before clearTombstones existed).
+     */
+    static List<String> deletedSince(Connection conn, String entityType, long sinceVersion, long untilVersion) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        String sql = "SELECT t.entity_key FROM change_tombstone t WHERE t.entity_type = ? AND t.row_version > ? AND t.row_version <= ? " +
+                (DECK_CARD.equals(entityType)
+                        ? "AND NOT EXISTS (SELECT 1 FROM deck_cards dc " +
+                          "WHERE dc.deck_id = CAST(SUBSTRING_INDEX(t.entity_key, ':', 1) AS UNSIGNED) " +
+                          "AND dc.card_id = CAST(SUBSTRING_INDEX(t.entity_key, ':', -1) AS UNSIGNED) " +
+                          "AND dc.row_version > t.row_version) "
+                        : "") +
+                "ORDER BY t.row_version";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, entityType);
+            pstmt.setLong(2, sinceVersion);
+            pstmt.setLong(3, untilVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(rs.getString("entity_key"));
+                }
+            }
+        }
+        return keys;
+    }
+}
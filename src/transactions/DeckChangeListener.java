@@ -0,0 +1,17 @@
+package transactions;
+
+import java.util.Set;
+
+/**
+ * Notified after a committed change to which cards a deck holds. Changes that only alter
+ * quantities or the commander flag are not reported.
+ */
+public interface DeckChangeListener {
+
+    /**
+     * @param added   cards the deck did not hold before
+     * @param removed cards the deck no longer holds
+     * @param kept    cards held both before and after the change
+     */
+    void deckCardsChanged(int deckId, Set<Integer> added, Set<Integer> removed, Set<Integer> kept);
+}
@@ -0,0 +1,50 @@
+package transactions;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener list used by the classes that write deck_cards. Events are delivered after
+ * commit on the writing thread; a failing listener is logged and does not affect the others.
+ */
+final class DeckChangeListeners {
+
+    private final List<DeckChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    void add(DeckChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    /**
+     * Reports the difference between a deck's card set before and after a change, if any.
+     */
+    void fire(int deckId, Collection<Integer> before, Collection<Integer> after) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Set<Integer> added = new HashSet<>(after);
+        added.removeAll(before);
+        Set<Integer> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        Set<Integer> kept = new HashSet<>(before);
+        kept.retainAll(after);
+
+        for (DeckChangeListener listener : listeners) {
+            try {
+                listener.deckCardsChanged(deckId, added, removed, kept);
+            } catch (RuntimeException e) {
+                System.err.println("Deck change listener failed: " + e);
+            }
+        }
+    }
+}
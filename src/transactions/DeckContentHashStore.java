@@ -0,0 +1,97 @@
+package transactions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps deck.content_hash in step with deck_cards. Runs inside the caller's transaction.
+ *
+ * The hash is the XOR of a 64-bit mix of every (card_id, quantity, is_commander) row, so it
+ * does not depend on row order. The commander bit is always the row's is_commander flag,
+ * never deck.commander_card_id. Deck edits (applyDeckChanges, through LockedDeck) update it
+ * by XOR-ing out the old rows they touch and XOR-ing in the new ones. Deleting a card from
+ * the catalog recomputes it from deck_cards. NULL means unknown (decks written before the
+ * column existed); readers recompute it from deck_cards.
+ */
+final class DeckContentHashStore {
+
+    private DeckContentHashStore() {
+    }
+
+    static long row(int cardId, int quantity, boolean commander) {
+        long h = ((long) cardId << 32) ^ ((long) quantity << 1) ^ (commander ? 1L : 0L);
+        // SplitMix64 finalizer
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * The hash of a deck's rows; commanderRows are the card ids whose is_commander flag is set.
+     */
+    static long hash(Map<Integer, Integer> contents, Set<Integer> commanderRows) {
+        long hash = 0;
+        for (Map.Entry<Integer, Integer> entry : contents.entrySet()) {
+            hash ^= row(entry.getKey(), entry.getValue(), commanderRows.contains(entry.getKey()));
+        }
+        return hash;
+    }
+
+    /**
+     * Stores the hashes of newly written decks from their contents, as one batch.
+     */
+    static void updateDecks(Connection conn, List<Integer> deckIds, List<Map<Integer, Integer>> contents,
+                            List<Set<Integer>> commanderRows, long version) throws SQLException {
+        Map<Integer, Long> hashes = new LinkedHashMap<>();
+        for (int i = 0; i < deckIds.size(); i++) {
+            hashes.put(deckIds.get(i), hash(contents.get(i), commanderRows.get(i)));
+        }
+        write(conn, hashes, version);
+    }
+
+    /**
+     * Recomputes the hashes of the given decks from deck_cards and returns them.
+     */
+    static Map<Integer, Long> recompute(Connection conn, List<Integer> deckIds, long version) throws SQLException {
+        Map<Integer, Long> all = new LinkedHashMap<>();
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            Map<Integer, Long> hashes = new LinkedHashMap<>();
+            for (int deckId : chunk) {
+                hashes.put(deckId, 0L);
+            }
+            String sql = "SELECT deck_id, card_id, quantity, is_commander FROM deck_cards WHERE deck_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                SqlLists.bindInts(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        hashes.merge(rs.getInt(1), row(rs.getInt(2), rs.getInt(3), rs.getBoolean(4)), (a, b) -> a ^ b);
+                    }
+                }
+            }
+            write(conn, hashes, version);
+            all.putAll(hashes);
+        }
+        return all;
+    }
+
+    static void write(Connection conn, Map<Integer, Long> hashes, long version) throws SQLException {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET content_hash = ?, row_version = ? WHERE deck_id = ?")) {
+            for (Map.Entry<Integer, Long> entry : hashes.entrySet()) {
+                pstmt.setLong(1, entry.getValue());
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
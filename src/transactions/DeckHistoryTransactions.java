@@ -0,0 +1,257 @@
+package transactions;
+
+import connection.DatabaseConnection;
+import entity.DeckContents;
+import entity.DeckDiff;
+import entity.DeckVersion;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Append-only version history of deck contents, stored in deck_version.
+ *
+ * Each change to a deck's cards or commander appends one row holding only the per-card
+ * quantity changes (see DeckVersionCodec). Every SNAPSHOT_INTERVAL versions a full snapshot
+ * is written instead, so materializing any version replays at most that many rows.
+ * Deltas are taken against the reconstructed previous version, not the live table, so the
+ * history stays exact even if deck_cards was changed outside the recorded paths.
+ */
+public class DeckHistoryTransactions {
+
+    static final int SNAPSHOT_INTERVAL = 16;
+
+    private static final String INSERT_SQL = "INSERT INTO deck_version " +
+            "(deck_id, version_no, row_version, is_snapshot, commander_card_id, payload) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Records the deck's new contents as the next version, unless nothing changed.
+     * Must be called inside the transaction that made the change.
+     */
+    static void record(Connection conn, int deckId, Map<Integer, Integer> contents, int commanderCardId, long rowVersion) throws SQLException {
+        Replay latest = replay(conn, deckId, Integer.MAX_VALUE);
+        Map<Integer, Integer> current = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : contents.entrySet()) {
+            if (entry.getValue() > 0) {
+                current.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (latest != null && latest.quantities.equals(current) && latest.commanderCardId == commanderCardId) {
+            return;
+        }
+
+        int versionNo = latest == null ? 1 : latest.versionNo + 1;
+        boolean snapshot = latest == null || versionNo - latest.lastSnapshotNo >= SNAPSHOT_INTERVAL;
+        SortedMap<Integer, Integer> payload = new TreeMap<>();
+        if (snapshot) {
+            payload.putAll(current);
+        } else {
+            for (Map.Entry<Integer, Integer> entry : current.entrySet()) {
+                int change = entry.getValue() - latest.quantities.getOrDefault(entry.getKey(), 0);
+                if (change != 0) {
+                    payload.put(entry.getKey(), change);
+                }
+            }
+            for (Map.Entry<Integer, Integer> entry : latest.quantities.entrySet()) {
+                if (!current.containsKey(entry.getKey())) {
+                    payload.put(entry.getKey(), -entry.getValue());
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            bindVersion(pstmt, deckId, versionNo, rowVersion, snapshot, commanderCardId, DeckVersionCodec.encode(payload));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads the deck's live contents and records them as the next version.
+     */
+    static void recordCurrent(Connection conn, int deckId, long rowVersion) throws SQLException {
+        String sql = "SELECT d.commander_card_id, dc.card_id, dc.quantity " +
+                "FROM deck d LEFT JOIN deck_cards dc ON dc.deck_id = d.deck_id WHERE d.deck_id = ?";
+        Map<Integer, Integer> contents = new HashMap<>();
+        int commanderCardId = 0;
+        boolean found = false;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    found = true;
+                    commanderCardId = rs.getInt("commander_card_id");
+                    if (rs.getObject("card_id") != null) {
+                        contents.put(rs.getInt("card_id"), rs.getInt("quantity"));
+                    }
+                }
+            }
+        }
+        if (found) {
+            record(conn, deckId, contents, commanderCardId, rowVersion);
+        }
+    }
+
+    /**
+     * Writes version 1 (a snapshot) for decks that were just created, as one batch.
+     */
+    static void recordInitialVersions(Connection conn, List<Integer> deckIds, List<Map<Integer, Integer>> contents,
+                                      List<Integer> commanderCardIds, long rowVersion) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < deckIds.size(); i++) {
+                bindVersion(pstmt, deckIds.get(i), 1, rowVersion, true, commanderCardIds.get(i),
+                        DeckVersionCodec.encode(new TreeMap<>(contents.get(i))));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void bindVersion(PreparedStatement pstmt, int deckId, int versionNo, long rowVersion, boolean snapshot,
+                                    int commanderCardId, byte[] payload) throws SQLException {
+        pstmt.setInt(1, deckId);
+        pstmt.setInt(2, versionNo);
+        pstmt.setLong(3, rowVersion);
+        pstmt.setBoolean(4, snapshot);
+        if (commanderCardId > 0) {
+            pstmt.setInt(5, commanderCardId);
+        } else {
+            pstmt.setNull(5, Types.INTEGER);
+        }
+        pstmt.setBytes(6, payload);
+    }
+
+    /**
+     * Lists a deck's versions, oldest first.
+     */
+    public List<DeckVersion> listVersions(int deckId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "SELECT version_no, created_at, is_snapshot, commander_card_id, LENGTH(payload) AS payload_bytes " +
+                "FROM deck_version WHERE deck_id = ? ORDER BY version_no";
+        List<DeckVersion> versions = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    versions.add(new DeckVersion(deckId, rs.getInt("version_no"), rs.getTimestamp("created_at"),
+                            rs.getBoolean("is_snapshot"), rs.getInt("commander_card_id"), rs.getInt("payload_bytes")));
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Rebuilds a deck's contents as of the given version, or returns null if there is no such version.
+     */
+    public DeckContents materialize(int deckId, int versionNo) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        Replay replay = replay(conn, deckId, versionNo);
+        if (replay == null || replay.versionNo != versionNo) {
+            return null;
+        }
+        return new DeckContents(deckId, versionNo, replay.commanderCardId, replay.quantities);
+    }
+
+    /**
+     * Rebuilds a deck as it was at a point in time (e.g. when it was lent out), or returns
+     * null if the deck had no recorded version yet.
+     */
+    public DeckContents materializeAt(int deckId, Timestamp when) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        int versionNo = 0;
+        String sql = "SELECT MAX(version_no) FROM deck_version WHERE deck_id = ? AND created_at <= ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, deckId);
+            pstmt.setTimestamp(2, when);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    versionNo = rs.getInt(1);
+                }
+            }
+        }
+        return versionNo > 0 ? materialize(deckId, versionNo) : null;
+    }
+
+    /**
+     * Compares two versions of a deck. Returns null if either version does not exist.
+     */
+    public DeckDiff diff(int deckId, int fromVersion, int toVersion) throws SQLException {
+        DeckContents from = materialize(deckId, fromVersion);
+        DeckContents to = materialize(deckId, toVersion);
+        if (from == null || to == null) {
+            return null;
+        }
+
+        Map<Integer, Integer> changes = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> entry : to.getQuantities().entrySet()) {
+            int change = entry.getValue() - from.getQuantities().getOrDefault(entry.getKey(), 0);
+            if (change != 0) {
+                changes.put(entry.getKey(), change);
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : from.getQuantities().entrySet()) {
+            if (!to.getQuantities().containsKey(entry.getKey())) {
+                changes.put(entry.getKey(), -entry.getValue());
+            }
+        }
+        return new DeckDiff(deckId, fromVersion, toVersion, changes, from.getCommanderCardId(), to.getCommanderCardId());
+    }
+
+    // Replays from the last snapshot at or before upToVersion; null if the deck has no history there
+    private static Replay replay(Connection conn, int deckId, int upToVersion) throws SQLException {
+        String sql = "SELECT version_no, is_snapshot, commander_card_id, payload FROM deck_version " +
+                "WHERE deck_id = ? AND version_no <= ? AND version_no >= (" +
+                "SELECT COALESCE(MAX(version_no), 0) FROM deck_version " +
+                "WHERE deck_id = ? AND version_no <= ? AND is_snapshot = TRUE) " +
+                "ORDER BY version_no";
+
+        Replay replay = null;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, deckId);
+            pstmt.setInt(2, upToVersion);
+            pstmt.setInt(3, deckId);
+            pstmt.setInt(4, upToVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (replay == null) {
+                        replay = new Replay();
+                    }
+                    replay.versionNo = rs.getInt("version_no");
+                    if (rs.getBoolean("is_snapshot")) {
+                        replay.quantities.clear();
+                        replay.lastSnapshotNo = replay.versionNo;
+                    }
+                    replay.commanderCardId = rs.getInt("commander_card_id");
+                    DeckVersionCodec.applyTo(rs.getBytes("payload"), replay.quantities);
+                }
+            }
+        }
+        return replay;
+    }
+
+    // Running state while replaying versions
+    private static final class Replay {
+        int versionNo;
+        int lastSnapshotNo;
+        int commanderCardId;
+        final Map<Integer, Integer> quantities = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,119 @@
+package transactions;
+
+import connection.ConnectionPool;
+import entity.CardFactory;
+import entity.Deck;
+import entity.DeckStatistics;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads full Deck objects (header, commander and card contents).
+ *
+ * Every operation borrows a pooled connection and returns it when done. An identity map
+ * keeps one Deck instance per deck id for the life of the repository, so the same deck
+ * opened from two places is the same object. Deck writes go through DeckTransactions;
+ * callers evict the decks they change so the next lookup reloads them.
+ */
+public class DeckRepository {
+
+    private final ConnectionPool pool;
+    private final Map<Integer, Deck> identityMap = new HashMap<>();
+
+    public DeckRepository() {
+        this(ConnectionPool.shared());
+    }
+
+    public DeckRepository(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the deck with its contents loaded, or null if it does not exist.
+     */
+    public synchronized Deck findById(int deckId) throws SQLException {
+        Deck cached = identityMap.get(deckId);
+        if (cached != null) {
+            return cached;
+        }
+        List<Deck> loaded = load(List.of(deckId));
+        return loaded.isEmpty() ? null : loaded.get(0);
+    }
+
+    /**
+     * Drops a deck from the identity map so the next lookup reloads it.
+     */
+    public synchronized void evict(int deckId) {
+        identityMap.remove(deckId);
+    }
+
+    public synchronized void clear() {
+        identityMap.clear();
+    }
+
+    // Loads headers (with commander) and contents for the given decks and registers them in the identity map
+    private List<Deck> load(List<Integer> deckIds) throws SQLException {
+        List<Deck> loaded = new ArrayList<>();
+        if (deckIds.isEmpty()) {
+            return loaded;
+        }
+
+        try (Connection conn = pool.borrow()) {
+            Map<Integer, Deck> byId = new HashMap<>();
+            for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+                String headerSql = "SELECT d.deck_id, d.deck_name, d.player_id, d.bracket_info, d.validity, d.description, d.stats_summary, d.mana_base, d.salt_score, c.* " +
+                        "FROM deck d LEFT JOIN card c ON c.card_id = d.commander_card_id " +
+                        "WHERE d.deck_id IN (" + SqlLists.placeholders(chunk.size()) + ") ORDER BY d.deck_id";
+                try (PreparedStatement pstmt = conn.prepareStatement(headerSql)) {
+                    SqlLists.bindInts(pstmt, 1, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Deck deck = new Deck();
+                            deck.setDeckId(rs.getInt("deck_id"));
+                            deck.setDeckName(rs.getString("deck_name"));
+                            deck.setPlayerId(rs.getInt("player_id"));
+                            deck.setBracketInfo(rs.getString("bracket_info"));
+                            deck.setValidity(rs.getString("validity"));
+                            deck.setDescription(rs.getString("description"));
+                            deck.setStatistics(DeckStatistics.decode(rs.getBytes("stats_summary")));
+                            deck.setManaBase(rs.getString("mana_base"));
+                            BigDecimal saltScore = rs.getBigDecimal("salt_score");
+                            deck.setSaltScore(saltScore != null ? saltScore.doubleValue() : null);
+                            if (rs.getObject("card_id") != null) {
+                                deck.setCommanderCard(CardFactory.createCardFromResultSet(rs));
+                            }
+                            byId.put(deck.getDeckId(), deck);
+                            loaded.add(deck);
+                        }
+                    }
+                }
+
+                String cardsSql = "SELECT dc.deck_id, dc.quantity, dc.is_game_changer, c.* " +
+                        "FROM deck_cards dc JOIN card c ON c.card_id = dc.card_id " +
+                        "WHERE dc.deck_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(cardsSql)) {
+                    SqlLists.bindInts(pstmt, 1, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Deck deck = byId.get(rs.getInt("deck_id"));
+                            if (deck != null) {
+                                deck.addCard(CardFactory.createCardFromResultSet(rs),
+                                        rs.getInt("quantity"), rs.getBoolean("is_game_changer"));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Deck deck : loaded) {
+            identityMap.put(deck.getDeckId(), deck);
+        }
+        return loaded;
+    }
+}
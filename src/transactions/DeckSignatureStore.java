@@ -0,0 +1,87 @@
+package transactions;
+
+import cache.DeckSimilarityIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps deck.minhash, the deck's MinHash signature (see DeckSimilarityIndex), in step with
+ * its deck_cards rows. Runs inside the caller's transaction.
+ */
+final class DeckSignatureStore {
+
+    private DeckSignatureStore() {
+    }
+
+    /**
+     * Stores the signature of one deck from card ids the caller already has in memory.
+     */
+    static void updateDeck(Connection conn, int deckId, Collection<Integer> cardIds, long version) throws SQLException {
+        write(conn, Map.of(deckId, DeckSimilarityIndex.signature(cardIds)), version);
+    }
+
+    /**
+     * Stores the signatures of newly written decks, as one batch.
+     */
+    static void updateDecks(Connection conn, List<Integer> deckIds, List<Map<Integer, Integer>> contents, long version) throws SQLException {
+        Map<Integer, int[]> signatures = new LinkedHashMap<>();
+        for (int i = 0; i < deckIds.size(); i++) {
+            signatures.put(deckIds.get(i), DeckSimilarityIndex.signature(contents.get(i).keySet()));
+        }
+        write(conn, signatures, version);
+    }
+
+    /**
+     * Recomputes the signatures of the given decks from deck_cards. Returns the number written.
+     */
+    static int recompute(Connection conn, List<Integer> deckIds, long version) throws SQLException {
+        int written = 0;
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            Map<Integer, Set<Integer>> cards = new LinkedHashMap<>();
+            for (int deckId : chunk) {
+                cards.put(deckId, new HashSet<>());
+            }
+            String sql = "SELECT deck_id, card_id FROM deck_cards WHERE deck_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                SqlLists.bindInts(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        cards.get(rs.getInt(1)).add(rs.getInt(2));
+                    }
+                }
+            }
+
+            Map<Integer, int[]> signatures = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Set<Integer>> entry : cards.entrySet()) {
+                signatures.put(entry.getKey(), DeckSimilarityIndex.signature(entry.getValue()));
+            }
+            write(conn, signatures, version);
+            written += signatures.size();
+        }
+        return written;
+    }
+
+    private static void write(Connection conn, Map<Integer, int[]> signatures, long version) throws SQLException {
+        if (signatures.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET minhash = ?, row_version = ? WHERE deck_id = ?")) {
+            for (Map.Entry<Integer, int[]> entry : signatures.entrySet()) {
+                pstmt.setBytes(1, DeckSimilarityIndex.encode(entry.getValue()));
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package transactions;
+
+import entity.DeckStatistics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps deck.stats_summary (with the avg_cmc and land_count columns derived from it) in step
+ * with deck_cards.
+ *
+ * Writers pass the per-card quantity changes they made and the stored summary is adjusted
+ * by just those cards. A deck with no summary yet is computed once from its contents; the
+ * full recomputation in recompute() is otherwise only used by the repair job.
+ * All methods run inside the caller's transaction.
+ */
+final class DeckStatisticsStore {
+
+    private static final String WRITE_SQL =
+            "UPDATE deck SET stats_summary = ?, avg_cmc = ?, land_count = ?, row_version = ? WHERE deck_id = ?";
+
+    private DeckStatisticsStore() {
+    }
+
+    /**
+     * Applies quantity changes (card id to change in copies) to a deck whose stored summary
+     * the caller has already read. A null summary is rebuilt from the deck's current contents.
+     */
+    static void applyChanges(Connection conn, int deckId, byte[] storedSummary,
+                             Map<Integer, Integer> quantityChanges, long version) throws SQLException {
+        DeckStatistics stats = DeckStatistics.decode(storedSummary);
+        if (stats == null) {
+            recompute(conn, List.of(deckId), version);
+            return;
+        }
+        if (quantityChanges.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, CardProfile> profiles = loadProfiles(conn, new ArrayList<>(quantityChanges.keySet()));
+        for (Map.Entry<Integer, Integer> entry : quantityChanges.entrySet()) {
+            CardProfile profile = profiles.get(entry.getKey());
+            if (profile != null) {
+                stats.apply(profile.manaCost, profile.cardType, entry.getValue());
+            }
+        }
+        write(conn, Map.of(deckId, stats), version);
+    }
+
+    /**
+     * Moves every deck holding the card from its old mana cost and type to the new ones.
+     * Pass null for the new values when the card is about to be deleted. Must run before
+     * a delete, while the deck_cards rows still exist.
+     */
+    static void cardChanged(Connection conn, int cardId, String oldManaCost, String oldCardType,
+                            String newManaCost, String newCardType, boolean deleted, long version) throws SQLException {
+        String sql = "SELECT dc.deck_id, dc.quantity, d.stats_summary FROM deck_cards dc " +
+                "JOIN deck d ON d.deck_id = dc.deck_id WHERE dc.card_id = ?";
+        Map<Integer, DeckStatistics> updated = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, cardId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // Decks without a summary are computed from scratch on their next change
+                    DeckStatistics stats = DeckStatistics.decode(rs.getBytes("stats_summary"));
+                    if (stats == null) {
+                        continue;
+                    }
+                    int quantity = rs.getInt("quantity");
+                    stats.apply(oldManaCost, oldCardType, -quantity);
+                    if (!deleted) {
+                        stats.apply(newManaCost, newCardType, quantity);
+                    }
+                    updated.put(rs.getInt("deck_id"), stats);
+                }
+            }
+        }
+        write(conn, updated, version);
+    }
+
+    /**
+     * Rebuilds the summaries of the given decks from deck_cards, one query per chunk.
+     * Returns the number of decks written.
+     */
+    static int recompute(Connection conn, List<Integer> deckIds, long version) throws SQLException {
+        int written = 0;
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            Map<Integer, DeckStatistics> stats = new LinkedHashMap<>();
+            for (int deckId : chunk) {
+                stats.put(deckId, new DeckStatistics());
+            }
+
+            String sql = "SELECT dc.deck_id, dc.quantity, c.card_mana_cost, c.card_type " +
+                    "FROM deck_cards dc JOIN card c ON c.card_id = dc.card_id " +
+                    "WHERE dc.deck_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                SqlLists.bindInts(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        stats.get(rs.getInt("deck_id")).apply(rs.getString("card_mana_cost"),
+                                rs.getString("card_type"), rs.getInt("quantity"));
+                    }
+                }
+            }
+            written += write(conn, stats, version);
+        }
+        return written;
+    }
+
+    private static int write(Connection conn, Map<Integer, DeckStatistics> stats, long version) throws SQLException {
+        if (stats.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(WRITE_SQL)) {
+            for (Map.Entry<Integer, DeckStatistics> entry : stats.entrySet()) {
+                DeckStatistics deckStats = entry.getValue();
+                pstmt.setBytes(1, deckStats.encode());
+                pstmt.setBigDecimal(2, BigDecimal.valueOf(deckStats.getAverageManaValue()).setScale(2, RoundingMode.HALF_UP));
+                pstmt.setInt(3, deckStats.getLandCount());
+                pstmt.setLong(4, version);
+                pstmt.setInt(5, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        return stats.size();
+    }
+
+    private static Map<Integer, CardProfile> loadProfiles(Connection conn, List<Integer> cardIds) throws SQLException {
+        Map<Integer, CardProfile> profiles = new HashMap<>();
+        for (List<Integer> chunk : SqlLists.chunks(cardIds)) {
+            String sql = "SELECT card_id, card_mana_cost, card_type FROM card WHERE card_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                SqlLists.bindInts(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        profiles.put(rs.getInt("card_id"), new CardProfile(rs.getString("card_mana_cost"), rs.getString("card_type")));
+                    }
+                }
+            }
+        }
+        return profiles;
+    }
+
+    // The card columns the statistics depend on
+    private static final class CardProfile {
+        final String manaCost;
+        final String cardType;
+
+        CardProfile(String manaCost, String cardType) {
+            this.manaCost = manaCost;
+            this.cardType = cardType;
+        }
+    }
+}
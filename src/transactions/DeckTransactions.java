@@ -1,17 +1,71 @@
 package transactions;
+import cache.BracketSignals;
+import cache.DeckSimilarityIndex;
+import cache.SaltWeights;
+import cache.ValidationCache;
+import connection.ConnectionPool;
 import connection.DatabaseConnection;
 import entity.*;
+import simulation.ManaBaseCalculator;
+import simulation.ManaBaseReport;
+import simulation.ManaProfile;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 public class DeckTransactions {
 
+    private static final ManaBaseCalculator MANA_BASE_CALCULATOR = new ManaBaseCalculator();
+    // Matches the shared connection pool size
+    private static final int RESCORE_THREADS = 4;
+    // Pooled connections left for background users and the UI while a parallel job runs
+    private static final int RESERVED_CONNECTIONS = 5;
+    // Bump whenever validateDeck's rules or message change, so cached results are recomputed
+    private static final int VALIDATION_RULES_VERSION = 1;
+
+    private static final String DECK_COLUMNS =
+            "d.deck_id, d.deck_name, d.player_id, d.commander_card_id, d.bracket_info, d.validity, d.description, d.stats_summary, d.mana_base, d.salt_score";
+    // Commander card columns for readDecks, joined with LEFT JOIN card c ON c.card_id = d.commander_card_id
+    private static final String COMMANDER_COLUMNS =
+            ", c.card_id, c.card_name, c.card_mana_cost, c.card_type, c.card_subtype, c.card_power, " +
+            "c.card_toughness, c.card_text, c.card_edition, c.card_status";
+
+    private final DeckChangeListeners listeners = new DeckChangeListeners();
+    private final ValidationCache validationCache = new ValidationCache(4096);
+
     public DeckTransactions() {
         // Constructor is fine as is
     }
 
+    /**
+     * Registers a listener for changes to which cards a deck holds, made through this instance.
+     */
+    public void addDeckChangeListener(DeckChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Drops every cached validation result, e.g. after a ban list or other card change.
+     */
+    public void invalidateValidationResults() {
+        validationCache.bumpBanListVersion();
+    }
+
     /**
      * Creates a new deck header.
      */
@@ -21,24 +75,37 @@ public class DeckTransactions {
             throw new SQLException("No database connection available");
         }
 
-        String sql = "INSERT INTO deck (deck_name, player_id, bracket_info, description, validity) VALUES (?, ?, ?, ?, 'Invalid')";
+        String sql = "INSERT INTO deck (deck_name, player_id, bracket_info, description, validity, stats_summary, avg_cmc, land_count, row_version) " +
+                "VALUES (?, ?, ?, ?, 'Invalid', ?, 0, 0, ?)";
         int generatedId = -1;
 
+        conn.setAutoCommit(false);
         try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, deckName);
             pstmt.setInt(2, playerId);
             pstmt.setString(3, bracketInfo);
             pstmt.setString(4, description);
+            pstmt.setBytes(5, new DeckStatistics().encode());
+            pstmt.setLong(6, ChangeTracking.nextVersion(conn));
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows > 0) {
                 try (ResultSet rs = pstmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         generatedId = rs.getInt(1);
-                        System.out.println("Created deck with ID: " + generatedId);
                     }
                 }
             }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        if (generatedId > 0) {
+            System.out.println("Created deck with ID: " + generatedId);
         }
         return generatedId;
     }
@@ -47,50 +114,160 @@ public class DeckTransactions {
      * Adds a card to a specific deck.
      */
     public boolean addCardToDeck(int deckId, int cardId, int quantity, boolean isCommander) throws SQLException {
+        List<DeckEdit> edits = new ArrayList<>();
+        edits.add(DeckEdit.add(cardId, quantity));
+        if (isCommander) {
+            edits.add(DeckEdit.setCommander(cardId));
+        }
+        applyDeckChanges(deckId, edits);
+        return true;
+    }
+
+    /**
+     * Applies any mix of adds, quantity changes, removals and a commander change to one deck
+     * in a single transaction. The current contents are read once, the edits are folded in
+     * memory, and only rows that actually change are written, as JDBC batches.
+     */
+    public DeckSummary applyDeckChanges(int deckId, List<DeckEdit> edits) throws SQLException {
         Connection conn = DatabaseConnection.getConnection();
         if (conn == null) {
             throw new SQLException("No database connection available");
         }
 
-        // Start a transaction to ensure both operations succeed or fail together
         conn.setAutoCommit(false);
-
         try {
-            // First, add the card to deck_cards table
-            String sql = "INSERT INTO deck_cards (deck_id, card_id, quantity, is_commander) VALUES (?, ?, ?, ?) " +
-                    "ON DUPLICATE KEY UPDATE quantity = quantity + ?, is_commander = ?";
+            // Current contents, locked until commit
+            LockedDeck locked = LockedDeck.read(conn, deckId);
+            if (locked == null) {
+                throw new SQLException("Deck " + deckId + " not found");
+            }
+            Map<Integer, Integer> before = locked.before.quantities;
+            Set<Integer> flaggedBefore = locked.before.commanderRows;
+            int oldCommander = locked.before.commander;
 
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, deckId);
-                pstmt.setInt(2, cardId);
-                pstmt.setInt(3, quantity);
-                pstmt.setBoolean(4, isCommander);
-                pstmt.setInt(5, quantity);
-                pstmt.setBoolean(6, isCommander);
-                pstmt.executeUpdate();
+            // Fold the edits into the final contents
+            Map<Integer, Integer> after = new LinkedHashMap<>(before);
+            int commander = oldCommander;
+            for (DeckEdit edit : edits) {
+                int cardId = edit.getCardId();
+                switch (edit.getKind()) {
+                    case ADD:
+                        if (edit.getQuantity() <= 0) {
+                            throw new SQLException("Quantity must be positive for card " + cardId);
+                        }
+                        after.merge(cardId, edit.getQuantity(), Integer::sum);
+                        break;
+                    case SET_QUANTITY:
+                        if (edit.getQuantity() < 0) {
+                            throw new SQLException("Quantity cannot be negative for card " + cardId);
+                        }
+                        if (edit.getQuantity() == 0) {
+                            after.remove(cardId);
+                        } else {
+                            after.put(cardId, edit.getQuantity());
+                        }
+                        break;
+                    case REMOVE:
+                        after.remove(cardId);
+                        break;
+                    case SET_COMMANDER:
+                        after.putIfAbsent(cardId, 1);
+                        commander = cardId;
+                        break;
+                }
+            }
+            if (commander != 0 && before.containsKey(commander) && !after.containsKey(commander)) {
+                commander = 0; // the commander itself was taken out
+            }
+
+            List<Integer> upserts = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : after.entrySet()) {
+                int cardId = entry.getKey();
+                boolean flagged = cardId == commander;
+                if (!entry.getValue().equals(before.get(cardId)) || flagged != flaggedBefore.contains(cardId)) {
+                    upserts.add(cardId);
+                }
+            }
+            List<Integer> removals = new ArrayList<>();
+            for (int cardId : before.keySet()) {
+                if (!after.containsKey(cardId)) {
+                    removals.add(cardId);
+                }
             }
 
-            // If this card is set as commander, update the deck table
-            if (isCommander) {
-                String updateDeckSql = "UPDATE deck SET commander_card_id = ? WHERE deck_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateDeckSql)) {
-                    pstmt.setInt(1, cardId);
-                    pstmt.setInt(2, deckId);
-                    pstmt.executeUpdate();
+            if (!upserts.isEmpty() || !removals.isEmpty() || commander != oldCommander) {
+                long version = ChangeTracking.nextVersion(conn);
+
+                if (!upserts.isEmpty()) {
+                    String upsertSql = "INSERT INTO deck_cards (deck_id, card_id, quantity, is_commander, row_version) VALUES (?, ?, ?, ?, ?) " +
+                            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), is_commander = VALUES(is_commander), row_version = VALUES(row_version)";
+                    try (PreparedStatement pstmt = conn.prepareStatement(upsertSql)) {
+                        for (int cardId : upserts) {
+                            pstmt.setInt(1, deckId);
+                            pstmt.setInt(2, cardId);
+                            pstmt.setInt(3, after.get(cardId));
+                            pstmt.setBoolean(4, cardId == commander);
+                            pstmt.setLong(5, version);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                    List<String> readded = new ArrayList<>();
+                    for (int cardId : upserts) {
+                        if (!before.containsKey(cardId)) {
+                            readded.add(ChangeTracking.deckCardKey(deckId, cardId));
+                        }
+                    }
+                    ChangeTracking.clearTombstones(conn, ChangeTracking.DECK_CARD, readded);
+                }
+
+                if (!removals.isEmpty()) {
+                    List<String> keys = new ArrayList<>(removals.size());
+                    for (List<Integer> chunk : SqlLists.chunks(removals)) {
+                        String deleteSql = "DELETE FROM deck_cards WHERE deck_id = ? AND card_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+                        try (PreparedStatement pstmt = conn.prepareStatement(deleteSql)) {
+                            pstmt.setInt(1, deckId);
+                            SqlLists.bindInts(pstmt, 2, chunk);
+                            pstmt.executeUpdate();
+                        }
+                    }
+                    for (int cardId : removals) {
+                        keys.add(ChangeTracking.deckCardKey(deckId, cardId));
+                    }
+                    ChangeTracking.tombstones(conn, ChangeTracking.DECK_CARD, keys, version);
+                }
+
+                if (commander != oldCommander) {
+                    try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET commander_card_id = ?, row_version = ? WHERE deck_id = ?")) {
+                        if (commander != 0) {
+                            pstmt.setInt(1, commander);
+                        } else {
+                            pstmt.setNull(1, Types.INTEGER);
+                        }
+                        pstmt.setLong(2, version);
+                        pstmt.setInt(3, deckId);
+                        pstmt.executeUpdate();
+                    }
                 }
 
-                // Also, set all other cards in this deck as non-commander
-                String clearOtherCommandersSql = "UPDATE deck_cards SET is_commander = FALSE WHERE deck_id = ? AND card_id != ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(clearOtherCommandersSql)) {
-                    pstmt.setInt(1, deckId);
-                    pstmt.setInt(2, cardId);
-                    pstmt.executeUpdate();
+                // Every row left is flagged exactly when it is the commander; new rows are not Game Changers
+                Set<Integer> flaggedAfter = new LinkedHashSet<>();
+                if (after.containsKey(commander)) {
+                    flaggedAfter.add(commander);
                 }
+                Set<Integer> gameChangersAfter = new LinkedHashSet<>(locked.before.gameChangerRows);
+                gameChangersAfter.retainAll(after.keySet());
+                locked.contentsChanged(conn, new LockedDeck.Contents(after, flaggedAfter, gameChangersAfter, commander), version);
             }
 
             conn.commit();
-            return true;
+            listeners.fire(deckId, before.keySet(), after.keySet());
 
+            int totalCards = 0;
+            for (int quantity : after.values()) {
+                totalCards += quantity;
+            }
+            return new DeckSummary(deckId, after.size(), totalCards, commander, upserts.size(), removals.size());
         } catch (SQLException e) {
             conn.rollback();
             throw e;
@@ -100,134 +277,1142 @@ public class DeckTransactions {
     }
 
     /**
-     * Validates the deck.
+     * Creates one deck per decklist in a single transaction: one batched insert of the deck
+     * headers and one batched insert of all their deck_cards rows. New decks start Invalid,
+     * like createDeck; callers can revalidate them afterwards. Returns the new ids in order.
      */
-    public String validateDeck(int deckId) throws SQLException {
+    public List<Integer> createDecks(List<Decklist> decklists, int playerId, String bracketInfo) throws SQLException {
+        List<Integer> deckIds = new ArrayList<>();
+        if (decklists.isEmpty()) {
+            return deckIds;
+        }
+
         Connection conn = DatabaseConnection.getConnection();
         if (conn == null) {
             throw new SQLException("No database connection available");
         }
 
-        int totalCards = 0;
-        int bannedCount = 0;
-        boolean hasCommander = false;
+        conn.setAutoCommit(false);
+        try {
+            long version = ChangeTracking.nextVersion(conn);
 
-        // 1. Count total cards
-        String countSql = "SELECT COALESCE(SUM(quantity), 0) as total FROM deck_cards WHERE deck_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(countSql)) {
-            pstmt.setInt(1, deckId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) totalCards = rs.getInt("total");
+            String deckSql = "INSERT INTO deck (deck_name, player_id, commander_card_id, bracket_info, validity, row_version) " +
+                    "VALUES (?, ?, ?, ?, 'Invalid', ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(deckSql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Decklist decklist : decklists) {
+                    pstmt.setString(1, decklist.getName());
+                    pstmt.setInt(2, playerId);
+                    if (decklist.getCommanderCardId() > 0) {
+                        pstmt.setInt(3, decklist.getCommanderCardId());
+                    } else {
+                        pstmt.setNull(3, Types.INTEGER);
+                    }
+                    pstmt.setString(4, bracketInfo);
+                    pstmt.setLong(5, version);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        deckIds.add(rs.getInt(1));
+                    }
+                }
+            }
+            if (deckIds.size() != decklists.size()) {
+                throw new SQLException("Expected " + decklists.size() + " generated deck ids, got " + deckIds.size());
+            }
+
+            List<Map<Integer, Integer>> contents = new ArrayList<>(decklists.size());
+            List<Integer> commanders = new ArrayList<>(decklists.size());
+            List<Set<Integer>> commanderRows = new ArrayList<>(decklists.size());
+            String cardSql = "INSERT INTO deck_cards (deck_id, card_id, quantity, is_commander, row_version) VALUES (?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(cardSql)) {
+                for (int i = 0; i < decklists.size(); i++) {
+                    Decklist decklist = decklists.get(i);
+                    Map<Integer, Integer> quantities = new LinkedHashMap<>(decklist.getQuantities());
+                    if (decklist.getCommanderCardId() > 0) {
+                        quantities.putIfAbsent(decklist.getCommanderCardId(), 1);
+                    }
+                    contents.add(quantities);
+                    commanders.add(decklist.getCommanderCardId());
+                    Set<Integer> flagged = new LinkedHashSet<>();
+                    for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+                        boolean isCommander = entry.getKey() == decklist.getCommanderCardId();
+                        if (isCommander) {
+                            flagged.add(entry.getKey());
+                        }
+                        pstmt.setInt(1, deckIds.get(i));
+                        pstmt.setInt(2, entry.getKey());
+                        pstmt.setInt(3, entry.getValue());
+                        pstmt.setBoolean(4, isCommander);
+                        pstmt.setLong(5, version);
+                        pstmt.addBatch();
+                    }
+                    commanderRows.add(flagged);
+                }
+                pstmt.executeBatch();
+            }
+            DeckHistoryTransactions.recordInitialVersions(conn, deckIds, contents, commanders, version);
+            DeckStatisticsStore.recompute(conn, deckIds, version);
+            SaltScoreStore.updateDecks(conn, deckIds, contents, version);
+            DeckSignatureStore.updateDecks(conn, deckIds, contents, version);
+            DeckContentHashStore.updateDecks(conn, deckIds, contents, commanderRows, version);
+            BracketStore.recompute(conn, deckIds, version);
+
+            conn.commit();
+            for (int i = 0; i < deckIds.size(); i++) {
+                listeners.fire(deckIds.get(i), Set.of(), contents.get(i).keySet());
+            }
+            return deckIds;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
+    }
 
-        // 2. Check for banned cards
-        String banSql = "SELECT COUNT(*) as banned_count FROM deck_cards dc " +
-                "JOIN card c ON dc.card_id = c.card_id " +
-                "WHERE dc.deck_id = ? AND c.card_status = 'Banned'";
-        try (PreparedStatement pstmt = conn.prepareStatement(banSql)) {
-            pstmt.setInt(1, deckId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) bannedCount = rs.getInt("banned_count");
+    /**
+     * Writes a deck as a plain-text decklist (commander section first), streaming rows
+     * from the database straight to the writer. Returns the number of cards written.
+     */
+    public int exportDecklist(int deckId, Writer out) throws SQLException, IOException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
         }
 
-        // 3. Check for commander
-        String commanderSql = "SELECT COUNT(*) as commander_count FROM deck_cards WHERE deck_id = ? AND is_commander = TRUE";
-        try (PreparedStatement pstmt = conn.prepareStatement(commanderSql)) {
+        String sql = "SELECT c.card_name, dc.quantity, dc.is_commander " +
+                "FROM deck_cards dc JOIN card c ON c.card_id = dc.card_id " +
+                "WHERE dc.deck_id = ? ORDER BY dc.is_commander DESC, c.card_name";
+
+        int cardsWritten = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the result
             pstmt.setInt(1, deckId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) hasCommander = rs.getInt("commander_count") > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                boolean inDeckSection = false;
+                boolean first = true;
+                while (rs.next()) {
+                    boolean commander = rs.getBoolean("is_commander");
+                    if (first && commander) {
+                        out.write("Commander\n");
+                    }
+                    if (!commander && !inDeckSection) {
+                        out.write(first ? "Deck\n" : "\nDeck\n");
+                        inDeckSection = true;
+                    }
+                    int quantity = rs.getInt("quantity");
+                    out.write(quantity + " " + rs.getString("card_name") + "\n");
+                    cardsWritten += quantity;
+                    first = false;
+                }
+            }
         }
+        out.flush();
+        return cardsWritten;
+    }
 
-        // 4. Update Status
-        boolean isValid = (totalCards == 10 && bannedCount == 0 && hasCommander);
-        String updateSql = "UPDATE deck SET validity = ? WHERE deck_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
-            pstmt.setString(1, isValid ? "Valid" : "Invalid");
-            pstmt.setInt(2, deckId);
-            pstmt.executeUpdate();
+    /**
+     * Validates the deck.
+     * Results are cached by the deck's content hash, so an unchanged deck costs one point
+     * query. Otherwise all metrics come from one aggregate query. Either way the deck row is
+     * only written when its validity or mana base changes.
+     */
+    public String validateDeck(int deckId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        long banListVersion = validationCache.getBanListVersion();
+        StoredValidation stored = readStoredValidation(conn, deckId);
+        if (stored != null && stored.contentHash != null) {
+            ValidationCache.Result cached = validationCache.get(stored.contentHash, VALIDATION_RULES_VERSION);
+            if (cached != null) {
+                // Decks with the same contents share results; this one may not have stored it yet
+                storeValidation(conn, deckId,
+                        cached.isValid() != stored.valid ? cached.isValid() : null,
+                        cached.getManaBase() != null && !cached.getManaBase().equals(stored.manaBase) ? cached.getManaBase() : null);
+                return cached.getMessage();
+            }
         }
 
+        DeckMetrics metrics = loadDeckMetrics(conn, List.of(deckId)).get(deckId);
+        if (metrics == null) {
+            metrics = new DeckMetrics(0, 0, false, false, null);
+        }
+        ManaBaseReport manaBase = analyzeManaBases(conn, List.of(deckId)).get(deckId);
+
+        boolean isValid = metrics.meetsDeckRules();
+        boolean manaBaseChanged = manaBase != null && !manaBase.getSummary().equals(metrics.currentManaBase);
+        storeValidation(conn, deckId,
+                isValid != metrics.currentlyValid ? isValid : null,
+                manaBaseChanged ? manaBase.getSummary() : null);
+
         // Return detailed validation message
         StringBuilder result = new StringBuilder();
         result.append("Deck Validation Results:\n");
-        result.append("- Total Cards: ").append(totalCards).append("/100\n");
-        result.append("- Banned Cards: ").append(bannedCount).append("\n");
-        result.append("- Commander: ").append(hasCommander ? "Present" : "Missing").append("\n");
+        result.append("- Total Cards: ").append(metrics.totalCards).append("/100\n");
+        result.append("- Banned Cards: ").append(metrics.bannedCount).append("\n");
+        result.append("- Commander: ").append(metrics.hasCommander ? "Present" : "Missing").append("\n");
+        if (manaBase != null) {
+            result.append("- Mana Base: ").append(manaBase.getSummary()).append("\n");
+        }
         result.append("- Status: ").append(isValid ? "VALID" : "INVALID");
 
+        // Only cache if the contents did not change while the metrics were read
+        Long contentHash = null;
+        if (stored != null && stored.contentHash == null) {
+            contentHash = repairContentHash(conn, deckId);
+        } else if (stored != null) {
+            StoredValidation after = readStoredValidation(conn, deckId);
+            contentHash = after != null && stored.contentHash.equals(after.contentHash) ? stored.contentHash : null;
+        }
+        if (contentHash != null) {
+            validationCache.put(contentHash, VALIDATION_RULES_VERSION, banListVersion,
+                    new ValidationCache.Result(isValid, manaBase != null ? manaBase.getSummary() : null, result.toString()));
+        }
         return result.toString();
     }
 
+    // A deck row's content hash and the validation results stored on it
+    private static final class StoredValidation {
+        final Long contentHash; // null until computed
+        final boolean valid;
+        final String manaBase;
+
+        StoredValidation(Long contentHash, boolean valid, String manaBase) {
+            this.contentHash = contentHash;
+            this.valid = valid;
+            this.manaBase = manaBase;
+        }
+    }
+
+    // Null if the deck does not exist
+    private static StoredValidation readStoredValidation(Connection conn, int deckId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT content_hash, validity, mana_base FROM deck WHERE deck_id = ?")) {
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                long hash = rs.getLong("content_hash");
+                Long contentHash = rs.wasNull() ? null : hash;
+                return new StoredValidation(contentHash, "Valid".equals(rs.getString("validity")), rs.getString("mana_base"));
+            }
+        }
+    }
+
+    // Writes whichever of validity and mana base is non-null, in one transaction
+    private void storeValidation(Connection conn, int deckId, Boolean validity, String manaBase) throws SQLException {
+        if (validity == null && manaBase == null) {
+            return;
+        }
+        conn.setAutoCommit(false);
+        try {
+            long version = ChangeTracking.nextVersion(conn);
+            if (validity != null) {
+                writeValidity(conn, Map.of(deckId, validity), version);
+            }
+            if (manaBase != null) {
+                writeManaBases(conn, Map.of(deckId, manaBase), version);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Fills in the content hash of a deck written before the column existed
+    private static Long repairContentHash(Connection conn, int deckId) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            Long hash = DeckContentHashStore.recompute(conn, List.of(deckId), ChangeTracking.nextVersion(conn)).get(deckId);
+            conn.commit();
+            return hash;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
     /**
-     * Retrieves all decks from the database.
+     * Revalidates every deck in the database, chunk by chunk.
      */
-    public List<Deck> getAllDecks() throws SQLException {
-        List<Deck> decks = new ArrayList<>();
+    public DeckValidationSummary validateAllDecks() throws SQLException {
         Connection conn = DatabaseConnection.getConnection();
         if (conn == null) {
             throw new SQLException("No database connection available");
         }
 
-        String sql = "SELECT d.deck_id, d.deck_name, d.player_id, d.commander_card_id, d.bracket_info, d.validity, d.description " +
-                "FROM deck d";
+        List<Integer> deckIds = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT deck_id FROM deck ORDER BY deck_id")) {
+            while (rs.next()) {
+                deckIds.add(rs.getInt(1));
+            }
+        }
+        return revalidateDecks(deckIds);
+    }
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
+    /**
+     * Re-applies the validateDeck rules to many decks at once: per chunk of decks, one aggregate
+     * query, one contents query for the mana-base analysis, and batched UPDATEs of the decks
+     * whose validity or mana base changed, committed together.
+     */
+    public DeckValidationSummary revalidateDecks(List<Integer> deckIds) throws SQLException {
+        Map<Integer, Boolean> flipped = new LinkedHashMap<>();
+        int checked = 0;
+        int valid = 0;
+        if (deckIds.isEmpty()) {
+            return new DeckValidationSummary(0, 0, 0, flipped);
+        }
+
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            Map<Integer, Boolean> chunkFlips = new LinkedHashMap<>();
+            Map<Integer, String> manaBases = new LinkedHashMap<>();
+            Map<Integer, ManaBaseReport> reports = analyzeManaBases(conn, chunk);
+            for (Map.Entry<Integer, DeckMetrics> entry : loadDeckMetrics(conn, chunk).entrySet()) {
+                DeckMetrics metrics = entry.getValue();
+                ManaBaseReport manaBase = reports.get(entry.getKey());
+                if (manaBase != null && !manaBase.getSummary().equals(metrics.currentManaBase)) {
+                    manaBases.put(entry.getKey(), manaBase.getSummary());
+                }
+                boolean isValid = metrics.meetsDeckRules();
+                checked++;
+                if (isValid) {
+                    valid++;
+                }
+                if (isValid != metrics.currentlyValid) {
+                    chunkFlips.put(entry.getKey(), isValid);
+                }
+            }
+
+            if (!chunkFlips.isEmpty() || !manaBases.isEmpty()) {
+                conn.setAutoCommit(false);
+                try {
+                    long version = ChangeTracking.nextVersion(conn);
+                    writeValidity(conn, chunkFlips, version);
+                    writeManaBases(conn, manaBases, version);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                flipped.putAll(chunkFlips);
+            }
+        }
+        return new DeckValidationSummary(checked, valid, checked - valid, flipped);
+    }
 
+    /**
+     * Repair job: rebuilds the stored statistics of every deck from its contents.
+     * Normal edits keep the statistics up to date incrementally; this is for decks written
+     * before the statistics existed or changed outside the transaction classes.
+     */
+    public int repairDeckStatistics() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        List<Integer> deckIds = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT deck_id FROM deck ORDER BY deck_id")) {
             while (rs.next()) {
-                int deckId = rs.getInt("deck_id");
-                String deckName = rs.getString("deck_name");
-                int playerId = rs.getInt("player_id");
-
-                // Use getObject to handle NULL values properly
-                Object commanderIdObj = rs.getObject("commander_card_id");
-                Integer commanderId = null;
-                if (commanderIdObj != null) {
-                    commanderId = (Integer) commanderIdObj;
-                }
-
-                String bracketInfo = rs.getString("bracket_info");
-                String validity = rs.getString("validity");
-                String description = rs.getString("description");
-
-                // Create Deck object
-                Deck deck = new Deck();
-                deck.setDeckId(deckId);
-                deck.setDeckName(deckName);
-                deck.setPlayerId(playerId);
-                deck.setBracketInfo(bracketInfo);
-                deck.setValidity(validity);
-                deck.setDescription(description);
-
-                // Load the commander card if it exists
-                if (commanderId != null && commanderId > 0) {
-                    try {
-                        // Load the commander card using CardFactory or your card loading logic
-                        Card commanderCard = loadCardById(commanderId, conn);
-                        if (commanderCard != null) {
-                            deck.setCommanderCard(commanderCard);
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Error loading commander card ID " + commanderId + " for deck " + deckId + ": " + e.getMessage());
+                deckIds.add(rs.getInt(1));
+            }
+        }
+        return repairDeckStatistics(deckIds);
+    }
+
+    /**
+     * Rebuilds the stored statistics of the given decks, committing one chunk at a time.
+     * Returns the number of decks rewritten.
+     */
+    public int repairDeckStatistics(List<Integer> deckIds) throws SQLException {
+        if (deckIds.isEmpty()) {
+            return 0;
+        }
+
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        int repaired = 0;
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            conn.setAutoCommit(false);
+            try {
+                repaired += DeckStatisticsStore.recompute(conn, chunk, ChangeTracking.nextVersion(conn));
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Installs a new set of salt weights and rescores the decks they affect: every deck the
+     * first time weights are loaded, afterwards only decks holding a card whose weight changed.
+     * Returns the number of decks rescored.
+     */
+    public int reloadSaltWeights(SaltWeights newWeights) throws SQLException {
+        SaltWeights previous = SaltScoreStore.getWeights();
+        SaltScoreStore.setWeights(newWeights);
+        if (!previous.isLoaded()) {
+            return recomputeSaltScores();
+        }
+        List<Integer> changed = newWeights.changedCards(previous);
+        return changed.isEmpty() ? 0 : recomputeSaltScores(findDecksContainingCards(changed));
+    }
+
+    /**
+     * Rescores every deck under the current salt weights.
+     */
+    public int recomputeSaltScores() throws SQLException {
+        return recomputeSaltScores(getAllDeckIds());
+    }
+
+    /**
+     * Rescores the given decks, one chunk per task on up to RESCORE_THREADS pooled
+     * connections. Each chunk is read, scored and written in one transaction that holds
+     * its deck rows locked, so a stale score never overwrites one from a newer edit.
+     * Returns the number of decks rescored (0 while no weights are loaded).
+     */
+    public int recomputeSaltScores(List<Integer> deckIds) throws SQLException {
+        SaltWeights current = SaltScoreStore.getWeights();
+        if (!current.isLoaded() || deckIds.isEmpty()) {
+            return 0;
+        }
+        return inParallel(deckIds, chunk -> rescoreChunk(chunk, current), "salt score recompute");
+    }
+
+    /**
+     * Installs new bracket signal lists and reclassifies every deck. Returns the number of
+     * decks classified.
+     */
+    public int reloadBracketSignals(BracketSignals newSignals) throws SQLException {
+        BracketStore.setSignals(newSignals);
+        return recomputeBrackets();
+    }
+
+    /**
+     * Reclassifies every deck from its contents under the current signal lists.
+     */
+    public int recomputeBrackets() throws SQLException {
+        return recomputeBrackets(getAllDeckIds());
+    }
+
+    /**
+     * Reclassifies the given decks in parallel, like recomputeSaltScores(List).
+     */
+    public int recomputeBrackets(List<Integer> deckIds) throws SQLException {
+        if (deckIds.isEmpty()) {
+            return 0;
+        }
+        BracketSignals current = BracketStore.getSignals();
+        return inParallel(deckIds, chunk -> classifyChunk(chunk, current), "bracket classification");
+    }
+
+    /**
+     * Decks whose declared bracket ("3" or "Bracket 3") differs from the one derived from
+     * their contents. Free-text brackets that do not name a number are skipped.
+     */
+    public List<BracketMismatch> findBracketMismatches() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "SELECT deck_id, deck_name, CAST(RIGHT(TRIM(bracket_info), 1) AS UNSIGNED) AS declared, computed_bracket " +
+                "FROM deck WHERE computed_bracket IS NOT NULL " +
+                "AND TRIM(bracket_info) REGEXP '^(Bracket )?[1-5]$' " +
+                "AND CAST(RIGHT(TRIM(bracket_info), 1) AS UNSIGNED) <> computed_bracket " +
+                "ORDER BY deck_id";
+        List<BracketMismatch> mismatches = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                mismatches.add(new BracketMismatch(rs.getInt("deck_id"), rs.getString("deck_name"),
+                        rs.getInt("declared"), rs.getInt("computed_bracket")));
+            }
+        }
+        return mismatches;
+    }
+
+    private List<Integer> getAllDeckIds() throws SQLException {
+        List<Integer> deckIds = new ArrayList<>();
+        try (Connection conn = ConnectionPool.shared().borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT deck_id FROM deck ORDER BY deck_id")) {
+            while (rs.next()) {
+                deckIds.add(rs.getInt(1));
+            }
+        }
+        return deckIds;
+    }
+
+    private interface ChunkTask {
+        int run(List<Integer> deckIds) throws SQLException;
+    }
+
+    // Runs one task per chunk of deckIds on up to RESCORE_THREADS threads and sums their counts.
+    // Never takes more than the pool can spare beyond RESERVED_CONNECTIONS.
+    private static int inParallel(List<Integer> deckIds, ChunkTask task, String what) throws SQLException {
+        List<List<Integer>> chunks = SqlLists.chunks(deckIds);
+        int spare = Math.max(1, ConnectionPool.shared().getMaxConnections() - RESERVED_CONNECTIONS);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(chunks.size(), Math.min(RESCORE_THREADS, spare)));
+        try {
+            List<Future<Integer>> results = new ArrayList<>(chunks.size());
+            for (List<Integer> chunk : chunks) {
+                results.add(executor.submit(() -> task.run(chunk)));
+            }
+            int done = 0;
+            for (Future<Integer> result : results) {
+                done += result.get();
+            }
+            return done;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted during " + what, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("The " + what + " failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Each chunk locks its deck rows before reading them, so an edit committed meanwhile is
+    // either seen or waits for the chunk; the version is only taken once the chunk is computed
+    private static int classifyChunk(List<Integer> deckIds, BracketSignals signals) throws SQLException {
+        try (Connection conn = ConnectionPool.shared().borrow()) {
+            conn.setAutoCommit(false);
+            try {
+                lockDecks(conn, deckIds);
+                Map<Integer, Integer> brackets = BracketStore.classify(conn, deckIds, signals);
+                BracketStore.write(conn, brackets, ChangeTracking.nextVersion(conn));
+                conn.commit();
+                return brackets.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static int rescoreChunk(List<Integer> deckIds, SaltWeights weights) throws SQLException {
+        try (Connection conn = ConnectionPool.shared().borrow()) {
+            conn.setAutoCommit(false);
+            try {
+                lockDecks(conn, deckIds);
+                Map<Integer, BigDecimal> scores = SaltScoreStore.computeScores(conn, deckIds, weights);
+                SaltScoreStore.write(conn, scores, ChangeTracking.nextVersion(conn));
+                conn.commit();
+                return scores.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Locks the deck rows (at most one chunk) in id order until commit, as single-deck edits do
+    private static void lockDecks(Connection conn, List<Integer> deckIds) throws SQLException {
+        String sql = "SELECT deck_id FROM deck WHERE deck_id IN (" + SqlLists.placeholders(deckIds.size()) + ") ORDER BY deck_id FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            SqlLists.bindInts(pstmt, 1, deckIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // rows are locked as they are read
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes every validation metric for the given decks (at most one chunk) in a single query.
+     */
+    private Map<Integer, DeckMetrics> loadDeckMetrics(Connection conn, List<Integer> deckIds) throws SQLException {
+        String sql = "SELECT d.deck_id, d.validity, d.mana_base, " +
+                "COALESCE(SUM(dc.quantity), 0) AS total, " +
+                "COALESCE(SUM(c.card_status = 'Banned'), 0) AS banned_count, " +
+                "COALESCE(SUM(dc.is_commander), 0) AS commander_count " +
+                "FROM deck d " +
+                "LEFT JOIN deck_cards dc ON dc.deck_id = d.deck_id " +
+                "LEFT JOIN card c ON c.card_id = dc.card_id " +
+                "WHERE d.deck_id IN (" + SqlLists.placeholders(deckIds.size()) + ") " +
+                "GROUP BY d.deck_id, d.validity, d.mana_base";
+
+        Map<Integer, DeckMetrics> metrics = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            SqlLists.bindInts(pstmt, 1, deckIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    metrics.put(rs.getInt("deck_id"), new DeckMetrics(
+                            rs.getInt("total"),
+                            rs.getInt("banned_count"),
+                            rs.getInt("commander_count") > 0,
+                            "Valid".equals(rs.getString("validity")),
+                            rs.getString("mana_base")));
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Writes new validity values in one batch. Must be called with auto-commit off.
+     */
+    private void writeValidity(Connection conn, Map<Integer, Boolean> validity, long version) throws SQLException {
+        if (validity.isEmpty()) {
+            return;
+        }
+        String updateSql = "UPDATE deck SET validity = ?, row_version = ? WHERE deck_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+            for (Map.Entry<Integer, Boolean> entry : validity.entrySet()) {
+                pstmt.setString(1, entry.getValue() ? "Valid" : "Invalid");
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Runs the mana-base analysis for the given decks (at most one chunk) from a single contents query.
+     */
+    private Map<Integer, ManaBaseReport> analyzeManaBases(Connection conn, List<Integer> deckIds) throws SQLException {
+        Map<Integer, ManaProfile> profiles = new LinkedHashMap<>();
+        for (int deckId : deckIds) {
+            profiles.put(deckId, new ManaProfile());
+        }
+
+        String sql = "SELECT dc.deck_id, dc.quantity, dc.is_commander, c.card_mana_cost, c.card_type, c.card_subtype, c.card_text " +
+                "FROM deck_cards dc JOIN card c ON c.card_id = dc.card_id " +
+                "WHERE dc.deck_id IN (" + SqlLists.placeholders(deckIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            SqlLists.bindInts(pstmt, 1, deckIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ManaProfile profile = profiles.get(rs.getInt("deck_id"));
+                    int quantity = rs.getInt("quantity");
+                    boolean commander = rs.getBoolean("is_commander");
+                    String manaCost = rs.getString("card_mana_cost");
+                    String type = rs.getString("card_type");
+                    String subtype = rs.getString("card_subtype");
+                    String text = rs.getString("card_text");
+                    profile.addCard(manaCost, type, subtype, text, commander ? quantity - 1 : quantity, false);
+                    if (commander) {
+                        profile.addCard(manaCost, type, subtype, text, 1, true);
                     }
                 }
+            }
+        }
+
+        Map<Integer, ManaBaseReport> reports = new LinkedHashMap<>();
+        for (Map.Entry<Integer, ManaProfile> entry : profiles.entrySet()) {
+            reports.put(entry.getKey(), MANA_BASE_CALCULATOR.analyze(entry.getValue()));
+        }
+        return reports;
+    }
 
-                decks.add(deck);
+    /**
+     * Writes mana-base summaries in one batch. Must be called with auto-commit off.
+     */
+    private void writeManaBases(Connection conn, Map<Integer, String> manaBases, long version) throws SQLException {
+        if (manaBases.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET mana_base = ?, row_version = ? WHERE deck_id = ?")) {
+            for (Map.Entry<Integer, String> entry : manaBases.entrySet()) {
+                pstmt.setString(1, entry.getValue());
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // Aggregated deck_cards metrics that validateDeck's rule is evaluated against
+    private static final class DeckMetrics {
+        final int totalCards;
+        final int bannedCount;
+        final boolean hasCommander;
+        final boolean currentlyValid;
+        final String currentManaBase;
+
+        DeckMetrics(int totalCards, int bannedCount, boolean hasCommander, boolean currentlyValid, String currentManaBase) {
+            this.totalCards = totalCards;
+            this.bannedCount = bannedCount;
+            this.hasCommander = hasCommander;
+            this.currentlyValid = currentlyValid;
+            this.currentManaBase = currentManaBase;
+        }
+
+        boolean meetsDeckRules() {
+            return totalCards == 10 && bannedCount == 0 && hasCommander;
+        }
+    }
+
+    /**
+     * Streams the card ids of every deck, one deck at a time in deck id order, on a pooled
+     * connection so the shared one stays free. Returns the number of decks visited.
+     */
+    public int scanDeckContents(BiConsumer<Integer, int[]> consumer) throws SQLException {
+        int decks = 0;
+        try (Connection conn = ConnectionPool.shared().borrow();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT deck_id, card_id FROM deck_cards ORDER BY deck_id",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the result
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int currentDeck = -1;
+                int[] cards = new int[128];
+                int size = 0;
+                while (rs.next()) {
+                    int deckId = rs.getInt(1);
+                    if (deckId != currentDeck) {
+                        if (size > 0) {
+                            consumer.accept(currentDeck, Arrays.copyOf(cards, size));
+                            decks++;
+                        }
+                        currentDeck = deckId;
+                        size = 0;
+                    }
+                    if (size == cards.length) {
+                        cards = Arrays.copyOf(cards, size * 2);
+                    }
+                    cards[size++] = rs.getInt(2);
+                }
+                if (size > 0) {
+                    consumer.accept(currentDeck, Arrays.copyOf(cards, size));
+                    decks++;
+                }
             }
         }
         return decks;
     }
 
-    // Helper method to load a card by ID
-    private Card loadCardById(int cardId, Connection conn) throws SQLException {
-        String sql = "SELECT * FROM card WHERE card_id = ?";
+    /**
+     * Fingerprint of which cards every deck holds: the deck_cards row count and an
+     * order-independent checksum of the (deck, card) pairs. Quantity changes leave it alone.
+     */
+    public long getDeckContentsFingerprint() throws SQLException {
+        String sql = "SELECT COUNT(*), COALESCE(BIT_XOR(CRC32(CONCAT(deck_id, ':', card_id))), 0) FROM deck_cards";
+        try (Connection conn = ConnectionPool.shared().borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return (rs.getLong(1) << 32) ^ rs.getLong(2);
+        }
+    }
+
+    /**
+     * Passes every stored deck signature (deck.minhash) to the consumer, on a pooled
+     * connection. Decks that have cards but no signature yet, e.g. after the column was
+     * added, get one first. Returns the number of signatures read.
+     */
+    public int loadDeckSignatures(BiConsumer<Integer, int[]> consumer) throws SQLException {
+        try (Connection conn = ConnectionPool.shared().borrow()) {
+            List<Integer> missing = new ArrayList<>();
+            String missingSql = "SELECT DISTINCT dc.deck_id FROM deck_cards dc JOIN deck d ON d.deck_id = dc.deck_id WHERE d.minhash IS NULL";
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(missingSql)) {
+                while (rs.next()) {
+                    missing.add(rs.getInt(1));
+                }
+            }
+            if (!missing.isEmpty()) {
+                conn.setAutoCommit(false);
+                try {
+                    DeckSignatureStore.recompute(conn, missing, ChangeTracking.nextVersion(conn));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+
+            int loaded = 0;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT deck_id, minhash FROM deck WHERE minhash IS NOT NULL")) {
+                while (rs.next()) {
+                    int[] signature = DeckSimilarityIndex.decode(rs.getBytes(2));
+                    if (signature != null) {
+                        consumer.accept(rs.getInt(1), signature);
+                        loaded++;
+                    }
+                }
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Current cards and commander of a deck, reported as version 0; null if there is no such deck.
+     */
+    public DeckContents getCurrentContents(int deckId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "SELECT d.commander_card_id, dc.card_id, dc.quantity FROM deck d " +
+                "LEFT JOIN deck_cards dc ON dc.deck_id = d.deck_id WHERE d.deck_id = ?";
+        int commanderCardId = 0;
+        boolean found = false;
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, cardId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return CardFactory.createCardFromResultSet(rs);
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    found = true;
+                    commanderCardId = rs.getInt(1);
+                    int cardId = rs.getInt(2);
+                    if (!rs.wasNull()) {
+                        quantities.put(cardId, rs.getInt(3));
+                    }
+                }
+            }
+        }
+        return found ? new DeckContents(deckId, 0, commanderCardId, quantities) : null;
+    }
+
+    /**
+     * Returns the ids of the cards in a deck.
+     */
+    public Set<Integer> getDeckCardIds(int deckId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        Set<Integer> cardIds = new LinkedHashSet<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT card_id FROM deck_cards WHERE deck_id = ?")) {
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    cardIds.add(rs.getInt(1));
+                }
             }
         }
-        return null;
+        return cardIds;
+    }
+
+    /**
+     * Ranks candidate decks by the exact Jaccard similarity of their card sets to the given
+     * one and returns the best, most similar first.
+     */
+    public List<SimilarDeck> rankBySimilarity(Set<Integer> cardIds, List<Integer> candidateIds, int limit) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        Map<Integer, String> names = new LinkedHashMap<>();
+        Map<Integer, Integer> shared = new LinkedHashMap<>();
+        Map<Integer, Integer> sizes = new LinkedHashMap<>();
+        for (List<Integer> chunk : SqlLists.chunks(candidateIds)) {
+            String sql = "SELECT d.deck_id, d.deck_name, dc.card_id FROM deck d LEFT JOIN deck_cards dc ON dc.deck_id = d.deck_id " +
+                    "WHERE d.deck_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                SqlLists.bindInts(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int deckId = rs.getInt("deck_id");
+                        names.put(deckId, rs.getString("deck_name"));
+                        shared.putIfAbsent(deckId, 0);
+                        sizes.putIfAbsent(deckId, 0);
+                        if (rs.getObject("card_id") != null) {
+                            sizes.merge(deckId, 1, Integer::sum);
+                            if (cardIds.contains(rs.getInt("card_id"))) {
+                                shared.merge(deckId, 1, Integer::sum);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        List<SimilarDeck> ranked = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            int deckId = entry.getKey();
+            int common = shared.get(deckId);
+            int union = cardIds.size() + sizes.get(deckId) - common;
+            ranked.add(new SimilarDeck(deckId, entry.getValue(), union > 0 ? (double) common / union : 0.0, common));
+        }
+        ranked.sort((a, b) -> Double.compare(b.getSimilarity(), a.getSimilarity()));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    /**
+     * Ids of the decks that contain every card in allOf, at least one card in anyOf (when it
+     * is not empty) and no card in noneOf, in increasing order. Same semantics as
+     * DeckPostingIndex.query, answered from deck_cards for when the index is not built yet.
+     */
+    public List<Integer> findDecksWithCards(Collection<Integer> allOf, Collection<Integer> anyOf, Collection<Integer> noneOf) throws SQLException {
+        List<Integer> required = new ArrayList<>(new LinkedHashSet<>(allOf));
+        List<Integer> optional = new ArrayList<>(anyOf);
+        List<Integer> excluded = new ArrayList<>(noneOf);
+        List<Integer> deckIds = new ArrayList<>();
+        if (required.isEmpty() && optional.isEmpty()) {
+            return deckIds;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT d.deck_id FROM deck d WHERE TRUE");
+        if (!required.isEmpty()) {
+            sql.append(" AND (SELECT COUNT(*) FROM deck_cards a WHERE a.deck_id = d.deck_id AND a.card_id IN (")
+                    .append(SqlLists.placeholders(required.size())).append(")) = ?");
+        }
+        if (!optional.isEmpty()) {
+            sql.append(" AND EXISTS (SELECT 1 FROM deck_cards o WHERE o.deck_id = d.deck_id AND o.card_id IN (")
+                    .append(SqlLists.placeholders(optional.size())).append("))");
+        }
+        if (!excluded.isEmpty()) {
+            sql.append(" AND NOT EXISTS (SELECT 1 FROM deck_cards x WHERE x.deck_id = d.deck_id AND x.card_id IN (")
+                    .append(SqlLists.placeholders(excluded.size())).append("))");
+        }
+        sql.append(" ORDER BY d.deck_id");
+
+        try (Connection conn = ConnectionPool.shared().borrow();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = SqlLists.bindInts(pstmt, 1, required);
+            if (!required.isEmpty()) {
+                pstmt.setInt(index++, required.size());
+            }
+            SqlLists.bindInts(pstmt, SqlLists.bindInts(pstmt, index, optional), excluded);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    deckIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return deckIds;
+    }
+
+    /**
+     * Returns the ids of every deck that contains at least one of the given cards.
+     */
+    public List<Integer> findDecksContainingCards(List<Integer> cardIds) throws SQLException {
+        Set<Integer> deckIds = new LinkedHashSet<>();
+        try (Connection conn = ConnectionPool.shared().borrow()) {
+            for (List<Integer> chunk : SqlLists.chunks(cardIds)) {
+                String sql = "SELECT DISTINCT deck_id FROM deck_cards WHERE card_id IN (" + SqlLists.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    SqlLists.bindInts(pstmt, 1, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            deckIds.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(deckIds);
+    }
+
+    /**
+     * Removes a card from a deck.
+     */
+    public boolean removeCardFromDeck(int deckId, int cardId) throws SQLException {
+        return applyDeckChanges(deckId, List.of(DeckEdit.remove(cardId))).getRowsRemoved() > 0;
+    }
+
+    /**
+     * Deletes a deck unless it has active (Pending or Approved) borrow requests.
+     * Its deck_cards rows go with it through the foreign key cascade; consumers of the
+     * deck tombstone should drop them as well.
+     */
+    public boolean deleteDeck(int deckId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        // First check if there are any active borrow requests for this deck
+        String checkBorrowSql = "SELECT COUNT(*) as active_requests FROM borrow_request WHERE deck_id = ? AND status IN ('Pending', 'Approved')";
+        try (PreparedStatement checkStmt = conn.prepareStatement(checkBorrowSql)) {
+            checkStmt.setInt(1, deckId);
+            ResultSet rs = checkStmt.executeQuery();
+            if (rs.next() && rs.getInt("active_requests") > 0) {
+                return false; // Cannot delete deck with active borrow requests
+            }
+        }
+
+        conn.setAutoCommit(false);
+        try {
+            long version = ChangeTracking.nextVersion(conn);
+            // The rows the cascade removes, for their tombstones and the listeners
+            List<Integer> cardIds = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT card_id FROM deck_cards WHERE deck_id = ? FOR UPDATE")) {
+                pstmt.setInt(1, deckId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        cardIds.add(rs.getInt(1));
+                    }
+                }
+            }
+            boolean deleted;
+            try (PreparedStatement deleteStmt = conn.prepareStatement("DELETE FROM deck WHERE deck_id = ?")) {
+                deleteStmt.setInt(1, deckId);
+                deleted = deleteStmt.executeUpdate() > 0;
+            }
+            if (deleted) {
+                ChangeTracking.tombstone(conn, ChangeTracking.DECK, String.valueOf(deckId), version);
+                List<String> keys = new ArrayList<>(cardIds.size());
+                for (int cardId : cardIds) {
+                    keys.add(ChangeTracking.deckCardKey(deckId, cardId));
+                }
+                ChangeTracking.tombstones(conn, ChangeTracking.DECK_CARD, keys, version);
+            }
+            conn.commit();
+            if (deleted) {
+                listeners.fire(deckId, cardIds, Set.of());
+            }
+            return deleted;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Retrieves the decks created or updated after the given row version, plus the ids of decks deleted since.
+     */
+    public ChangeSet<Deck> getDeckChangesSince(long sinceVersion) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        long currentVersion = ChangeTracking.currentVersion(conn);
+        String sql = "SELECT " + DECK_COLUMNS + COMMANDER_COLUMNS + " " +
+                "FROM deck d LEFT JOIN card c ON c.card_id = d.commander_card_id " +
+                "WHERE d.row_version > ? AND d.row_version <= ? ORDER BY d.row_version";
+
+        List<Deck> changed;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, sinceVersion);
+            pstmt.setLong(2, currentVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                changed = readDecks(rs, true);
+            }
+        }
+
+        List<String> deleted = ChangeTracking.deletedSince(conn, ChangeTracking.DECK, sinceVersion, currentVersion);
+        return new ChangeSet<>(sinceVersion, currentVersion, changed, deleted);
+    }
+
+    /**
+     * Retrieves the deck_cards rows added or updated after the given row version, plus the
+     * "deckId:cardId" keys of rows removed since.
+     */
+    public ChangeSet<DeckCard> getDeckCardChangesSince(long sinceVersion) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        long currentVersion = ChangeTracking.currentVersion(conn);
+        String sql = "SELECT deck_id, card_id, quantity, is_commander FROM deck_cards " +
+                "WHERE row_version > ? AND row_version <= ? ORDER BY row_version";
+
+        List<DeckCard> changed = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, sinceVersion);
+            pstmt.setLong(2, currentVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    changed.add(new DeckCard(rs.getInt("deck_id"), rs.getInt("card_id"),
+                            rs.getInt("quantity"), rs.getBoolean("is_commander")));
+                }
+            }
+        }
+
+        List<String> deleted = ChangeTracking.deletedSince(conn, ChangeTracking.DECK_CARD, sinceVersion, currentVersion);
+        return new ChangeSet<>(sinceVersion, currentVersion, changed, deleted);
+    }
+
+    /**
+     * Retrieves all decks with their commander cards loaded.
+     */
+    public List<Deck> getAllDecks() throws SQLException {
+        return getAllDecks(true);
+    }
+
+    /**
+     * Retrieves all decks in one query. List views that only show the commander id can pass
+     * false to skip loading the commander cards.
+     */
+    public List<Deck> getAllDecks(boolean hydrateCommanders) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+        return getAllDecks(conn, hydrateCommanders);
+    }
+
+    // The listing itself, on the given connection: one statement however many decks there are
+    List<Deck> getAllDecks(Connection conn, boolean hydrateCommanders) throws SQLException {
+        String sql = hydrateCommanders
+                ? "SELECT " + DECK_COLUMNS + COMMANDER_COLUMNS + " FROM deck d LEFT JOIN card c ON c.card_id = d.commander_card_id"
+                : "SELECT " + DECK_COLUMNS + " FROM deck d";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return readDecks(rs, hydrateCommanders);
+        }
+    }
+
+    // Maps deck header rows; with hydrateCommanders the row must also carry COMMANDER_COLUMNS
+    private List<Deck> readDecks(ResultSet rs, boolean hydrateCommanders) throws SQLException {
+        List<Deck> decks = new ArrayList<>();
+        while (rs.next()) {
+            Deck deck = new Deck();
+            deck.setDeckId(rs.getInt("deck_id"));
+            deck.setDeckName(rs.getString("deck_name"));
+            deck.setPlayerId(rs.getInt("player_id"));
+            deck.setCommanderCardId(rs.getInt("commander_card_id")); // 0 when NULL
+            deck.setBracketInfo(rs.getString("bracket_info"));
+            deck.setValidity(rs.getString("validity"));
+            deck.setDescription(rs.getString("description"));
+            deck.setStatistics(DeckStatistics.decode(rs.getBytes("stats_summary")));
+            deck.setManaBase(rs.getString("mana_base"));
+            BigDecimal saltScore = rs.getBigDecimal("salt_score");
+            deck.setSaltScore(saltScore != null ? saltScore.doubleValue() : null);
+
+            if (hydrateCommanders && rs.getObject("card_id") != null) {
+                deck.setCommanderCard(CardFactory.createCardFromResultSet(rs));
+            }
+
+            decks.add(deck);
+        }
+        return decks;
     }
-}
\ No newline at end of file
+}
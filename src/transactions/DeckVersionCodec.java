@@ -0,0 +1,79 @@
+package transactions;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Binary format for deck_version payloads.
+ *
+ * A payload is a count followed by (card id gap, quantity) pairs sorted by card id. Gaps are
+ * unsigned varints and quantities zigzag varints, so a typical entry takes two to four bytes.
+ * Snapshot payloads hold absolute quantities; delta payloads hold quantity changes.
+ */
+final class DeckVersionCodec {
+
+    private DeckVersionCodec() {
+    }
+
+    static byte[] encode(SortedMap<Integer, Integer> entries) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + entries.size() * 3);
+        writeVarint(out, entries.size());
+        int previousId = 0;
+        for (Map.Entry<Integer, Integer> entry : entries.entrySet()) {
+            writeVarint(out, entry.getKey() - previousId);
+            writeVarint(out, zigzag(entry.getValue()));
+            previousId = entry.getKey();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Adds the payload's quantities to the given map, dropping cards that reach zero.
+     * Decoding a snapshot into an empty map yields the snapshot itself.
+     */
+    static void applyTo(byte[] payload, Map<Integer, Integer> quantities) {
+        int[] position = {0};
+        int count = readVarint(payload, position);
+        int cardId = 0;
+        for (int i = 0; i < count; i++) {
+            cardId += readVarint(payload, position);
+            int change = unzigzag(readVarint(payload, position));
+            int quantity = quantities.getOrDefault(cardId, 0) + change;
+            if (quantity > 0) {
+                quantities.put(cardId, quantity);
+            } else {
+                quantities.remove(cardId);
+            }
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] buffer, int[] position) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package transactions;
+
+import cache.CardNameIndex;
+import entity.Decklist;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-by-line parser for plain-text decklists as exported by MTGO, Arena and most deck sites:
+ *
+ *   Commander
+ *   1 Atraxa, Praetors' Voice
+ *
+ *   Deck
+ *   1 Sol Ring (C21) 263
+ *   4x Island
+ *
+ * Quantities may be written "4", "4x" or left out. Arena set/collector suffixes and "*CMDR*"
+ * markers are ignored. Sideboard, maybeboard and about sections are skipped, as are lines
+ * starting with "SB:", "//" or "#".
+ */
+public final class DecklistParser {
+
+    private static final Pattern CARD_LINE = Pattern.compile(
+            "^(?:(\\d+)\\s*[xX]?\\s+)?(.+?)(\\s+\\*CMDR\\*)?(?:\\s+\\([A-Za-z0-9]{2,6}\\)(?:\\s+\\S+)?)?(\\s+\\*CMDR\\*)?$");
+
+    private static final Set<String> MAIN_SECTIONS = Set.of("deck", "main", "mainboard", "companion");
+    private static final Set<String> COMMANDER_SECTIONS = Set.of("commander", "commanders");
+    private static final Set<String> SKIPPED_SECTIONS = Set.of("sideboard", "maybeboard", "considering", "about");
+
+    private DecklistParser() {
+    }
+
+    /**
+     * Reads a decklist, resolving each card name through the index. Unresolved lines are
+     * recorded on the result as "source:line: text".
+     */
+    public static Decklist parse(String deckName, String source, BufferedReader reader, CardNameIndex index) throws IOException {
+        Decklist decklist = new Decklist(deckName);
+        boolean inCommanderSection = false;
+        boolean skipping = false;
+        int lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("//") || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            String header = trimmed.toLowerCase();
+            if (header.endsWith(":")) {
+                header = header.substring(0, header.length() - 1);
+            }
+            if (MAIN_SECTIONS.contains(header) || COMMANDER_SECTIONS.contains(header) || SKIPPED_SECTIONS.contains(header)) {
+                inCommanderSection = COMMANDER_SECTIONS.contains(header);
+                skipping = SKIPPED_SECTIONS.contains(header);
+                continue;
+            }
+            if (skipping || header.startsWith("sb:")) {
+                continue;
+            }
+
+            Matcher matcher = CARD_LINE.matcher(trimmed);
+            if (!matcher.matches()) {
+                decklist.addUnresolved(source + ":" + lineNumber + ": " + trimmed);
+                continue;
+            }
+            int quantity = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : 1;
+            int cardId = index.lookup(matcher.group(2));
+            if (cardId < 0 || quantity <= 0) {
+                decklist.addUnresolved(source + ":" + lineNumber + ": " + trimmed);
+                continue;
+            }
+
+            decklist.addCard(cardId, quantity);
+            boolean markedCommander = matcher.group(3) != null || matcher.group(4) != null;
+            if ((inCommanderSection || markedCommander) && decklist.getCommanderCardId() == 0) {
+                decklist.setCommanderCardId(cardId);
+            }
+        }
+        return decklist;
+    }
+}
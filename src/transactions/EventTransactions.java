@@ -0,0 +1,254 @@
+package transactions;
+
+import connection.DatabaseConnection;
+import entity.EventEntrant;
+import entity.Pod;
+import events.PodMatchmaker;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Store events (Commander nights) and their rounds, kept in store_event, event_round and
+ * event_seat. Each seat row records who sat in which pod with which deck, and later the
+ * seat's result.
+ */
+public class EventTransactions {
+
+    // Bracket assumed for decks with neither a declared nor a computed bracket
+    static final int DEFAULT_BRACKET = 2;
+
+    public int createEvent(String eventName, LocalDate eventDate) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO store_event (event_name, event_date) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, eventName);
+            pstmt.setDate(2, Date.valueOf(eventDate));
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("Creating event failed, no ID obtained.");
+    }
+
+    /**
+     * Works out the deck each player brings. A player with an active loan (an approved or
+     * overdue immediate borrow) plays the borrowed deck; otherwise their newest deck that is
+     * not lent out. The bracket is the declared one ("3" or "Bracket 3"), falling back to the
+     * computed bracket, then DEFAULT_BRACKET. Players with no deck to play go to unseated.
+     */
+    public List<EventEntrant> loadEntrants(Collection<Integer> playerIds, List<Integer> unseated) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        Set<Integer> wanted = new HashSet<>(playerIds);
+        Map<Integer, String> names = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT player_id, first_name, last_name FROM player")) {
+            while (rs.next()) {
+                if (wanted.contains(rs.getInt(1))) {
+                    names.put(rs.getInt(1), rs.getString(2) + " " + rs.getString(3));
+                }
+            }
+        }
+
+        // Borrower -> deck, newest loan first; and every deck that is out
+        Map<Integer, Integer> borrowedBy = new HashMap<>();
+        Set<Integer> lentOut = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT player_id, deck_id FROM borrow_request " +
+                     "WHERE borrow_type = 'Immediate' AND status IN ('Approved', 'Overdue') ORDER BY borrow_code DESC")) {
+            while (rs.next()) {
+                borrowedBy.putIfAbsent(rs.getInt(1), rs.getInt(2));
+                lentOut.add(rs.getInt(2));
+            }
+        }
+
+        Map<Integer, EventEntrant> byPlayer = new HashMap<>();
+        Map<Integer, Integer> borrowers = new HashMap<>();
+        for (Map.Entry<Integer, Integer> loan : borrowedBy.entrySet()) {
+            if (names.containsKey(loan.getKey())) {
+                borrowers.put(loan.getValue(), loan.getKey());
+            }
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT deck_id, player_id, deck_name, bracket_info, computed_bracket FROM deck ORDER BY deck_id DESC")) {
+            while (rs.next()) {
+                int deckId = rs.getInt("deck_id");
+                int ownerId = rs.getInt("player_id");
+                Integer borrower = borrowers.get(deckId);
+                int playerId;
+                if (borrower != null) {
+                    playerId = borrower;
+                } else if (names.containsKey(ownerId) && !borrowedBy.containsKey(ownerId)
+                        && !lentOut.contains(deckId) && !byPlayer.containsKey(ownerId)) {
+                    playerId = ownerId;
+                } else {
+                    continue;
+                }
+                int bracket = parseBracket(rs.getString("bracket_info"));
+                if (bracket == 0) {
+                    int computed = rs.getInt("computed_bracket");
+                    bracket = rs.wasNull() ? DEFAULT_BRACKET : computed;
+                }
+                byPlayer.put(playerId, new EventEntrant(playerId, names.get(playerId), deckId,
+                        rs.getString("deck_name"), bracket, borrower != null));
+            }
+        }
+
+        List<EventEntrant> entrants = new ArrayList<>(byPlayer.size());
+        for (int playerId : new LinkedHashSet<>(playerIds)) {
+            EventEntrant entrant = byPlayer.get(playerId);
+            if (entrant != null) {
+                entrants.add(entrant);
+            } else {
+                unseated.add(playerId);
+            }
+        }
+        return entrants;
+    }
+
+    // Same formats as Deck.setBracketInfo; 0 when the text names no bracket
+    private static int parseBracket(String bracketInfo) {
+        if (bracketInfo == null) {
+            return 0;
+        }
+        String text = bracketInfo.trim();
+        if (text.startsWith("Bracket ")) {
+            text = text.substring(8).trim();
+        }
+        try {
+            int bracket = Integer.parseInt(text);
+            return bracket >= 1 && bracket <= 5 ? bracket : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Every pair of players who have shared a pod in the event, as PodMatchmaker.pairKey values.
+     */
+    public Set<Long> getPastPairings(int eventId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "SELECT a.player_id, b.player_id FROM event_seat a " +
+                "JOIN event_seat b ON b.event_id = a.event_id AND b.round_no = a.round_no " +
+                "AND b.pod_no = a.pod_no AND b.player_id > a.player_id " +
+                "WHERE a.event_id = ?";
+        Set<Long> pairs = new HashSet<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, eventId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    pairs.add(PodMatchmaker.pairKey(rs.getInt(1), rs.getInt(2)));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Stores the pods as the event's next round and returns its number.
+     */
+    public int saveRound(int eventId, List<Pod> pods) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        try {
+            conn.setAutoCommit(false);
+            int roundNo = 1;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT event_id FROM store_event WHERE event_id = ? FOR UPDATE")) {
+                pstmt.setInt(1, eventId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Event " + eventId + " does not exist");
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT COALESCE(MAX(round_no), 0) + 1 FROM event_round WHERE event_id = ?")) {
+                pstmt.setInt(1, eventId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        roundNo = rs.getInt(1);
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO event_round (event_id, round_no) VALUES (?, ?)")) {
+                pstmt.setInt(1, eventId);
+                pstmt.setInt(2, roundNo);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO event_seat " +
+                    "(event_id, round_no, pod_no, player_id, deck_id, bracket) VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (Pod pod : pods) {
+                    for (EventEntrant seat : pod.getSeats()) {
+                        pstmt.setInt(1, eventId);
+                        pstmt.setInt(2, roundNo);
+                        pstmt.setInt(3, pod.getPodNo());
+                        pstmt.setInt(4, seat.getPlayerId());
+                        pstmt.setInt(5, seat.getDeckId());
+                        pstmt.setInt(6, seat.getBracket());
+                        pstmt.addBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            return roundNo;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Records a pod's result: the winner's seat gets 'Win' and the others 'Loss', or every
+     * seat 'Draw' when winnerPlayerId is null. Returns false if the pod does not exist.
+     */
+    public boolean recordPodResult(int eventId, int roundNo, int podNo, Integer winnerPlayerId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "UPDATE event_seat SET result = CASE WHEN ? IS NULL THEN 'Draw' WHEN player_id = ? THEN 'Win' ELSE 'Loss' END " +
+                "WHERE event_id = ? AND round_no = ? AND pod_no = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (winnerPlayerId != null) {
+                pstmt.setInt(1, winnerPlayerId);
+                pstmt.setInt(2, winnerPlayerId);
+            } else {
+                pstmt.setNull(1, Types.INTEGER);
+                pstmt.setNull(2, Types.INTEGER);
+            }
+            pstmt.setInt(3, eventId);
+            pstmt.setInt(4, roundNo);
+            pstmt.setInt(5, podNo);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package transactions;
+
+import connection.ConnectionPool;
+import entity.GameParticipant;
+import entity.GameResult;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers game results and writes them to game and game_participant in group commits: one
+ * transaction per batch, flushed when batchSize results are waiting or every flush
+ * interval, whichever comes first.
+ *
+ * Game ids come from the client and games are inserted with INSERT IGNORE, so a terminal
+ * can resend a result it is unsure about. Each batch takes a fresh row_version, and the
+ * games that carry it afterwards are the ones this batch actually inserted; only those get
+ * participants and count toward deck_game_stats. If a batch fails, its results are retried
+ * one by one so a single bad result (an unknown deck, say) does not sink the rest.
+ * Participants playing a deck they currently have on loan are linked to the borrow request.
+ */
+public class GameResultLogger implements AutoCloseable {
+
+    public static final int BATCH_SIZE = 200;
+    public static final long FLUSH_INTERVAL_MILLIS = 250;
+    static final int MAX_GAME_ID_LENGTH = 36;
+
+    private static final String INSERT_PARTICIPANT_SQL = "INSERT INTO game_participant " +
+            "(game_id, player_id, deck_id, is_winner, borrow_code) VALUES (?, ?, ?, ?, " +
+            "(SELECT MAX(borrow_code) FROM borrow_request WHERE player_id = ? AND deck_id = ? " +
+            "AND borrow_type = 'Immediate' AND status IN ('Approved', 'Overdue')))";
+    private static final String UPSERT_STATS_SQL = "INSERT INTO deck_game_stats (deck_id, games_played, games_won) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE games_played = games_played + VALUES(games_played), games_won = games_won + VALUES(games_won)";
+
+    private final ConnectionPool pool;
+    private final int batchSize;
+    private final ScheduledExecutorService flusher;
+    private final Object lock = new Object();
+    private List<Pending> buffer = new ArrayList<>();
+    private boolean flushQueued;
+    private boolean closed;
+
+    public GameResultLogger(ConnectionPool pool) {
+        this(pool, BATCH_SIZE, FLUSH_INTERVAL_MILLIS);
+    }
+
+    public GameResultLogger(ConnectionPool pool, int batchSize, long flushIntervalMillis) {
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "game-result-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushBuffer, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a result. The future completes with true once the game is stored, false if a
+     * game with the same id was already stored, or exceptionally if it could not be written.
+     */
+    public CompletableFuture<Boolean> log(GameResult result) {
+        validate(result);
+        CompletableFuture<Boolean> stored = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Game result logger is closed");
+            }
+            buffer.add(new Pending(result, stored));
+            if (buffer.size() >= batchSize && !flushQueued) {
+                flushQueued = true;
+                flusher.execute(this::flushBuffer);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Writes everything queued so far and waits until it is done.
+     */
+    public void flush() throws SQLException {
+        try {
+            flusher.submit(this::flushBuffer).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while flushing game results", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Flushing game results failed", e.getCause());
+        }
+    }
+
+    /**
+     * Flushes what is queued and stops the background flusher.
+     */
+    @Override
+    public void close() throws SQLException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            flusher.shutdown();
+        }
+    }
+
+    private static void validate(GameResult result) {
+        String gameId = result.getGameId();
+        if (gameId == null || gameId.isBlank() || gameId.length() > MAX_GAME_ID_LENGTH) {
+            throw new IllegalArgumentException("game id must be 1 to " + MAX_GAME_ID_LENGTH + " characters");
+        }
+        if (result.getParticipants() == null || result.getParticipants().isEmpty()) {
+            throw new IllegalArgumentException("a game needs at least one participant");
+        }
+        Set<Integer> players = new HashSet<>();
+        int winners = 0;
+        for (GameParticipant participant : result.getParticipants()) {
+            if (!players.add(participant.getPlayerId())) {
+                throw new IllegalArgumentException("player " + participant.getPlayerId() + " appears twice in game " + gameId);
+            }
+            if (participant.isWinner()) {
+                winners++;
+            }
+        }
+        if (winners > 1) {
+            throw new IllegalArgumentException("game " + gameId + " has more than one winner");
+        }
+    }
+
+    // Runs on the flusher thread only, so batches are written one at a time
+    private void flushBuffer() {
+        List<Pending> queued;
+        synchronized (lock) {
+            queued = buffer;
+            buffer = new ArrayList<>();
+            flushQueued = false;
+        }
+        for (int from = 0; from < queued.size(); from += batchSize) {
+            List<Pending> batch = queued.subList(from, Math.min(queued.size(), from + batchSize));
+            try {
+                complete(batch, write(batch));
+            } catch (SQLException | RuntimeException e) {
+                if (batch.size() == 1) {
+                    batch.get(0).stored.completeExceptionally(e);
+                    continue;
+                }
+                for (Pending pending : batch) {
+                    try {
+                        complete(List.of(pending), write(List.of(pending)));
+                    } catch (SQLException | RuntimeException single) {
+                        pending.stored.completeExceptionally(single);
+                    }
+                }
+            }
+        }
+    }
+
+    // A game id sent twice in one batch is only new for its first occurrence
+    private static void complete(List<Pending> batch, Set<String> inserted) {
+        for (Pending pending : batch) {
+            pending.stored.complete(inserted.remove(pending.result.getGameId()));
+        }
+    }
+
+    /**
+     * Writes one batch in a single transaction and returns the ids of the games it inserted.
+     */
+    private Set<String> write(List<Pending> batch) throws SQLException {
+        try (Connection conn = pool.borrow()) {
+            conn.setAutoCommit(false);
+            try {
+                long version = ChangeTracking.nextVersion(conn);
+                try (PreparedStatement pstmt = conn.prepareStatement("INSERT IGNORE INTO game (game_id, played_at, row_version) VALUES (?, ?, ?)")) {
+                    for (Pending pending : batch) {
+                        LocalDateTime playedAt = pending.result.getPlayedAt();
+                        pstmt.setString(1, pending.result.getGameId());
+                        pstmt.setTimestamp(2, Timestamp.valueOf(playedAt != null ? playedAt : LocalDateTime.now()));
+                        pstmt.setLong(3, version);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+
+                Set<String> inserted = new HashSet<>();
+                List<String> gameIds = new ArrayList<>();
+                for (Pending pending : batch) {
+                    gameIds.add(pending.result.getGameId());
+                }
+                String sql = "SELECT game_id FROM game WHERE row_version = ? AND game_id IN (" + SqlLists.placeholders(gameIds.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setLong(1, version);
+                    for (int i = 0; i < gameIds.size(); i++) {
+                        pstmt.setString(i + 2, gameIds.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            inserted.add(rs.getString(1));
+                        }
+                    }
+                }
+
+                // Games played and won per deck, in deck order so concurrent flushes lock rows alike
+                Map<Integer, int[]> stats = new TreeMap<>();
+                Set<String> written = new HashSet<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_PARTICIPANT_SQL)) {
+                    for (Pending pending : batch) {
+                        String gameId = pending.result.getGameId();
+                        if (!inserted.contains(gameId) || !written.add(gameId)) {
+                            continue;
+                        }
+                        for (GameParticipant participant : pending.result.getParticipants()) {
+                            pstmt.setString(1, gameId);
+                            pstmt.setInt(2, participant.getPlayerId());
+                            pstmt.setInt(3, participant.getDeckId());
+                            pstmt.setBoolean(4, participant.isWinner());
+                            pstmt.setInt(5, participant.getPlayerId());
+                            pstmt.setInt(6, participant.getDeckId());
+                            pstmt.addBatch();
+                            int[] deck = stats.computeIfAbsent(participant.getDeckId(), id -> new int[2]);
+                            deck[0]++;
+                            if (participant.isWinner()) {
+                                deck[1]++;
+                            }
+                        }
+                    }
+                    pstmt.executeBatch();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_STATS_SQL)) {
+                    for (Map.Entry<Integer, int[]> entry : stats.entrySet()) {
+                        pstmt.setInt(1, entry.getKey());
+                        pstmt.setInt(2, entry.getValue()[0]);
+                        pstmt.setInt(3, entry.getValue()[1]);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static final class Pending {
+        final GameResult result;
+        final CompletableFuture<Boolean> stored;
+
+        Pending(GameResult result, CompletableFuture<Boolean> stored) {
+            this.result = result;
+            this.stored = stored;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package transactions;
+
+import connection.DatabaseConnection;
+import entity.DeckWinRate;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads over logged games. Per-deck totals come from deck_game_stats, which
+ * GameResultLogger keeps up to date as games are written, so no query here scans game_participant.
+ */
+public class GameTransactions {
+
+    /**
+     * The deck's logged games and wins; zero games if none have been logged.
+     */
+    public DeckWinRate getDeckWinRate(int deckId) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "SELECT d.deck_id, d.deck_name, COALESCE(s.games_played, 0), COALESCE(s.games_won, 0) " +
+                "FROM deck d LEFT JOIN deck_game_stats s ON s.deck_id = d.deck_id WHERE d.deck_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new DeckWinRate(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getInt(4)) : null;
+            }
+        }
+    }
+
+    /**
+     * Win rates of every deck with at least minGames logged games, best first.
+     */
+    public List<DeckWinRate> getDeckWinRates(int minGames) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new SQLException("No database connection available");
+        }
+
+        String sql = "SELECT d.deck_id, d.deck_name, s.games_played, s.games_won FROM deck_game_stats s " +
+                "JOIN deck d ON d.deck_id = s.deck_id WHERE s.games_played >= ? " +
+                "ORDER BY s.games_won / s.games_played DESC, s.games_played DESC, d.deck_id";
+        List<DeckWinRate> rates = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, Math.max(1, minGames));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rates.add(new DeckWinRate(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getInt(4)));
+                }
+            }
+        }
+        return rates;
+    }
+}
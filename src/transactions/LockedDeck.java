@@ -0,0 +1,137 @@
+package transactions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A deck's row and cards as read FOR UPDATE at the start of an edit, and the upkeep of the
+ * deck columns derived from its contents once the edit is written.
+ *
+ * Used by DeckTransactions.applyDeckChanges so that an edit never rereads the deck:
+ * statistics are adjusted by the quantity changes, the content hash by XOR-ing out the old
+ * rows that changed and XOR-ing in the new ones, the salt score and bracket are worked out
+ * from the contents already in memory, and the MinHash signature is only rewritten when
+ * the set of cards changes.
+ */
+final class LockedDeck {
+
+    /**
+     * One state of a deck's card rows.
+     */
+    static final class Contents {
+        final Map<Integer, Integer> quantities;
+        final Set<Integer> commanderRows;    // rows with is_commander set
+        final Set<Integer> gameChangerRows;  // rows with is_game_changer set
+        int commander;                       // deck.commander_card_id, 0 if none
+
+        Contents(Map<Integer, Integer> quantities, Set<Integer> commanderRows, Set<Integer> gameChangerRows, int commander) {
+            this.quantities = quantities;
+            this.commanderRows = commanderRows;
+            this.gameChangerRows = gameChangerRows;
+            this.commander = commander;
+        }
+
+        Contents copy() {
+            return new Contents(new LinkedHashMap<>(quantities), new LinkedHashSet<>(commanderRows),
+                    new LinkedHashSet<>(gameChangerRows), commander);
+        }
+    }
+
+    final int deckId;
+    final Contents before;
+    private final byte[] storedStats;
+    private final Long storedHash;
+
+    private LockedDeck(int deckId, Contents before, byte[] storedStats, Long storedHash) {
+        this.deckId = deckId;
+        this.before = before;
+        this.storedStats = storedStats;
+        this.storedHash = storedHash;
+    }
+
+    /**
+     * Reads and locks the deck row and its card rows until commit. Returns null if the deck
+     * does not exist.
+     */
+    static LockedDeck read(Connection conn, int deckId) throws SQLException {
+        String sql = "SELECT d.commander_card_id, d.stats_summary, d.content_hash, dc.card_id, dc.quantity, dc.is_commander, dc.is_game_changer " +
+                "FROM deck d LEFT JOIN deck_cards dc ON dc.deck_id = d.deck_id " +
+                "WHERE d.deck_id = ? FOR UPDATE";
+        Contents contents = null;
+        byte[] storedStats = null;
+        Long storedHash = null;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, deckId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (contents == null) {
+                        contents = new Contents(new LinkedHashMap<>(), new LinkedHashSet<>(), new LinkedHashSet<>(),
+                                rs.getInt("commander_card_id"));
+                        storedStats = rs.getBytes("stats_summary");
+                        long hash = rs.getLong("content_hash");
+                        storedHash = rs.wasNull() ? null : hash;
+                    }
+                    if (rs.getObject("card_id") != null) {
+                        int cardId = rs.getInt("card_id");
+                        contents.quantities.put(cardId, rs.getInt("quantity"));
+                        if (rs.getBoolean("is_commander")) {
+                            contents.commanderRows.add(cardId);
+                        }
+                        if (rs.getBoolean("is_game_changer")) {
+                            contents.gameChangerRows.add(cardId);
+                        }
+                    }
+                }
+            }
+        }
+        return contents != null ? new LockedDeck(deckId, contents, storedStats, storedHash) : null;
+    }
+
+    /**
+     * Brings the derived columns and the version history in line with the deck's new
+     * contents. Call it in the edit's transaction after the deck_cards rows are written.
+     */
+    void contentsChanged(Connection conn, Contents after, long version) throws SQLException {
+        Map<Integer, Integer> quantityChanges = new LinkedHashMap<>();
+        long contentHash = storedHash != null ? storedHash : 0L;
+        Set<Integer> touched = new LinkedHashSet<>(before.quantities.keySet());
+        touched.addAll(after.quantities.keySet());
+        for (int cardId : touched) {
+            Integer oldQuantity = before.quantities.get(cardId);
+            Integer newQuantity = after.quantities.get(cardId);
+            boolean oldFlag = before.commanderRows.contains(cardId);
+            boolean newFlag = after.commanderRows.contains(cardId);
+            int change = (newQuantity != null ? newQuantity : 0) - (oldQuantity != null ? oldQuantity : 0);
+            if (change != 0) {
+                quantityChanges.put(cardId, change);
+            }
+            if (storedHash != null && (change != 0 || oldFlag != newFlag)) {
+                if (oldQuantity != null) {
+                    contentHash ^= DeckContentHashStore.row(cardId, oldQuantity, oldFlag);
+                }
+                if (newQuantity != null) {
+                    contentHash ^= DeckContentHashStore.row(cardId, newQuantity, newFlag);
+                }
+            }
+        }
+        if (storedHash == null) {
+            contentHash = DeckContentHashStore.hash(after.quantities, after.commanderRows);
+        }
+
+        DeckStatisticsStore.applyChanges(conn, deckId, storedStats, quantityChanges, version);
+        DeckContentHashStore.write(conn, Map.of(deckId, contentHash), version);
+        SaltScoreStore.updateDeck(conn, deckId, after.quantities, version);
+        BracketStore.updateDeck(conn, deckId, after.quantities.keySet(), after.gameChangerRows, version);
+        if (!new HashSet<>(after.quantities.keySet()).equals(before.quantities.keySet())) {
+            DeckSignatureStore.updateDeck(conn, deckId, after.quantities.keySet(), version);
+        }
+        DeckHistoryTransactions.record(conn, deckId, after.quantities, after.commander, version);
+    }
+}
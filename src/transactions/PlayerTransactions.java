@@ -27,29 +27,40 @@ public class PlayerTransactions {
             return -1;
         }
 
-        String sql = "INSERT INTO player (first_name, last_name, city_address, age) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO player (first_name, last_name, city_address, age, row_version) VALUES (?, ?, ?, ?, ?)";
         int generatedId = -1;
         Connection conn = dbConnection.getConnection();
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, player.getFirstName());
-            pstmt.setString(2, player.getLastName());
-            pstmt.setString(3, player.getCityAddress());
-            pstmt.setInt(4, player.getAge());
+                pstmt.setString(1, player.getFirstName());
+                pstmt.setString(2, player.getLastName());
+                pstmt.setString(3, player.getCityAddress());
+                pstmt.setInt(4, player.getAge());
+                pstmt.setLong(5, ChangeTracking.nextVersion(conn));
 
-            int affectedRows = pstmt.executeUpdate();
+                int affectedRows = pstmt.executeUpdate();
 
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        generatedId = rs.getInt(1);
-                        player.setPlayerId(generatedId);
+                if (affectedRows > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            generatedId = rs.getInt(1);
+                        }
                     }
                 }
             }
+            conn.commit();
+            if (generatedId > 0) {
+                player.setPlayerId(generatedId);
+            }
         } catch (SQLException e) {
+            rollback(conn);
+            generatedId = -1;
             System.err.println("Error adding player: " + e.getMessage());
+        } finally {
+            resetAutoCommit(conn);
         }
         return generatedId;
     }
@@ -124,27 +135,37 @@ public class PlayerTransactions {
         Connection conn = dbConnection.getConnection();
         if (!dbConnection.testConnection()) return false;
 
-        String sql = "UPDATE player SET first_name = ?, last_name = ?, city_address = ?, age = ? WHERE player_id = ?";
+        String sql = "UPDATE player SET first_name = ?, last_name = ?, city_address = ?, age = ?, row_version = ? WHERE player_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            conn.setAutoCommit(false);
+            int affectedRows;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, player.getFirstName());
-            pstmt.setString(2, player.getLastName());
-            pstmt.setString(3, player.getCityAddress());
-            pstmt.setInt(4, player.getAge());
-            pstmt.setInt(5, player.getPlayerId());
+                pstmt.setString(1, player.getFirstName());
+                pstmt.setString(2, player.getLastName());
+                pstmt.setString(3, player.getCityAddress());
+                pstmt.setInt(4, player.getAge());
+                pstmt.setLong(5, ChangeTracking.nextVersion(conn));
+                pstmt.setInt(6, player.getPlayerId());
 
-            int affectedRows = pstmt.executeUpdate();
+                affectedRows = pstmt.executeUpdate();
+            }
+            conn.commit();
             return affectedRows > 0;
 
         } catch (SQLException e) {
+            rollback(conn);
             System.err.println("Error updating player: " + e.getMessage());
             return false;
+        } finally {
+            resetAutoCommit(conn);
         }
     }
 
     /**
      * Deletes a Player record by their ID.
+     * The player's decks are removed by the foreign key cascade, so they are tombstoned here too.
      * @param playerId The ID of the player to delete.
      * @return true if the deletion was successful, false otherwise.
      */
@@ -152,18 +173,107 @@ public class PlayerTransactions {
         Connection conn = dbConnection.getConnection();
         if (!dbConnection.testConnection()) return false;
 
+        String cascadeSql = "INSERT INTO change_tombstone (entity_type, entity_key, row_version) " +
+                "SELECT ?, deck_id, ? FROM deck WHERE player_id = ? " +
+                "ON DUPLICATE KEY UPDATE row_version = VALUES(row_version), deleted_at = CURRENT_TIMESTAMP";
+        String cardCascadeSql = "INSERT INTO change_tombstone (entity_type, entity_key, row_version) " +
+                "SELECT ?, CONCAT(dc.deck_id, ':', dc.card_id), ? FROM deck_cards dc JOIN deck d ON d.deck_id = dc.deck_id WHERE d.player_id = ? " +
+                "ON DUPLICATE KEY UPDATE row_version = VALUES(row_version), deleted_at = CURRENT_TIMESTAMP";
         String sql = "DELETE FROM player WHERE player_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            conn.setAutoCommit(false);
+            long version = ChangeTracking.nextVersion(conn);
 
-            pstmt.setInt(1, playerId);
+            try (PreparedStatement pstmt = conn.prepareStatement(cascadeSql)) {
+                pstmt.setString(1, ChangeTracking.DECK);
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, playerId);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(cardCascadeSql)) {
+                pstmt.setString(1, ChangeTracking.DECK_CARD);
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, playerId);
+                pstmt.executeUpdate();
+            }
 
-            int affectedRows = pstmt.executeUpdate();
+            int affectedRows;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, playerId);
+                affectedRows = pstmt.executeUpdate();
+            }
+            if (affectedRows > 0) {
+                ChangeTracking.tombstone(conn, ChangeTracking.PLAYER, String.valueOf(playerId), version);
+            }
+
+            conn.commit();
             return affectedRows > 0;
 
         } catch (SQLException e) {
+            rollback(conn);
             System.err.println("Error deleting player: " + e.getMessage());
             return false;
+        } finally {
+            resetAutoCommit(conn);
+        }
+    }
+
+    /**
+     * Retrieves the players added or updated after the given row version, plus the ids of players deleted since.
+     * @param sinceVersion The last version the caller has already seen.
+     * @return The delta, or an empty change set if the query failed.
+     */
+    public ChangeSet<Player> getPlayerChangesSince(long sinceVersion) {
+        Connection conn = dbConnection.getConnection();
+        if (!dbConnection.testConnection()) {
+            return new ChangeSet<>(sinceVersion, sinceVersion, new ArrayList<>(), new ArrayList<>());
+        }
+
+        String sql = "SELECT player_id, first_name, last_name, city_address, age FROM player " +
+                "WHERE row_version > ? AND row_version <= ? ORDER BY row_version";
+
+        try {
+            long currentVersion = ChangeTracking.currentVersion(conn);
+            List<Player> changed = new ArrayList<>();
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, sinceVersion);
+                pstmt.setLong(2, currentVersion);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Player player = new Player();
+                        player.setPlayerId(rs.getInt("player_id"));
+                        player.setFirstName(rs.getString("first_name"));
+                        player.setLastName(rs.getString("last_name"));
+                        player.setCityAddress(rs.getString("city_address"));
+                        player.setAge(rs.getInt("age"));
+                        changed.add(player);
+                    }
+                }
+            }
+
+            List<String> deleted = ChangeTracking.deletedSince(conn, ChangeTracking.PLAYER, sinceVersion, currentVersion);
+            return new ChangeSet<>(sinceVersion, currentVersion, changed, deleted);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving player changes: " + e.getMessage());
+            return new ChangeSet<>(sinceVersion, sinceVersion, new ArrayList<>(), new ArrayList<>());
+        }
+    }
+
+    private void rollback(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException rollbackEx) {
+            System.err.println("Rollback failed: " + rollbackEx.getMessage());
+        }
+    }
+
+    private void resetAutoCommit(Connection conn) {
+        try {
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error resetting auto-commit: " + e.getMessage());
         }
     }
 
@@ -0,0 +1,130 @@
+package transactions;
+
+import cache.SaltWeights;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps deck.salt_score in step with deck_cards under the current SaltWeights.
+ *
+ * A deck's score is the sum of its cards' weights times their quantities, capped at the
+ * column's 99.99. Writers that change a deck pass its new contents and only that deck is
+ * rescored; until a weight file has been loaded nothing is written.
+ */
+final class SaltScoreStore {
+
+    private static final BigDecimal MAX_SCORE = new BigDecimal("99.99");
+
+    private static volatile SaltWeights weights = SaltWeights.EMPTY;
+
+    private SaltScoreStore() {
+    }
+
+    static SaltWeights getWeights() {
+        return weights;
+    }
+
+    static void setWeights(SaltWeights newWeights) {
+        weights = newWeights;
+    }
+
+    static BigDecimal score(Map<Integer, Integer> contents, SaltWeights current) {
+        double total = 0;
+        for (Map.Entry<Integer, Integer> entry : contents.entrySet()) {
+            total += (double) current.get(entry.getKey()) * entry.getValue();
+        }
+        return toScore(total);
+    }
+
+    /**
+     * Rescores one deck from contents the caller already has in memory.
+     */
+    static void updateDeck(Connection conn, int deckId, Map<Integer, Integer> contents, long version) throws SQLException {
+        SaltWeights current = weights;
+        if (current.isLoaded()) {
+            write(conn, Map.of(deckId, score(contents, current)), version);
+        }
+    }
+
+    /**
+     * Rescores newly written decks from their contents, as one batch.
+     */
+    static void updateDecks(Connection conn, List<Integer> deckIds, List<Map<Integer, Integer>> contents, long version) throws SQLException {
+        SaltWeights current = weights;
+        if (!current.isLoaded()) {
+            return;
+        }
+        Map<Integer, BigDecimal> scores = new LinkedHashMap<>();
+        for (int i = 0; i < deckIds.size(); i++) {
+            scores.put(deckIds.get(i), score(contents.get(i), current));
+        }
+        write(conn, scores, version);
+    }
+
+    /**
+     * Rescores the given decks from deck_cards.
+     */
+    static void recompute(Connection conn, List<Integer> deckIds, long version) throws SQLException {
+        SaltWeights current = weights;
+        if (!current.isLoaded()) {
+            return;
+        }
+        for (List<Integer> chunk : SqlLists.chunks(deckIds)) {
+            write(conn, computeScores(conn, chunk, current), version);
+        }
+    }
+
+    /**
+     * Reads the contents of the given decks (at most one chunk) and scores them. Decks with
+     * no cards score 0.
+     */
+    static Map<Integer, BigDecimal> computeScores(Connection conn, List<Integer> deckIds, SaltWeights current) throws SQLException {
+        Map<Integer, Double> totals = new LinkedHashMap<>();
+        for (int deckId : deckIds) {
+            totals.put(deckId, 0.0);
+        }
+        String sql = "SELECT deck_id, card_id, quantity FROM deck_cards WHERE deck_id IN (" + SqlLists.placeholders(deckIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            SqlLists.bindInts(pstmt, 1, deckIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.merge(rs.getInt(1), (double) current.get(rs.getInt(2)) * rs.getInt(3), Double::sum);
+                }
+            }
+        }
+
+        Map<Integer, BigDecimal> scores = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Double> entry : totals.entrySet()) {
+            scores.put(entry.getKey(), toScore(entry.getValue()));
+        }
+        return scores;
+    }
+
+    private static BigDecimal toScore(double total) {
+        BigDecimal score = BigDecimal.valueOf(total).setScale(2, RoundingMode.HALF_UP);
+        return score.compareTo(MAX_SCORE) > 0 ? MAX_SCORE : score;
+    }
+
+    static void write(Connection conn, Map<Integer, BigDecimal> scores, long version) throws SQLException {
+        if (scores.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE deck SET salt_score = ?, row_version = ? WHERE deck_id = ?")) {
+            for (Map.Entry<Integer, BigDecimal> entry : scores.entrySet()) {
+                pstmt.setBigDecimal(1, entry.getValue());
+                pstmt.setLong(2, version);
+                pstmt.setInt(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package transactions;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for binding id lists into "IN (?, ?, ...)" clauses.
+ */
+final class SqlLists {
+
+    // Keeps statements well under max_allowed_packet and the 65,535 placeholder limit
+    static final int CHUNK_SIZE = 500;
+
+    private SqlLists() {
+    }
+
+    /**
+     * Returns "?, ?, ..., ?" with n placeholders.
+     */
+    static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder(n * 3);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Binds the ids starting at the given parameter index and returns the next free index.
+     */
+    static int bindInts(PreparedStatement pstmt, int startIndex, List<Integer> ids) throws SQLException {
+        int index = startIndex;
+        for (int id : ids) {
+            pstmt.setInt(index++, id);
+        }
+        return index;
+    }
+
+    /**
+     * Splits a list into consecutive chunks of at most CHUNK_SIZE elements.
+     */
+    static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += CHUNK_SIZE) {
+            chunks.add(values.subList(i, Math.min(values.size(), i + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}